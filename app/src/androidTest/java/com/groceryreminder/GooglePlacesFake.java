@@ -1,5 +1,12 @@
 package com.groceryreminder;
 
+import org.apache.http.client.methods.HttpPost;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
@@ -16,9 +23,11 @@ import se.walkercrou.places.exception.GooglePlacesException;
 public class GooglePlacesFake implements GooglePlacesInterface {
 
     protected List<Place> placesResponse;
+    private RequestHandler requestHandler;
 
     public GooglePlacesFake() {
         placesResponse = new ArrayList<Place>();
+        requestHandler = new PlacesResponseRequestHandler();
     }
 
     public void setPlacesResponse(List<Place> places) {
@@ -47,12 +56,12 @@ public class GooglePlacesFake implements GooglePlacesInterface {
 
     @Override
     public RequestHandler getRequestHandler() {
-        return null;
+        return requestHandler;
     }
 
     @Override
     public void setRequestHandler(RequestHandler requestHandler) {
-
+        this.requestHandler = requestHandler;
     }
 
     @Override
@@ -154,4 +163,53 @@ public class GooglePlacesFake implements GooglePlacesInterface {
     public List<Prediction> getQueryPredictions(String s, Param... params) {
         return null;
     }
+
+    //The search pipeline requests nearby search pages itself, so the fake answers every request with placesResponse as a single page
+    private class PlacesResponseRequestHandler implements RequestHandler {
+
+        private String characterEncoding = "UTF-8";
+
+        @Override
+        public String getCharacterEncoding() {
+            return characterEncoding;
+        }
+
+        @Override
+        public void setCharacterEncoding(String characterEncoding) {
+            this.characterEncoding = characterEncoding;
+        }
+
+        @Override
+        public InputStream getInputStream(String uri) throws IOException {
+            return new ByteArrayInputStream(get(uri).getBytes(characterEncoding));
+        }
+
+        @Override
+        public String get(String uri) throws IOException {
+            try {
+                JSONArray results = new JSONArray();
+                for (Place place : placesResponse) {
+                    JSONObject location = new JSONObject()
+                            .put(DOUBLE_LATITUDE, place.getLatitude())
+                            .put(DOUBLE_LONGITUDE, place.getLongitude());
+                    results.put(new JSONObject()
+                            .put(STRING_PLACE_ID, place.getPlaceId())
+                            .put(STRING_NAME, place.getName())
+                            .put(OBJECT_GEOMETRY, new JSONObject().put(OBJECT_LOCATION, location)));
+                }
+
+                return new JSONObject()
+                        .put(STRING_STATUS, results.length() == 0 ? STATUS_ZERO_RESULTS : STATUS_OK)
+                        .put(ARRAY_RESULTS, results)
+                        .toString();
+            } catch (JSONException e) {
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public String post(HttpPost httpPost) throws IOException {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,82 @@
+package com.groceryreminder.data;
+
+import android.content.ContentProvider;
+import android.content.ContentValues;
+import android.content.UriMatcher;
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.net.Uri;
+
+import com.groceryreminder.core.LatencyHistogram;
+import com.groceryreminder.core.MetricsRegistry;
+
+import java.util.Map;
+
+//Only packaged in debug builds, one row per counter or latency histogram with latencies in microseconds
+public class MetricsContentProvider extends ContentProvider {
+
+    private static final int METRICS = 1;
+    private static final UriMatcher URI_MATCHER;
+
+    static {
+        URI_MATCHER = new UriMatcher(UriMatcher.NO_MATCH);
+        URI_MATCHER.addURI(ReminderContract.METRICS_AUTHORITY, "metrics", METRICS);
+    }
+
+    @Override
+    public boolean onCreate() {
+        return true;
+    }
+
+    @Override
+    public Cursor query(Uri uri, String[] projection, String selection, String[] selectionArgs, String sortOrder) {
+        if (URI_MATCHER.match(uri) != METRICS) {
+            throw new IllegalArgumentException("Unknown URI " + uri);
+        }
+
+        return buildMetricsCursor(MetricsRegistry.getInstance());
+    }
+
+    private Cursor buildMetricsCursor(MetricsRegistry metricsRegistry) {
+        MatrixCursor cursor = new MatrixCursor(ReminderContract.Metrics.PROJECT_ALL);
+        for (Map.Entry<String, Long> counter : metricsRegistry.snapshotCounters().entrySet()) {
+            cursor.addRow(new Object[] {counter.getKey(), ReminderContract.Metrics.TYPE_COUNTER, counter.getValue(), null, null, null, null, null});
+        }
+
+        for (Map.Entry<String, LatencyHistogram.Snapshot> histogram : metricsRegistry.snapshotHistograms().entrySet()) {
+            LatencyHistogram.Snapshot snapshot = histogram.getValue();
+            cursor.addRow(new Object[] {histogram.getKey(), ReminderContract.Metrics.TYPE_HISTOGRAM, snapshot.getCount(),
+                    toMicros(snapshot.getMean()),
+                    toMicros(snapshot.getValueAtPercentile(50)),
+                    toMicros(snapshot.getValueAtPercentile(90)),
+                    toMicros(snapshot.getValueAtPercentile(99)),
+                    toMicros(snapshot.getMax())});
+        }
+
+        return cursor;
+    }
+
+    private static long toMicros(long nanos) {
+        return nanos / 1000;
+    }
+
+    @Override
+    public String getType(Uri uri) {
+        return null;
+    }
+
+    @Override
+    public Uri insert(Uri uri, ContentValues values) {
+        throw new UnsupportedOperationException("Metrics are read only");
+    }
+
+    @Override
+    public int delete(Uri uri, String selection, String[] selectionArgs) {
+        throw new UnsupportedOperationException("Metrics are read only");
+    }
+
+    @Override
+    public int update(Uri uri, ContentValues values, String selection, String[] selectionArgs) {
+        throw new UnsupportedOperationException("Metrics are read only");
+    }
+}
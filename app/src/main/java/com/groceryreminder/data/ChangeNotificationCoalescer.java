@@ -0,0 +1,116 @@
+package com.groceryreminder.data;
+
+import android.content.ContentResolver;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.groceryreminder.logging.Logger;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class ChangeNotificationCoalescer {
+
+    public static final long COALESCE_WINDOW_MILLIS = 250;
+    private static final String TAG = "NotificationCoalescer";
+
+    private final ContentResolver contentResolver;
+    private final Handler handler;
+    private final long windowMillis;
+    private final Map<String, Window> openWindows = new HashMap<String, Window>();
+    private long suppressedNotificationCount;
+
+    public ChangeNotificationCoalescer(ContentResolver contentResolver) {
+        this(contentResolver, new Handler(Looper.getMainLooper()), COALESCE_WINDOW_MILLIS);
+    }
+
+    public ChangeNotificationCoalescer(ContentResolver contentResolver, Handler handler, long windowMillis) {
+        this.contentResolver = contentResolver;
+        this.handler = handler;
+        this.windowMillis = windowMillis;
+    }
+
+    public void notifyChange(Uri uri, Uri collapsedUri) {
+        synchronized (this) {
+            String authority = uri.getAuthority();
+            Window window = openWindows.get(authority);
+            if (window != null) {
+                window.merge(uri, collapsedUri);
+                return;
+            }
+
+            openWindow(authority);
+        }
+
+        contentResolver.notifyChange(uri, null);
+    }
+
+    public void notifyChangeNow(Uri uri, Uri collapsedUri) {
+        Uri notificationUri = uri;
+        synchronized (this) {
+            Window window = openWindows.get(uri.getAuthority());
+            if (window == null) {
+                openWindow(uri.getAuthority());
+            } else if (window.pendingUri != null) {
+                window.merge(uri, collapsedUri);
+                notificationUri = window.pendingUri;
+                window.pendingUri = null;
+            }
+        }
+
+        contentResolver.notifyChange(notificationUri, null);
+    }
+
+    public synchronized long getSuppressedNotificationCount() {
+        return suppressedNotificationCount;
+    }
+
+    private void openWindow(String authority) {
+        Window window = new Window(authority);
+        openWindows.put(authority, window);
+        handler.postDelayed(window, windowMillis);
+    }
+
+    private class Window implements Runnable {
+
+        private final String authority;
+        private Uri pendingUri;
+
+        private Window(String authority) {
+            this.authority = authority;
+        }
+
+        private void merge(Uri uri, Uri collapsedUri) {
+            if (pendingUri == null) {
+                pendingUri = uri;
+                return;
+            }
+
+            suppressedNotificationCount++;
+            if (!pendingUri.equals(uri)) {
+                pendingUri = collapsedUri;
+            }
+        }
+
+        @Override
+        public void run() {
+            Uri notificationUri;
+            synchronized (ChangeNotificationCoalescer.this) {
+                openWindows.remove(authority);
+                notificationUri = pendingUri;
+                if (notificationUri != null) {
+                    //Keep throttling while changes are still arriving
+                    openWindow(authority);
+                }
+            }
+
+            if (notificationUri != null) {
+                if (Logger.DEBUG) {
+                    Logger.d(TAG, "Flushing coalesced change for {}, suppressed so far: {}", notificationUri, getSuppressedNotificationCount());
+                }
+                contentResolver.notifyChange(notificationUri, null);
+            }
+        }
+    }
+}
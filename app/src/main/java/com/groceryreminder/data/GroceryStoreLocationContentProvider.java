@@ -1,18 +1,21 @@
 package com.groceryreminder.data;
 
-import android.content.ContentProvider;
 import android.content.ContentUris;
 import android.content.ContentValues;
 import android.content.UriMatcher;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteQueryBuilder;
+import android.database.sqlite.SQLiteStatement;
 import android.net.Uri;
 
-public class GroceryStoreLocationContentProvider extends ContentProvider {
+import com.groceryreminder.core.GeoDistance;
+
+public class GroceryStoreLocationContentProvider extends ReminderBaseContentProvider {
 
     private static final int LOCATION_LIST = 1;
     private static final int LOCATION_ITEM_ID = 2;
+    private static final int LOCATION_NEARBY = 3;
     private static final UriMatcher URI_MATCHER;
     private static final String LOCATIONS_URI_LIST_PATH = "locations";
 
@@ -20,29 +23,103 @@ public class GroceryStoreLocationContentProvider extends ContentProvider {
         URI_MATCHER = new UriMatcher(UriMatcher.NO_MATCH);
         URI_MATCHER.addURI(ReminderContract.REMINDER_LOCATION_AUTHORITY, LOCATIONS_URI_LIST_PATH, LOCATION_LIST);
         URI_MATCHER.addURI(ReminderContract.REMINDER_LOCATION_AUTHORITY, "locations/#", LOCATION_ITEM_ID);
+        URI_MATCHER.addURI(ReminderContract.REMINDER_LOCATION_AUTHORITY, "locations/nearby", LOCATION_NEARBY);
     }
 
     private ReminderDBHelper reminderDBHelper;
+    private GroceryStoreLocationIndex storeLocationIndex;
+
+    public GroceryStoreLocationContentProvider() {
+        super("locations");
+    }
 
     @Override
     public boolean onCreate() {
         reminderDBHelper = new ReminderDBHelper(getContext());
+        storeLocationIndex = GroceryStoreLocationIndex.getInstance();
+        storeLocationIndex.invalidate();
         return true;
     }
 
     @Override
     public Cursor query(Uri uri, String[] projection, String selection, String[] selectionArgs, String sortOrder) {
+        long startTime = System.nanoTime();
         SQLiteQueryBuilder queryBuilder = new SQLiteQueryBuilder();
 
         queryBuilder.setTables(DBSchema.LOCATIONS);
+        if (URI_MATCHER.match(uri) == LOCATION_NEARBY) {
+            selection = buildNearbySelection(selection);
+            selectionArgs = buildNearbySelectionArgs(uri, selectionArgs);
+        }
         Cursor cursor = queryBuilder.query(reminderDBHelper.getReadableDatabase(), projection, selection, selectionArgs, null, null, sortOrder);
 
         //Cannot currently test-drive this line: minSdk must be 19, currently set to 15
         cursor.setNotificationUri(getContext().getContentResolver(), ReminderContract.Locations.CONTENT_URI);
+        queryLatency.recordSince(startTime);
 
         return cursor;
     }
 
+    private String buildNearbySelection(String selection) {
+        String boundingBoxSelection = "(" + ReminderContract.Locations.LATITUDE + " BETWEEN ? AND ?) AND (" +
+                ReminderContract.Locations.LONGITUDE + " BETWEEN ? AND ? OR " +
+                ReminderContract.Locations.LONGITUDE + " BETWEEN ? AND ?)";
+        if (selection == null || selection.isEmpty()) {
+            return boundingBoxSelection;
+        }
+
+        return boundingBoxSelection + " AND (" + selection + ")";
+    }
+
+    private String[] buildNearbySelectionArgs(Uri uri, String[] selectionArgs) {
+        double latitude = getDoubleQueryParameter(uri, ReminderContract.Locations.NEARBY_LATITUDE_PARAMETER);
+        double longitude = getDoubleQueryParameter(uri, ReminderContract.Locations.NEARBY_LONGITUDE_PARAMETER);
+        double radius = getDoubleQueryParameter(uri, ReminderContract.Locations.NEARBY_RADIUS_PARAMETER);
+
+        double latitudeSpan = GeoDistance.latitudeSpan(radius);
+        double longitudeSpan = GeoDistance.longitudeSpan(latitude, radius);
+        double minLongitude = longitude - longitudeSpan;
+        double maxLongitude = longitude + longitudeSpan;
+
+        //The second longitude range only matches when the box wraps around the antimeridian
+        double wrappedMinLongitude = 1;
+        double wrappedMaxLongitude = 0;
+        if (minLongitude < -180) {
+            wrappedMinLongitude = minLongitude + 360;
+            wrappedMaxLongitude = 180;
+        } else if (maxLongitude > 180) {
+            wrappedMinLongitude = -180;
+            wrappedMaxLongitude = maxLongitude - 360;
+        }
+
+        String[] boundingBoxArgs = new String[] {
+                String.valueOf(latitude - latitudeSpan),
+                String.valueOf(latitude + latitudeSpan),
+                String.valueOf(minLongitude),
+                String.valueOf(maxLongitude),
+                String.valueOf(wrappedMinLongitude),
+                String.valueOf(wrappedMaxLongitude)
+        };
+        if (selectionArgs == null) {
+            return boundingBoxArgs;
+        }
+
+        String[] combinedArgs = new String[boundingBoxArgs.length + selectionArgs.length];
+        System.arraycopy(boundingBoxArgs, 0, combinedArgs, 0, boundingBoxArgs.length);
+        System.arraycopy(selectionArgs, 0, combinedArgs, boundingBoxArgs.length, selectionArgs.length);
+
+        return combinedArgs;
+    }
+
+    private double getDoubleQueryParameter(Uri uri, String parameter) {
+        String value = uri.getQueryParameter(parameter);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing query parameter " + parameter + " in " + uri);
+        }
+
+        return Double.parseDouble(value);
+    }
+
     @Override
     public String getType(Uri uri) {
         return null;
@@ -50,17 +127,28 @@ public class GroceryStoreLocationContentProvider extends ContentProvider {
 
     @Override
     public Uri insert(Uri uri, ContentValues values) {
-        SQLiteDatabase writableDatabase = reminderDBHelper.getWritableDatabase();
-        long id = writableDatabase.insertWithOnConflict(DBSchema.LOCATIONS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+        long startTime = System.nanoTime();
+        long id;
+        if (isInBatch()) {
+            id = insertRow(values);
+        } else {
+            SQLiteDatabase writableDatabase = reminderDBHelper.getWritableDatabase();
+            id = writableDatabase.insertWithOnConflict(DBSchema.LOCATIONS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+        }
+        if (id != -1) {
+            storeLocationIndex.put(id, values);
+        }
 
         Uri insertedUri = ContentUris.withAppendedId(uri, id);
-        getContext().getContentResolver().notifyChange(insertedUri, null);
+        notifyChange(insertedUri);
+        insertLatency.recordSince(startTime);
 
         return insertedUri;
     }
 
     @Override
     public int delete(Uri uri, String selection, String[] selectionArgs) {
+        long startTime = System.nanoTime();
         SQLiteDatabase writableDatabase = reminderDBHelper.getWritableDatabase();
         int deletedCount = 0;
 
@@ -68,6 +156,9 @@ public class GroceryStoreLocationContentProvider extends ContentProvider {
         {
             case LOCATION_LIST:
                 deletedCount = writableDatabase.delete(DBSchema.LOCATIONS, selection, selectionArgs);
+                if (deletedCount > 0) {
+                    storeLocationIndex.invalidate();
+                }
                 break;
 
             case LOCATION_ITEM_ID:
@@ -75,17 +166,53 @@ public class GroceryStoreLocationContentProvider extends ContentProvider {
                 String whereClause = ReminderContract.Locations._ID + " = " + id;
 
                 deletedCount = writableDatabase.delete(DBSchema.LOCATIONS, whereClause, selectionArgs);
+                if (deletedCount > 0) {
+                    storeLocationIndex.remove(Long.parseLong(id));
+                }
                 break;
         }
 
         if (deletedCount > 0) {
-            getContext().getContentResolver().notifyChange(uri, null);
+            notifyChange(uri);
         }
-
+        deleteLatency.recordSince(startTime);
 
         return deletedCount;
     }
 
+    @Override
+    protected SQLiteDatabase getWritableDatabase() {
+        return reminderDBHelper.getWritableDatabase();
+    }
+
+    @Override
+    protected Uri getContentUri() {
+        return ReminderContract.Locations.CONTENT_URI;
+    }
+
+    @Override
+    protected SQLiteStatement compileInsertStatement(SQLiteDatabase database) {
+        return database.compileStatement("INSERT OR REPLACE INTO " + DBSchema.LOCATIONS + " (" +
+                ReminderContract.Locations.NAME + ", " +
+                ReminderContract.Locations.PLACES_ID + ", " +
+                ReminderContract.Locations.LATITUDE + ", " +
+                ReminderContract.Locations.LONGITUDE +
+                ") VALUES (?, ?, ?, ?)");
+    }
+
+    @Override
+    protected void bindInsertStatement(SQLiteStatement statement, ContentValues values) {
+        bindValue(statement, 1, values.get(ReminderContract.Locations.NAME));
+        bindValue(statement, 2, values.get(ReminderContract.Locations.PLACES_ID));
+        bindValue(statement, 3, values.get(ReminderContract.Locations.LATITUDE));
+        bindValue(statement, 4, values.get(ReminderContract.Locations.LONGITUDE));
+    }
+
+    @Override
+    protected void onBatchRolledBack() {
+        storeLocationIndex.invalidate();
+    }
+
     @Override
     public int update(Uri uri, ContentValues values, String selection, String[] selectionArgs) {
         return 0;
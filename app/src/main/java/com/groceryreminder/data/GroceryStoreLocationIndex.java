@@ -0,0 +1,164 @@
+package com.groceryreminder.data;
+
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.database.Cursor;
+
+import java.util.List;
+
+public class GroceryStoreLocationIndex {
+
+    private static GroceryStoreLocationIndex instance;
+
+    private final StoreGrid grid = new StoreGrid();
+    private boolean loaded;
+    //Bumped by every change to the table, so a load that raced a change can tell its rows are stale
+    private int generation;
+    private StoreSnapshot snapshot;
+
+    GroceryStoreLocationIndex() {
+    }
+
+    public static synchronized GroceryStoreLocationIndex getInstance() {
+        if (instance == null) {
+            instance = new GroceryStoreLocationIndex();
+        }
+
+        return instance;
+    }
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    public synchronized int size() {
+        return grid.size();
+    }
+
+    //Queries outside the monitor, since the provider updates the index from inside its transactions and would otherwise deadlock with a load waiting on the database
+    public void loadIfNeeded(ContentResolver contentResolver) {
+        while (true) {
+            int loadGeneration;
+            synchronized (this) {
+                if (loaded) {
+                    return;
+                }
+                loadGeneration = generation;
+            }
+
+            Cursor cursor = contentResolver.query(ReminderContract.Locations.CONTENT_URI, ReminderContract.Locations.PROJECT_ALL, null, null, ReminderContract.Locations.SORT_ORDER_DEFAULT);
+            try {
+                if (load(cursor, loadGeneration)) {
+                    return;
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+    }
+
+    //Rebuilt lazily after the locations table changes, and shared by every reader until the next change
+    public synchronized StoreSnapshot getSnapshot() {
+        if (snapshot == null) {
+            snapshot = StoreSnapshot.build(grid.getEntries());
+        }
+
+        return snapshot;
+    }
+
+    public StoreSnapshot getSnapshot(ContentResolver contentResolver) {
+        loadIfNeeded(contentResolver);
+
+        return getSnapshot();
+    }
+
+    //Keeps the index as it is if the table changed after the cursor was queried, so the caller queries again
+    private synchronized boolean load(Cursor cursor, int loadGeneration) {
+        if (loaded) {
+            return true;
+        }
+        if (generation != loadGeneration) {
+            return false;
+        }
+
+        load(cursor);
+        return true;
+    }
+
+    public synchronized void load(Cursor cursor) {
+        clear();
+        int idIndex = cursor.getColumnIndex(ReminderContract.Locations._ID);
+        int placesIdIndex = cursor.getColumnIndex(ReminderContract.Locations.PLACES_ID);
+        int nameIndex = cursor.getColumnIndex(ReminderContract.Locations.NAME);
+        int latitudeIndex = cursor.getColumnIndex(ReminderContract.Locations.LATITUDE);
+        int longitudeIndex = cursor.getColumnIndex(ReminderContract.Locations.LONGITUDE);
+        while (cursor.moveToNext()) {
+            add(new StoreEntry(cursor.getLong(idIndex),
+                    cursor.getString(placesIdIndex),
+                    cursor.getString(nameIndex),
+                    cursor.getDouble(latitudeIndex),
+                    cursor.getDouble(longitudeIndex)));
+        }
+        loaded = true;
+    }
+
+    public synchronized void put(long id, ContentValues values) {
+        generation++;
+        if (!loaded) {
+            return;
+        }
+
+        String placesId = values.getAsString(ReminderContract.Locations.PLACES_ID);
+        StoreEntry replaced = placesId == null ? null : grid.getByPlacesId(placesId);
+        if (replaced != null) {
+            remove(replaced.getId());
+        }
+
+        add(new StoreEntry(id,
+                placesId,
+                values.getAsString(ReminderContract.Locations.NAME),
+                asCoordinate(values, ReminderContract.Locations.LATITUDE),
+                asCoordinate(values, ReminderContract.Locations.LONGITUDE)));
+    }
+
+    public synchronized void remove(long id) {
+        generation++;
+        if (grid.remove(id) != null) {
+            snapshot = null;
+        }
+    }
+
+    public synchronized void invalidate() {
+        generation++;
+        clear();
+        loaded = false;
+    }
+
+    public synchronized List<StoreEntry> findWithinBounds(double latitude, double longitude, double radiusInMeters) {
+        return grid.findWithinBounds(latitude, longitude, radiusInMeters);
+    }
+
+    public synchronized List<StoreEntry> findOutsideBounds(double latitude, double longitude, double radiusInMeters) {
+        return grid.findOutsideBounds(latitude, longitude, radiusInMeters);
+    }
+
+    public synchronized void partitionByRadius(double latitude, double longitude, double radiusInMeters, List<StoreEntry> within, List<StoreEntry> outside) {
+        grid.partitionByRadius(latitude, longitude, radiusInMeters, within, outside);
+    }
+
+    private void add(StoreEntry entry) {
+        snapshot = null;
+        grid.add(entry);
+    }
+
+    private void clear() {
+        snapshot = null;
+        grid.clear();
+    }
+
+    private static double asCoordinate(ContentValues values, String key) {
+        //Mirror SQLite, which reads a non-numeric coordinate back as 0
+        Double coordinate = values.getAsDouble(key);
+        return coordinate == null ? 0 : coordinate;
+    }
+}
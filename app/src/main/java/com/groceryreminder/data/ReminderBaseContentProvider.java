@@ -0,0 +1,168 @@
+package com.groceryreminder.data;
+
+import android.content.ContentProvider;
+import android.content.ContentProviderOperation;
+import android.content.ContentProviderResult;
+import android.content.ContentValues;
+import android.content.OperationApplicationException;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.net.Uri;
+
+import com.groceryreminder.core.LatencyHistogram;
+import com.groceryreminder.core.MetricsRegistry;
+
+import java.util.ArrayList;
+
+public abstract class ReminderBaseContentProvider extends ContentProvider {
+
+    private final ThreadLocal<Batch> currentBatch = new ThreadLocal<Batch>();
+    private ChangeNotificationCoalescer notificationCoalescer;
+    protected final LatencyHistogram queryLatency;
+    protected final LatencyHistogram insertLatency;
+    protected final LatencyHistogram deleteLatency;
+    private final LatencyHistogram bulkInsertLatency;
+    private final LatencyHistogram applyBatchLatency;
+
+    protected ReminderBaseContentProvider(String metricsName) {
+        MetricsRegistry metricsRegistry = MetricsRegistry.getInstance();
+        this.queryLatency = metricsRegistry.histogram(metricsName + "_provider.query");
+        this.insertLatency = metricsRegistry.histogram(metricsName + "_provider.insert");
+        this.deleteLatency = metricsRegistry.histogram(metricsName + "_provider.delete");
+        this.bulkInsertLatency = metricsRegistry.histogram(metricsName + "_provider.bulk_insert");
+        this.applyBatchLatency = metricsRegistry.histogram(metricsName + "_provider.apply_batch");
+    }
+
+    protected abstract SQLiteDatabase getWritableDatabase();
+
+    protected abstract Uri getContentUri();
+
+    protected abstract SQLiteStatement compileInsertStatement(SQLiteDatabase database);
+
+    protected abstract void bindInsertStatement(SQLiteStatement statement, ContentValues values);
+
+    protected void onBatchRolledBack() {
+    }
+
+    @Override
+    public ContentProviderResult[] applyBatch(ArrayList<ContentProviderOperation> operations) throws OperationApplicationException {
+        if (currentBatch.get() != null) {
+            return super.applyBatch(operations);
+        }
+
+        long startTime = System.nanoTime();
+        Batch batch = beginBatch();
+        try {
+            ContentProviderResult[] results = super.applyBatch(operations);
+            batch.successful = true;
+            return results;
+        } finally {
+            endBatch(batch);
+            applyBatchLatency.recordSince(startTime);
+        }
+    }
+
+    @Override
+    public int bulkInsert(Uri uri, ContentValues[] values) {
+        if (currentBatch.get() != null) {
+            return super.bulkInsert(uri, values);
+        }
+
+        long startTime = System.nanoTime();
+        Batch batch = beginBatch();
+        try {
+            for (ContentValues value : values) {
+                insert(uri, value);
+            }
+            batch.successful = true;
+            return values.length;
+        } finally {
+            endBatch(batch);
+            bulkInsertLatency.recordSince(startTime);
+        }
+    }
+
+    protected boolean isInBatch() {
+        return currentBatch.get() != null;
+    }
+
+    protected long insertRow(ContentValues values) {
+        Batch batch = currentBatch.get();
+        if (batch.insertStatement == null) {
+            batch.insertStatement = compileInsertStatement(batch.database);
+        }
+
+        batch.insertStatement.clearBindings();
+        bindInsertStatement(batch.insertStatement, values);
+
+        return batch.insertStatement.executeInsert();
+    }
+
+    protected void notifyChange(Uri uri) {
+        Batch batch = currentBatch.get();
+        if (batch != null) {
+            batch.changed = true;
+            return;
+        }
+
+        getNotificationCoalescer().notifyChange(uri, getContentUri());
+    }
+
+    public synchronized ChangeNotificationCoalescer getNotificationCoalescer() {
+        if (notificationCoalescer == null) {
+            notificationCoalescer = new ChangeNotificationCoalescer(getContext().getContentResolver());
+        }
+
+        return notificationCoalescer;
+    }
+
+    protected static void bindValue(SQLiteStatement statement, int index, Object value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else if (value instanceof Double || value instanceof Float) {
+            statement.bindDouble(index, ((Number) value).doubleValue());
+        } else if (value instanceof Number) {
+            statement.bindLong(index, ((Number) value).longValue());
+        } else {
+            statement.bindString(index, value.toString());
+        }
+    }
+
+    private Batch beginBatch() {
+        Batch batch = new Batch(getWritableDatabase());
+        batch.database.beginTransaction();
+        currentBatch.set(batch);
+
+        return batch;
+    }
+
+    private void endBatch(Batch batch) {
+        currentBatch.remove();
+        if (batch.insertStatement != null) {
+            batch.insertStatement.close();
+        }
+
+        if (batch.successful) {
+            batch.database.setTransactionSuccessful();
+        }
+        batch.database.endTransaction();
+
+        if (!batch.successful) {
+            onBatchRolledBack();
+        } else if (batch.changed) {
+            getNotificationCoalescer().notifyChangeNow(getContentUri(), getContentUri());
+        }
+    }
+
+    private static class Batch {
+
+        private final SQLiteDatabase database;
+        private SQLiteStatement insertStatement;
+        private boolean changed;
+        private boolean successful;
+
+        private Batch(SQLiteDatabase database) {
+            this.database = database;
+        }
+    }
+}
@@ -1,15 +1,15 @@
 package com.groceryreminder.data;
 
-import android.content.ContentProvider;
 import android.content.ContentUris;
 import android.content.ContentValues;
 import android.content.UriMatcher;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteQueryBuilder;
+import android.database.sqlite.SQLiteStatement;
 import android.net.Uri;
 
-public class ReminderContentProvider  extends ContentProvider{
+public class ReminderContentProvider extends ReminderBaseContentProvider {
     private ReminderDBHelper reminderDBHelper;
 
     private static final int REMINDER_LIST = 1;
@@ -23,6 +23,10 @@ public class ReminderContentProvider  extends ContentProvider{
         URI_MATCHER.addURI(ReminderContract.REMINDER_AUTHORITY, "reminders/#", REMINDER_ITEM_ID);
     }
 
+    public ReminderContentProvider() {
+        super("reminders");
+    }
+
     @Override
     public boolean onCreate() {
         reminderDBHelper = new ReminderDBHelper(getContext());
@@ -31,6 +35,8 @@ public class ReminderContentProvider  extends ContentProvider{
 
     @Override
     public Cursor query(Uri uri, String[] projection, String selection, String[] selectionArgs, String sortOrder) {
+        requireMatch(uri);
+        long startTime = System.nanoTime();
         SQLiteQueryBuilder queryBuilder = new SQLiteQueryBuilder();
 
         queryBuilder.setTables(DBSchema.REMINDERS);
@@ -38,10 +44,20 @@ public class ReminderContentProvider  extends ContentProvider{
 
         //Cannot currently test-drive this line: minSdk must be 19, currently set to 15
         cursor.setNotificationUri(getContext().getContentResolver(), ReminderContract.Reminders.CONTENT_URI);
+        queryLatency.recordSince(startTime);
 
         return cursor;
     }
 
+    private static int requireMatch(Uri uri) {
+        int match = URI_MATCHER.match(uri);
+        if (match == UriMatcher.NO_MATCH) {
+            throw new IllegalArgumentException("Unknown URI " + uri);
+        }
+
+        return match;
+    }
+
     @Override
     public String getType(Uri uri) {
         return null;
@@ -49,21 +65,30 @@ public class ReminderContentProvider  extends ContentProvider{
 
     @Override
     public Uri insert(Uri uri, ContentValues values) {
-        SQLiteDatabase writableDatabase = reminderDBHelper.getWritableDatabase();
-        long id = writableDatabase.insertWithOnConflict(DBSchema.REMINDERS, null, values, SQLiteDatabase.CONFLICT_NONE);
+        requireMatch(uri);
+        long startTime = System.nanoTime();
+        long id;
+        if (isInBatch()) {
+            id = insertRow(values);
+        } else {
+            SQLiteDatabase writableDatabase = reminderDBHelper.getWritableDatabase();
+            id = writableDatabase.insertWithOnConflict(DBSchema.REMINDERS, null, values, SQLiteDatabase.CONFLICT_NONE);
+        }
 
         Uri insertedUri = ContentUris.withAppendedId(uri, id);
-        getContext().getContentResolver().notifyChange(insertedUri, null);
+        notifyChange(insertedUri);
+        insertLatency.recordSince(startTime);
 
         return insertedUri;
     }
 
     @Override
     public int delete(Uri uri, String selection, String[] selectionArgs) {
+        long startTime = System.nanoTime();
         SQLiteDatabase writableDatabase = reminderDBHelper.getWritableDatabase();
         int deletedCount = 0;
 
-        switch(URI_MATCHER.match(uri))
+        switch(requireMatch(uri))
         {
             case REMINDER_LIST:
                 deletedCount = writableDatabase.delete(DBSchema.REMINDERS, selection, selectionArgs);
@@ -78,13 +103,35 @@ public class ReminderContentProvider  extends ContentProvider{
         }
 
         if (deletedCount > 0) {
-            getContext().getContentResolver().notifyChange(uri, null);
+            notifyChange(uri);
         }
-
+        deleteLatency.recordSince(startTime);
 
         return deletedCount;
     }
 
+    @Override
+    protected SQLiteDatabase getWritableDatabase() {
+        return reminderDBHelper.getWritableDatabase();
+    }
+
+    @Override
+    protected Uri getContentUri() {
+        return ReminderContract.Reminders.CONTENT_URI;
+    }
+
+    @Override
+    protected SQLiteStatement compileInsertStatement(SQLiteDatabase database) {
+        return database.compileStatement("INSERT INTO " + DBSchema.REMINDERS + " (" +
+                ReminderContract.Reminders.DESCRIPTION +
+                ") VALUES (?)");
+    }
+
+    @Override
+    protected void bindInsertStatement(SQLiteStatement statement, ContentValues values) {
+        bindValue(statement, 1, values.get(ReminderContract.Reminders.DESCRIPTION));
+    }
+
     @Override
     public int update(Uri uri, ContentValues values, String selection, String[] selectionArgs) {
         return 0;
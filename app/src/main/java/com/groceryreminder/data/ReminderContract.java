@@ -12,6 +12,9 @@ public class ReminderContract {
     public static final String REMINDER_LOCATION_AUTHORITY = "com.groceryreminder.data.GroceryStoreLocationContentProvider";
     public static final Uri REMINDER_LOCATIONS_CONTENT_URI = Uri.parse("content://" + REMINDER_LOCATION_AUTHORITY);
 
+    public static final String METRICS_AUTHORITY = "com.groceryreminder.data.MetricsContentProvider";
+    public static final Uri METRICS_CONTENT_URI = Uri.parse("content://" + METRICS_AUTHORITY);
+
     public static final class Locations implements BaseColumns {
 
         public static final String NAME = "location_name";
@@ -21,6 +24,35 @@ public class ReminderContract {
         public static final String[] PROJECT_ALL = {_ID, NAME, PLACES_ID, LATITUDE, LONGITUDE};
         public static final String SORT_ORDER_DEFAULT = "";
         public static final Uri CONTENT_URI = Uri.withAppendedPath(ReminderContract.REMINDER_LOCATIONS_CONTENT_URI, "locations");
+        public static final Uri NEARBY_CONTENT_URI = Uri.withAppendedPath(CONTENT_URI, "nearby");
+        public static final String NEARBY_LATITUDE_PARAMETER = "latitude";
+        public static final String NEARBY_LONGITUDE_PARAMETER = "longitude";
+        public static final String NEARBY_RADIUS_PARAMETER = "radius";
+
+        public static Uri buildNearbyUri(double latitude, double longitude, double radiusInMeters) {
+            return NEARBY_CONTENT_URI.buildUpon()
+                    .appendQueryParameter(NEARBY_LATITUDE_PARAMETER, String.valueOf(latitude))
+                    .appendQueryParameter(NEARBY_LONGITUDE_PARAMETER, String.valueOf(longitude))
+                    .appendQueryParameter(NEARBY_RADIUS_PARAMETER, String.valueOf(radiusInMeters))
+                    .build();
+        }
+    }
+
+    //Only served by debug builds, through MetricsContentProvider, one row per counter or latency histogram with latencies in microseconds
+    public static final class Metrics {
+
+        public static final String NAME = "name";
+        public static final String TYPE = "type";
+        public static final String COUNT = "count";
+        public static final String MEAN_MICROS = "mean_micros";
+        public static final String P50_MICROS = "p50_micros";
+        public static final String P90_MICROS = "p90_micros";
+        public static final String P99_MICROS = "p99_micros";
+        public static final String MAX_MICROS = "max_micros";
+        public static final String[] PROJECT_ALL = {NAME, TYPE, COUNT, MEAN_MICROS, P50_MICROS, P90_MICROS, P99_MICROS, MAX_MICROS};
+        public static final String TYPE_COUNTER = "counter";
+        public static final String TYPE_HISTOGRAM = "histogram";
+        public static final Uri CONTENT_URI = Uri.withAppendedPath(ReminderContract.METRICS_CONTENT_URI, "metrics");
     }
 
     public static final class Reminders implements BaseColumns {
@@ -3,52 +3,73 @@ package com.groceryreminder.data;
 import android.content.Context;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
-import android.util.Log;
+
+import com.groceryreminder.logging.Logger;
 
 public class ReminderDBHelper extends SQLiteOpenHelper{
 
     private static final String DATABASE_NAME = "grocery_reminder.sqlite";
+    private static final int DATABASE_VERSION = 2;
+    private static final int REAL_COORDINATES_VERSION = 2;
     private static final String CREATE_LOCATIONS_TABLE_SQL = "CREATE TABLE locations (" +
             " _id INTEGER PRIMARY KEY AUTOINCREMENT, " +
             " places_id varchar(200) UNIQUE, " +
             " location_name varchar(200), " +
-            " latitude varchar(200), " +
-            " longitude varchar(200) " +
+            " latitude REAL, " +
+            " longitude REAL " +
             " )";
 
+    private static final String CREATE_LOCATIONS_COORDINATES_INDEX_SQL = "CREATE INDEX IF NOT EXISTS locations_coordinates_index " +
+            "ON locations (latitude, longitude)";
+
     private static final String CREATE_REMINDERS_TABLE_SQL = "CREATE TABLE reminders (" +
             "_id INTEGER PRIMARY KEY AUTOINCREMENT, " +
             " description varchar(200) " +
             " )";
 
-    private static final String DROP_LOCATIONS_TABLE = "DROP TABLE IF EXISTS locations";
-    private static final String DROP_REMINDERS_TABLE = "DROP TABLE IF EXISTS reminders";
+    private static final String RENAME_LOCATIONS_TABLE_SQL = "ALTER TABLE locations RENAME TO locations_old";
+    private static final String COPY_LOCATIONS_SQL = "INSERT INTO locations (_id, places_id, location_name, latitude, longitude) " +
+            "SELECT _id, places_id, location_name, CAST(latitude AS REAL), CAST(longitude AS REAL) FROM locations_old";
+    private static final String DROP_OLD_LOCATIONS_TABLE = "DROP TABLE IF EXISTS locations_old";
     private static final String TAG = "ReminderDBHelper";
 
     public ReminderDBHelper(Context applicationContext) {
-        super(applicationContext, DATABASE_NAME, null, 1);
+        super(applicationContext, DATABASE_NAME, null, DATABASE_VERSION);
     }
 
     @Override
     public void onCreate(SQLiteDatabase db) {
-        Log.d(TAG, "Creating the locations table.");
+        Logger.d(TAG, "Creating the locations table.");
         db.execSQL(CREATE_LOCATIONS_TABLE_SQL);
-        Log.d(TAG, "Creating the reminders table.");
+        db.execSQL(CREATE_LOCATIONS_COORDINATES_INDEX_SQL);
+        Logger.d(TAG, "Creating the reminders table.");
         db.execSQL(CREATE_REMINDERS_TABLE_SQL);
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        Log.d(TAG, "Dropping the reminders table: " + DROP_REMINDERS_TABLE);
-        db.execSQL(DROP_REMINDERS_TABLE);
+        if (oldVersion < REAL_COORDINATES_VERSION) {
+            migrateLocationsToRealCoordinates(db);
+        }
+    }
 
-        Log.d(TAG, "Recreating the reminders table: " + CREATE_REMINDERS_TABLE_SQL);
-        db.execSQL(CREATE_REMINDERS_TABLE_SQL);
+    private void migrateLocationsToRealCoordinates(SQLiteDatabase db) {
+        db.beginTransaction();
+        try {
+            Logger.d(TAG, "Renaming the locations table: {}", RENAME_LOCATIONS_TABLE_SQL);
+            db.execSQL(RENAME_LOCATIONS_TABLE_SQL);
 
-        Log.d(TAG, "Dropping the locations table: " + DROP_LOCATIONS_TABLE);
-        db.execSQL(DROP_LOCATIONS_TABLE);
+            Logger.d(TAG, "Recreating the locations table: {}", CREATE_LOCATIONS_TABLE_SQL);
+            db.execSQL(CREATE_LOCATIONS_TABLE_SQL);
 
-        Log.d(TAG, "Recreating the locations table: " + CREATE_LOCATIONS_TABLE_SQL);
-        db.execSQL(CREATE_LOCATIONS_TABLE_SQL);
+            Logger.d(TAG, "Copying the existing locations: {}", COPY_LOCATIONS_SQL);
+            db.execSQL(COPY_LOCATIONS_SQL);
+            db.execSQL(DROP_OLD_LOCATIONS_TABLE);
+
+            db.execSQL(CREATE_LOCATIONS_COORDINATES_INDEX_SQL);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
     }
 }
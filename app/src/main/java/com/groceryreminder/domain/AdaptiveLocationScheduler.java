@@ -0,0 +1,89 @@
+package com.groceryreminder.domain;
+
+import android.location.Location;
+import android.location.LocationListener;
+import android.location.LocationManager;
+
+import com.groceryreminder.core.LocationUpdateSchedule;
+import com.groceryreminder.data.StoreSnapshot;
+import com.groceryreminder.logging.Logger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//Keeps each provider's update request in step with how soon the user could reach a store, re-requesting only on large changes
+public class AdaptiveLocationScheduler {
+
+    private static final String TAG = "LocationScheduler";
+
+    private final LocationManager locationManager;
+    private final Map<String, LocationUpdateSchedule> schedulesByProvider = new LinkedHashMap<String, LocationUpdateSchedule>();
+    private Location previousLocation;
+
+    public AdaptiveLocationScheduler(LocationManager locationManager) {
+        this.locationManager = locationManager;
+    }
+
+    public synchronized void request(String provider, LocationListener locationListener, LocationUpdateSchedule schedule) {
+        if (locationManager.isProviderEnabled(provider)) {
+            Logger.d(TAG, "Requesting {} updates: {}", provider, schedule);
+            locationManager.requestLocationUpdates(provider, schedule.getIntervalMillis(), schedule.getMinDistanceMeters(), locationListener);
+            schedulesByProvider.put(provider, schedule);
+        }
+    }
+
+    public synchronized void clear() {
+        schedulesByProvider.clear();
+    }
+
+    public synchronized LocationUpdateSchedule getSchedule(String provider) {
+        return schedulesByProvider.get(provider);
+    }
+
+    public synchronized void reschedule(Location location, StoreSnapshot snapshot, LocationListener locationListener) {
+        float speed = estimateSpeed(location);
+        previousLocation = location;
+        double distanceToNearestStore = snapshot.distanceToNearest(location.getLatitude(), location.getLongitude());
+
+        for (Map.Entry<String, LocationUpdateSchedule> entry : schedulesByProvider.entrySet()) {
+            String provider = entry.getKey();
+            //Passive updates ride along on other apps' requests and cost nothing to keep wide open
+            if (LocationManager.PASSIVE_PROVIDER.equals(provider)) {
+                continue;
+            }
+
+            LocationUpdateSchedule schedule = LocationUpdateSchedule.forApproach(speed, distanceToNearestStore,
+                    GroceryReminderConstants.LOCATION_GEOFENCE_RADIUS_METERS, getMinimumInterval(provider),
+                    (float) GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS);
+            if (schedule.differsSignificantlyFrom(entry.getValue())) {
+                Logger.d(TAG, "Rescheduling {} updates: {}", provider, schedule);
+                locationManager.requestLocationUpdates(provider, schedule.getIntervalMillis(), schedule.getMinDistanceMeters(), locationListener);
+                entry.setValue(schedule);
+            }
+        }
+    }
+
+    private long getMinimumInterval(String provider) {
+        if (LocationManager.GPS_PROVIDER.equals(provider)) {
+            return GroceryReminderConstants.GPS_APPROACH_MIN_UPDATE_TIME;
+        }
+
+        return GroceryReminderConstants.NETWORK_MIN_UPDATE_TIME;
+    }
+
+    //Prefers the fix's own speed and otherwise derives it from the displacement since the previous fix
+    float estimateSpeed(Location location) {
+        if (location.hasSpeed()) {
+            return location.getSpeed();
+        } else if (previousLocation == null) {
+            return 0;
+        }
+
+        long elapsedMillis = location.getTime() - previousLocation.getTime();
+        if (elapsedMillis <= 0) {
+            return 0;
+        }
+
+        return previousLocation.distanceTo(location) * 1000f / elapsedMillis;
+    }
+}
@@ -0,0 +1,14 @@
+package com.groceryreminder.domain;
+
+import android.os.SystemClock;
+
+import com.groceryreminder.core.MonotonicClock;
+
+//Keeps counting through deep sleep, unlike uptimeMillis, so a throttle still opens after the phone has been idle
+public class ElapsedRealtimeClock implements MonotonicClock {
+
+    @Override
+    public long elapsedMillis() {
+        return SystemClock.elapsedRealtime();
+    }
+}
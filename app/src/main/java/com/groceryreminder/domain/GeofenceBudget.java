@@ -0,0 +1,143 @@
+package com.groceryreminder.domain;
+
+import android.location.Location;
+
+import com.groceryreminder.core.GeoDistance;
+import com.groceryreminder.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import se.walkercrou.places.Place;
+
+public class GeofenceBudget {
+
+    private static final String TAG = "GeofenceBudget";
+    private static final Comparator<RankedPlace> FARTHEST_FIRST = new Comparator<RankedPlace>() {
+        @Override
+        public int compare(RankedPlace lhs, RankedPlace rhs) {
+            return Float.compare(rhs.distance, lhs.distance);
+        }
+    };
+
+    private final GeofenceRegistry geofenceRegistry;
+    private final int budget;
+    private final Map<String, Place> candidates = new LinkedHashMap<String, Place>();
+    private Location lastRankedLocation;
+    private boolean candidatesChanged;
+
+    public GeofenceBudget(GeofenceRegistry geofenceRegistry, int budget) {
+        this.geofenceRegistry = geofenceRegistry;
+        this.budget = budget;
+    }
+
+    public synchronized void offer(List<Place> places, Location origin) {
+        addCandidates(places);
+        rerank(origin);
+    }
+
+    public synchronized void addCandidates(List<Place> places) {
+        for (Place place : places) {
+            candidates.put(GeofenceRegistry.getPlacesId(place), place);
+        }
+
+        candidatesChanged |= !places.isEmpty();
+    }
+
+    public synchronized void remove(Collection<String> placesIds) {
+        if (candidates.keySet().removeAll(placesIds)) {
+            candidatesChanged = true;
+        }
+
+        geofenceRegistry.unregister(placesIds);
+    }
+
+    public synchronized void rerank(Location origin) {
+        if (!candidatesChanged && !hasMovedSinceLastRanking(origin)) {
+            return;
+        }
+
+        List<Place> nearestPlaces = selectNearest(origin);
+        Set<String> nearestPlacesIds = new HashSet<String>();
+        for (Place place : nearestPlaces) {
+            nearestPlacesIds.add(GeofenceRegistry.getPlacesId(place));
+        }
+
+        //Disarm before arming so the registered set never grows past the budget
+        Set<String> disarmedPlacesIds = geofenceRegistry.getRegisteredPlacesIds();
+        disarmedPlacesIds.removeAll(nearestPlacesIds);
+        int removedCount = geofenceRegistry.unregister(disarmedPlacesIds);
+        int addedCount = geofenceRegistry.register(nearestPlaces);
+        if (Logger.DEBUG) {
+            Logger.d(TAG, "Re-ranked {} stores, armed: {}, disarmed: {}", candidates.size(), addedCount, removedCount);
+        }
+
+        lastRankedLocation = origin;
+        candidatesChanged = false;
+    }
+
+    public synchronized int getCandidateCount() {
+        return candidates.size();
+    }
+
+    private boolean hasMovedSinceLastRanking(Location origin) {
+        if (origin == null) {
+            return false;
+        }
+
+        if (lastRankedLocation == null) {
+            return true;
+        }
+
+        //Moving less than a geofence radius cannot change which stores are nearest by much
+        return GeoDistance.distanceBetween(lastRankedLocation.getLatitude(), lastRankedLocation.getLongitude(),
+                origin.getLatitude(), origin.getLongitude()) >= GroceryReminderConstants.LOCATION_GEOFENCE_RADIUS_METERS;
+    }
+
+    private List<Place> selectNearest(Location origin) {
+        if (origin == null) {
+            List<Place> places = new ArrayList<Place>(candidates.values());
+            return places.subList(0, Math.min(budget, places.size()));
+        }
+
+        //Bounded max heap keeps the K nearest without sorting every candidate
+        PriorityQueue<RankedPlace> nearest = new PriorityQueue<RankedPlace>(Math.max(1, budget), FARTHEST_FIRST);
+        for (Place place : candidates.values()) {
+            float distance = GeoDistance.distanceBetween(origin.getLatitude(), origin.getLongitude(), place.getLatitude(), place.getLongitude());
+            if (nearest.size() < budget) {
+                nearest.add(new RankedPlace(place, distance));
+            } else if (budget > 0 && distance < nearest.peek().distance) {
+                nearest.poll();
+                nearest.add(new RankedPlace(place, distance));
+            }
+        }
+
+        List<RankedPlace> rankedPlaces = new ArrayList<RankedPlace>(nearest);
+        Collections.sort(rankedPlaces, Collections.reverseOrder(FARTHEST_FIRST));
+        List<Place> places = new ArrayList<Place>(rankedPlaces.size());
+        for (RankedPlace rankedPlace : rankedPlaces) {
+            places.add(rankedPlace.place);
+        }
+
+        return places;
+    }
+
+    private static class RankedPlace {
+
+        private final Place place;
+        private final float distance;
+
+        private RankedPlace(Place place, float distance) {
+            this.place = place;
+            this.distance = distance;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.groceryreminder.domain;
+
+import android.app.Application;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.location.LocationManager;
+import android.os.SystemClock;
+
+import com.groceryreminder.R;
+import com.groceryreminder.data.ReminderContract;
+import com.groceryreminder.logging.Logger;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import se.walkercrou.places.Place;
+
+public class GeofenceRegistry {
+
+    private static final String TAG = "GeofenceRegistry";
+    private static final String REQUEST_CODE_PREFIX = "GEOFENCE_REQUEST_CODE_";
+    private static final String NEXT_REQUEST_CODE = "GEOFENCE_NEXT_REQUEST_CODE";
+    static final String BOOT_TIME = "GEOFENCE_BOOT_TIME";
+    static final String ELAPSED_REALTIME = "GEOFENCE_ELAPSED_REALTIME";
+    private static final long BOOT_TIME_TOLERANCE_MILLIS = 60000;
+    //Before the registry every refresh numbered its alerts from 0, and a nearby search returns at most 60 places
+    static final int LEGACY_REQUEST_CODE_COUNT = 60;
+
+    private final Application context;
+    private final LocationManager locationManager;
+    private final Map<String, Integer> requestCodes = new HashMap<String, Integer>();
+    private final Map<String, PendingIntent> pendingIntents = new HashMap<String, PendingIntent>();
+    private int nextRequestCode;
+    private boolean loaded;
+
+    public GeofenceRegistry(Application context, LocationManager locationManager) {
+        this.context = context;
+        this.locationManager = locationManager;
+    }
+
+    public synchronized int register(List<Place> places) {
+        loadIfNeeded();
+        SharedPreferences.Editor editor = getSharedPreferences().edit();
+        int addedCount = 0;
+        for (Place place : places) {
+            String placesId = getPlacesId(place);
+            if (requestCodes.containsKey(placesId)) {
+                continue;
+            }
+
+            int requestCode = nextRequestCode++;
+            if (Logger.DEBUG) {
+                Logger.d(TAG, "Adding proximity alert for {} with request code {}", placesId, requestCode);
+            }
+            Intent proximityAlertIntent = new Intent(GroceryReminderConstants.ACTION_STORE_PROXIMITY_EVENT);
+            proximityAlertIntent.putExtra(ReminderContract.Locations.NAME, place.getName());
+            PendingIntent pendingIntent = PendingIntent.getBroadcast(context, requestCode, proximityAlertIntent,
+                    PendingIntent.FLAG_CANCEL_CURRENT);
+            locationManager.addProximityAlert(place.getLatitude(), place.getLongitude(),
+                    GroceryReminderConstants.LOCATION_GEOFENCE_RADIUS_METERS, GroceryReminderConstants.PROXIMITY_ALERT_EXPIRATION,
+                    pendingIntent);
+
+            requestCodes.put(placesId, requestCode);
+            pendingIntents.put(placesId, pendingIntent);
+            editor.putInt(REQUEST_CODE_PREFIX + placesId, requestCode);
+            addedCount++;
+        }
+
+        if (addedCount > 0) {
+            editor.putInt(NEXT_REQUEST_CODE, nextRequestCode);
+            editor.putLong(ELAPSED_REALTIME, SystemClock.elapsedRealtime());
+            editor.apply();
+        }
+
+        return addedCount;
+    }
+
+    public synchronized int unregister(Collection<String> placesIds) {
+        loadIfNeeded();
+        SharedPreferences.Editor editor = getSharedPreferences().edit();
+        int removedCount = 0;
+        for (String placesId : placesIds) {
+            Integer requestCode = requestCodes.remove(placesId);
+            if (requestCode == null) {
+                continue;
+            }
+
+            Logger.d(TAG, "Removing proximity alert for {}", placesId);
+            PendingIntent pendingIntent = pendingIntents.remove(placesId);
+            if (pendingIntent == null) {
+                removeProximityAlert(requestCode);
+            } else {
+                locationManager.removeProximityAlert(pendingIntent);
+                pendingIntent.cancel();
+            }
+
+            editor.remove(REQUEST_CODE_PREFIX + placesId);
+            removedCount++;
+        }
+
+        if (removedCount > 0) {
+            editor.putLong(ELAPSED_REALTIME, SystemClock.elapsedRealtime());
+            editor.apply();
+        }
+
+        return removedCount;
+    }
+
+    public synchronized boolean isRegistered(String placesId) {
+        loadIfNeeded();
+        return requestCodes.containsKey(placesId);
+    }
+
+    public synchronized Set<String> getRegisteredPlacesIds() {
+        loadIfNeeded();
+        return new HashSet<String>(requestCodes.keySet());
+    }
+
+    public synchronized int size() {
+        loadIfNeeded();
+        return requestCodes.size();
+    }
+
+    private void loadIfNeeded() {
+        if (loaded) {
+            return;
+        }
+
+        loaded = true;
+        SharedPreferences sharedPreferences = getSharedPreferences();
+        if (!sharedPreferences.contains(NEXT_REQUEST_CODE)) {
+            //Alerts left by the old code never expire, and new codes start past them so the two can never alias
+            removeLegacyProximityAlerts();
+            sharedPreferences.edit().putInt(NEXT_REQUEST_CODE, LEGACY_REQUEST_CODE_COUNT).apply();
+        }
+        nextRequestCode = sharedPreferences.getInt(NEXT_REQUEST_CODE, LEGACY_REQUEST_CODE_COUNT);
+
+        //The uptime only runs backwards across a reboot; the boot time worked out from the wall clock also catches a reboot
+        //after a longer uptime, and a wall clock change that trips it merely costs re-adding the alerts
+        long elapsedRealtime = SystemClock.elapsedRealtime();
+        long bootTime = System.currentTimeMillis() - elapsedRealtime;
+        boolean rebooted = elapsedRealtime < sharedPreferences.getLong(ELAPSED_REALTIME, 0)
+                || Math.abs(bootTime - sharedPreferences.getLong(BOOT_TIME, 0)) > BOOT_TIME_TOLERANCE_MILLIS;
+        if (rebooted) {
+            //Proximity alerts do not survive a reboot, so neither do their registrations
+            forgetRegistrations(sharedPreferences, bootTime, elapsedRealtime);
+            return;
+        }
+
+        for (Map.Entry<String, ?> preference : sharedPreferences.getAll().entrySet()) {
+            if (preference.getKey().startsWith(REQUEST_CODE_PREFIX) && preference.getValue() instanceof Integer) {
+                requestCodes.put(preference.getKey().substring(REQUEST_CODE_PREFIX.length()), (Integer) preference.getValue());
+            }
+        }
+        sharedPreferences.edit().putLong(ELAPSED_REALTIME, elapsedRealtime).apply();
+    }
+
+    private void removeLegacyProximityAlerts() {
+        Logger.d(TAG, "Removing legacy proximity alerts");
+        for (int requestCode = 0; requestCode < LEGACY_REQUEST_CODE_COUNT; requestCode++) {
+            removeProximityAlert(requestCode);
+        }
+    }
+
+    //For alerts added by an earlier process; extras are not part of PendingIntent identity, so the action and request code find them
+    private void removeProximityAlert(int requestCode) {
+        PendingIntent pendingIntent = PendingIntent.getBroadcast(context, requestCode,
+                new Intent(GroceryReminderConstants.ACTION_STORE_PROXIMITY_EVENT), 0);
+        locationManager.removeProximityAlert(pendingIntent);
+        pendingIntent.cancel();
+    }
+
+    //A reboot can't be told apart from a wall clock change for certain, so any alert that did survive is removed rather than leaked
+    private void forgetRegistrations(SharedPreferences sharedPreferences, long bootTime, long elapsedRealtime) {
+        SharedPreferences.Editor editor = sharedPreferences.edit();
+        for (Map.Entry<String, ?> preference : sharedPreferences.getAll().entrySet()) {
+            if (preference.getKey().startsWith(REQUEST_CODE_PREFIX)) {
+                if (preference.getValue() instanceof Integer) {
+                    removeProximityAlert((Integer) preference.getValue());
+                }
+                editor.remove(preference.getKey());
+            }
+        }
+
+        editor.putLong(BOOT_TIME, bootTime);
+        editor.putLong(ELAPSED_REALTIME, elapsedRealtime);
+        editor.apply();
+    }
+
+    private SharedPreferences getSharedPreferences() {
+        return context.getSharedPreferences(context.getString(R.string.reminder_pref_key), Context.MODE_PRIVATE);
+    }
+
+    static String getPlacesId(Place place) {
+        return place.getPlaceId() != null ? place.getPlaceId() : place.getName();
+    }
+}
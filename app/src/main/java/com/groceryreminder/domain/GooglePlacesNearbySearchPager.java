@@ -0,0 +1,134 @@
+package com.groceryreminder.domain;
+
+import android.net.Uri;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import se.walkercrou.places.GooglePlacesInterface;
+import se.walkercrou.places.Param;
+import se.walkercrou.places.Place;
+import se.walkercrou.places.exception.GooglePlacesException;
+
+//Requests each page through the library's request handler rather than its search methods, which sleep before following a page token
+class GooglePlacesNearbySearchPager {
+
+    static final String PAGE_TOKEN_PARAM = "pagetoken";
+    static final String KEY_PARAM = "key";
+    static final String LOCATION_PARAM = "location";
+    static final String RANK_BY_PARAM = "rankby";
+    static final String NEARBY_SEARCH_URL = GooglePlacesInterface.API_URL + GooglePlacesInterface.METHOD_NEARBY_SEARCH + "/json";
+
+    private final GooglePlacesInterface googlePlaces;
+    private final double latitude;
+    private final double longitude;
+    private final int pageBudget;
+    private final Param[] params;
+    private String nextPageToken;
+    private int pageCount;
+    private boolean exhausted;
+
+    public GooglePlacesNearbySearchPager(GooglePlacesInterface googlePlaces, double latitude, double longitude, int pageBudget, Param... params) {
+        this.googlePlaces = googlePlaces;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.pageBudget = pageBudget;
+        this.params = params;
+    }
+
+    public boolean hasNextPage() {
+        return !exhausted && pageCount < pageBudget;
+    }
+
+    //Google only honours a page token a couple of seconds after issuing it, so callers wait that out before asking for any page after the first
+    public List<Place> nextPage() throws GooglePlacesException {
+        if (!hasNextPage()) {
+            return new ArrayList<Place>();
+        }
+
+        String response;
+        try {
+            response = googlePlaces.getRequestHandler().get(buildPageUrl());
+        } catch (IOException e) {
+            throw new GooglePlacesException(e);
+        }
+
+        List<Place> page = new ArrayList<Place>();
+        nextPageToken = parsePage(response, page);
+        pageCount++;
+        exhausted = nextPageToken == null;
+
+        return page;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    //Page tokens and param values are opaque to us, so every value is encoded rather than pasted into the query
+    String buildPageUrl() {
+        Uri.Builder url = Uri.parse(NEARBY_SEARCH_URL).buildUpon();
+        if (nextPageToken != null) {
+            url.appendQueryParameter(PAGE_TOKEN_PARAM, nextPageToken);
+            url.appendQueryParameter(KEY_PARAM, googlePlaces.getApiKey());
+            return url.build().toString();
+        }
+
+        url.appendQueryParameter(KEY_PARAM, googlePlaces.getApiKey());
+        url.appendQueryParameter(LOCATION_PARAM, String.format(Locale.US, "%f,%f", latitude, longitude));
+        url.appendQueryParameter(RANK_BY_PARAM, "distance");
+        for (Param param : params) {
+            url.appendQueryParameter(param.getName(), param.getValue());
+        }
+
+        return url.build().toString();
+    }
+
+    private String parsePage(String response, List<Place> page) {
+        if (response == null) {
+            throw new GooglePlacesException(GooglePlacesInterface.STATUS_UNKNOWN_ERROR, "Empty nearby search response");
+        }
+
+        try {
+            JSONObject json = new JSONObject(response);
+            String status = json.optString(GooglePlacesInterface.STRING_STATUS, GooglePlacesInterface.STATUS_OK);
+            if (GooglePlacesInterface.STATUS_ZERO_RESULTS.equals(status)) {
+                return null;
+            }
+            if (!GooglePlacesInterface.STATUS_OK.equals(status)) {
+                String errorMessage = json.optString(GooglePlacesInterface.STRING_ERROR_MESSAGE);
+                GooglePlacesException error = GooglePlacesException.parse(status, errorMessage);
+                throw error != null ? error : new GooglePlacesException(status, errorMessage);
+            }
+
+            JSONArray results = json.optJSONArray(GooglePlacesInterface.ARRAY_RESULTS);
+            for (int i = 0; results != null && i < results.length(); i++) {
+                page.add(parsePlace(results.getJSONObject(i)));
+            }
+
+            String token = json.optString(GooglePlacesInterface.STRING_NEXT_PAGE_TOKEN, null);
+            return token == null || token.isEmpty() ? null : token;
+        } catch (JSONException e) {
+            throw new GooglePlacesException(e);
+        }
+    }
+
+    private Place parsePlace(JSONObject result) throws JSONException {
+        JSONObject location = result.getJSONObject(GooglePlacesInterface.OBJECT_GEOMETRY).getJSONObject(GooglePlacesInterface.OBJECT_LOCATION);
+        Place place = new Place();
+        place.setClient(googlePlaces);
+        place.setPlaceId(result.getString(GooglePlacesInterface.STRING_PLACE_ID));
+        place.setName(result.optString(GooglePlacesInterface.STRING_NAME));
+        place.setLatitude(location.getDouble(GooglePlacesInterface.DOUBLE_LATITUDE));
+        place.setLongitude(location.getDouble(GooglePlacesInterface.DOUBLE_LONGITUDE));
+        place.setJson(result);
+
+        return place;
+    }
+}
@@ -0,0 +1,316 @@
+package com.groceryreminder.domain;
+
+import android.content.Context;
+
+import com.groceryreminder.logging.Logger;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import se.walkercrou.places.Place;
+
+public class GooglePlacesResponseCache {
+
+    public static final int TILE_PRECISION = 6;
+    private static final String CACHE_FILE_NAME = "google_places_cache.json";
+    private static final String GEOHASH_ALPHABET = "0123456789bcdefghjkmnpqrstuvwxyz";
+    private static final String TAG = "PlacesResponseCache";
+
+    private static final String TILE_KEY = "tile";
+    private static final String FETCHED_TIME_KEY = "fetched_time";
+    private static final String PLACES_KEY = "places";
+    private static final String PLACE_ID_KEY = "place_id";
+    private static final String NAME_KEY = "name";
+    private static final String LATITUDE_KEY = "latitude";
+    private static final String LONGITUDE_KEY = "longitude";
+
+    private final File cacheFile;
+    private final long timeToLiveMillis;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+    private long sizeInBytes;
+    private long hitCount;
+    private long missCount;
+    private boolean loaded;
+
+    public GooglePlacesResponseCache(Context context) {
+        this(new File(context.getCacheDir(), CACHE_FILE_NAME),
+                GroceryReminderConstants.PLACES_CACHE_TIME_TO_LIVE_MILLIS,
+                GroceryReminderConstants.PLACES_CACHE_MAX_ENTRIES,
+                GroceryReminderConstants.PLACES_CACHE_MAX_BYTES);
+    }
+
+    public GooglePlacesResponseCache(File cacheFile, long timeToLiveMillis, int maxEntries, long maxBytes) {
+        this.cacheFile = cacheFile;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    public synchronized List<Place> get(double latitude, double longitude) {
+        loadIfNeeded();
+        Entry entry = entries.get(encodeTile(latitude, longitude, TILE_PRECISION));
+        if (entry == null || isExpired(entry)) {
+            missCount++;
+            return null;
+        }
+
+        hitCount++;
+        return new ArrayList<Place>(entry.places);
+    }
+
+    public synchronized boolean isFresh(double latitude, double longitude) {
+        loadIfNeeded();
+        Entry entry = entries.get(encodeTile(latitude, longitude, TILE_PRECISION));
+        return entry != null && !isExpired(entry);
+    }
+
+    //Rewrites the whole cache file, so callers put a search's places once rather than page by page
+    public synchronized void put(double latitude, double longitude, List<Place> places) {
+        loadIfNeeded();
+        Entry entry = new Entry(encodeTile(latitude, longitude, TILE_PRECISION), System.currentTimeMillis(), new ArrayList<Place>(places));
+        add(entry);
+        evictExpired();
+        trimToSize();
+        save();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized int size() {
+        loadIfNeeded();
+        return entries.size();
+    }
+
+    public synchronized long getSizeInBytes() {
+        loadIfNeeded();
+        return sizeInBytes;
+    }
+
+    static String encodeTile(double latitude, double longitude, int precision) {
+        double minLatitude = -90;
+        double maxLatitude = 90;
+        double minLongitude = -180;
+        double maxLongitude = 180;
+        StringBuilder tile = new StringBuilder(precision);
+        boolean longitudeBit = true;
+        int bitCount = 0;
+        int character = 0;
+
+        while (tile.length() < precision) {
+            if (longitudeBit) {
+                double middle = (minLongitude + maxLongitude) / 2;
+                character <<= 1;
+                if (longitude >= middle) {
+                    character |= 1;
+                    minLongitude = middle;
+                } else {
+                    maxLongitude = middle;
+                }
+            } else {
+                double middle = (minLatitude + maxLatitude) / 2;
+                character <<= 1;
+                if (latitude >= middle) {
+                    character |= 1;
+                    minLatitude = middle;
+                } else {
+                    maxLatitude = middle;
+                }
+            }
+
+            longitudeBit = !longitudeBit;
+            if (++bitCount == 5) {
+                tile.append(GEOHASH_ALPHABET.charAt(character));
+                bitCount = 0;
+                character = 0;
+            }
+        }
+
+        return tile.toString();
+    }
+
+    private boolean isExpired(Entry entry) {
+        return System.currentTimeMillis() - entry.fetchedTime >= timeToLiveMillis;
+    }
+
+    private void add(Entry entry) {
+        Entry replaced = entries.put(entry.tile, entry);
+        if (replaced != null) {
+            sizeInBytes -= replaced.sizeInBytes;
+        }
+        sizeInBytes += entry.sizeInBytes;
+    }
+
+    private void evictExpired() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            if (isExpired(entry)) {
+                sizeInBytes -= entry.sizeInBytes;
+                iterator.remove();
+            }
+        }
+    }
+
+    private void trimToSize() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext() && (entries.size() > maxEntries || sizeInBytes > maxBytes)) {
+            Entry eldest = iterator.next().getValue();
+            if (Logger.DEBUG) {
+                Logger.d(TAG, "Evicting tile: {}", eldest.tile);
+            }
+            sizeInBytes -= eldest.sizeInBytes;
+            iterator.remove();
+        }
+    }
+
+    private void loadIfNeeded() {
+        if (loaded) {
+            return;
+        }
+
+        loaded = true;
+        if (!cacheFile.exists()) {
+            return;
+        }
+
+        try {
+            JSONArray cachedEntries = new JSONArray(readCacheFile());
+            for (int i = 0; i < cachedEntries.length(); i++) {
+                add(Entry.fromJson(cachedEntries.getJSONObject(i)));
+            }
+            evictExpired();
+            trimToSize();
+        } catch (IOException e) {
+            Logger.e(TAG, "Unable to read the places cache.", e);
+            clear();
+        } catch (JSONException e) {
+            Logger.e(TAG, "The places cache is corrupt, discarding it.", e);
+            clear();
+        }
+    }
+
+    private void clear() {
+        entries.clear();
+        sizeInBytes = 0;
+        cacheFile.delete();
+    }
+
+    private String readCacheFile() throws IOException {
+        byte[] buffer = new byte[(int) cacheFile.length()];
+        InputStream inputStream = new FileInputStream(cacheFile);
+        try {
+            int offset = 0;
+            int read;
+            while (offset < buffer.length && (read = inputStream.read(buffer, offset, buffer.length - offset)) != -1) {
+                offset += read;
+            }
+            return new String(buffer, 0, offset, "UTF-8");
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    private void save() {
+        JSONArray cachedEntries = new JSONArray();
+        //Least recently used first, so reloading preserves the eviction order
+        for (Entry entry : entries.values()) {
+            cachedEntries.put(entry.json);
+        }
+
+        try {
+            OutputStream outputStream = new FileOutputStream(cacheFile);
+            try {
+                outputStream.write(cachedEntries.toString().getBytes("UTF-8"));
+            } finally {
+                outputStream.close();
+            }
+        } catch (IOException e) {
+            Logger.e(TAG, "Unable to write the places cache.", e);
+        }
+    }
+
+    private static class Entry {
+
+        private final String tile;
+        private final long fetchedTime;
+        private final List<Place> places;
+        private final JSONObject json;
+        private final long sizeInBytes;
+
+        private Entry(String tile, long fetchedTime, List<Place> places) {
+            this.tile = tile;
+            this.fetchedTime = fetchedTime;
+            this.places = places;
+            this.json = toJson(tile, fetchedTime, places);
+            this.sizeInBytes = byteCount(json.toString());
+        }
+
+        private static Entry fromJson(JSONObject json) throws JSONException {
+            List<Place> places = new ArrayList<Place>();
+            JSONArray cachedPlaces = json.getJSONArray(PLACES_KEY);
+            for (int i = 0; i < cachedPlaces.length(); i++) {
+                JSONObject cachedPlace = cachedPlaces.getJSONObject(i);
+                Place place = new Place();
+                place.setPlaceId(cachedPlace.optString(PLACE_ID_KEY, null));
+                place.setName(cachedPlace.optString(NAME_KEY, null));
+                place.setLatitude(cachedPlace.getDouble(LATITUDE_KEY));
+                place.setLongitude(cachedPlace.getDouble(LONGITUDE_KEY));
+                places.add(place);
+            }
+
+            return new Entry(json.getString(TILE_KEY), json.getLong(FETCHED_TIME_KEY), places);
+        }
+
+        private static JSONObject toJson(String tile, long fetchedTime, List<Place> places) {
+            try {
+                JSONArray cachedPlaces = new JSONArray();
+                for (Place place : places) {
+                    JSONObject cachedPlace = new JSONObject();
+                    cachedPlace.put(PLACE_ID_KEY, place.getPlaceId());
+                    cachedPlace.put(NAME_KEY, place.getName());
+                    cachedPlace.put(LATITUDE_KEY, place.getLatitude());
+                    cachedPlace.put(LONGITUDE_KEY, place.getLongitude());
+                    cachedPlaces.put(cachedPlace);
+                }
+
+                JSONObject json = new JSONObject();
+                json.put(TILE_KEY, tile);
+                json.put(FETCHED_TIME_KEY, fetchedTime);
+                json.put(PLACES_KEY, cachedPlaces);
+                return json;
+            } catch (JSONException e) {
+                throw new IllegalArgumentException("Unable to cache the places for tile " + tile, e);
+            }
+        }
+
+        private static long byteCount(String value) {
+            try {
+                return value.getBytes("UTF-8").length;
+            } catch (UnsupportedEncodingException e) {
+                return value.length();
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.groceryreminder.domain;
+
+import android.location.Location;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+
+import com.groceryreminder.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import se.walkercrou.places.GooglePlacesInterface;
+import se.walkercrou.places.Param;
+import se.walkercrou.places.Place;
+import se.walkercrou.places.Types;
+import se.walkercrou.places.exception.GooglePlacesException;
+
+@Singleton
+public class GooglePlacesSearchPipeline {
+
+    private static final String TAG = "PlacesSearchPipeline";
+    private static final int FETCH_QUEUE_CAPACITY = 1;
+    private static final int STAGE_QUEUE_CAPACITY = 4;
+    private static final long STAGE_KEEP_ALIVE_SECONDS = 30;
+
+    private final GooglePlacesInterface googlePlaces;
+    private final GooglePlacesResponseCache placesCache;
+    private final Executor fetchExecutor;
+    private final Executor filterExecutor;
+    private final Executor persistExecutor;
+    private final Executor geofenceExecutor;
+    private final Handler pageHandler;
+    private final int pageBudget;
+    private final AtomicLong latestSearchId = new AtomicLong();
+
+    @Inject
+    public GooglePlacesSearchPipeline(GooglePlacesInterface googlePlaces, GooglePlacesResponseCache placesCache) {
+        //Only the newest queued search is worth fetching; downstream stages push back on the stage feeding them
+        this(googlePlaces, placesCache,
+                createStageExecutor("fetch", FETCH_QUEUE_CAPACITY, new ThreadPoolExecutor.DiscardOldestPolicy()),
+                createStageExecutor("filter", STAGE_QUEUE_CAPACITY, new ThreadPoolExecutor.CallerRunsPolicy()),
+                createStageExecutor("persist", STAGE_QUEUE_CAPACITY, new ThreadPoolExecutor.CallerRunsPolicy()),
+                createStageExecutor("geofence", STAGE_QUEUE_CAPACITY, new ThreadPoolExecutor.CallerRunsPolicy()),
+                createPageHandler(),
+                GroceryReminderConstants.GOOGLE_PLACES_PAGE_BUDGET);
+    }
+
+    public GooglePlacesSearchPipeline(GooglePlacesInterface googlePlaces, GooglePlacesResponseCache placesCache,
+                                      Executor fetchExecutor, Executor filterExecutor, Executor persistExecutor, Executor geofenceExecutor,
+                                      Handler pageHandler, int pageBudget) {
+        this.googlePlaces = googlePlaces;
+        this.placesCache = placesCache;
+        this.fetchExecutor = fetchExecutor;
+        this.filterExecutor = filterExecutor;
+        this.persistExecutor = persistExecutor;
+        this.geofenceExecutor = geofenceExecutor;
+        this.pageHandler = pageHandler;
+        this.pageBudget = pageBudget;
+    }
+
+    public void search(Location location, GroceryStoreManagerInterface groceryStoreManager) {
+        final Search search = new Search(latestSearchId.incrementAndGet(), location, groceryStoreManager);
+        fetchExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (!isSuperseded(search)) {
+                    fetch(search);
+                }
+            }
+        });
+    }
+
+    private boolean isSuperseded(Search search) {
+        boolean superseded = search.id != latestSearchId.get();
+        if (superseded) {
+            if (Logger.DEBUG) {
+                Logger.d(TAG, "Dropping superseded search: {}", search.id);
+            }
+        }
+
+        return superseded;
+    }
+
+    private void fetch(Search search) {
+        Location location = search.location;
+        List<Place> cachedPlaces = placesCache.get(location.getLatitude(), location.getLongitude());
+        if (cachedPlaces != null) {
+            if (Logger.DEBUG) {
+                Logger.d(TAG, "Using cached search: {}, hits: {}, misses: {}", cachedPlaces.size(), placesCache.getHitCount(), placesCache.getMissCount());
+            }
+            filter(search, cachedPlaces);
+            return;
+        }
+
+        Param groceryStoreType = Param.name(GooglePlacesInterface.STRING_TYPE).value(Types.TYPE_GROCERY_OR_SUPERMARKET);
+        GooglePlacesNearbySearchPager pager = new GooglePlacesNearbySearchPager(googlePlaces, location.getLatitude(), location.getLongitude(), pageBudget, groceryStoreType);
+        fetchPage(search, pager, new ArrayList<Place>());
+    }
+
+    //Runs the first page on the fetch stage and later pages on the page thread, so waiting out a page token never holds up newer searches
+    private void fetchPage(final Search search, final GooglePlacesNearbySearchPager pager, final List<Place> places) {
+        if (isSuperseded(search)) {
+            return;
+        }
+
+        try {
+            //Hand each page downstream as it arrives rather than waiting for the whole result set
+            List<Place> page = pager.nextPage();
+            places.addAll(page);
+            filter(search, page);
+        } catch (GooglePlacesException e) {
+            Logger.e(TAG, "An error occurred when searching for stores.", e);
+            return;
+        }
+
+        if (pager.hasNextPage()) {
+            pageHandler.postDelayed(new Runnable() {
+                @Override
+                public void run() {
+                    fetchPage(search, pager, places);
+                }
+            }, GroceryReminderConstants.GOOGLE_PLACES_PAGE_TOKEN_DELAY_MILLIS);
+            return;
+        }
+
+        if (Logger.DEBUG) {
+            Logger.d(TAG, "Executed search: {} places in {} pages", places.size(), pager.getPageCount());
+        }
+        //Only a finished search is cached, since a cached tile counts as fresh and is not searched again until it expires
+        if (!places.isEmpty()) {
+            placesCache.put(search.location.getLatitude(), search.location.getLongitude(), places);
+        }
+    }
+
+    private void filter(final Search search, final List<Place> places) {
+        filterExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (isSuperseded(search)) {
+                    return;
+                }
+
+                List<Place> filteredPlaces = search.groceryStoreManager.filterPlacesByDistance(search.location, places, GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS);
+                if (Logger.DEBUG) {
+                    Logger.d(TAG, "Places count: {}", filteredPlaces.size());
+                }
+                persist(search, filteredPlaces);
+                registerGeofences(search, filteredPlaces);
+            }
+        });
+    }
+
+    private void persist(final Search search, final List<Place> places) {
+        persistExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (!isSuperseded(search)) {
+                    search.groceryStoreManager.persistGroceryStores(places);
+                }
+            }
+        });
+    }
+
+    private void registerGeofences(final Search search, final List<Place> places) {
+        geofenceExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (!isSuperseded(search)) {
+                    search.groceryStoreManager.addProximityAlerts(places);
+                }
+            }
+        });
+    }
+
+    private static Executor createStageExecutor(final String stageName, int queueCapacity, RejectedExecutionHandler rejectionHandler) {
+        ThreadFactory threadFactory = new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                return new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        runnable.run();
+                    }
+                }, "PlacesSearch-" + stageName);
+            }
+        };
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, STAGE_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity), threadFactory, rejectionHandler);
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
+
+    private static Handler createPageHandler() {
+        HandlerThread pageThread = new HandlerThread("PlacesSearch-page", Process.THREAD_PRIORITY_BACKGROUND);
+        pageThread.start();
+
+        return new Handler(pageThread.getLooper());
+    }
+
+    static class Search {
+
+        private final long id;
+        private final Location location;
+        private final GroceryStoreManagerInterface groceryStoreManager;
+
+        Search(long id, Location location, GroceryStoreManagerInterface groceryStoreManager) {
+            this.id = id;
+            this.location = location;
+            this.groceryStoreManager = groceryStoreManager;
+        }
+    }
+}
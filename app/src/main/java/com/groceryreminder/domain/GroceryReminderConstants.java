@@ -1,26 +1,41 @@
 package com.groceryreminder.domain;
 
+import com.groceryreminder.core.StoreConstants;
+
 public class GroceryReminderConstants {
 
-    public static final double LOCATION_SEARCH_RADIUS_METERS = 8046.72;
+    public static final double LOCATION_SEARCH_RADIUS_METERS = StoreConstants.LOCATION_SEARCH_RADIUS_METERS;
+    public static final int MAX_LISTED_STORES = StoreConstants.MAX_LISTED_STORES;
 
     public static final String ACTION_STORE_PROXIMITY_EVENT = "com.groceryreminder.STORE_PROXIMITY_EVENT";
 
     public static final int NOTIFICATION_PROXIMITY_ALERT = 1;
-    public static final float LOCATION_GEOFENCE_RADIUS_METERS = 500f;
+    public static final float LOCATION_GEOFENCE_RADIUS_METERS = StoreConstants.LOCATION_GEOFENCE_RADIUS_METERS;
     public static final int MAXIMUM_ACCURACY_IN_METERS = 100;
 
     public static final long[] PROXIMITY_VIBRATION_PATTERN = {1000, 1000};
 
-    public static final long MIN_LOCATION_UPDATE_TIME_MILLIS = 300000l;
-    public static final long MIN_LOCATION_UPDATE_TIME_FOR_SAME_STORE_MILLIS = 3600000l;
+    public static final long MIN_LOCATION_UPDATE_TIME_MILLIS = StoreConstants.NOTIFICATION_COOLDOWN_MILLIS;
+    public static final long MIN_LOCATION_UPDATE_TIME_FOR_SAME_STORE_MILLIS = StoreConstants.SAME_STORE_NOTIFICATION_COOLDOWN_MILLIS;
+    public static final double MIN_STORE_UPDATE_DISPLACEMENT_METERS = 500;
+    public static final double FUSION_ACCELERATION_METERS_PER_SECOND_SQUARED = 3;
 
     public static final String LAST_NOTIFIED_STORE_KEY = "LAST_STORE_ALERT_KEY";
     public static final String LAST_NOTIFICATION_TIME = "LAST_NOTIFICATION_TIME";
     public static final String LAST_NOTIFICATION_TIME_FOR_SAME_STORE = "LAST_NOTIFICATION_TIME_FOR_SAME_STORE";
+    public static final String LAST_NOTIFICATION_TIME_FOR_STORE_PREFIX = "LAST_NOTIFICATION_TIME_FOR_STORE_";
     public static final String LISTEN_FOR_GPS_EXTRA = "LISTEN_FOR_GPS_EXTRA";
     public static final String LAST_GOOGLE_PLACES_POLL_TIME = "LAST_GOOGLE_PLACES_POLL_TIME";
     public static final int NETWORK_MIN_UPDATE_TIME = 45000;
     public static final int PASSIVE_MIN_UPDATE_TIME = 0;
+    public static final long GPS_APPROACH_MIN_UPDATE_TIME = 15000l;
     public static final long PROXIMITY_ALERT_EXPIRATION = -1;
+
+    public static final int GOOGLE_PLACES_PAGE_BUDGET = 3;
+    public static final long GOOGLE_PLACES_PAGE_TOKEN_DELAY_MILLIS = 2000;
+    public static final int GEOFENCE_BUDGET = 20;
+
+    public static final long PLACES_CACHE_TIME_TO_LIVE_MILLIS = 86400000l;
+    public static final int PLACES_CACHE_MAX_ENTRIES = 64;
+    public static final long PLACES_CACHE_MAX_BYTES = 256 * 1024;
 }
@@ -3,8 +3,8 @@ package com.groceryreminder.domain;
 import android.location.Criteria;
 import android.location.Location;
 import android.location.LocationManager;
-import android.util.Log;
 
+import com.groceryreminder.logging.Logger;
 import com.groceryreminder.services.GroceryLocatorService;
 
 import javax.inject.Inject;
@@ -24,9 +24,9 @@ public class GroceryStoreLocationManager implements GroceryStoreLocationManagerI
     public Location getLastKnownLocation() {
         Criteria expectedCriteria = buildLocationSearchCriteria();
         String provider = locationManager.getBestProvider(expectedCriteria, true);
-        Log.d(TAG, "Best provider is: " + provider);
+        Logger.d(TAG, "Best provider is: {}", provider);
         if (provider == null) {
-            Log.d(TAG, "No providers found");
+            Logger.d(TAG, "No providers found");
             return null;
         }
 
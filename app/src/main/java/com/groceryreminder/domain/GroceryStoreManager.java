@@ -1,132 +1,178 @@
 package com.groceryreminder.domain;
 
 import android.app.Application;
-import android.app.PendingIntent;
 import android.content.ContentProviderOperation;
 import android.content.ContentUris;
 import android.content.ContentValues;
 import android.content.Context;
-import android.content.Intent;
 import android.content.OperationApplicationException;
 import android.content.SharedPreferences;
-import android.database.Cursor;
 import android.location.Location;
 import android.location.LocationListener;
 import android.location.LocationManager;
 import android.net.Uri;
 import android.os.RemoteException;
-import android.os.SystemClock;
-import android.util.Log;
 
 import com.groceryreminder.R;
+import com.groceryreminder.core.LatencyHistogram;
+import com.groceryreminder.core.LocationQuality;
+import com.groceryreminder.core.LocationUpdateGate;
+import com.groceryreminder.core.LocationUpdateSchedule;
+import com.groceryreminder.core.MetricsRegistry;
+import com.groceryreminder.core.MonotonicClock;
+import com.groceryreminder.core.RadiusFilter;
+import com.groceryreminder.data.GroceryStoreLocationIndex;
 import com.groceryreminder.data.ReminderContract;
+import com.groceryreminder.data.StoreEntry;
 import com.groceryreminder.injection.ForApplication;
+import com.groceryreminder.logging.Logger;
 import com.groceryreminder.services.GroceryStoreLocationListener;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.inject.Inject;
 
-import se.walkercrou.places.GooglePlacesInterface;
 import se.walkercrou.places.Place;
 
 public class GroceryStoreManager implements GroceryStoreManagerInterface {
 
     private static final String TAG = "StoreManager";
+    private static final LatencyHistogram UPDATE_STORES_LATENCY = MetricsRegistry.getInstance().histogram("store_manager.update_stores");
+    private static final LatencyHistogram DELETE_STORES_LATENCY = MetricsRegistry.getInstance().histogram("store_manager.delete_stores");
+    private static final LatencyHistogram PERSIST_STORES_LATENCY = MetricsRegistry.getInstance().histogram("store_manager.persist_stores");
+    private static final LatencyHistogram PROXIMITY_ALERTS_LATENCY = MetricsRegistry.getInstance().histogram("store_manager.add_proximity_alerts");
+    private static final AtomicLong GATED_FIXES = MetricsRegistry.getInstance().counter("store_manager.gated_fixes");
+    private static final AtomicLong SEARCHES = MetricsRegistry.getInstance().counter("store_manager.searches");
+    private static final AtomicLong THROTTLED_SEARCHES = MetricsRegistry.getInstance().counter("store_manager.throttled_searches");
+    private static final RadiusFilter<Place> PLACE_RADIUS_FILTER = new RadiusFilter<Place>() {
+        @Override
+        protected double getLatitude(Place place) {
+            return place.getLatitude();
+        }
+
+        @Override
+        protected double getLongitude(Place place) {
+            return place.getLongitude();
+        }
+    };
     private final LocationManager locationManager;
-    private GooglePlacesInterface googlePlaces;
+    private GooglePlacesResponseCache placesCache;
+    private GooglePlacesSearchPipeline searchPipeline;
+    private GeofenceBudget geofenceBudget;
+    private AdaptiveLocationScheduler locationScheduler;
+    private LocationUpdateGate updateGate;
     private Application context;
     private LocationListener locationListener;
-    private Location currentLocation;
-    private long lastUpdateTime;
+    //Read off the main thread by the stores screen's loader
+    private volatile Location currentLocation;
 
     @Inject
-    public GroceryStoreManager(@ForApplication Application applicationContext, LocationManager locationManager, GooglePlacesInterface googlePlaces) {
+    public GroceryStoreManager(@ForApplication Application applicationContext, LocationManager locationManager, GooglePlacesResponseCache placesCache, GooglePlacesSearchPipeline searchPipeline, MonotonicClock clock) {
         this.context = applicationContext;
         this.locationManager = locationManager;
-        this.googlePlaces = googlePlaces;
+        this.placesCache = placesCache;
+        this.searchPipeline = searchPipeline;
+        this.geofenceBudget = new GeofenceBudget(new GeofenceRegistry(applicationContext, locationManager), GroceryReminderConstants.GEOFENCE_BUDGET);
+        this.locationScheduler = new AdaptiveLocationScheduler(locationManager);
+        this.updateGate = new LocationUpdateGate(clock, GroceryReminderConstants.MIN_LOCATION_UPDATE_TIME_MILLIS, GroceryReminderConstants.MIN_STORE_UPDATE_DISPLACEMENT_METERS);
     }
 
     @Override
     public void findStoresByLocation(Location location) {
-        Log.d(TAG, "Location: " + location);
+        Logger.d(TAG, "Location: {}", location);
 
         SharedPreferences sharedPreferences = context.getSharedPreferences(context.getString(R.string.reminder_pref_key), Context.MODE_PRIVATE);
         long lastPollTime = sharedPreferences.getLong(GroceryReminderConstants.LAST_GOOGLE_PLACES_POLL_TIME, 0);
 
-        if (System.currentTimeMillis() - lastPollTime > GroceryReminderConstants.MIN_LOCATION_UPDATE_TIME_MILLIS) {
-            GooglePlacesNearbySearchTask googlePlacesNearbySearchTask = new GooglePlacesNearbySearchTask(googlePlaces, this);
-            googlePlacesNearbySearchTask.execute(location);
+        //A warm tile never reaches the network, so only cold tiles are throttled
+        if (placesCache.isFresh(location.getLatitude(), location.getLongitude())) {
+            SEARCHES.incrementAndGet();
+            searchPipeline.search(location, this);
+        } else if (System.currentTimeMillis() - lastPollTime > GroceryReminderConstants.MIN_LOCATION_UPDATE_TIME_MILLIS) {
+            SEARCHES.incrementAndGet();
+            searchPipeline.search(location, this);
             sharedPreferences.edit().putLong(GroceryReminderConstants.LAST_GOOGLE_PLACES_POLL_TIME, System.currentTimeMillis()).commit();
+        } else {
+            THROTTLED_SEARCHES.incrementAndGet();
         }
     }
 
     @Override
     public List<Place> filterPlacesByDistance(Location location, List<Place> places, double distanceInMeters) {
-        List<Place> filteredPlaces = new ArrayList<Place>();
-        for (Place place : places) {
-            float[] distanceArray = new float[1];
-            Location.distanceBetween(location.getLatitude(), location.getLongitude(), place.getLatitude(), place.getLongitude(), distanceArray);
-            if (distanceArray[0] <= (float) distanceInMeters) {
-                filteredPlaces.add(place);
-            }
-        }
-        return filteredPlaces;
+        return PLACE_RADIUS_FILTER.filter(location.getLatitude(), location.getLongitude(), places, distanceInMeters);
     }
 
     @Override
     public void persistGroceryStores(List<Place> places) {
-        List<ContentValues> contentValuesList = new ArrayList<ContentValues>();
-        for (Place place : places) {
-            Log.d(TAG, "Found places");
-            ContentValues values = BuildLocationContentValues(place);
-            contentValuesList.add(values);
+        if (Logger.DEBUG) {
+            Logger.d(TAG, "Found places: {}", places.size());
         }
-
-        ArrayList<ContentProviderOperation> operations = new ArrayList<ContentProviderOperation>();
-        for (ContentValues contentValues : contentValuesList) {
-            operations.add(ContentProviderOperation.newInsert(ReminderContract.Locations.CONTENT_URI)
-                            .withValues(contentValues).build()
-            );
+        long startTime = System.nanoTime();
+        ContentValues[] contentValuesArray = new ContentValues[places.size()];
+        for (int i = 0; i < places.size(); i++) {
+            contentValuesArray[i] = BuildLocationContentValues(places.get(i));
         }
 
-        applyBatchOperations(operations);
-
+        context.getContentResolver().bulkInsert(ReminderContract.Locations.CONTENT_URI, contentValuesArray);
+        PERSIST_STORES_LATENCY.recordSince(startTime);
     }
 
     @Override
     public void deleteStoresByLocation(Location location) {
-        Cursor cursor = context.getContentResolver().query(ReminderContract.Locations.CONTENT_URI, ReminderContract.Locations.PROJECT_ALL, null, null, ReminderContract.Locations.SORT_ORDER_DEFAULT);
-
-        ArrayList<ContentProviderOperation> operations = new ArrayList<ContentProviderOperation>();
-        while (cursor.moveToNext()) {
-            float[] distanceArray = new float[1];
-            double latitude = Double.parseDouble(cursor.getString((cursor.getColumnIndex(ReminderContract.Locations.LATITUDE))));
-            double longitude = Double.parseDouble(cursor.getString((cursor.getColumnIndex(ReminderContract.Locations.LONGITUDE))));
-            Location.distanceBetween(location.getLatitude(), location.getLongitude(), latitude, longitude, distanceArray);
-
-            if (distanceArray[0] > (float) GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS) {
-                Uri deletionUri = ContentUris.withAppendedId(ReminderContract.Locations.CONTENT_URI, cursor.getInt(0));
-                operations.add(ContentProviderOperation.newDelete(deletionUri).build());
-            }
+        long startTime = System.nanoTime();
+        GroceryStoreLocationIndex storeLocationIndex = GroceryStoreLocationIndex.getInstance();
+        storeLocationIndex.loadIfNeeded(context.getContentResolver());
+
+        List<StoreEntry> keptEntries = new ArrayList<StoreEntry>();
+        List<StoreEntry> deletedEntries = new ArrayList<StoreEntry>();
+        storeLocationIndex.partitionByRadius(location.getLatitude(), location.getLongitude(), GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS,
+                keptEntries, deletedEntries);
+
+        ArrayList<ContentProviderOperation> operations = new ArrayList<ContentProviderOperation>(deletedEntries.size());
+        List<String> deletedPlacesIds = new ArrayList<String>(deletedEntries.size());
+        for (StoreEntry entry : deletedEntries) {
+            operations.add(buildDeleteOperation(entry));
+            deletedPlacesIds.add(getPlacesId(entry));
+        }
+
+        List<Place> keptPlaces = new ArrayList<Place>(keptEntries.size());
+        for (StoreEntry entry : keptEntries) {
+            keptPlaces.add(buildPlace(entry));
         }
 
         applyBatchOperations(operations);
+        geofenceBudget.remove(deletedPlacesIds);
+        geofenceBudget.addCandidates(keptPlaces);
+        DELETE_STORES_LATENCY.recordSince(startTime);
+    }
+
+    private String getPlacesId(StoreEntry entry) {
+        return entry.getPlacesId() != null ? entry.getPlacesId() : entry.getName();
+    }
+
+    private Place buildPlace(StoreEntry entry) {
+        Place place = new Place();
+        place.setPlaceId(entry.getPlacesId());
+        place.setName(entry.getName());
+        place.setLatitude(entry.getLatitude());
+        place.setLongitude(entry.getLongitude());
+
+        return place;
+    }
+
+    private ContentProviderOperation buildDeleteOperation(StoreEntry entry) {
+        Uri deletionUri = ContentUris.withAppendedId(ReminderContract.Locations.CONTENT_URI, entry.getId());
+        return ContentProviderOperation.newDelete(deletionUri).build();
     }
 
     @Override
     public void addProximityAlerts(List<Place> places) {
-        int requestCode = 0;
-        for (Place place : places) {
-            Log.d(TAG, "Adding proximity alert");
-            Intent proximityAlertIntent = new Intent(GroceryReminderConstants.ACTION_STORE_PROXIMITY_EVENT);
-            proximityAlertIntent.putExtra(ReminderContract.Locations.NAME, place.getName());
-            locationManager.addProximityAlert(place.getLatitude(), place.getLongitude(),
-                    GroceryReminderConstants.LOCATION_GEOFENCE_RADIUS_METERS, GroceryReminderConstants.PROXIMITY_ALERT_EXPIRATION,
-                    PendingIntent.getBroadcast(context, requestCode++, proximityAlertIntent,
-                            PendingIntent.FLAG_CANCEL_CURRENT));
-        }
+        //Only the stores nearest the current location stay armed, since the platform caps proximity alerts per app
+        long startTime = System.nanoTime();
+        geofenceBudget.offer(places, getCurrentLocation());
+        PROXIMITY_ALERTS_LATENCY.recordSince(startTime);
     }
 
     @Override
@@ -141,11 +187,9 @@ public class GroceryStoreManager implements GroceryStoreManagerInterface {
         }
     }
 
+    //Starts out relaxed until a fix tells the scheduler how far away the nearest store is
     private void addLocationListenerForProvider(String provider, LocationListener locationListener, long minUpdateTime) {
-        if (locationManager.isProviderEnabled(provider)) {
-            Log.d(TAG, "Provider is enabled");
-            locationManager.requestLocationUpdates(provider, minUpdateTime, (float) GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS, locationListener);
-        }
+        locationScheduler.request(provider, locationListener, new LocationUpdateSchedule(minUpdateTime, (float) GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS));
     }
 
     @Override
@@ -155,12 +199,26 @@ public class GroceryStoreManager implements GroceryStoreManagerInterface {
 
     @Override
     public void removeGPSListener() {
-        Log.d(TAG, "Removing GPS");
+        Logger.d(TAG, "Removing GPS");
         locationManager.removeUpdates(locationListener);
+        locationScheduler.clear();
         addLocationListenerForProvider(LocationManager.NETWORK_PROVIDER, locationListener, GroceryReminderConstants.NETWORK_MIN_UPDATE_TIME);
         addLocationListenerForProvider(LocationManager.PASSIVE_PROVIDER, locationListener, GroceryReminderConstants.PASSIVE_MIN_UPDATE_TIME);
     }
 
+    //Forgets the listener too, so the next start registers afresh instead of assuming the old requests are still live
+    @Override
+    public void removeLocationUpdates() {
+        if (locationListener == null) {
+            return;
+        }
+
+        Logger.d(TAG, "Removing location updates");
+        locationManager.removeUpdates(locationListener);
+        locationScheduler.clear();
+        locationListener = null;
+    }
+
     private LocationListener createLocationListener() {
         return new GroceryStoreLocationListener(this);
     }
@@ -178,7 +236,9 @@ public class GroceryStoreManager implements GroceryStoreManagerInterface {
     private ContentValues BuildLocationContentValues(Place place) {
         ContentValues values = new ContentValues();
         values.put(ReminderContract.Locations.NAME, place.getName());
-        Log.d(TAG, "Place from service call: " + place.getName());
+        if (Logger.DEBUG) {
+            Logger.d(TAG, "Place from service call: {}", place.getName());
+        }
         values.put(ReminderContract.Locations.PLACES_ID, place.getPlaceId());
         values.put(ReminderContract.Locations.LATITUDE, place.getLatitude());
         values.put(ReminderContract.Locations.LONGITUDE, place.getLongitude());
@@ -188,41 +248,33 @@ public class GroceryStoreManager implements GroceryStoreManagerInterface {
 
     @Override
     public void handleLocationUpdated(Location location) {
-        Log.d(TAG, "Hitting the handleLocationUpdated");
-        if (this.currentLocation == null) {
-            Log.d(TAG, "Current location is null");
-            this.currentLocation = location;
-            this.lastUpdateTime = SystemClock.currentThreadTimeMillis();
-            updateStoreLocations(location);
-        } else if (minimumUpdateTimeHasPassed(location)) {
-            Log.d(TAG, "Minimum update time has passed");
-            this.currentLocation = location;
-            this.lastUpdateTime = SystemClock.currentThreadTimeMillis();
+        Logger.d(TAG, "Hitting the handleLocationUpdated");
+        //Callers only hand over fixes that beat the current one, so it is kept even when the stores are not refreshed for it
+        this.currentLocation = location;
+        if (updateGate.tryPass(location.getLatitude(), location.getLongitude())) {
+            Logger.d(TAG, "Minimum update time and displacement have passed");
             updateStoreLocations(location);
+        } else {
+            GATED_FIXES.incrementAndGet();
         }
-    }
 
-    private boolean minimumUpdateTimeHasPassed(Location location) {
-        return location.getTime() - lastUpdateTime >= GroceryReminderConstants.MIN_LOCATION_UPDATE_TIME_MILLIS;
+        if (locationListener != null) {
+            locationScheduler.reschedule(location, GroceryStoreLocationIndex.getInstance().getSnapshot(context.getContentResolver()), locationListener);
+        }
     }
 
     private void updateStoreLocations(Location location) {
+        long startTime = System.nanoTime();
         deleteStoresByLocation(location);
+        geofenceBudget.rerank(location);
         findStoresByLocation(location);
-    }
-
-    public void onStoreLocationsUpdated(Location location, List<Place> updatedPlaces) {
-        List<Place> places = filterPlacesByDistance(location, updatedPlaces, GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS);
-
-        Log.d(TAG, "Places count: " + places.size());
-        persistGroceryStores(places);
-        addProximityAlerts(places);
+        UPDATE_STORES_LATENCY.recordSince(startTime);
     }
 
     @Override
     public boolean isBetterThanCurrentLocation(Location location) {
         if (!isAccurate(location)) {
-            Log.d(TAG, "Location accuracy is not good enough");
+            Logger.d(TAG, "Location accuracy is not good enough");
             return false;
         }
 
@@ -235,7 +287,7 @@ public class GroceryStoreManager implements GroceryStoreManagerInterface {
 
     @Override
     public boolean isAccurate(Location location) {
-        return location.getAccuracy() <= GroceryReminderConstants.MAXIMUM_ACCURACY_IN_METERS;
+        return LocationQuality.isAccurate(location.getAccuracy(), GroceryReminderConstants.MAXIMUM_ACCURACY_IN_METERS);
     }
 
     private boolean compareLocations(Location currentLocation, Location updateLocation) {
@@ -249,24 +301,24 @@ public class GroceryStoreManager implements GroceryStoreManagerInterface {
     }
 
     private boolean isSignificantlyMoreAccurate(Location currentLocation, Location updateLocation) {
-        float accuracyRatio = updateLocation.getAccuracy() / currentLocation.getAccuracy();
-
-        boolean isMoreAccurate = accuracyRatio <= SIGNIFICANT_LOCATION_ACCURACY_RATIO;
-        Log.d(TAG, "New location accuracyRatio: " + accuracyRatio);
-        Log.d(TAG, "New location is significantly more accurate: " + isMoreAccurate);
-        Log.d(TAG, "Significant location accuracy is: " + SIGNIFICANT_LOCATION_ACCURACY_RATIO);
+        boolean isMoreAccurate = LocationQuality.isSignificantlyMoreAccurate(currentLocation.getAccuracy(), updateLocation.getAccuracy());
+        if (Logger.DEBUG) {
+            Logger.d(TAG, "New location accuracyRatio: {}", updateLocation.getAccuracy() / currentLocation.getAccuracy());
+            Logger.d(TAG, "New location is significantly more accurate: {}", isMoreAccurate);
+            Logger.d(TAG, "Significant location accuracy is: {}", SIGNIFICANT_LOCATION_ACCURACY_RATIO);
+        }
 
         return isMoreAccurate;
     }
 
     private boolean isSignificantlyNewerLocation(Location currentLocation, Location updateLocation) {
-        long timeDelta = updateLocation.getTime() - currentLocation.getTime();
+        boolean isNewerLocation = LocationQuality.isSignificantlyNewer(currentLocation.getTime(), updateLocation.getTime());
 
-        boolean isNewerLocation = timeDelta >= SIGNIFICANT_LOCATION_TIME_DELTA;
-
-        Log.d(TAG, "New location is more recent: " + isNewerLocation);
-        Log.d(TAG, "Time delta since current location: " + timeDelta);
-        Log.d(TAG, "Significant time delta is: " + SIGNIFICANT_LOCATION_TIME_DELTA);
+        if (Logger.DEBUG) {
+            Logger.d(TAG, "New location is more recent: {}", isNewerLocation);
+            Logger.d(TAG, "Time delta since current location: {}", updateLocation.getTime() - currentLocation.getTime());
+            Logger.d(TAG, "Significant time delta is: {}", SIGNIFICANT_LOCATION_TIME_DELTA);
+        }
 
         return isNewerLocation;
     }
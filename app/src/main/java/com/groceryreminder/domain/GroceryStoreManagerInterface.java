@@ -10,8 +10,6 @@ import se.walkercrou.places.Place;
 
 public interface GroceryStoreManagerInterface extends LocationUpdater{
 
-    int GOOGLE_PLACES_MAX_RESULTS = 40;
-
     void findStoresByLocation(Location location);
 
     List<Place> filterPlacesByDistance(Location location, List<Place> places, double distanceInMeters);
@@ -25,8 +23,4 @@ public interface GroceryStoreManagerInterface extends LocationUpdater{
 
 
     Location getCurrentLocation();
-
-
-
-    void onStoreLocationsUpdated(Location location, List<Place> updatedPlaces);
 }
@@ -11,21 +11,31 @@ import android.location.LocationManager;
 import android.provider.Settings;
 import android.support.v4.app.NotificationCompat;
 import android.support.v4.app.NotificationManagerCompat;
-import android.util.Log;
 
 import com.groceryreminder.R;
+import com.groceryreminder.core.LatencyHistogram;
+import com.groceryreminder.core.MetricsRegistry;
+import com.groceryreminder.data.GroceryStoreLocationIndex;
 import com.groceryreminder.data.ReminderContract;
+import com.groceryreminder.data.StoreSnapshot;
 import com.groceryreminder.injection.ForApplication;
-import com.groceryreminder.models.GroceryStore;
+import com.groceryreminder.logging.Logger;
 import com.groceryreminder.views.reminders.RemindersActivity;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import javax.inject.Inject;
 
 public class GroceryStoreNotificationManager implements GroceryStoreNotificationManagerInterface {
 
     public static final String TAG = "StoreNotification";
+    private static final LatencyHistogram EVALUATE_LATENCY = MetricsRegistry.getInstance().histogram("notifications.evaluate");
+    private static final AtomicLong NOTIFICATIONS_SENT = MetricsRegistry.getInstance().counter("notifications.sent");
     Application context;
     LocationManager locationManager;
+    private NotificationCooldownState cooldownState;
+    //Every location fix lands here, so the match buffer is kept between calls and only grows with the snapshot
+    private int[] nearbyStores = new int[0];
 
     @Inject
     public GroceryStoreNotificationManager(@ForApplication Application context, LocationManager locationManager) {
@@ -33,19 +43,16 @@ public class GroceryStoreNotificationManager implements GroceryStoreNotification
         this.locationManager = locationManager;
     }
 
-    public void saveNoticeDetails(String currentStoreName, long currentTime) {
-        Log.d(TAG, "Saving notice details");
-        SharedPreferences sharedPreferences = context.getSharedPreferences(context.getString(R.string.reminder_pref_key), Context.MODE_PRIVATE);
-        long lastNotificationTimeForSameStore = 0;
-        if (currentStoreName.equals(sharedPreferences.getString(GroceryReminderConstants.LAST_NOTIFIED_STORE_KEY, ""))) {
-            lastNotificationTimeForSameStore = currentTime;
+    private synchronized NotificationCooldownState getCooldownState() {
+        if (cooldownState == null) {
+            cooldownState = NotificationCooldownState.load(getSharedPreferences());
         }
 
-        sharedPreferences.edit()
-                .putString(GroceryReminderConstants.LAST_NOTIFIED_STORE_KEY, currentStoreName)
-                .putLong(GroceryReminderConstants.LAST_NOTIFICATION_TIME, currentTime)
-                .putLong(GroceryReminderConstants.LAST_NOTIFICATION_TIME_FOR_SAME_STORE, lastNotificationTimeForSameStore)
-                .commit();
+        return cooldownState;
+    }
+
+    private SharedPreferences getSharedPreferences() {
+        return context.getSharedPreferences(context.getString(R.string.reminder_pref_key), Context.MODE_PRIVATE);
     }
 
     public void sendNotification(Intent intent) {
@@ -57,58 +64,39 @@ public class GroceryStoreNotificationManager implements GroceryStoreNotification
     }
 
     @Override
-    public void sendPotentialNotification(Location location, long currentTime) {
-        Cursor storeCursor = context.getContentResolver().query(ReminderContract.Locations.CONTENT_URI, ReminderContract.Locations.PROJECT_ALL, null, null, ReminderContract.Locations.SORT_ORDER_DEFAULT);
-        if (storeCursor.getCount() > 0 && remindersExist()) {
-            while(storeCursor.moveToNext()) {
-                GroceryStore groceryStore = new GroceryStore(
-                        storeCursor.getString(storeCursor.getColumnIndex(ReminderContract.Locations.NAME)),
-                        storeCursor.getDouble(storeCursor.getColumnIndex(ReminderContract.Locations.LATITUDE)),
-                        storeCursor.getDouble(storeCursor.getColumnIndex(ReminderContract.Locations.LONGITUDE)));
-
-                sendSingleNotification(location, currentTime, groceryStore);
-            }
-        }
-    }
+    public synchronized void sendPotentialNotification(Location location, long currentTime) {
+        long startTime = System.nanoTime();
+        StoreSnapshot snapshot = GroceryStoreLocationIndex.getInstance().getSnapshot(context.getContentResolver());
 
-    private void sendSingleNotification(Location location, long currentTime, GroceryStore groceryStore) {
-        SharedPreferences sharedPreferences = context.getSharedPreferences(context.getString(R.string.reminder_pref_key), Context.MODE_PRIVATE);
-        String lastNotifiedStore = sharedPreferences.getString(GroceryReminderConstants.LAST_NOTIFIED_STORE_KEY, "");
-        long lastNotificationTime = sharedPreferences.getLong(GroceryReminderConstants.LAST_NOTIFICATION_TIME, 0);
-        long lastNotificationTimeForSameStore = sharedPreferences.getLong(GroceryReminderConstants.LAST_NOTIFICATION_TIME_FOR_SAME_STORE, 0);
-        Log.d(TAG, "Last notification time: " + lastNotificationTime);
-
-        boolean isLastNotifiedStore = isNotificationForCurrentStore(lastNotifiedStore, groceryStore.getName());
-        Log.d(TAG, "Notification is for current store: " + isLastNotifiedStore);
-
-        boolean storeIsNearby = isStoreNearby(location, groceryStore);
-
-        boolean notificationIsTooRecent = notificationIsTooRecent(lastNotificationTime, currentTime, GroceryReminderConstants.MIN_LOCATION_UPDATE_TIME_MILLIS);
-        boolean notificationIsTooRecentForSameStore = notificationIsTooRecent(lastNotificationTimeForSameStore, currentTime, GroceryReminderConstants.MIN_LOCATION_UPDATE_TIME_FOR_SAME_STORE_MILLIS);
-
-        Log.d(TAG, "Notification is too recent: " + notificationIsTooRecent);
-
-        if (storeIsNearby && canNotifyForStore(isLastNotifiedStore, notificationIsTooRecentForSameStore) && !notificationIsTooRecent) {
-            Intent notificationIntent = new Intent();
-            notificationIntent.putExtra(ReminderContract.Locations.NAME, groceryStore.getName());
-            sendNotification(notificationIntent);
-            saveNoticeDetails(groceryStore.getName(), currentTime);
+        if (nearbyStores.length < snapshot.size()) {
+            nearbyStores = new int[snapshot.size()];
         }
-    }
+        int nearbyStoreCount = snapshot.findWithinRadius(location.getLatitude(), location.getLongitude(), GroceryReminderConstants.LOCATION_GEOFENCE_RADIUS_METERS, nearbyStores);
+        if (Logger.DEBUG) {
+            Logger.d(TAG, "Nearby stores: {}", nearbyStoreCount);
+        }
+        if (nearbyStoreCount > 0 && remindersExist()) {
+            NotificationCooldownState cooldownState = getCooldownState();
+            if (Logger.DEBUG) {
+                Logger.d(TAG, "Last notification time: {}", cooldownState.getLastNotificationTime());
+            }
+            int notifiedStoreCount = cooldownState.claimNotifiableStores(snapshot, nearbyStores, nearbyStoreCount, currentTime);
+            for (int i = 0; i < notifiedStoreCount; i++) {
+                sendSingleNotification(snapshot, nearbyStores[i]);
+            }
 
-    private boolean canNotifyForStore(boolean isLastNotifiedStore, boolean notificationIsTooRecentForSameStore) {
-        return (isLastNotifiedStore && !notificationIsTooRecentForSameStore) || !isLastNotifiedStore;
+            if (cooldownState.isDirty()) {
+                cooldownState.save(getSharedPreferences(), currentTime);
+            }
+        }
+        EVALUATE_LATENCY.recordSince(startTime);
     }
 
-    private boolean isStoreNearby(Location location, GroceryStore groceryStore) {
-        float[] distanceResults = new float[1];
-        Location.distanceBetween(location.getLatitude(), location.getLongitude(), groceryStore.getLatitude(), groceryStore.getLongitude(), distanceResults);
-
-        boolean storeIsNearby = distanceResults[0] <= GroceryReminderConstants.LOCATION_GEOFENCE_RADIUS_METERS;
-
-        Log.d(TAG, "Distance from store: " + distanceResults[0]);
-        Log.d(TAG, "Store is close: " + storeIsNearby);
-        return storeIsNearby;
+    private void sendSingleNotification(StoreSnapshot snapshot, int store) {
+        Intent notificationIntent = new Intent();
+        notificationIntent.putExtra(ReminderContract.Locations.NAME, snapshot.getName(store));
+        sendNotification(notificationIntent);
+        NOTIFICATIONS_SENT.incrementAndGet();
     }
 
     private boolean remindersExist() {
@@ -117,18 +105,6 @@ public class GroceryStoreNotificationManager implements GroceryStoreNotification
         return cursor.getCount() > 0;
     }
 
-    private boolean notificationIsTooRecent(long lastNotificationTime, long currentTime, long threshold) {
-        Log.d(TAG, "Current time: " + currentTime);
-        Log.d(TAG, "Previous time: " + lastNotificationTime);
-        long timeDelta = currentTime - lastNotificationTime;
-        Log.d(TAG, "Time Delta: " + timeDelta);
-        return timeDelta <= threshold;
-    }
-
-    private boolean isNotificationForCurrentStore(String lastNotifiedStore, String currentStoreName) {
-        return lastNotifiedStore.equals(currentStoreName);
-    }
-
     private NotificationCompat.Builder buildReminderNotification(PendingIntent resultPendingIntent, Intent intent) {
         return new NotificationCompat.Builder(context)
                 .setSmallIcon(R.drawable.ic_stat_maps_local_grocery_store)
@@ -0,0 +1,54 @@
+package com.groceryreminder.domain;
+
+import android.content.SharedPreferences;
+
+import com.groceryreminder.core.NotificationCooldown;
+import com.groceryreminder.core.StoreCooldowns;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class NotificationCooldownState extends StoreCooldowns {
+
+    private static final NotificationCooldown COOLDOWN = new NotificationCooldown(GroceryReminderConstants.MIN_LOCATION_UPDATE_TIME_MILLIS,
+            GroceryReminderConstants.MIN_LOCATION_UPDATE_TIME_FOR_SAME_STORE_MILLIS);
+
+    private NotificationCooldownState() {
+        super(COOLDOWN);
+    }
+
+    public static NotificationCooldownState load(SharedPreferences sharedPreferences) {
+        Map<String, Long> lastNotificationTimeByStore = new HashMap<String, Long>();
+        for (Map.Entry<String, ?> preference : sharedPreferences.getAll().entrySet()) {
+            String key = preference.getKey();
+            if (key.startsWith(GroceryReminderConstants.LAST_NOTIFICATION_TIME_FOR_STORE_PREFIX) && preference.getValue() instanceof Long) {
+                String storeKey = key.substring(GroceryReminderConstants.LAST_NOTIFICATION_TIME_FOR_STORE_PREFIX.length());
+                lastNotificationTimeByStore.put(storeKey, (Long) preference.getValue());
+            }
+        }
+
+        NotificationCooldownState cooldownState = new NotificationCooldownState();
+        cooldownState.restore(sharedPreferences.getLong(GroceryReminderConstants.LAST_NOTIFICATION_TIME, 0), lastNotificationTimeByStore);
+
+        return cooldownState;
+    }
+
+    public void save(SharedPreferences sharedPreferences, long currentTime) {
+        SharedPreferences.Editor editor = sharedPreferences.edit();
+        //The single "last store" slot is replaced by the per store times
+        editor.remove(GroceryReminderConstants.LAST_NOTIFIED_STORE_KEY);
+        editor.remove(GroceryReminderConstants.LAST_NOTIFICATION_TIME_FOR_SAME_STORE);
+        editor.putLong(GroceryReminderConstants.LAST_NOTIFICATION_TIME, getLastNotificationTime());
+        for (Map.Entry<String, Long> storeWrite : getPendingStoreWrites().entrySet()) {
+            editor.putLong(GroceryReminderConstants.LAST_NOTIFICATION_TIME_FOR_STORE_PREFIX + storeWrite.getKey(), storeWrite.getValue());
+        }
+
+        //Keeps the preferences from growing without bound
+        for (String storeKey : expire(currentTime)) {
+            editor.remove(GroceryReminderConstants.LAST_NOTIFICATION_TIME_FOR_STORE_PREFIX + storeKey);
+        }
+
+        editor.apply();
+        markSaved();
+    }
+}
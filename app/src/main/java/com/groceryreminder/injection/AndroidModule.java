@@ -4,6 +4,8 @@ import android.app.Application;
 import android.content.Context;
 import android.location.LocationManager;
 
+import com.groceryreminder.core.MonotonicClock;
+import com.groceryreminder.domain.ElapsedRealtimeClock;
 import com.groceryreminder.domain.GroceryStoreLocationManager;
 import com.groceryreminder.views.reminders.RemindersActivity;
 
@@ -36,4 +38,10 @@ public class AndroidModule {
     public LocationManager getLocationManager() {
         return (LocationManager) application.getSystemService(LOCATION_SERVICE);
     }
+
+    @Provides
+    @Singleton
+    public MonotonicClock getClock() {
+        return new ElapsedRealtimeClock();
+    }
 }
@@ -11,6 +11,7 @@ import com.groceryreminder.domain.GroceryStoreNotificationManagerInterface;
 import com.groceryreminder.services.GroceryLocatorService;
 import com.groceryreminder.services.GroceryStoreBroadcastReceiver;
 import com.groceryreminder.services.GroceryStoreNotificationService;
+import com.groceryreminder.views.BackgroundDiffer;
 import com.groceryreminder.views.stores.GroceryStoresActivity;
 
 import javax.inject.Singleton;
@@ -59,4 +60,10 @@ public class ReminderModule {
 
         return groceryStoreNotificationManager;
     }
+
+    //Not a singleton, since each list drops the diffs its own newer submissions overtake
+    @Provides
+    public BackgroundDiffer getBackgroundDiffer() {
+        return new BackgroundDiffer();
+    }
 }
@@ -5,6 +5,8 @@ import android.content.pm.PackageManager;
 import android.os.Bundle;
 import android.util.Log;
 
+import com.groceryreminder.domain.GooglePlacesResponseCache;
+
 import javax.inject.Singleton;
 
 import dagger.Module;
@@ -43,4 +45,10 @@ public class RemoteResourcesModule {
 
         return null;
     }
+
+    @Provides
+    @Singleton
+    public GooglePlacesResponseCache getGooglePlacesResponseCache() {
+        return new GooglePlacesResponseCache(reminderApplication);
+    }
 }
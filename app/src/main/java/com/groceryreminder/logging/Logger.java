@@ -0,0 +1,80 @@
+package com.groceryreminder.logging;
+
+import android.util.Log;
+
+import com.groceryreminder.BuildConfig;
+import com.groceryreminder.core.LogFormat;
+
+//The level flags are compile time constants, so a call wrapped in if (Logger.DEBUG) is dropped entirely from a release build.
+//Wrap calls inside loops or with boxed arguments; elsewhere the unwrapped calls only format once the level is enabled.
+public final class Logger {
+
+    public static final boolean VERBOSE = BuildConfig.LOG_LEVEL <= Log.VERBOSE;
+    public static final boolean DEBUG = BuildConfig.LOG_LEVEL <= Log.DEBUG;
+    public static final boolean INFO = BuildConfig.LOG_LEVEL <= Log.INFO;
+    public static final boolean WARN = BuildConfig.LOG_LEVEL <= Log.WARN;
+    public static final boolean ERROR = BuildConfig.LOG_LEVEL <= Log.ERROR;
+
+    private Logger() {
+    }
+
+    public static void d(String tag, String message) {
+        if (DEBUG) {
+            Log.d(tag, message);
+        }
+    }
+
+    public static void d(String tag, String pattern, Object arg) {
+        if (DEBUG) {
+            Log.d(tag, LogFormat.format(pattern, arg));
+        }
+    }
+
+    public static void d(String tag, String pattern, Object firstArg, Object secondArg) {
+        if (DEBUG) {
+            Log.d(tag, LogFormat.format(pattern, firstArg, secondArg));
+        }
+    }
+
+    public static void d(String tag, String pattern, Object firstArg, Object secondArg, Object thirdArg) {
+        if (DEBUG) {
+            Log.d(tag, LogFormat.format(pattern, firstArg, secondArg, thirdArg));
+        }
+    }
+
+    public static void i(String tag, String message) {
+        if (INFO) {
+            Log.i(tag, message);
+        }
+    }
+
+    public static void i(String tag, String pattern, Object arg) {
+        if (INFO) {
+            Log.i(tag, LogFormat.format(pattern, arg));
+        }
+    }
+
+    public static void w(String tag, String message) {
+        if (WARN) {
+            Log.w(tag, message);
+        }
+    }
+
+    public static void w(String tag, String message, Throwable throwable) {
+        if (WARN) {
+            Log.w(tag, message, throwable);
+        }
+    }
+
+    public static void e(String tag, String message) {
+        if (ERROR) {
+            Log.e(tag, message);
+        }
+    }
+
+    public static void e(String tag, String message, Throwable throwable) {
+        if (ERROR) {
+            Log.e(tag, message, throwable);
+        }
+    }
+}
@@ -4,18 +4,20 @@ import android.app.Service;
 import android.content.Intent;
 import android.location.Location;
 import android.os.*;
-import android.util.Log;
 
 import com.groceryreminder.domain.GroceryReminderConstants;
 import com.groceryreminder.domain.GroceryStoreLocationManagerInterface;
 import com.groceryreminder.domain.GroceryStoreManagerInterface;
 import com.groceryreminder.injection.ReminderApplication;
+import com.groceryreminder.logging.Logger;
 
 import javax.inject.Inject;
 
 public class GroceryLocatorService extends Service {
 
     private static final String TAG = "GroceryLocatorService";
+    static final int MSG_LOCATE = 1;
+    static final int MSG_LOCATE_WITH_GPS = 2;
 
     @Inject
     GroceryStoreLocationManagerInterface groceryStoreLocationManager;
@@ -24,6 +26,7 @@ public class GroceryLocatorService extends Service {
     GroceryStoreManagerInterface groceryStoreManager;
     private Looper mServiceLooper;
     private ServiceHandler mServiceHandler;
+    private final ServiceCommandTimings commandTimings = new ServiceCommandTimings();
 
     public GroceryLocatorService() {
         super();
@@ -35,7 +38,7 @@ public class GroceryLocatorService extends Service {
         ((ReminderApplication)getApplication()).inject(this);
 
         HandlerThread thread = new HandlerThread("ServiceStartArguments",
-                android.os.Process.THREAD_PRIORITY_DEFAULT);
+                android.os.Process.THREAD_PRIORITY_BACKGROUND);
         thread.start();
 
         // Get the HandlerThread's Looper and use it for our Handler
@@ -43,6 +46,20 @@ public class GroceryLocatorService extends Service {
         mServiceHandler = new ServiceHandler(mServiceLooper);
     }
 
+    @Override
+    public void onDestroy() {
+        mServiceHandler.removeCallbacksAndMessages(null);
+        //Queued behind any locate already running on the service looper, so that locate can't register the listeners again once they are removed
+        mServiceHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                groceryStoreManager.removeLocationUpdates();
+                mServiceLooper.quit();
+            }
+        });
+        super.onDestroy();
+    }
+
     @Override
     public IBinder onBind(Intent intent) {
         return null;
@@ -50,19 +67,41 @@ public class GroceryLocatorService extends Service {
 
     @Override
     public int onStartCommand(Intent intent, int flags, int startId) {
-        Log.d(TAG, "In onHandleIntent");
+        Logger.d(TAG, "In onHandleIntent");
         if (intent == null) {
             return START_STICKY;
         }
 
-        Message message = mServiceHandler.obtainMessage();
+        boolean listenForGPS = intent.getBooleanExtra(GroceryReminderConstants.LISTEN_FOR_GPS_EXTRA, false);
+        int what = listenForGPS ? MSG_LOCATE_WITH_GPS : MSG_LOCATE;
+        //A queued command will already read the freshest last known location, so a duplicate adds nothing
+        if (mServiceHandler.hasMessages(what)) {
+            if (Logger.DEBUG) {
+                Logger.d(TAG, "Collapsing duplicate command: {}", getCommandName(what));
+            }
+            commandTimings.recordCollapsed(getCommandName(what));
+            return START_STICKY;
+        }
+
+        Message message = mServiceHandler.obtainMessage(what);
         message.arg1 = startId;
-        message.obj = intent.getBooleanExtra(GroceryReminderConstants.LISTEN_FOR_GPS_EXTRA, false);
-        mServiceHandler.handleMessage(message);
+        mServiceHandler.sendMessage(message);
 
         return START_STICKY;
     }
 
+    public ServiceCommandTimings getCommandTimings() {
+        return commandTimings;
+    }
+
+    Looper getServiceLooper() {
+        return mServiceLooper;
+    }
+
+    private static String getCommandName(int what) {
+        return what == MSG_LOCATE_WITH_GPS ? "locate_with_gps" : "locate";
+    }
+
     private class ServiceHandler extends Handler {
         public ServiceHandler(Looper looper) {
             super(looper);
@@ -70,8 +109,10 @@ public class GroceryLocatorService extends Service {
 
         @Override
         public void handleMessage(Message msg) {
-            boolean listenForGPS = (boolean)msg.obj;
-            if (listenForGPS) {
+            long startTime = SystemClock.uptimeMillis();
+            long queuedMillis = Math.max(0, startTime - msg.getWhen());
+
+            if (msg.what == MSG_LOCATE_WITH_GPS) {
                 groceryStoreManager.listenForLocationUpdates(true);
             } else {
                 groceryStoreManager.listenForLocationUpdates(false);
@@ -80,6 +121,12 @@ public class GroceryLocatorService extends Service {
             if (location != null && groceryStoreManager.isBetterThanCurrentLocation(location)) {
                 groceryStoreManager.handleLocationUpdated(location);
             }
+
+            String command = getCommandName(msg.what);
+            commandTimings.record(command, queuedMillis, SystemClock.uptimeMillis() - startTime);
+            if (Logger.DEBUG) {
+                Logger.d(TAG, "Handled {}, {}", command, commandTimings.getTiming(command));
+            }
         }
     }
 }
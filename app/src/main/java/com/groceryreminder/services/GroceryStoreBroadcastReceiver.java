@@ -4,11 +4,11 @@ import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
 import android.location.Location;
-import android.util.Log;
 
 import com.groceryreminder.data.ReminderContract;
 import com.groceryreminder.domain.GroceryStoreLocationManagerInterface;
 import com.groceryreminder.injection.ReminderObjectGraph;
+import com.groceryreminder.logging.Logger;
 
 import javax.inject.Inject;
 
@@ -22,7 +22,7 @@ public class GroceryStoreBroadcastReceiver extends BroadcastReceiver {
     @Override
     public void onReceive(Context context, Intent intent) {
         ReminderObjectGraph.getInstance().inject(this);
-        Log.d(TAG, "Receiving proximity alert.");
+        Logger.d(TAG, "Receiving proximity alert.");
         Intent serviceIntent = new Intent(context, GroceryStoreNotificationService.class);
 
         Location lastKnownLocation = groceryStoreLocationManager.getLastKnownLocation();
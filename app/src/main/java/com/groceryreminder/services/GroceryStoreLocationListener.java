@@ -3,7 +3,8 @@ package com.groceryreminder.services;
 import android.location.Location;
 import android.location.LocationListener;
 import android.os.Bundle;
-import android.util.Log;
+
+import com.groceryreminder.logging.Logger;
 
 public class GroceryStoreLocationListener implements LocationListener {
 
@@ -11,19 +12,33 @@ public class GroceryStoreLocationListener implements LocationListener {
     public static final String PROVIDER = "provider";
 
     private final LocationUpdater locationUpdater;
+    private final LocationFusion locationFusion;
 
     public GroceryStoreLocationListener(LocationUpdater locationUpdater) {
+        this(locationUpdater, new LocationFusion());
+    }
+
+    public GroceryStoreLocationListener(LocationUpdater locationUpdater, LocationFusion locationFusion) {
         this.locationUpdater = locationUpdater;
+        this.locationFusion = locationFusion;
     }
 
     @Override
     public void onLocationChanged(Location location) {
-        Log.d(TAG, "Location Updated: " + location.getLatitude() + ",  " + location.getLongitude());
-        Log.d(TAG, "Location Provider: " + location.getProvider());
-        Log.d(TAG, "Location Accuracy: " + location.getAccuracy());
+        if (Logger.DEBUG) {
+            Logger.d(TAG, "Location Updated: {},  {}", location.getLatitude(), location.getLongitude());
+            Logger.d(TAG, "Location Provider: {}", location.getProvider());
+            Logger.d(TAG, "Location Accuracy: {}", location.getAccuracy());
+        }
+
+        Location fusedLocation = locationFusion.fuse(location);
+        if (fusedLocation == null) {
+            Logger.d(TAG, "Location was not taken by the fusion filter");
+            return;
+        }
 
-        if (locationUpdater.isBetterThanCurrentLocation(location)) {
-            locationUpdater.handleLocationUpdated(location);
+        if (locationUpdater.isBetterThanCurrentLocation(fusedLocation)) {
+            locationUpdater.handleLocationUpdated(fusedLocation);
         }
     }
 
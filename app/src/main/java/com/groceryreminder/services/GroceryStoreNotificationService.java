@@ -3,11 +3,11 @@ package com.groceryreminder.services;
 import android.app.IntentService;
 import android.content.Intent;
 import android.location.Location;
-import android.util.Log;
 
 import com.groceryreminder.data.ReminderContract;
 import com.groceryreminder.domain.GroceryStoreNotificationManagerInterface;
 import com.groceryreminder.injection.ReminderApplication;
+import com.groceryreminder.logging.Logger;
 
 import javax.inject.Inject;
 
@@ -30,7 +30,7 @@ public class GroceryStoreNotificationService extends IntentService {
 
     @Override
     protected void onHandleIntent(Intent intent) {
-        Log.d(TAG, "Handling proximity alert.");
+        Logger.d(TAG, "Handling proximity alert.");
         long currentTime = System.currentTimeMillis();
 
         Location location = new Location(intent.getStringExtra(GroceryStoreLocationListener.PROVIDER));
@@ -0,0 +1,47 @@
+package com.groceryreminder.services;
+
+import android.location.Location;
+import android.os.Bundle;
+
+import com.groceryreminder.core.LocationKalmanFilter;
+import com.groceryreminder.domain.GroceryReminderConstants;
+
+//Folds the fixes from every provider into one smoothed track, so jitter between providers does not look like movement
+public class LocationFusion {
+
+    public static final String FUSED_PROVIDER = "fused";
+    public static final String EXTRA_NORTH_VARIANCE = "northVariance";
+    public static final String EXTRA_EAST_VARIANCE = "eastVariance";
+
+    private final LocationKalmanFilter filter;
+
+    public LocationFusion() {
+        this(new LocationKalmanFilter(GroceryReminderConstants.FUSION_ACCELERATION_METERS_PER_SECOND_SQUARED));
+    }
+
+    public LocationFusion(LocationKalmanFilter filter) {
+        this.filter = filter;
+    }
+
+    //Returns null for a fix the filter did not take, such as a stale passive fix or an outlier
+    public synchronized Location fuse(Location location) {
+        if (!filter.update(location.getTime(), location.getLatitude(), location.getLongitude(), location.getAccuracy())) {
+            return null;
+        }
+
+        Location fusedLocation = new Location(FUSED_PROVIDER);
+        fusedLocation.setTime(location.getTime());
+        fusedLocation.setLatitude(filter.getLatitude());
+        fusedLocation.setLongitude(filter.getLongitude());
+        fusedLocation.setAccuracy((float) filter.getAccuracy());
+        fusedLocation.setSpeed((float) filter.getSpeed());
+        fusedLocation.setBearing((float) filter.getBearing());
+
+        Bundle extras = new Bundle();
+        extras.putDouble(EXTRA_NORTH_VARIANCE, filter.getNorthVariance());
+        extras.putDouble(EXTRA_EAST_VARIANCE, filter.getEastVariance());
+        fusedLocation.setExtras(extras);
+
+        return fusedLocation;
+    }
+}
@@ -2,9 +2,11 @@ package com.groceryreminder.services;
 
 import android.location.Location;
 
+import com.groceryreminder.core.LocationQuality;
+
 public interface LocationUpdater {
-    int SIGNIFICANT_LOCATION_TIME_DELTA = 60000;
-    float SIGNIFICANT_LOCATION_ACCURACY_RATIO = .50f;
+    int SIGNIFICANT_LOCATION_TIME_DELTA = LocationQuality.SIGNIFICANT_TIME_DELTA_MILLIS;
+    float SIGNIFICANT_LOCATION_ACCURACY_RATIO = LocationQuality.SIGNIFICANT_ACCURACY_RATIO;
 
     void handleLocationUpdated(Location location);
 
@@ -15,4 +17,6 @@ public interface LocationUpdater {
     void listenForLocationUpdates(boolean listenForGPSUpdates);
 
     void removeGPSListener();
+
+    void removeLocationUpdates();
 }
@@ -0,0 +1,118 @@
+package com.groceryreminder.services;
+
+import com.groceryreminder.core.MetricsRegistry;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class ServiceCommandTimings {
+
+    private static final long NANOS_PER_MILLI = 1000000;
+
+    private final Map<String, Timing> timings = new HashMap<String, Timing>();
+    private final MetricsRegistry metricsRegistry;
+
+    public ServiceCommandTimings() {
+        this(MetricsRegistry.getInstance());
+    }
+
+    public ServiceCommandTimings(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    public synchronized void record(String command, long queuedMillis, long runMillis) {
+        Timing timing = timings.get(command);
+        if (timing == null) {
+            timing = new Timing();
+            timings.put(command, timing);
+        }
+
+        timing.count++;
+        timing.totalQueuedMillis += queuedMillis;
+        timing.maxQueuedMillis = Math.max(timing.maxQueuedMillis, queuedMillis);
+        timing.totalRunMillis += runMillis;
+        timing.maxRunMillis = Math.max(timing.maxRunMillis, runMillis);
+        timing.lastRunMillis = runMillis;
+
+        metricsRegistry.histogram(getMetricName(command, "queued")).record(queuedMillis * NANOS_PER_MILLI);
+        metricsRegistry.histogram(getMetricName(command, "run")).record(runMillis * NANOS_PER_MILLI);
+    }
+
+    public synchronized void recordCollapsed(String command) {
+        Timing timing = timings.get(command);
+        if (timing == null) {
+            timing = new Timing();
+            timings.put(command, timing);
+        }
+
+        timing.collapsedCount++;
+        metricsRegistry.counter(getMetricName(command, "collapsed")).incrementAndGet();
+    }
+
+    private static String getMetricName(String command, String measure) {
+        return "locator_service." + command + "." + measure;
+    }
+
+    public synchronized Timing getTiming(String command) {
+        Timing timing = timings.get(command);
+        return timing == null ? new Timing() : timing.copy();
+    }
+
+    public static class Timing {
+
+        private long count;
+        private long collapsedCount;
+        private long totalQueuedMillis;
+        private long maxQueuedMillis;
+        private long totalRunMillis;
+        private long maxRunMillis;
+        private long lastRunMillis;
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getCollapsedCount() {
+            return collapsedCount;
+        }
+
+        public long getAverageQueuedMillis() {
+            return count == 0 ? 0 : totalQueuedMillis / count;
+        }
+
+        public long getMaxQueuedMillis() {
+            return maxQueuedMillis;
+        }
+
+        public long getAverageRunMillis() {
+            return count == 0 ? 0 : totalRunMillis / count;
+        }
+
+        public long getMaxRunMillis() {
+            return maxRunMillis;
+        }
+
+        public long getLastRunMillis() {
+            return lastRunMillis;
+        }
+
+        private Timing copy() {
+            Timing timing = new Timing();
+            timing.count = count;
+            timing.collapsedCount = collapsedCount;
+            timing.totalQueuedMillis = totalQueuedMillis;
+            timing.maxQueuedMillis = maxQueuedMillis;
+            timing.totalRunMillis = totalRunMillis;
+            timing.maxRunMillis = maxRunMillis;
+            timing.lastRunMillis = lastRunMillis;
+            return timing;
+        }
+
+        @Override
+        public String toString() {
+            return "count: " + count + ", collapsed: " + collapsedCount
+                    + ", queued avg/max: " + getAverageQueuedMillis() + "/" + maxQueuedMillis + "ms"
+                    + ", run avg/max: " + getAverageRunMillis() + "/" + maxRunMillis + "ms";
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.groceryreminder.views;
+
+import android.support.v7.widget.RecyclerView;
+
+import com.groceryreminder.core.ListDiff;
+
+public class AdapterListUpdateCallback implements ListDiff.UpdateCallback {
+
+    private final RecyclerView.Adapter adapter;
+
+    public AdapterListUpdateCallback(RecyclerView.Adapter adapter) {
+        this.adapter = adapter;
+    }
+
+    @Override
+    public void onInserted(int position, int count) {
+        adapter.notifyItemRangeInserted(position, count);
+    }
+
+    @Override
+    public void onRemoved(int position, int count) {
+        adapter.notifyItemRangeRemoved(position, count);
+    }
+
+    @Override
+    public void onMoved(int fromPosition, int toPosition) {
+        adapter.notifyItemMoved(fromPosition, toPosition);
+    }
+
+    @Override
+    public void onChanged(int position, int count) {
+        adapter.notifyItemRangeChanged(position, count);
+    }
+}
@@ -0,0 +1,51 @@
+package com.groceryreminder.views;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.groceryreminder.core.ListDiff;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+//Calculates list diffs off the main thread and hands them back on it, dropping any diff a newer submission has overtaken
+public class BackgroundDiffer {
+
+    private static final Executor DIFF_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    private final Executor executor;
+    private final Handler handler;
+    private int latestGeneration;
+
+    public interface OnDiffCalculatedListener {
+
+        void onDiffCalculated(ListDiff diff);
+    }
+
+    public BackgroundDiffer() {
+        this(DIFF_EXECUTOR, new Handler(Looper.getMainLooper()));
+    }
+
+    public BackgroundDiffer(Executor executor, Handler handler) {
+        this.executor = executor;
+        this.handler = handler;
+    }
+
+    public void submit(final ListDiff.Callback callback, final OnDiffCalculatedListener listener) {
+        final int generation = ++latestGeneration;
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final ListDiff diff = ListDiff.calculate(callback);
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation == latestGeneration) {
+                            listener.onDiffCalculated(diff);
+                        }
+                    }
+                });
+            }
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package com.groceryreminder.views.reminders;
+
+import java.util.Arrays;
+
+//Cursor rows already swiped away, kept ascending so mapping between list and cursor positions is a binary search over the few dismissed rows
+final class DismissedPositions {
+
+    private int[] positions = new int[4];
+    private int size;
+
+    DismissedPositions() {
+    }
+
+    DismissedPositions(DismissedPositions other) {
+        positions = Arrays.copyOf(other.positions, Math.max(other.size, 4));
+        size = other.size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    void add(int position) {
+        int index = Arrays.binarySearch(positions, 0, size, position);
+        if (index >= 0) {
+            return;
+        }
+
+        index = -index - 1;
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+        }
+        System.arraycopy(positions, index, positions, index + 1, size - index);
+        positions[index] = position;
+        size++;
+    }
+
+    boolean contains(int position) {
+        return Arrays.binarySearch(positions, 0, size, position) >= 0;
+    }
+
+    //The number of dismissed positions before the given one
+    int countBefore(int position) {
+        int index = Arrays.binarySearch(positions, 0, size, position);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    //The position in the full cursor of the given position among the rows still shown
+    int toCursorPosition(int shownPosition) {
+        //positions[i] - i is how many shown rows come before the ith dismissed one, and never decreases
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (positions[middle] - middle <= shownPosition) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return shownPosition + low;
+    }
+
+    //The position among the rows still shown of the given cursor position
+    int toShownPosition(int cursorPosition) {
+        return cursorPosition - countBefore(cursorPosition);
+    }
+
+    void onInserted(int position, int count) {
+        for (int i = countBefore(position); i < size; i++) {
+            positions[i] += count;
+        }
+    }
+
+    //Returns how many of the removed positions were dismissed
+    int onRemoved(int position, int count) {
+        int start = countBefore(position);
+        int end = countBefore(position + count);
+        System.arraycopy(positions, end, positions, start, size - end);
+        size -= end - start;
+        for (int i = start; i < size; i++) {
+            positions[i] -= count;
+        }
+
+        return end - start;
+    }
+}
@@ -0,0 +1,6 @@
+package com.groceryreminder.views.reminders;
+
+public interface OnReminderDismissListener {
+
+    public void removeReminders(int[] reverseSortedPositions);
+}
@@ -0,0 +1,77 @@
+package com.groceryreminder.views.reminders;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.CursorWrapper;
+import android.support.v4.content.CursorLoader;
+
+import com.groceryreminder.core.ListDiff;
+import com.groceryreminder.data.ReminderContract;
+
+//Diffs each load against the last delivered one on the loader's thread, because the old cursor is closed as soon as the new one is delivered
+public class ReminderCursorLoader extends CursorLoader {
+
+    private volatile ReminderRows deliveredRows = ReminderRows.EMPTY;
+
+    public ReminderCursorLoader(Context context) {
+        super(context,
+                ReminderContract.Reminders.CONTENT_URI,
+                ReminderContract.Reminders.PROJECT_ALL,
+                null,
+                null,
+                ReminderContract.Reminders.SORT_ORDER_DEFAULT);
+    }
+
+    @Override
+    public Cursor loadInBackground() {
+        Cursor cursor = super.loadInBackground();
+        if (cursor == null) {
+            return null;
+        }
+
+        ReminderRows baseRows = deliveredRows;
+        ReminderRows rows = ReminderRows.read(cursor);
+        return new DiffedCursor(cursor, baseRows, rows, baseRows.diff(rows));
+    }
+
+    @Override
+    public void deliverResult(Cursor cursor) {
+        if (cursor instanceof DiffedCursor && !isReset()) {
+            deliveredRows = ((DiffedCursor) cursor).getRows();
+        }
+        super.deliverResult(cursor);
+    }
+
+    @Override
+    protected void onReset() {
+        super.onReset();
+        deliveredRows = ReminderRows.EMPTY;
+    }
+
+    public static class DiffedCursor extends CursorWrapper {
+
+        private final ReminderRows baseRows;
+        private final ReminderRows rows;
+        private final ListDiff diff;
+
+        DiffedCursor(Cursor cursor, ReminderRows baseRows, ReminderRows rows, ListDiff diff) {
+            super(cursor);
+            this.baseRows = baseRows;
+            this.rows = rows;
+            this.diff = diff;
+        }
+
+        //The rows the diff starts from, which must be the rows on screen for the diff to apply
+        public ReminderRows getBaseRows() {
+            return baseRows;
+        }
+
+        public ReminderRows getRows() {
+            return rows;
+        }
+
+        public ListDiff getDiff() {
+            return diff;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.groceryreminder.views.reminders;
 
 import android.app.Activity;
+import android.database.Cursor;
 import android.os.Bundle;
 import android.support.v4.app.Fragment;
 import android.support.v7.widget.RecyclerView;
@@ -11,29 +12,20 @@ import android.view.ViewGroup;
 
 import com.github.brnunes.swipeablerecyclerview.SwipeableRecyclerViewTouchListener;
 import com.groceryreminder.R;
-import com.groceryreminder.models.Reminder;
 import com.melnykov.fab.FloatingActionButton;
 
 import org.solovyev.android.views.llm.DividerItemDecoration;
 import org.solovyev.android.views.llm.LinearLayoutManager;
 
-import java.util.List;
-
 public class ReminderListFragment extends Fragment {
 
-    private static final String REMINDERS_KEY = "REMINDERS_KEY";
-    private List<Reminder> reminders;
     private OnAddReminderRequestListener onAddReminderRequestListener;
     private OnReminderDataChangeListener onReminderDataChangeListener;
-    private RemindersRecyclerViewAdapter adapter;
-
-    public static ReminderListFragment newInstance(List<Reminder> reminders) {
-        ReminderListFragment fragment = new ReminderListFragment();
-        Bundle args = new Bundle();
-        args.putSerializable(REMINDERS_KEY, (java.io.Serializable) reminders);
-        fragment.setArguments(args);
+    private RemindersCursorRecyclerViewAdapter adapter;
+    private Cursor reminders;
 
-        return fragment;
+    public static ReminderListFragment newInstance() {
+        return new ReminderListFragment();
     }
 
     /**
@@ -50,9 +42,6 @@ public class ReminderListFragment extends Fragment {
 
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
-        if (getArguments() != null) {
-            this.reminders = (List<Reminder>)getArguments().getSerializable(REMINDERS_KEY);
-        }
         Log.d("ReminderListFragment","In onCreateView");
         // TODO: Change Adapter to display your content
         View root = inflater.inflate(R.layout.reminder_list_fragment, container, false);
@@ -75,7 +64,7 @@ public class ReminderListFragment extends Fragment {
         list.addItemDecoration(new DividerItemDecoration(getActivity(), null));
         LinearLayoutManager linearLayoutManager = new LinearLayoutManager(getActivity());
         list.setLayoutManager(linearLayoutManager);
-        this.adapter = new RemindersRecyclerViewAdapter(reminders, onReminderDataChangeListener);
+        this.adapter = new RemindersCursorRecyclerViewAdapter(reminders, onReminderDataChangeListener);
         list.setAdapter(this.adapter);
         setReminderListOnTouchListener(list);
 
@@ -83,7 +72,7 @@ public class ReminderListFragment extends Fragment {
     }
 
     private void setReminderListOnTouchListener(RecyclerView list) {
-        ReminderSwipeListener swipeListener = new ReminderSwipeListener(reminders, (RemindersRecyclerViewAdapter)list.getAdapter());
+        ReminderSwipeListener swipeListener = new ReminderSwipeListener(adapter);
         SwipeableRecyclerViewTouchListener swipeableRecyclerViewTouchListener = new SwipeableRecyclerViewTouchListener(list, swipeListener);
         list.addOnItemTouchListener(swipeableRecyclerViewTouchListener);
     }
@@ -98,7 +87,10 @@ public class ReminderListFragment extends Fragment {
         return onAddReminderRequestListener;
     }
 
-    public void setReminders(List<Reminder> reminders) {
-        this.adapter.setReminders(reminders);
+    public void swapCursor(Cursor reminders) {
+        this.reminders = reminders;
+        if (adapter != null) {
+            adapter.swapCursor(reminders);
+        }
     }
 }
@@ -11,21 +11,27 @@ import com.groceryreminder.models.Reminder;
 public class ReminderListViewHolder extends RecyclerView.ViewHolder{
     private TextView reminderText;
     private ImageView clearImageView;
-    private RemindersRecyclerViewAdapter adapter;
+    private OnReminderDismissListener adapter;
 
-    public ReminderListViewHolder(View itemView, RemindersRecyclerViewAdapter adapter) {
+    public ReminderListViewHolder(View itemView, OnReminderDismissListener adapter) {
         super(itemView);
         this.reminderText = (TextView)itemView.findViewById(R.id.reminders_text_view);
         this.clearImageView = (ImageView)itemView.findViewById(R.id.clear_icon);
         this.adapter = adapter;
     }
 
-    public void bind(Reminder reminder, final int index) {
-        reminderText.setText(reminder.getText());
+    public void bind(Reminder reminder, int index) {
+        bind(reminder.getText(), index);
+    }
+
+    public void bind(String text, final int index) {
+        reminderText.setText(text);
         clearImageView.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                adapter.removeReminders(new int[] {index});
+                //Earlier removals shift the rows without rebinding them, so the bound index is only trusted outside a RecyclerView
+                int position = getAdapterPosition();
+                adapter.removeReminders(new int[] {position == RecyclerView.NO_POSITION ? index : position});
             }
         });
     }
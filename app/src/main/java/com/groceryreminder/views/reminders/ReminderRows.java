@@ -0,0 +1,72 @@
+package com.groceryreminder.views.reminders;
+
+import android.database.Cursor;
+
+import com.groceryreminder.core.ListDiff;
+import com.groceryreminder.data.ReminderContract;
+
+//Just enough of each reminder row to diff two cursors by: its id, and its description to spot edits
+public final class ReminderRows {
+
+    public static final ReminderRows EMPTY = new ReminderRows(new long[0], new String[0]);
+
+    private final long[] ids;
+    private final String[] descriptions;
+
+    private ReminderRows(long[] ids, String[] descriptions) {
+        this.ids = ids;
+        this.descriptions = descriptions;
+    }
+
+    public static ReminderRows read(Cursor cursor) {
+        int idColumn = cursor.getColumnIndexOrThrow(ReminderContract.Reminders._ID);
+        int descriptionColumn = cursor.getColumnIndexOrThrow(ReminderContract.Reminders.DESCRIPTION);
+        long[] ids = new long[cursor.getCount()];
+        String[] descriptions = new String[ids.length];
+        for (int position = 0; position < ids.length && cursor.moveToPosition(position); position++) {
+            ids[position] = cursor.getLong(idColumn);
+            descriptions[position] = cursor.getString(descriptionColumn);
+        }
+
+        return new ReminderRows(ids, descriptions);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public ListDiff diff(final ReminderRows newRows) {
+        return ListDiff.calculate(new ListDiff.Callback() {
+            @Override
+            public int getOldSize() {
+                return ids.length;
+            }
+
+            @Override
+            public int getNewSize() {
+                return newRows.ids.length;
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldPosition, int newPosition) {
+                return ids[oldPosition] == newRows.ids[newPosition];
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldPosition, int newPosition) {
+                String oldDescription = descriptions[oldPosition];
+                return oldDescription == null ? newRows.descriptions[newPosition] == null : oldDescription.equals(newRows.descriptions[newPosition]);
+            }
+
+            @Override
+            public Object getOldKey(int oldPosition) {
+                return ids[oldPosition];
+            }
+
+            @Override
+            public Object getNewKey(int newPosition) {
+                return newRows.ids[newPosition];
+            }
+        });
+    }
+}
@@ -3,17 +3,12 @@ package com.groceryreminder.views.reminders;
 import android.support.v7.widget.RecyclerView;
 
 import com.github.brnunes.swipeablerecyclerview.SwipeableRecyclerViewTouchListener;
-import com.groceryreminder.models.Reminder;
-
-import java.util.List;
 
 public class ReminderSwipeListener implements SwipeableRecyclerViewTouchListener.SwipeListener {
 
-    private final List<Reminder> reminders;
-    private final RemindersRecyclerViewAdapter adapter;
+    private final OnReminderDismissListener adapter;
 
-    public ReminderSwipeListener(List<Reminder> reminders, RemindersRecyclerViewAdapter adapter) {
-        this.reminders = reminders;
+    public ReminderSwipeListener(OnReminderDismissListener adapter) {
         this.adapter = adapter;
     }
 
@@ -7,7 +7,6 @@ import android.database.Cursor;
 import android.net.Uri;
 import android.os.Bundle;
 import android.support.v4.app.LoaderManager;
-import android.support.v4.content.CursorLoader;
 import android.support.v4.content.Loader;
 import android.util.Log;
 import android.view.Menu;
@@ -21,15 +20,12 @@ import com.groceryreminder.models.Reminder;
 import com.groceryreminder.services.GroceryLocatorService;
 import com.groceryreminder.views.stores.GroceryStoresActivity;
 
-import java.util.ArrayList;
-import java.util.List;
-
 
 public class RemindersActivity extends ReminderFragmentBaseActivity implements OnAddReminderRequestListener, OnReminderDataChangeListener, LoaderManager.LoaderCallbacks<Cursor> {
 
     public static final String REMINDER_LIST_FRAGMENT = "REMINDER_LIST_FRAGMENT";
     private static final String TAG = "RemindersActivity";
-    private List<Reminder> reminders;
+    private Cursor reminders;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -37,9 +33,8 @@ public class RemindersActivity extends ReminderFragmentBaseActivity implements O
         super.onCreate(savedInstanceState);
         setContentView(R.layout.reminders_activity);
 
-        List<Reminder> reminders = new ArrayList<Reminder>();
         getSupportFragmentManager().beginTransaction()
-                .add(R.id.reminder_fragment_container, ReminderListFragment.newInstance(reminders), REMINDER_LIST_FRAGMENT)
+                .add(R.id.reminder_fragment_container, ReminderListFragment.newInstance(), REMINDER_LIST_FRAGMENT)
                 .commit();
         getSupportLoaderManager().initLoader(1, null, this);
         Intent intent = new Intent(this, GroceryLocatorService.class);
@@ -86,9 +81,13 @@ public class RemindersActivity extends ReminderFragmentBaseActivity implements O
 
     private void fireShareAction() {
         StringBuilder shareStringBuilder = new StringBuilder();
-        for (Reminder reminder : reminders) {
-            shareStringBuilder.append(reminder.getText());
-            shareStringBuilder.append("\n");
+        if (reminders != null) {
+            int descriptionColumn = reminders.getColumnIndexOrThrow(ReminderContract.Reminders.DESCRIPTION);
+            reminders.moveToPosition(-1);
+            while (reminders.moveToNext()) {
+                shareStringBuilder.append(reminders.getString(descriptionColumn));
+                shareStringBuilder.append("\n");
+            }
         }
         Intent shareIntent = new Intent();
         shareIntent.setAction(Intent.ACTION_SEND);
@@ -113,7 +112,7 @@ public class RemindersActivity extends ReminderFragmentBaseActivity implements O
         ReminderListFragment reminderListFragment = (ReminderListFragment)getSupportFragmentManager()
                 .findFragmentByTag(REMINDER_LIST_FRAGMENT);
         if (reminderListFragment == null) {
-            reminderListFragment = ReminderListFragment.newInstance(new ArrayList<Reminder>());
+            reminderListFragment = ReminderListFragment.newInstance();
         }
         ContentValues values = new ContentValues();
         values.put(ReminderContract.Reminders.DESCRIPTION, value);
@@ -134,31 +133,17 @@ public class RemindersActivity extends ReminderFragmentBaseActivity implements O
     @Override
     public Loader<Cursor> onCreateLoader(int id, Bundle args) {
         Log.d(TAG, "in onCreateLoader");
-        CursorLoader loader = new CursorLoader(this,
-                ReminderContract.Reminders.CONTENT_URI,
-                ReminderContract.Reminders.PROJECT_ALL,
-                null,
-                null,
-                ReminderContract.Reminders.SORT_ORDER_DEFAULT);
-
-        return loader;
+        return new ReminderCursorLoader(this);
     }
 
     @Override
     public void onLoadFinished(Loader<Cursor> loader, Cursor cursor) {
-        this.reminders = new ArrayList<Reminder>();
         Log.d(TAG, "In onLoadFinished");
-        while (cursor.moveToNext()) {
-            Long reminderId = cursor.getLong(0);
-            String reminderDescription = cursor.getString(1);
-            Log.d(TAG, "Loading reminder from cursor: " + reminderDescription);
-            Reminder store = new Reminder(reminderId, reminderDescription);
-            reminders.add(store);
-        }
+        this.reminders = cursor;
 
-        ReminderListFragment groceryStoreListFragment =
+        ReminderListFragment reminderListFragment =
                 (ReminderListFragment)getSupportFragmentManager().findFragmentById(R.id.reminder_fragment_container);
-        groceryStoreListFragment.setReminders(reminders);
+        reminderListFragment.swapCursor(cursor);
     }
 
     @Override
@@ -167,8 +152,9 @@ public class RemindersActivity extends ReminderFragmentBaseActivity implements O
         ReminderListFragment reminderListFragment =
                 (ReminderListFragment)getSupportFragmentManager().findFragmentById(R.id.reminder_fragment_container);
 
+        this.reminders = null;
         if (reminderListFragment != null) {
-            reminderListFragment.setReminders(new ArrayList<Reminder>());
+            reminderListFragment.swapCursor(null);
         }
     }
 }
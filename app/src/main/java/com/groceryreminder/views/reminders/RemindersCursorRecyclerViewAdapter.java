@@ -0,0 +1,159 @@
+package com.groceryreminder.views.reminders;
+
+import android.database.Cursor;
+import android.support.v7.widget.RecyclerView;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.groceryreminder.R;
+import com.groceryreminder.core.ListDiff;
+import com.groceryreminder.data.ReminderContract;
+import com.groceryreminder.models.Reminder;
+
+//Binds rows straight out of the loader's cursor window instead of copying them into reminders first
+public class RemindersCursorRecyclerViewAdapter extends RecyclerView.Adapter<ReminderListViewHolder> implements OnReminderDismissListener {
+
+    private final OnReminderDataChangeListener onReminderDataChangeListener;
+    //Cursor positions already deleted but still in the cursor until the loader delivers the next one
+    private final DismissedPositions dismissedPositions = new DismissedPositions();
+    private Cursor cursor;
+    private ReminderRows rows = ReminderRows.EMPTY;
+    private int idColumn;
+    private int descriptionColumn;
+
+    public RemindersCursorRecyclerViewAdapter(Cursor cursor, OnReminderDataChangeListener onReminderDataChangeListener) {
+        this.onReminderDataChangeListener = onReminderDataChangeListener;
+        setHasStableIds(true);
+        setCursor(cursor);
+    }
+
+    @Override
+    public ReminderListViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.reminder_viewholder, parent, false);
+        return new ReminderListViewHolder(view, this);
+    }
+
+    @Override
+    public void onBindViewHolder(ReminderListViewHolder holder, int position) {
+        cursor.moveToPosition(getCursorPosition(position));
+        holder.bind(cursor.getString(descriptionColumn), position);
+    }
+
+    @Override
+    public int getItemCount() {
+        return cursor == null ? 0 : cursor.getCount() - dismissedPositions.size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        cursor.moveToPosition(getCursorPosition(position));
+        return cursor.getLong(idColumn);
+    }
+
+    //The loader owns its cursors and closes the old one itself, so it is handed back rather than closed
+    public Cursor swapCursor(Cursor newCursor) {
+        if (newCursor == cursor) {
+            return null;
+        }
+
+        Cursor oldCursor = cursor;
+        ListDiff diff = getDiffFromShownRows(newCursor);
+        VisibleRowsUpdateCallback updateCallback = diff == null ? null : new VisibleRowsUpdateCallback(dismissedPositions);
+        setCursor(newCursor);
+        if (diff == null) {
+            notifyDataSetChanged();
+        } else {
+            diff.dispatchUpdatesTo(updateCallback);
+        }
+
+        return oldCursor;
+    }
+
+    private ListDiff getDiffFromShownRows(Cursor newCursor) {
+        if (newCursor instanceof ReminderCursorLoader.DiffedCursor) {
+            ReminderCursorLoader.DiffedCursor diffedCursor = (ReminderCursorLoader.DiffedCursor) newCursor;
+            if (diffedCursor.getBaseRows() == rows) {
+                return diffedCursor.getDiff();
+            }
+        }
+
+        return null;
+    }
+
+    private void setCursor(Cursor cursor) {
+        this.cursor = cursor;
+        dismissedPositions.clear();
+        rows = cursor instanceof ReminderCursorLoader.DiffedCursor ? ((ReminderCursorLoader.DiffedCursor) cursor).getRows() : ReminderRows.EMPTY;
+        if (cursor != null) {
+            idColumn = cursor.getColumnIndexOrThrow(ReminderContract.Reminders._ID);
+            descriptionColumn = cursor.getColumnIndexOrThrow(ReminderContract.Reminders.DESCRIPTION);
+        }
+    }
+
+    public Cursor getCursor() {
+        return cursor;
+    }
+
+    @Override
+    public void removeReminders(int[] reverseSortedPositions) {
+        for (int position : reverseSortedPositions) {
+            int cursorPosition = getCursorPosition(position);
+            cursor.moveToPosition(cursorPosition);
+            Reminder reminder = new Reminder(cursor.getLong(idColumn), cursor.getString(descriptionColumn));
+            dismissedPositions.add(cursorPosition);
+            onReminderDataChangeListener.removeReminder(reminder);
+            notifyItemRemoved(position);
+        }
+    }
+
+    private int getCursorPosition(int position) {
+        return dismissedPositions.toCursorPosition(position);
+    }
+
+    //The diff covers every row of the old cursor, but dismissed rows were already removed from the screen, so only the rest are notified
+    private class VisibleRowsUpdateCallback implements ListDiff.UpdateCallback {
+
+        private final DismissedPositions hidden;
+
+        private VisibleRowsUpdateCallback(DismissedPositions dismissedPositions) {
+            hidden = new DismissedPositions(dismissedPositions);
+        }
+
+        @Override
+        public void onInserted(int position, int count) {
+            hidden.onInserted(position, count);
+            notifyItemRangeInserted(hidden.toShownPosition(position), count);
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            int visiblePosition = hidden.toShownPosition(position);
+            int visibleCount = count - hidden.onRemoved(position, count);
+            if (visibleCount > 0) {
+                notifyItemRangeRemoved(visiblePosition, visibleCount);
+            }
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            int visibleFromPosition = hidden.toShownPosition(fromPosition);
+            boolean wasHidden = hidden.onRemoved(fromPosition, 1) > 0;
+            hidden.onInserted(toPosition, 1);
+            if (wasHidden) {
+                hidden.add(toPosition);
+            } else {
+                notifyItemMoved(visibleFromPosition, hidden.toShownPosition(toPosition));
+            }
+        }
+
+        @Override
+        public void onChanged(int position, int count) {
+            for (int i = position; i < position + count; i++) {
+                if (!hidden.contains(i)) {
+                    notifyItemChanged(hidden.toShownPosition(i));
+                }
+            }
+        }
+    }
+}
@@ -6,18 +6,29 @@ import android.view.View;
 import android.view.ViewGroup;
 
 import com.groceryreminder.R;
+import com.groceryreminder.core.ListDiff;
 import com.groceryreminder.models.Reminder;
+import com.groceryreminder.views.AdapterListUpdateCallback;
+import com.groceryreminder.views.BackgroundDiffer;
 
+import java.util.ArrayList;
 import java.util.List;
 
-public class RemindersRecyclerViewAdapter extends RecyclerView.Adapter<ReminderListViewHolder> {
+public class RemindersRecyclerViewAdapter extends RecyclerView.Adapter<ReminderListViewHolder> implements OnReminderDismissListener {
 
     private List<Reminder> reminders;
     private OnReminderDataChangeListener onReminderDataChangeListener;
+    private BackgroundDiffer differ;
 
     public RemindersRecyclerViewAdapter(List<Reminder> reminders, OnReminderDataChangeListener onReminderDataChangeListener) {
+        this(reminders, onReminderDataChangeListener, new BackgroundDiffer());
+    }
+
+    public RemindersRecyclerViewAdapter(List<Reminder> reminders, OnReminderDataChangeListener onReminderDataChangeListener, BackgroundDiffer differ) {
         this.reminders = reminders;
         this.onReminderDataChangeListener = onReminderDataChangeListener;
+        this.differ = differ;
+        setHasStableIds(true);
     }
 
     @Override
@@ -36,18 +47,77 @@ public class RemindersRecyclerViewAdapter extends RecyclerView.Adapter<ReminderL
         return reminders.size();
     }
 
+    @Override
+    public long getItemId(int position) {
+        return reminders.get(position).getId();
+    }
+
     public void setReminders(List<Reminder> updatedReminders) {
-        reminders.clear();
-        reminders.addAll(updatedReminders);
-        notifyDataSetChanged();
+        final List<Reminder> oldReminders = new ArrayList<Reminder>(reminders);
+        final List<Reminder> newReminders = new ArrayList<Reminder>(updatedReminders);
+        differ.submit(new ReminderDiffCallback(oldReminders, newReminders), new BackgroundDiffer.OnDiffCalculatedListener() {
+            @Override
+            public void onDiffCalculated(ListDiff diff) {
+                //A dismissal while the diff was running leaves it describing a list that is no longer shown
+                boolean unchangedSinceSubmitted = reminders.equals(oldReminders);
+                reminders.clear();
+                reminders.addAll(newReminders);
+                if (unchangedSinceSubmitted) {
+                    diff.dispatchUpdatesTo(new AdapterListUpdateCallback(RemindersRecyclerViewAdapter.this));
+                } else {
+                    notifyDataSetChanged();
+                }
+            }
+        });
     }
 
+    @Override
     public void removeReminders(int[] reverseSortedPositions) {
         for (int position : reverseSortedPositions) {
             Reminder reminder = reminders.remove(position);
             onReminderDataChangeListener.removeReminder(reminder);
             notifyItemRemoved(position);
         }
-        notifyDataSetChanged();
+    }
+
+    private static class ReminderDiffCallback implements ListDiff.Callback {
+
+        private final List<Reminder> oldReminders;
+        private final List<Reminder> newReminders;
+
+        private ReminderDiffCallback(List<Reminder> oldReminders, List<Reminder> newReminders) {
+            this.oldReminders = oldReminders;
+            this.newReminders = newReminders;
+        }
+
+        @Override
+        public int getOldSize() {
+            return oldReminders.size();
+        }
+
+        @Override
+        public int getNewSize() {
+            return newReminders.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldPosition, int newPosition) {
+            return oldReminders.get(oldPosition).getId() == newReminders.get(newPosition).getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldPosition, int newPosition) {
+            return oldReminders.get(oldPosition).equals(newReminders.get(newPosition));
+        }
+
+        @Override
+        public Object getOldKey(int oldPosition) {
+            return oldReminders.get(oldPosition).getId();
+        }
+
+        @Override
+        public Object getNewKey(int newPosition) {
+            return newReminders.get(newPosition).getId();
+        }
     }
 }
@@ -18,7 +18,9 @@ public class GroceryStoreListViewHolder extends RecyclerView.ViewHolder implemen
     private final TextView storeNameText;
     private final TextView storeDistanceText;
     private final Context context;
-    private GroceryStore store;
+    private String name;
+    private double latitude;
+    private double longitude;
 
     public GroceryStoreListViewHolder(View itemView) {
         super(itemView);
@@ -29,10 +31,16 @@ public class GroceryStoreListViewHolder extends RecyclerView.ViewHolder implemen
     }
 
     public void bind(GroceryStore store) {
-        this.store = store;
-        storeNameText.setText(store.getName());
-        if (store.getDistance() >= 0) {
-            double miles = store.getDistance() * MILES_TO_METERS_MULTIPLE;
+        bind(store.getName(), store.getDistance(), store.getLatitude(), store.getLongitude());
+    }
+
+    public void bind(String name, double distance, double latitude, double longitude) {
+        this.name = name;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        storeNameText.setText(name);
+        if (distance >= 0) {
+            double miles = distance * MILES_TO_METERS_MULTIPLE;
             DecimalFormat decimalFormat = new DecimalFormat("0.0");
             storeDistanceText.setText(decimalFormat.format(miles) +
                     " " +
@@ -44,9 +52,9 @@ public class GroceryStoreListViewHolder extends RecyclerView.ViewHolder implemen
 
     @Override
     public void onClick(View v) {
-        String geoString = "geo:" + store.getLatitude() + "," + store.getLongitude() +
-                "?q=" + store.getLatitude() + "," + store.getLongitude() +
-                "(" + store.getName() + ")";
+        String geoString = "geo:" + latitude + "," + longitude +
+                "?q=" + latitude + "," + longitude +
+                "(" + name + ")";
         Log.d("StoreViewHolder", "Launching geo app for: " + geoString);
         Uri geoUri = Uri.parse(geoString);
         Intent mapIntent = new Intent(Intent.ACTION_VIEW, geoUri);
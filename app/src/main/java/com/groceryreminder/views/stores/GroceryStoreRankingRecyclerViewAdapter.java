@@ -0,0 +1,106 @@
+package com.groceryreminder.views.stores;
+
+import android.content.Context;
+import android.support.v7.widget.RecyclerView;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.groceryreminder.R;
+import com.groceryreminder.core.ListDiff;
+import com.groceryreminder.data.StoreRanking;
+import com.groceryreminder.views.AdapterListUpdateCallback;
+import com.groceryreminder.views.BackgroundDiffer;
+
+//Binds straight from the shared store snapshot, so a load costs no per store objects
+public class GroceryStoreRankingRecyclerViewAdapter extends RecyclerView.Adapter<GroceryStoreListViewHolder> {
+
+    private StoreRanking ranking;
+    private BackgroundDiffer differ;
+
+    public GroceryStoreRankingRecyclerViewAdapter(StoreRanking ranking) {
+        this(ranking, new BackgroundDiffer());
+    }
+
+    public GroceryStoreRankingRecyclerViewAdapter(StoreRanking ranking, BackgroundDiffer differ) {
+        this.ranking = ranking;
+        this.differ = differ;
+        setHasStableIds(true);
+    }
+
+    @Override
+    public GroceryStoreListViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        Context context = parent.getContext();
+        View view = LayoutInflater.from(context).inflate(R.layout.store_viewholder, parent, false);
+        return new GroceryStoreListViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(GroceryStoreListViewHolder groceryStoreListViewHolder, int position) {
+        groceryStoreListViewHolder.bind(ranking.getName(position), ranking.getDistance(position),
+                ranking.getLatitude(position), ranking.getLongitude(position));
+    }
+
+    @Override
+    public int getItemCount() {
+        return ranking.size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return ranking.getStableId(position);
+    }
+
+    //Rankings are immutable, so the old one can be read on the diff thread while it is still being shown
+    public void setRanking(final StoreRanking newRanking) {
+        differ.submit(new RankingDiffCallback(ranking, newRanking), new BackgroundDiffer.OnDiffCalculatedListener() {
+            @Override
+            public void onDiffCalculated(ListDiff diff) {
+                ranking = newRanking;
+                diff.dispatchUpdatesTo(new AdapterListUpdateCallback(GroceryStoreRankingRecyclerViewAdapter.this));
+            }
+        });
+    }
+
+    private static class RankingDiffCallback implements ListDiff.Callback {
+
+        private final StoreRanking oldRanking;
+        private final StoreRanking newRanking;
+
+        private RankingDiffCallback(StoreRanking oldRanking, StoreRanking newRanking) {
+            this.oldRanking = oldRanking;
+            this.newRanking = newRanking;
+        }
+
+        @Override
+        public int getOldSize() {
+            return oldRanking.size();
+        }
+
+        @Override
+        public int getNewSize() {
+            return newRanking.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldPosition, int newPosition) {
+            return oldRanking.getKey(oldPosition).equals(newRanking.getKey(newPosition));
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldPosition, int newPosition) {
+            return oldRanking.getName(oldPosition).equals(newRanking.getName(newPosition))
+                    && oldRanking.getDistance(oldPosition) == newRanking.getDistance(newPosition);
+        }
+
+        @Override
+        public Object getOldKey(int oldPosition) {
+            return oldRanking.getKey(oldPosition);
+        }
+
+        @Override
+        public Object getNewKey(int newPosition) {
+            return newRanking.getKey(newPosition);
+        }
+    }
+}
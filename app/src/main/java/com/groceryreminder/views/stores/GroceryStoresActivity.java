@@ -2,42 +2,38 @@ package com.groceryreminder.views.stores;
 
 import android.app.ProgressDialog;
 import android.content.Intent;
-import android.database.Cursor;
-import android.location.Location;
 import android.os.Bundle;
 import android.support.v4.app.LoaderManager;
-import android.support.v4.content.CursorLoader;
 import android.support.v4.content.Loader;
 import android.util.Log;
 import android.view.Menu;
 import android.view.MenuItem;
 
 import com.groceryreminder.R;
-import com.groceryreminder.data.ReminderContract;
+import com.groceryreminder.data.StoreRanking;
 import com.groceryreminder.domain.GroceryStoreManagerInterface;
 import com.groceryreminder.injection.views.ReminderFragmentBaseActivity;
-import com.groceryreminder.models.GroceryStore;
 import com.groceryreminder.services.GroceryLocatorService;
-
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import com.groceryreminder.views.BackgroundDiffer;
 
 import javax.inject.Inject;
 
-public class GroceryStoresActivity extends ReminderFragmentBaseActivity implements LoaderManager.LoaderCallbacks<Cursor> {
+public class GroceryStoresActivity extends ReminderFragmentBaseActivity implements LoaderManager.LoaderCallbacks<StoreRanking> {
 
     private static final String TAG = "StoresActivity";
 
     @Inject
     GroceryStoreManagerInterface groceryStoreManager;
+    @Inject
+    BackgroundDiffer differ;
     private ProgressDialog progressDialog;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.grocery_stores_activity);
-        GroceryStoreListFragment groceryStoreListFragment = GroceryStoreListFragment.newInstance(new ArrayList<GroceryStore>());
+        GroceryStoreListFragment groceryStoreListFragment = GroceryStoreListFragment.newInstance();
+        groceryStoreListFragment.setDiffer(differ);
         getSupportFragmentManager().beginTransaction().add(R.id.stores_fragment_container, groceryStoreListFragment).commit();
 
         getSupportLoaderManager().initLoader(0, savedInstanceState, this);
@@ -67,66 +63,37 @@ public class GroceryStoresActivity extends ReminderFragmentBaseActivity implemen
     }
 
     @Override
-    public Loader<Cursor> onCreateLoader(int i, Bundle bundle) {
+    public Loader<StoreRanking> onCreateLoader(int i, Bundle bundle) {
         Log.d(TAG, "in onCreateLoader");
         this.progressDialog = ProgressDialog.show(this, getString(R.string.loading_stores_dialog_title), getString(R.string.loading_stores_dialog_message), true);
         this.progressDialog.setCancelable(true);
         this.progressDialog.setIndeterminate(true);
-        CursorLoader loader = new CursorLoader(this,
-                ReminderContract.Locations.CONTENT_URI,
-                ReminderContract.Locations.PROJECT_ALL,
-                null,
-                null,
-                ReminderContract.Locations.SORT_ORDER_DEFAULT);
-
-        return loader;
+
+        return new StoreRankingLoader(this, groceryStoreManager);
     }
 
     @Override
-    public void onLoadFinished(Loader<Cursor> cursorLoader, Cursor cursor) {
-        List<GroceryStore> groceryStoreList = new ArrayList<GroceryStore>();
+    public void onLoadFinished(Loader<StoreRanking> rankingLoader, StoreRanking ranking) {
         Log.d(TAG, "In onLoadFinished");
-        while (cursor.moveToNext()) {
-            GroceryStore store = loadStoreFromCursor(cursor);
-            groceryStoreList.add(store);
-        }
 
-        Collections.sort(groceryStoreList);
-        if (!groceryStoreList.isEmpty()) {
+        if (ranking.size() > 0) {
             Log.d(TAG, "Hitting the empty clause.");
             progressDialog.hide();
         }
 
         GroceryStoreListFragment groceryStoreListFragment =
                 (GroceryStoreListFragment)getSupportFragmentManager().findFragmentById(R.id.stores_fragment_container);
-        groceryStoreListFragment.setStores(groceryStoreList);
-    }
-
-    private GroceryStore loadStoreFromCursor(Cursor cursor) {
-        String storeName = cursor.getString(cursor.getColumnIndex(ReminderContract.Locations.NAME));
-        Log.d(TAG, "Loading store from cursor: " + storeName);
-
-        Double latitude = cursor.getDouble(cursor.getColumnIndex(ReminderContract.Locations.LATITUDE));
-        Double longitude = cursor.getDouble(cursor.getColumnIndex(ReminderContract.Locations.LONGITUDE));
-        Location currentLocation = groceryStoreManager.getCurrentLocation();
-        float[] distanceResults = new float[1];
-        if (currentLocation != null) {
-            Location.distanceBetween(currentLocation.getLatitude(), currentLocation.getLongitude(), latitude, longitude, distanceResults);
-        } else {
-            distanceResults[0] = -1;
-        }
-
-        return new GroceryStore(storeName, distanceResults[0], latitude, longitude);
+        groceryStoreListFragment.setStores(ranking);
     }
 
     @Override
-    public void onLoaderReset(Loader<Cursor> cursorLoader) {
+    public void onLoaderReset(Loader<StoreRanking> rankingLoader) {
         Log.d(TAG, "In onLoaderReset");
         GroceryStoreListFragment groceryStoreListFragment =
                 (GroceryStoreListFragment)getSupportFragmentManager().findFragmentById(R.id.stores_fragment_container);
 
         if (groceryStoreListFragment != null) {
-            groceryStoreListFragment.setStores(new ArrayList<GroceryStore>());
+            groceryStoreListFragment.setStores(StoreRanking.EMPTY);
         }
     }
 }
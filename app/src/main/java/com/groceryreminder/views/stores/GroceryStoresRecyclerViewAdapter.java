@@ -7,16 +7,28 @@ import android.view.View;
 import android.view.ViewGroup;
 
 import com.groceryreminder.R;
+import com.groceryreminder.core.ListDiff;
+import com.groceryreminder.core.StableIds;
 import com.groceryreminder.models.GroceryStore;
+import com.groceryreminder.views.AdapterListUpdateCallback;
+import com.groceryreminder.views.BackgroundDiffer;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class GroceryStoresRecyclerViewAdapter extends RecyclerView.Adapter<GroceryStoreListViewHolder>{
 
     private List<GroceryStore> groceryStores;
+    private BackgroundDiffer differ;
 
     public GroceryStoresRecyclerViewAdapter(List<GroceryStore> groceryStores) {
+        this(groceryStores, new BackgroundDiffer());
+    }
+
+    public GroceryStoresRecyclerViewAdapter(List<GroceryStore> groceryStores, BackgroundDiffer differ) {
         this.groceryStores = groceryStores;
+        this.differ = differ;
+        setHasStableIds(true);
     }
 
     @Override
@@ -36,9 +48,61 @@ public class GroceryStoresRecyclerViewAdapter extends RecyclerView.Adapter<Groce
         return groceryStores.size();
     }
 
+    @Override
+    public long getItemId(int position) {
+        return StableIds.of(StoreKeys.keyOf(groceryStores.get(position)));
+    }
+
     public void setStores(List<GroceryStore> groceryStoreList) {
-        this.groceryStores.clear();
-        this.groceryStores.addAll(groceryStoreList);
-        notifyDataSetChanged();
+        final List<GroceryStore> newStores = new ArrayList<GroceryStore>(groceryStoreList);
+        differ.submit(new GroceryStoreDiffCallback(new ArrayList<GroceryStore>(groceryStores), newStores), new BackgroundDiffer.OnDiffCalculatedListener() {
+            @Override
+            public void onDiffCalculated(ListDiff diff) {
+                groceryStores.clear();
+                groceryStores.addAll(newStores);
+                diff.dispatchUpdatesTo(new AdapterListUpdateCallback(GroceryStoresRecyclerViewAdapter.this));
+            }
+        });
+    }
+
+    private static class GroceryStoreDiffCallback implements ListDiff.Callback {
+
+        private final List<GroceryStore> oldStores;
+        private final List<GroceryStore> newStores;
+
+        private GroceryStoreDiffCallback(List<GroceryStore> oldStores, List<GroceryStore> newStores) {
+            this.oldStores = oldStores;
+            this.newStores = newStores;
+        }
+
+        @Override
+        public int getOldSize() {
+            return oldStores.size();
+        }
+
+        @Override
+        public int getNewSize() {
+            return newStores.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldPosition, int newPosition) {
+            return StoreKeys.keyOf(oldStores.get(oldPosition)).equals(StoreKeys.keyOf(newStores.get(newPosition)));
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldPosition, int newPosition) {
+            return oldStores.get(oldPosition).getDistance() == newStores.get(newPosition).getDistance();
+        }
+
+        @Override
+        public Object getOldKey(int oldPosition) {
+            return StoreKeys.keyOf(oldStores.get(oldPosition));
+        }
+
+        @Override
+        public Object getNewKey(int newPosition) {
+            return StoreKeys.keyOf(newStores.get(newPosition));
+        }
     }
 }
@@ -0,0 +1,15 @@
+package com.groceryreminder.views.stores;
+
+import com.groceryreminder.models.GroceryStore;
+
+//Identifies a store across loads so the list can keep stable ids and diff one load against the next
+final class StoreKeys {
+
+    private StoreKeys() {
+    }
+
+    //GroceryStore carries no places id, so a store is its name at its coordinates
+    static String keyOf(GroceryStore store) {
+        return store.getName() + "@" + store.getLatitude() + "," + store.getLongitude();
+    }
+}
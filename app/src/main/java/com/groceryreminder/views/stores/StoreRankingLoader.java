@@ -0,0 +1,86 @@
+package com.groceryreminder.views.stores;
+
+import android.content.Context;
+import android.location.Location;
+import android.support.v4.content.AsyncTaskLoader;
+
+import com.groceryreminder.data.GroceryStoreLocationIndex;
+import com.groceryreminder.data.ReminderContract;
+import com.groceryreminder.data.StoreRanking;
+import com.groceryreminder.data.StoreSnapshot;
+import com.groceryreminder.domain.GroceryReminderConstants;
+import com.groceryreminder.domain.GroceryStoreManagerInterface;
+
+//Stands in for a CursorLoader on the locations table: reloads on the same change notifications, but only reads SQLite when the index is cold,
+//and measures and orders the stores on the loader thread so the screen only binds them
+public class StoreRankingLoader extends AsyncTaskLoader<StoreRanking> {
+
+    private final ForceLoadContentObserver observer = new ForceLoadContentObserver();
+    private final GroceryStoreManagerInterface groceryStoreManager;
+    private StoreRanking ranking;
+    private boolean observing;
+
+    public StoreRankingLoader(Context context, GroceryStoreManagerInterface groceryStoreManager) {
+        super(context);
+        this.groceryStoreManager = groceryStoreManager;
+    }
+
+    @Override
+    public StoreRanking loadInBackground() {
+        return rank(GroceryStoreLocationIndex.getInstance().getSnapshot(getContext().getContentResolver()));
+    }
+
+    StoreRanking rank(StoreSnapshot snapshot) {
+        Location currentLocation = groceryStoreManager.getCurrentLocation();
+        if (currentLocation == null) {
+            return StoreRanking.unranked(snapshot);
+        }
+
+        return StoreRanking.nearest(snapshot, currentLocation.getLatitude(), currentLocation.getLongitude(),
+                GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS, GroceryReminderConstants.MAX_LISTED_STORES);
+    }
+
+    @Override
+    public void deliverResult(StoreRanking ranking) {
+        if (isReset()) {
+            return;
+        }
+
+        this.ranking = ranking;
+        if (isStarted()) {
+            super.deliverResult(ranking);
+        }
+    }
+
+    @Override
+    protected void onStartLoading() {
+        if (!observing) {
+            getContext().getContentResolver().registerContentObserver(ReminderContract.Locations.CONTENT_URI, true, observer);
+            observing = true;
+        }
+
+        if (ranking != null) {
+            deliverResult(ranking);
+        }
+
+        if (takeContentChanged() || ranking == null) {
+            forceLoad();
+        }
+    }
+
+    @Override
+    protected void onStopLoading() {
+        cancelLoad();
+    }
+
+    @Override
+    protected void onReset() {
+        super.onReset();
+        onStopLoading();
+        if (observing) {
+            getContext().getContentResolver().unregisterContentObserver(observer);
+            observing = false;
+        }
+        ranking = null;
+    }
+}
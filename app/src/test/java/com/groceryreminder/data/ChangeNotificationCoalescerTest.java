@@ -0,0 +1,110 @@
+package com.groceryreminder.data;
+
+import android.content.ContentResolver;
+import android.content.ContentUris;
+import android.database.ContentObserver;
+import android.net.Uri;
+
+import com.groceryreminder.BuildConfig;
+import com.groceryreminder.RobolectricTestBase;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class)
+public class ChangeNotificationCoalescerTest extends RobolectricTestBase {
+
+    private ContentResolver contentResolverMock;
+    private ChangeNotificationCoalescer coalescer;
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        contentResolverMock = mock(ContentResolver.class);
+        coalescer = new ChangeNotificationCoalescer(contentResolverMock);
+    }
+
+    private Uri buildLocationUri(long id) {
+        return ContentUris.withAppendedId(ReminderContract.Locations.CONTENT_URI, id);
+    }
+
+    @Test
+    public void whenTheFirstChangeIsNotifiedThenObserversAreNotifiedImmediately() {
+        coalescer.notifyChange(buildLocationUri(1), ReminderContract.Locations.CONTENT_URI);
+
+        verify(contentResolverMock).notifyChange(buildLocationUri(1), null);
+    }
+
+    @Test
+    public void whenChangesArriveWithinTheWindowThenTheyAreDeferredUntilTheWindowCloses() {
+        coalescer.notifyChange(buildLocationUri(1), ReminderContract.Locations.CONTENT_URI);
+        coalescer.notifyChange(buildLocationUri(2), ReminderContract.Locations.CONTENT_URI);
+
+        verify(contentResolverMock, times(1)).notifyChange(any(Uri.class), isNull(ContentObserver.class));
+
+        ShadowLooper.idleMainLooper(ChangeNotificationCoalescer.COALESCE_WINDOW_MILLIS);
+
+        verify(contentResolverMock).notifyChange(buildLocationUri(2), null);
+    }
+
+    @Test
+    public void whenDifferentChangesArriveWithinTheWindowThenTheyAreMergedIntoTheCollapsedUri() {
+        coalescer.notifyChange(buildLocationUri(1), ReminderContract.Locations.CONTENT_URI);
+        coalescer.notifyChange(buildLocationUri(2), ReminderContract.Locations.CONTENT_URI);
+        coalescer.notifyChange(buildLocationUri(3), ReminderContract.Locations.CONTENT_URI);
+
+        ShadowLooper.idleMainLooper(ChangeNotificationCoalescer.COALESCE_WINDOW_MILLIS);
+
+        verify(contentResolverMock).notifyChange(buildLocationUri(1), null);
+        verify(contentResolverMock).notifyChange(ReminderContract.Locations.CONTENT_URI, null);
+        verifyNoMoreInteractions(contentResolverMock);
+        assertEquals(1, coalescer.getSuppressedNotificationCount());
+    }
+
+    @Test
+    public void givenChangesArePendingWhenAChangeIsNotifiedNowThenThePendingChangesAreSentWithIt() {
+        coalescer.notifyChange(buildLocationUri(1), ReminderContract.Locations.CONTENT_URI);
+        coalescer.notifyChange(buildLocationUri(2), ReminderContract.Locations.CONTENT_URI);
+
+        coalescer.notifyChangeNow(ReminderContract.Locations.CONTENT_URI, ReminderContract.Locations.CONTENT_URI);
+        ShadowLooper.idleMainLooper(ChangeNotificationCoalescer.COALESCE_WINDOW_MILLIS);
+
+        verify(contentResolverMock).notifyChange(buildLocationUri(1), null);
+        verify(contentResolverMock).notifyChange(ReminderContract.Locations.CONTENT_URI, null);
+        verifyNoMoreInteractions(contentResolverMock);
+        assertEquals(1, coalescer.getSuppressedNotificationCount());
+    }
+
+    @Test
+    public void givenTheWindowHasClosedWhenAChangeIsNotifiedThenObserversAreNotifiedImmediately() {
+        coalescer.notifyChange(buildLocationUri(1), ReminderContract.Locations.CONTENT_URI);
+        ShadowLooper.idleMainLooper(ChangeNotificationCoalescer.COALESCE_WINDOW_MILLIS);
+
+        coalescer.notifyChange(buildLocationUri(2), ReminderContract.Locations.CONTENT_URI);
+
+        verify(contentResolverMock).notifyChange(buildLocationUri(2), null);
+    }
+
+    @Test
+    public void whenChangesForDifferentAuthoritiesArriveThenTheyAreNotCoalesced() {
+        coalescer.notifyChange(buildLocationUri(1), ReminderContract.Locations.CONTENT_URI);
+        Uri reminderUri = ContentUris.withAppendedId(ReminderContract.Reminders.CONTENT_URI, 1);
+
+        coalescer.notifyChange(reminderUri, ReminderContract.Reminders.CONTENT_URI);
+
+        verify(contentResolverMock).notifyChange(reminderUri, null);
+    }
+}
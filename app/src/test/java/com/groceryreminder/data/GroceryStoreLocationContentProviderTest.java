@@ -1,11 +1,15 @@
 package com.groceryreminder.data;
 
+import android.content.ContentProviderOperation;
+import android.content.ContentProviderResult;
 import android.content.ContentUris;
 import android.content.ContentValues;
+import android.content.OperationApplicationException;
 import android.database.Cursor;
 import android.net.Uri;
 
 import com.groceryreminder.BuildConfig;
+import com.groceryreminder.domain.GroceryReminderConstants;
 import com.groceryreminder.testUtils.LocationValuesBuilder;
 
 import org.junit.Before;
@@ -15,7 +19,9 @@ import org.robolectric.RobolectricGradleTestRunner;
 import org.robolectric.Shadows;
 import org.robolectric.annotation.Config;
 import org.robolectric.shadows.ShadowContentResolver;
+import org.robolectric.shadows.ShadowLooper;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -23,6 +29,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 @RunWith(RobolectricGradleTestRunner.class)
 @Config(constants = BuildConfig.class)
@@ -104,6 +111,7 @@ public class GroceryStoreLocationContentProviderTest {
 
         ShadowContentResolver contentResolver = Shadows.shadowOf(provider.getContext().getContentResolver());
         provider.delete(expectedUri, "", null);
+        ShadowLooper.idleMainLooper(ChangeNotificationCoalescer.COALESCE_WINDOW_MILLIS);
 
         List<ShadowContentResolver.NotifiedUri> notifiedUriList = contentResolver.getNotifiedUris();
         assertThat(notifiedUriList.get(1).uri, is(expectedUri));
@@ -224,6 +232,147 @@ public class GroceryStoreLocationContentProviderTest {
         cursor = null;
     }
 
+    @Test
+    public void whenNearbyLocationsAreQueriedThenOnlyLocationsInsideTheBoundingBoxAreReturned() {
+        ContentValues nearbyRecord = new LocationValuesBuilder().createDefaultLocationValues().withName("nearby").build();
+        nearbyRecord.put(ReminderContract.Locations.LATITUDE, 39.97);
+        nearbyRecord.put(ReminderContract.Locations.LONGITUDE, -82.99);
+        ContentValues distantRecord = new LocationValuesBuilder().createDefaultLocationValues().withName("distant").build();
+        distantRecord.put(ReminderContract.Locations.LATITUDE, 40.97);
+        distantRecord.put(ReminderContract.Locations.LONGITUDE, -82.99);
+        provider.insert(ReminderContract.Locations.CONTENT_URI, nearbyRecord);
+        provider.insert(ReminderContract.Locations.CONTENT_URI, distantRecord);
+
+        Uri nearbyUri = ReminderContract.Locations.buildNearbyUri(39.9733, -82.9979, GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS);
+        Cursor cursor = provider.query(nearbyUri, ReminderContract.Locations.PROJECT_ALL, null, null, null);
+
+        assertEquals(1, cursor.getCount());
+        assertTrue(cursor.moveToNext());
+        assertEquals("nearby", cursor.getString(1));
+
+        cursor.close();
+        cursor = null;
+    }
+
+    @Test
+    public void whenNearbyLocationsAreQueriedThenTheRequestedSelectionArgsShouldBeUsed() {
+        ContentValues otherRecord = new LocationValuesBuilder().createDefaultLocationValues().withName("other").build();
+        otherRecord.put(ReminderContract.Locations.LATITUDE, 39.97);
+        otherRecord.put(ReminderContract.Locations.LONGITUDE, -82.99);
+        ContentValues recordToQuery = new LocationValuesBuilder().createDefaultLocationValues().withName("test").build();
+        recordToQuery.put(ReminderContract.Locations.LATITUDE, 39.97);
+        recordToQuery.put(ReminderContract.Locations.LONGITUDE, -82.99);
+        provider.insert(ReminderContract.Locations.CONTENT_URI, otherRecord);
+        provider.insert(ReminderContract.Locations.CONTENT_URI, recordToQuery);
+
+        Uri nearbyUri = ReminderContract.Locations.buildNearbyUri(39.9733, -82.9979, GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS);
+        String selection = ReminderContract.Locations.NAME + " = ?";
+        Cursor cursor = provider.query(nearbyUri, ReminderContract.Locations.PROJECT_ALL, selection, new String[] {"test"}, null);
+
+        assertEquals(1, cursor.getCount());
+        assertTrue(cursor.moveToNext());
+        assertEquals("test", cursor.getString(1));
+
+        cursor.close();
+        cursor = null;
+    }
+
+    @Test
+    public void givenABoundingBoxAcrossTheAntimeridianWhenNearbyLocationsAreQueriedThenLocationsOnTheOtherSideAreReturned() {
+        ContentValues values = createDefaultLocationValues();
+        values.put(ReminderContract.Locations.LATITUDE, 0.0);
+        values.put(ReminderContract.Locations.LONGITUDE, 179.9999);
+        provider.insert(ReminderContract.Locations.CONTENT_URI, values);
+
+        Uri nearbyUri = ReminderContract.Locations.buildNearbyUri(0, -179.9999, GroceryReminderConstants.LOCATION_GEOFENCE_RADIUS_METERS);
+        Cursor cursor = provider.query(nearbyUri, ReminderContract.Locations.PROJECT_ALL, null, null, null);
+
+        assertEquals(1, cursor.getCount());
+
+        cursor.close();
+        cursor = null;
+    }
+
+    @Test
+    public void whenLocationsAreBulkInsertedThenAllLocationsArePersisted() {
+        ContentValues[] values = new ContentValues[] {createDefaultLocationValues(), createDefaultLocationValues(), createDefaultLocationValues()};
+
+        int count = provider.bulkInsert(ReminderContract.Locations.CONTENT_URI, values);
+
+        Cursor cursor = provider.query(ReminderContract.Locations.CONTENT_URI, ReminderContract.Locations.PROJECT_ALL, null, null, null);
+        assertEquals(3, count);
+        assertEquals(3, cursor.getCount());
+
+        cursor.close();
+        cursor = null;
+    }
+
+    @Test
+    public void whenADuplicateLocationIsBulkInsertedThenItReplacesTheExistingRecord() {
+        ContentValues initialValues = createDefaultLocationValues();
+        ContentValues duplicateValues = createDefaultLocationValues();
+        duplicateValues.put(ReminderContract.Locations.PLACES_ID, initialValues.getAsString(ReminderContract.Locations.PLACES_ID));
+        duplicateValues.put(ReminderContract.Locations.NAME, "duplicate");
+
+        provider.bulkInsert(ReminderContract.Locations.CONTENT_URI, new ContentValues[] {initialValues, duplicateValues});
+
+        Cursor cursor = provider.query(ReminderContract.Locations.CONTENT_URI, ReminderContract.Locations.PROJECT_ALL, null, null, null);
+        assertEquals(1, cursor.getCount());
+        assertTrue(cursor.moveToNext());
+        assertEquals("duplicate", cursor.getString(1));
+
+        cursor.close();
+        cursor = null;
+    }
+
+    @Test
+    public void whenLocationsAreBulkInsertedThenObserversAreNotifiedOnce() {
+        ContentValues[] values = new ContentValues[] {createDefaultLocationValues(), createDefaultLocationValues()};
+        ShadowContentResolver contentResolver = Shadows.shadowOf(provider.getContext().getContentResolver());
+
+        provider.bulkInsert(ReminderContract.Locations.CONTENT_URI, values);
+
+        List<ShadowContentResolver.NotifiedUri> notifiedUriList = contentResolver.getNotifiedUris();
+        assertEquals(1, notifiedUriList.size());
+        assertThat(notifiedUriList.get(0).uri, is(ReminderContract.Locations.CONTENT_URI));
+    }
+
+    @Test
+    public void whenABatchOfOperationsIsAppliedThenObserversAreNotifiedOnce() throws Exception {
+        Uri existingUri = provider.insert(ReminderContract.Locations.CONTENT_URI, createDefaultLocationValues());
+        ShadowContentResolver contentResolver = Shadows.shadowOf(provider.getContext().getContentResolver());
+        ArrayList<ContentProviderOperation> operations = new ArrayList<ContentProviderOperation>();
+        operations.add(ContentProviderOperation.newDelete(existingUri).build());
+        operations.add(ContentProviderOperation.newInsert(ReminderContract.Locations.CONTENT_URI).withValues(createDefaultLocationValues()).build());
+        operations.add(ContentProviderOperation.newInsert(ReminderContract.Locations.CONTENT_URI).withValues(createDefaultLocationValues()).build());
+
+        ContentProviderResult[] results = provider.applyBatch(operations);
+
+        assertEquals(3, results.length);
+        List<ShadowContentResolver.NotifiedUri> notifiedUriList = contentResolver.getNotifiedUris();
+        assertEquals(2, notifiedUriList.size());
+        assertThat(notifiedUriList.get(1).uri, is(ReminderContract.Locations.CONTENT_URI));
+    }
+
+    @Test
+    public void whenABatchOfOperationsFailsThenNoOperationsAreApplied() {
+        ArrayList<ContentProviderOperation> operations = new ArrayList<ContentProviderOperation>();
+        operations.add(ContentProviderOperation.newInsert(ReminderContract.Locations.CONTENT_URI).withValues(createDefaultLocationValues()).build());
+        operations.add(ContentProviderOperation.newDelete(ReminderContract.Locations.CONTENT_URI).withExpectedCount(5).build());
+
+        try {
+            provider.applyBatch(operations);
+            fail("Expected the batch to fail.");
+        } catch (OperationApplicationException e) {
+        }
+
+        Cursor cursor = provider.query(ReminderContract.Locations.CONTENT_URI, ReminderContract.Locations.PROJECT_ALL, null, null, null);
+        assertEquals(0, cursor.getCount());
+
+        cursor.close();
+        cursor = null;
+    }
+
     private ContentValues createDefaultLocationValues() {
         return new LocationValuesBuilder().createDefaultLocationValues().build();
     }
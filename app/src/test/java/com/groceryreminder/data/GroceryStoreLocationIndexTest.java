@@ -0,0 +1,281 @@
+package com.groceryreminder.data;
+
+import android.content.ContentProvider;
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.net.Uri;
+
+import com.groceryreminder.BuildConfig;
+import com.groceryreminder.RobolectricTestBase;
+import com.groceryreminder.domain.GroceryReminderConstants;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.Shadows;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class)
+public class GroceryStoreLocationIndexTest extends RobolectricTestBase {
+
+    private static final double DEFAULT_LATITUDE = 39.9732997;
+    private static final double DEFAULT_LONGITUDE = -82.99788610000002;
+
+    private GroceryStoreLocationIndex index;
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        index = new GroceryStoreLocationIndex();
+        index.load(new MatrixCursor(ReminderContract.Locations.PROJECT_ALL));
+    }
+
+    private ContentValues createLocationValues(String placesId, double latitude, double longitude) {
+        ContentValues values = new ContentValues();
+        values.put(ReminderContract.Locations.NAME, "store " + placesId);
+        values.put(ReminderContract.Locations.PLACES_ID, placesId);
+        values.put(ReminderContract.Locations.LATITUDE, latitude);
+        values.put(ReminderContract.Locations.LONGITUDE, longitude);
+
+        return values;
+    }
+
+    @Test
+    public void givenTheIndexIsNotLoadedWhenAStoreIsPutThenItIsIgnored() {
+        GroceryStoreLocationIndex unloadedIndex = new GroceryStoreLocationIndex();
+
+        unloadedIndex.put(1, createLocationValues("a", DEFAULT_LATITUDE, DEFAULT_LONGITUDE));
+
+        assertFalse(unloadedIndex.isLoaded());
+        assertEquals(0, unloadedIndex.size());
+    }
+
+    @Test
+    public void whenStoresAreLoadedFromACursorThenTheyAreIndexed() {
+        MatrixCursor cursor = new MatrixCursor(ReminderContract.Locations.PROJECT_ALL);
+        cursor.addRow(new Object[] {1, "store", "a", DEFAULT_LATITUDE, DEFAULT_LONGITUDE});
+        cursor.addRow(new Object[] {2, "store", "b", DEFAULT_LATITUDE + 1, DEFAULT_LONGITUDE});
+
+        index.load(cursor);
+
+        assertTrue(index.isLoaded());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void givenANearbyStoreWhenStoresWithinTheGeofenceAreRequestedThenItIsACandidate() {
+        index.put(1, createLocationValues("a", DEFAULT_LATITUDE + 0.001, DEFAULT_LONGITUDE + 0.001));
+
+        List<StoreEntry> candidates = index.findWithinBounds(DEFAULT_LATITUDE, DEFAULT_LONGITUDE, GroceryReminderConstants.LOCATION_GEOFENCE_RADIUS_METERS);
+
+        assertEquals(1, candidates.size());
+        assertEquals(1, candidates.get(0).getId());
+    }
+
+    @Test
+    public void givenAFarAwayStoreWhenStoresWithinTheSearchRadiusAreRequestedThenItIsNotACandidate() {
+        index.put(1, createLocationValues("a", DEFAULT_LATITUDE + 1, DEFAULT_LONGITUDE));
+
+        List<StoreEntry> candidates = index.findWithinBounds(DEFAULT_LATITUDE, DEFAULT_LONGITUDE, GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS);
+
+        assertTrue(candidates.isEmpty());
+    }
+
+    @Test
+    public void givenAFarAwayStoreWhenStoresOutsideTheSearchRadiusAreRequestedThenItIsReturned() {
+        index.put(1, createLocationValues("a", DEFAULT_LATITUDE + 1, DEFAULT_LONGITUDE));
+        index.put(2, createLocationValues("b", DEFAULT_LATITUDE, DEFAULT_LONGITUDE));
+
+        List<StoreEntry> outside = index.findOutsideBounds(DEFAULT_LATITUDE, DEFAULT_LONGITUDE, GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS);
+
+        assertEquals(1, outside.size());
+        assertEquals(1, outside.get(0).getId());
+    }
+
+    @Test
+    public void givenAStoreAcrossACellBoundaryWhenNearbyStoresAreRequestedThenItIsACandidate() {
+        double boundary = StoreGrid.CELL_SIZE_DEGREES * 800;
+        index.put(1, createLocationValues("a", boundary + 0.0001, DEFAULT_LONGITUDE));
+
+        List<StoreEntry> candidates = index.findWithinBounds(boundary - 0.0001, DEFAULT_LONGITUDE, GroceryReminderConstants.LOCATION_GEOFENCE_RADIUS_METERS);
+
+        assertEquals(1, candidates.size());
+    }
+
+    @Test
+    public void givenAStoreAcrossTheAntimeridianWhenNearbyStoresAreRequestedThenItIsACandidate() {
+        index.put(1, createLocationValues("a", 0, 179.9999));
+
+        List<StoreEntry> candidates = index.findWithinBounds(0, -179.9999, GroceryReminderConstants.LOCATION_GEOFENCE_RADIUS_METERS);
+
+        assertEquals(1, candidates.size());
+    }
+
+    @Test
+    public void whenAStoreWithTheSamePlacesIdIsPutThenItReplacesTheExistingEntry() {
+        index.put(1, createLocationValues("a", DEFAULT_LATITUDE, DEFAULT_LONGITUDE));
+        index.put(2, createLocationValues("a", DEFAULT_LATITUDE, DEFAULT_LONGITUDE));
+
+        List<StoreEntry> candidates = index.findWithinBounds(DEFAULT_LATITUDE, DEFAULT_LONGITUDE, GroceryReminderConstants.LOCATION_GEOFENCE_RADIUS_METERS);
+
+        assertEquals(1, index.size());
+        assertEquals(2, candidates.get(0).getId());
+    }
+
+    @Test
+    public void whenAStoreIsRemovedThenItIsNoLongerACandidate() {
+        index.put(1, createLocationValues("a", DEFAULT_LATITUDE, DEFAULT_LONGITUDE));
+
+        index.remove(1);
+
+        assertTrue(index.findWithinBounds(DEFAULT_LATITUDE, DEFAULT_LONGITUDE, GroceryReminderConstants.LOCATION_GEOFENCE_RADIUS_METERS).isEmpty());
+    }
+
+    @Test
+    public void whenTheIndexIsInvalidatedThenItMustBeReloaded() {
+        index.put(1, createLocationValues("a", DEFAULT_LATITUDE, DEFAULT_LONGITUDE));
+
+        index.invalidate();
+
+        assertFalse(index.isLoaded());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void givenTheIndexHasNotChangedWhenTheSnapshotIsRequestedAgainThenItIsReused() {
+        index.put(1, createLocationValues("a", DEFAULT_LATITUDE, DEFAULT_LONGITUDE));
+
+        StoreSnapshot snapshot = index.getSnapshot();
+
+        assertEquals(1, snapshot.size());
+        assertSame(snapshot, index.getSnapshot());
+    }
+
+    @Test
+    public void givenASnapshotWhenAStoreIsPutThenTheSnapshotIsRebuilt() {
+        StoreSnapshot snapshot = index.getSnapshot();
+
+        index.put(1, createLocationValues("a", DEFAULT_LATITUDE, DEFAULT_LONGITUDE));
+
+        assertNotSame(snapshot, index.getSnapshot());
+        assertEquals(1, index.getSnapshot().size());
+    }
+
+    @Test
+    public void givenASnapshotWhenAStoreIsRemovedThenTheSnapshotIsRebuilt() {
+        index.put(1, createLocationValues("a", DEFAULT_LATITUDE, DEFAULT_LONGITUDE));
+        index.getSnapshot();
+
+        index.remove(1);
+
+        assertEquals(0, index.getSnapshot().size());
+    }
+
+    private MatrixCursor createLocationCursor(int storeCount) {
+        MatrixCursor cursor = new MatrixCursor(ReminderContract.Locations.PROJECT_ALL);
+        for (int i = 0; i < storeCount; i++) {
+            cursor.addRow(new Object[] {i + 1, "store", "place" + i, DEFAULT_LATITUDE, DEFAULT_LONGITUDE});
+        }
+
+        return cursor;
+    }
+
+    private ContentResolver registerLocationProvider(QueryingLocationProvider locationProvider) {
+        ContentResolver contentResolver = RuntimeEnvironment.application.getContentResolver();
+        Shadows.shadowOf(contentResolver).registerProvider(ReminderContract.REMINDER_LOCATION_AUTHORITY, locationProvider);
+
+        return contentResolver;
+    }
+
+    @Test
+    public void whenTheIndexIsLoadedFromTheContentResolverThenTheQueryIsMadeOutsideTheIndexLock() {
+        final GroceryStoreLocationIndex unloadedIndex = new GroceryStoreLocationIndex();
+        final boolean[] queriedUnderLock = new boolean[1];
+        ContentResolver contentResolver = registerLocationProvider(new QueryingLocationProvider() {
+            @Override
+            protected Cursor query(int queryCount) {
+                queriedUnderLock[0] = Thread.holdsLock(unloadedIndex);
+                return createLocationCursor(1);
+            }
+        });
+
+        unloadedIndex.loadIfNeeded(contentResolver);
+
+        assertFalse(queriedUnderLock[0]);
+        assertTrue(unloadedIndex.isLoaded());
+        assertEquals(1, unloadedIndex.size());
+    }
+
+    @Test
+    public void givenTheTableChangesWhileTheIndexIsBeingLoadedThenTheLocationsAreQueriedAgain() {
+        final GroceryStoreLocationIndex unloadedIndex = new GroceryStoreLocationIndex();
+        QueryingLocationProvider locationProvider = new QueryingLocationProvider() {
+            @Override
+            protected Cursor query(int queryCount) {
+                if (queryCount == 1) {
+                    unloadedIndex.put(2, createLocationValues("place1", DEFAULT_LATITUDE, DEFAULT_LONGITUDE));
+                    return createLocationCursor(1);
+                }
+
+                return createLocationCursor(2);
+            }
+        };
+        ContentResolver contentResolver = registerLocationProvider(locationProvider);
+
+        unloadedIndex.loadIfNeeded(contentResolver);
+
+        assertEquals(2, locationProvider.queryCount);
+        assertEquals(2, unloadedIndex.size());
+    }
+
+    private static abstract class QueryingLocationProvider extends ContentProvider {
+
+        private int queryCount;
+
+        protected abstract Cursor query(int queryCount);
+
+        @Override
+        public boolean onCreate() {
+            return true;
+        }
+
+        @Override
+        public Cursor query(Uri uri, String[] projection, String selection, String[] selectionArgs, String sortOrder) {
+            queryCount++;
+            return query(queryCount);
+        }
+
+        @Override
+        public String getType(Uri uri) {
+            return null;
+        }
+
+        @Override
+        public Uri insert(Uri uri, ContentValues values) {
+            return null;
+        }
+
+        @Override
+        public int delete(Uri uri, String selection, String[] selectionArgs) {
+            return 0;
+        }
+
+        @Override
+        public int update(Uri uri, ContentValues values, String selection, String[] selectionArgs) {
+            return 0;
+        }
+    }
+}
@@ -17,6 +17,7 @@ import org.robolectric.RobolectricGradleTestRunner;
 import org.robolectric.Shadows;
 import org.robolectric.annotation.Config;
 import org.robolectric.shadows.ShadowContentResolver;
+import org.robolectric.shadows.ShadowLooper;
 
 import java.util.List;
 
@@ -55,6 +56,24 @@ public class ReminderContentProviderTest extends RobolectricTestBase {
         assertEquals(1, ContentUris.parseId(expectedUri));
     }
 
+    @Test
+    public void whenRemindersAreBulkInsertedThenAllRemindersArePersistedAndObserversAreNotifiedOnce() {
+        ContentValues[] values = new ContentValues[] {createDefaultReminderValues(), createDefaultReminderValues()};
+        ShadowContentResolver contentResolver = Shadows.shadowOf(provider.getContext().getContentResolver());
+
+        int count = provider.bulkInsert(ReminderContract.Reminders.CONTENT_URI, values);
+
+        Cursor cursor = provider.query(ReminderContract.Reminders.CONTENT_URI, ReminderContract.Reminders.PROJECT_ALL, null, null, null);
+        assertEquals(2, count);
+        assertEquals(2, cursor.getCount());
+        List<ShadowContentResolver.NotifiedUri> notifiedUriList = contentResolver.getNotifiedUris();
+        assertEquals(1, notifiedUriList.size());
+        assertThat(notifiedUriList.get(0).uri, is(ReminderContract.Reminders.CONTENT_URI));
+
+        cursor.close();
+        cursor = null;
+    }
+
     private ContentValues createDefaultReminderValues() {
         return new ReminderValuesBuilder().createDefaultReminderValues().build();
     }
@@ -103,6 +122,7 @@ public class ReminderContentProviderTest extends RobolectricTestBase {
 
         ShadowContentResolver contentResolver = Shadows.shadowOf(provider.getContext().getContentResolver());
         provider.delete(expectedUri, "", null);
+        ShadowLooper.idleMainLooper(ChangeNotificationCoalescer.COALESCE_WINDOW_MILLIS);
 
         List<ShadowContentResolver.NotifiedUri> notifiedUriList = contentResolver.getNotifiedUris();
         assertThat(notifiedUriList.get(1).uri, is(expectedUri));
@@ -224,4 +244,19 @@ public class ReminderContentProviderTest extends RobolectricTestBase {
         cursor.close();
         cursor = null;
     }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenAnUnknownUriWhenItIsQueriedThenItIsRejected() {
+        provider.query(Uri.withAppendedPath(ReminderContract.REMINDER_CONTENT_URI, "metrics"), null, null, null, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenAnUnknownUriWhenARecordIsInsertedThenItIsRejected() {
+        provider.insert(Uri.withAppendedPath(ReminderContract.REMINDER_CONTENT_URI, "unknown"), createDefaultReminderValues());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenAnUnknownUriWhenRecordsAreDeletedThenItIsRejected() {
+        provider.delete(Uri.withAppendedPath(ReminderContract.REMINDER_CONTENT_URI, "unknown"), null, null);
+    }
 }
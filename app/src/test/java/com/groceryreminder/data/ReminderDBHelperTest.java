@@ -18,7 +18,6 @@ import org.robolectric.annotation.Config;
 import org.robolectric.shadows.ShadowApplication;
 
 import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 @RunWith(RobolectricGradleTestRunner.class)
@@ -91,16 +90,70 @@ public class ReminderDBHelperTest {
     }
 
     @Test
-    public void whenTheDBHelperIsUpgradedThenTheLocationsTableIsRecreated() {
+    public void whenTheDBHelperIsUpgradedThenExistingLocationsArePreserved() {
         ContentValues values = createDefaultLocationValues();
         SQLiteDatabase writableDatabase = insertLocationValues(values);
 
-        dbHelper.onUpgrade(writableDatabase, 0, 0);
+        dbHelper.onUpgrade(writableDatabase, 1, 2);
 
         SQLiteDatabase readableDatabase = dbHelper.getReadableDatabase();
         Cursor cursor = readableDatabase.query(DBSchema.LOCATIONS, ReminderContract.Locations.PROJECT_ALL, "", null, null, null, ReminderContract.Locations.SORT_ORDER_DEFAULT, null);
 
-        assertFalse(cursor.moveToNext());
+        assertTrue(cursor.moveToNext());
+        assertEquals(values.getAsString(ReminderContract.Locations.PLACES_ID), cursor.getString(2));
+
+        cursor.close();
+        cursor = null;
+    }
+
+    @Test
+    public void givenAVersionOneDatabaseWhenTheDBHelperIsUpgradedThenTheCoordinatesAreStoredAsReals() {
+        SQLiteDatabase writableDatabase = dbHelper.getWritableDatabase();
+        writableDatabase.execSQL("DROP TABLE locations");
+        writableDatabase.execSQL("CREATE TABLE locations (_id INTEGER PRIMARY KEY AUTOINCREMENT, places_id varchar(200) UNIQUE, " +
+                "location_name varchar(200), latitude varchar(200), longitude varchar(200))");
+        writableDatabase.execSQL("INSERT INTO locations (places_id, location_name, latitude, longitude) " +
+                "VALUES ('places_id', 'location_name', '39.9732997', '-82.99788610000002')");
+
+        dbHelper.onUpgrade(writableDatabase, 1, 2);
+
+        Cursor cursor = writableDatabase.rawQuery("SELECT typeof(latitude), typeof(longitude), latitude FROM locations", null);
+
+        assertTrue(cursor.moveToNext());
+        assertEquals("real", cursor.getString(0));
+        assertEquals("real", cursor.getString(1));
+        assertEquals(39.9732997, cursor.getDouble(2), 0.0000001);
+
+        cursor.close();
+        cursor = null;
+    }
+
+    @Test
+    public void givenAVersionOneDatabaseWhenTheDBHelperIsUpgradedThenTheCoordinatesAreIndexed() {
+        SQLiteDatabase writableDatabase = dbHelper.getWritableDatabase();
+        writableDatabase.execSQL("DROP TABLE locations");
+        writableDatabase.execSQL("CREATE TABLE locations (_id INTEGER PRIMARY KEY AUTOINCREMENT, places_id varchar(200) UNIQUE, " +
+                "location_name varchar(200), latitude varchar(200), longitude varchar(200))");
+
+        dbHelper.onUpgrade(writableDatabase, 1, 2);
+
+        Cursor cursor = writableDatabase.rawQuery("SELECT name FROM sqlite_master WHERE type = 'index' AND name = 'locations_coordinates_index'", null);
+        assertEquals(1, cursor.getCount());
+
+        cursor.close();
+        cursor = null;
+    }
+
+    @Test
+    public void whenTheDBHelperIsUpgradedThenTheRemindersAreNotDropped() {
+        ContentValues reminderValues = new ReminderValuesBuilder().createDefaultReminderValues().build();
+        insertReminderValues(reminderValues);
+        SQLiteDatabase writableDatabase = dbHelper.getWritableDatabase();
+
+        dbHelper.onUpgrade(writableDatabase, 1, 2);
+
+        Cursor cursor = writableDatabase.query(DBSchema.REMINDERS, ReminderContract.Reminders.PROJECT_ALL, "", null, null, null, ReminderContract.Reminders.SORT_ORDER_DEFAULT, null);
+        assertEquals(1, cursor.getCount());
 
         cursor.close();
         cursor = null;
@@ -0,0 +1,156 @@
+package com.groceryreminder.domain;
+
+import android.location.Location;
+import android.location.LocationListener;
+import android.location.LocationManager;
+
+import com.groceryreminder.BuildConfig;
+import com.groceryreminder.RobolectricTestBase;
+import com.groceryreminder.core.LocationUpdateSchedule;
+import com.groceryreminder.data.StoreEntry;
+import com.groceryreminder.data.StoreSnapshot;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyFloat;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class)
+public class AdaptiveLocationSchedulerTest extends RobolectricTestBase {
+
+    private static final LocationUpdateSchedule RELAXED_SCHEDULE =
+            new LocationUpdateSchedule(GroceryReminderConstants.MIN_LOCATION_UPDATE_TIME_MILLIS, (float) GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS);
+
+    private LocationManager locationManagerMock;
+    private LocationListener locationListenerMock;
+    private AdaptiveLocationScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        locationManagerMock = mock(LocationManager.class);
+        locationListenerMock = mock(LocationListener.class);
+        when(locationManagerMock.isProviderEnabled(anyString())).thenReturn(true);
+        scheduler = new AdaptiveLocationScheduler(locationManagerMock);
+    }
+
+    private StoreSnapshot createSnapshotWithStoreAt(double latitude, double longitude) {
+        List<StoreEntry> entries = new ArrayList<StoreEntry>();
+        entries.add(new StoreEntry(1, "test_places_id", "test", latitude, longitude));
+
+        return StoreSnapshot.build(entries);
+    }
+
+    private Location createLocation(double latitude, long time) {
+        Location location = new Location(LocationManager.GPS_PROVIDER);
+        location.setLatitude(latitude);
+        location.setLongitude(0);
+        location.setTime(time);
+
+        return location;
+    }
+
+    @Test
+    public void givenTheProviderIsDisabledWhenUpdatesAreRequestedThenNothingIsScheduled() {
+        when(locationManagerMock.isProviderEnabled(LocationManager.GPS_PROVIDER)).thenReturn(false);
+
+        scheduler.request(LocationManager.GPS_PROVIDER, locationListenerMock, RELAXED_SCHEDULE);
+
+        verify(locationManagerMock, never()).requestLocationUpdates(anyString(), anyLong(), anyFloat(), any(LocationListener.class));
+        assertNull(scheduler.getSchedule(LocationManager.GPS_PROVIDER));
+    }
+
+    @Test
+    public void givenAStoreIsBeingApproachedWhenUpdatesAreRescheduledThenGPSSamplingTightens() {
+        scheduler.request(LocationManager.GPS_PROVIDER, locationListenerMock, RELAXED_SCHEDULE);
+        Location location = createLocation(0, 0);
+        location.setSpeed(20);
+
+        //About 1.6km from the geofence edge
+        scheduler.reschedule(location, createSnapshotWithStoreAt(0.019, 0), locationListenerMock);
+
+        LocationUpdateSchedule schedule = scheduler.getSchedule(LocationManager.GPS_PROVIDER);
+        assertTrue(schedule.getIntervalMillis() < GroceryReminderConstants.MIN_LOCATION_UPDATE_TIME_MILLIS);
+        assertTrue(schedule.getMinDistanceMeters() < GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS);
+        verify(locationManagerMock).requestLocationUpdates(eq(LocationManager.GPS_PROVIDER), eq(schedule.getIntervalMillis()), eq(schedule.getMinDistanceMeters()), eq(locationListenerMock));
+    }
+
+    @Test
+    public void givenNoStoresAreKnownWhenUpdatesAreRescheduledThenGPSWakeupsBecomeRare() {
+        scheduler.request(LocationManager.GPS_PROVIDER, locationListenerMock, RELAXED_SCHEDULE);
+
+        scheduler.reschedule(createLocation(0, 0), StoreSnapshot.EMPTY, locationListenerMock);
+
+        assertEquals(LocationUpdateSchedule.MAX_INTERVAL_MILLIS, scheduler.getSchedule(LocationManager.GPS_PROVIDER).getIntervalMillis());
+    }
+
+    @Test
+    public void givenTheScheduleBarelyChangesWhenUpdatesAreRescheduledThenUpdatesAreNotRequestedAgain() {
+        scheduler.request(LocationManager.GPS_PROVIDER, locationListenerMock, RELAXED_SCHEDULE);
+        StoreSnapshot snapshot = createSnapshotWithStoreAt(0.019, 0);
+        Location location = createLocation(0, 0);
+        location.setSpeed(20);
+        Location nextLocation = createLocation(0.0001, 1000);
+        nextLocation.setSpeed(20);
+
+        scheduler.reschedule(location, snapshot, locationListenerMock);
+        scheduler.reschedule(nextLocation, snapshot, locationListenerMock);
+
+        verify(locationManagerMock, times(2)).requestLocationUpdates(eq(LocationManager.GPS_PROVIDER), anyLong(), anyFloat(), eq(locationListenerMock));
+    }
+
+    @Test
+    public void givenAPassiveRequestWhenUpdatesAreRescheduledThenItIsLeftAlone() {
+        LocationUpdateSchedule passiveSchedule = new LocationUpdateSchedule(GroceryReminderConstants.PASSIVE_MIN_UPDATE_TIME, (float) GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS);
+        scheduler.request(LocationManager.PASSIVE_PROVIDER, locationListenerMock, passiveSchedule);
+
+        scheduler.reschedule(createLocation(0, 0), createSnapshotWithStoreAt(0.019, 0), locationListenerMock);
+
+        assertEquals(passiveSchedule, scheduler.getSchedule(LocationManager.PASSIVE_PROVIDER));
+        verify(locationManagerMock, times(1)).requestLocationUpdates(anyString(), anyLong(), anyFloat(), any(LocationListener.class));
+    }
+
+    @Test
+    public void givenTheNetworkProviderWhenUpdatesAreRescheduledThenItsIntervalNeverDropsBelowTheNetworkMinimum() {
+        scheduler.request(LocationManager.NETWORK_PROVIDER, locationListenerMock, RELAXED_SCHEDULE);
+
+        scheduler.reschedule(createLocation(0, 0), createSnapshotWithStoreAt(0, 0), locationListenerMock);
+
+        assertEquals(GroceryReminderConstants.NETWORK_MIN_UPDATE_TIME, scheduler.getSchedule(LocationManager.NETWORK_PROVIDER).getIntervalMillis());
+    }
+
+    @Test
+    public void givenAFixWithoutSpeedWhenTheSpeedIsEstimatedThenItIsDerivedFromThePreviousFix() {
+        scheduler.reschedule(createLocation(0, 0), StoreSnapshot.EMPTY, locationListenerMock);
+        Location nextLocation = createLocation(0.001, 10000);
+
+        assertEquals(nextLocation.distanceTo(createLocation(0, 0)) / 10, scheduler.estimateSpeed(nextLocation), 0.01);
+    }
+
+    @Test
+    public void givenAFixWithSpeedWhenTheSpeedIsEstimatedThenItsOwnSpeedIsUsed() {
+        Location location = createLocation(0, 0);
+        location.setSpeed(12);
+
+        assertEquals(12, scheduler.estimateSpeed(location), 0);
+    }
+}
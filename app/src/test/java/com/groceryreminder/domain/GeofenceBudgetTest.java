@@ -0,0 +1,135 @@
+package com.groceryreminder.domain;
+
+import android.content.Context;
+import android.location.Location;
+import android.location.LocationManager;
+
+import com.groceryreminder.BuildConfig;
+import com.groceryreminder.RobolectricTestBase;
+import com.groceryreminder.shadows.ShadowLocationManager;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.Shadows;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import se.walkercrou.places.Place;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class)
+public class GeofenceBudgetTest extends RobolectricTestBase {
+
+    private static final int BUDGET = 2;
+
+    private ShadowLocationManager shadowLocationManager;
+    private GeofenceRegistry geofenceRegistry;
+    private GeofenceBudget geofenceBudget;
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        LocationManager locationManager = (LocationManager) RuntimeEnvironment.application.getSystemService(Context.LOCATION_SERVICE);
+        shadowLocationManager = (ShadowLocationManager) Shadows.shadowOf(locationManager);
+        geofenceRegistry = new GeofenceRegistry(RuntimeEnvironment.application, locationManager);
+        geofenceBudget = new GeofenceBudget(geofenceRegistry, BUDGET);
+    }
+
+    private Place createPlace(String placesId, double latitude) {
+        Place place = new Place();
+        place.setPlaceId(placesId);
+        place.setName("name_" + placesId);
+        place.setLatitude(latitude);
+        place.setLongitude(0);
+
+        return place;
+    }
+
+    private Location createLocation(double latitude) {
+        Location location = new Location(LocationManager.GPS_PROVIDER);
+        location.setLatitude(latitude);
+        location.setLongitude(0);
+
+        return location;
+    }
+
+    private List<Place> createPlacesAlongTheMeridian() {
+        List<Place> places = new ArrayList<Place>();
+        places.add(createPlace("near", 0.01));
+        places.add(createPlace("middle", 0.02));
+        places.add(createPlace("far", 0.03));
+
+        return places;
+    }
+
+    @Test
+    public void givenMoreStoresThanTheBudgetWhenTheyAreOfferedThenOnlyTheNearestAreArmed() {
+        geofenceBudget.offer(createPlacesAlongTheMeridian(), createLocation(0));
+
+        assertEquals(BUDGET, shadowLocationManager.getProximityAlerts().size());
+        assertTrue(geofenceRegistry.isRegistered("near"));
+        assertTrue(geofenceRegistry.isRegistered("middle"));
+        assertFalse(geofenceRegistry.isRegistered("far"));
+        assertEquals(3, geofenceBudget.getCandidateCount());
+    }
+
+    @Test
+    public void givenNoCurrentLocationWhenStoresAreOfferedThenTheFirstStoresUpToTheBudgetAreArmed() {
+        geofenceBudget.offer(createPlacesAlongTheMeridian(), null);
+
+        assertEquals(BUDGET, shadowLocationManager.getProximityAlerts().size());
+        assertFalse(geofenceRegistry.isRegistered("far"));
+    }
+
+    @Test
+    public void givenTheUserMovesWhenTheStoresAreReRankedThenTheArmedStoresFollowTheUser() {
+        geofenceBudget.offer(createPlacesAlongTheMeridian(), createLocation(0));
+
+        geofenceBudget.rerank(createLocation(0.03));
+
+        assertEquals(BUDGET, shadowLocationManager.getProximityAlerts().size());
+        assertFalse(geofenceRegistry.isRegistered("near"));
+        assertTrue(geofenceRegistry.isRegistered("middle"));
+        assertTrue(geofenceRegistry.isRegistered("far"));
+    }
+
+    @Test
+    public void givenTheUserHasBarelyMovedWhenTheStoresAreReRankedThenTheRegistryIsNotTouched() {
+        GeofenceRegistry geofenceRegistryMock = mock(GeofenceRegistry.class);
+        when(geofenceRegistryMock.getRegisteredPlacesIds()).thenReturn(new HashSet<String>());
+        GeofenceBudget budget = new GeofenceBudget(geofenceRegistryMock, BUDGET);
+        budget.offer(createPlacesAlongTheMeridian(), createLocation(0));
+
+        budget.rerank(createLocation(0.0001));
+
+        verify(geofenceRegistryMock, times(1)).getRegisteredPlacesIds();
+    }
+
+    @Test
+    public void givenAnArmedStoreWhenItIsRemovedThenTheNextNearestStoreIsArmedOnTheNextRanking() {
+        geofenceBudget.offer(createPlacesAlongTheMeridian(), createLocation(0));
+
+        geofenceBudget.remove(Collections.singletonList("near"));
+        geofenceBudget.rerank(createLocation(0));
+
+        assertEquals(2, geofenceBudget.getCandidateCount());
+        assertFalse(geofenceRegistry.isRegistered("near"));
+        assertTrue(geofenceRegistry.isRegistered("far"));
+        assertEquals(BUDGET, shadowLocationManager.getProximityAlerts().size());
+    }
+}
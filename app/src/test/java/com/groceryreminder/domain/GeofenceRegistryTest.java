@@ -0,0 +1,170 @@
+package com.groceryreminder.domain;
+
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.location.LocationManager;
+
+import com.groceryreminder.BuildConfig;
+import com.groceryreminder.R;
+import com.groceryreminder.RobolectricTestBase;
+import com.groceryreminder.shadows.ShadowLocationManager;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.Shadows;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import se.walkercrou.places.Place;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class)
+public class GeofenceRegistryTest extends RobolectricTestBase {
+
+    private static final long DAY_MILLIS = 86400000;
+
+    private LocationManager locationManager;
+    private ShadowLocationManager shadowLocationManager;
+    private GeofenceRegistry geofenceRegistry;
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        locationManager = (LocationManager) RuntimeEnvironment.application.getSystemService(Context.LOCATION_SERVICE);
+        shadowLocationManager = (ShadowLocationManager) Shadows.shadowOf(locationManager);
+        geofenceRegistry = new GeofenceRegistry(RuntimeEnvironment.application, locationManager);
+    }
+
+    private Place createPlace(String placesId, double latitude) {
+        Place place = new Place();
+        place.setPlaceId(placesId);
+        place.setName("name_" + placesId);
+        place.setLatitude(latitude);
+        place.setLongitude(1.1);
+
+        return place;
+    }
+
+    @Test
+    public void givenNewPlacesWhenTheyAreRegisteredThenAProximityAlertIsAddedForEach() {
+        List<Place> places = Arrays.asList(createPlace("a", 1), createPlace("b", 2));
+
+        assertEquals(2, geofenceRegistry.register(places));
+
+        assertEquals(2, shadowLocationManager.getProximityAlerts().size());
+        assertTrue(geofenceRegistry.isRegistered("a"));
+        assertTrue(geofenceRegistry.isRegistered("b"));
+    }
+
+    @Test
+    public void givenARegisteredPlaceWhenItIsRegisteredAgainThenOnlyTheNewPlaceIsAdded() {
+        geofenceRegistry.register(Collections.singletonList(createPlace("a", 1)));
+
+        int addedCount = geofenceRegistry.register(Arrays.asList(createPlace("a", 1), createPlace("b", 2)));
+
+        assertEquals(1, addedCount);
+        assertEquals(2, shadowLocationManager.getProximityAlerts().size());
+    }
+
+    @Test
+    public void givenARegisteredPlaceWhenItIsUnregisteredThenItsProximityAlertIsRemoved() {
+        geofenceRegistry.register(Arrays.asList(createPlace("a", 1), createPlace("b", 2)));
+
+        assertEquals(1, geofenceRegistry.unregister(Collections.singletonList("a")));
+
+        assertFalse(geofenceRegistry.isRegistered("a"));
+        assertFalse(shadowLocationManager.hasProximityAlert(1, 1.1));
+        assertTrue(shadowLocationManager.hasProximityAlert(2, 1.1));
+    }
+
+    @Test
+    public void givenAnUnknownPlaceWhenItIsUnregisteredThenNothingIsRemoved() {
+        geofenceRegistry.register(Collections.singletonList(createPlace("a", 1)));
+
+        assertEquals(0, geofenceRegistry.unregister(Collections.singletonList("unknown")));
+
+        assertEquals(1, shadowLocationManager.getProximityAlerts().size());
+    }
+
+    @Test
+    public void givenPlacesWereRegisteredByAnotherRegistryWhenTheyAreRegisteredAgainThenTheRequestCodesAreStable() {
+        geofenceRegistry.register(Collections.singletonList(createPlace("a", 1)));
+        int firstRequestCode = Shadows.shadowOf(shadowLocationManager.getProximityAlerts().get(0).getPendingIntent()).getRequestCode();
+
+        GeofenceRegistry reloadedRegistry = new GeofenceRegistry(RuntimeEnvironment.application, locationManager);
+        List<Place> places = new ArrayList<Place>();
+        places.add(createPlace("a", 1));
+        places.add(createPlace("b", 2));
+
+        assertEquals(1, reloadedRegistry.register(places));
+        assertTrue(reloadedRegistry.isRegistered("a"));
+
+        int secondRequestCode = Shadows.shadowOf(shadowLocationManager.getProximityAlerts().get(1).getPendingIntent()).getRequestCode();
+        assertNotEquals(firstRequestCode, secondRequestCode);
+    }
+
+    @Test
+    public void givenProximityAlertsFromBeforeTheRegistryWhenItIsFirstLoadedThenTheyAreRemoved() {
+        PendingIntent legacyPendingIntent = PendingIntent.getBroadcast(RuntimeEnvironment.application, 5,
+                new Intent(GroceryReminderConstants.ACTION_STORE_PROXIMITY_EVENT), PendingIntent.FLAG_CANCEL_CURRENT);
+        locationManager.addProximityAlert(3, 1.1, GroceryReminderConstants.LOCATION_GEOFENCE_RADIUS_METERS,
+                GroceryReminderConstants.PROXIMITY_ALERT_EXPIRATION, legacyPendingIntent);
+
+        geofenceRegistry.register(Collections.singletonList(createPlace("a", 1)));
+
+        assertNull(shadowLocationManager.getProximityAlert(3, 1.1));
+        assertTrue(shadowLocationManager.hasProximityAlert(1, 1.1));
+    }
+
+    @Test
+    public void whenAPlaceIsRegisteredThenItsRequestCodeIsPastTheLegacyRange() {
+        geofenceRegistry.register(Collections.singletonList(createPlace("a", 1)));
+
+        int requestCode = Shadows.shadowOf(shadowLocationManager.getProximityAlerts().get(0).getPendingIntent()).getRequestCode();
+        assertTrue(requestCode >= GeofenceRegistry.LEGACY_REQUEST_CODE_COUNT);
+    }
+
+    @Test
+    public void givenTheUptimeWentBackwardsWhenTheRegistryIsLoadedThenTheSavedRegistrationsAreForgottenAndTheirAlertsRemoved() {
+        geofenceRegistry.register(Collections.singletonList(createPlace("a", 1)));
+        getSharedPreferences().edit().putLong(GeofenceRegistry.ELAPSED_REALTIME, Long.MAX_VALUE).apply();
+
+        GeofenceRegistry rebootedRegistry = new GeofenceRegistry(RuntimeEnvironment.application, locationManager);
+
+        assertFalse(rebootedRegistry.isRegistered("a"));
+        assertTrue(shadowLocationManager.getProximityAlerts().isEmpty());
+    }
+
+    @Test
+    public void givenTheWallClockMovedWhenTheRegistryIsLoadedThenNoProximityAlertIsLeaked() {
+        geofenceRegistry.register(Collections.singletonList(createPlace("a", 1)));
+        SharedPreferences sharedPreferences = getSharedPreferences();
+        long savedBootTime = sharedPreferences.getLong(GeofenceRegistry.BOOT_TIME, 0);
+        sharedPreferences.edit().putLong(GeofenceRegistry.BOOT_TIME, savedBootTime - DAY_MILLIS).apply();
+
+        GeofenceRegistry reloadedRegistry = new GeofenceRegistry(RuntimeEnvironment.application, locationManager);
+        reloadedRegistry.register(Collections.singletonList(createPlace("a", 1)));
+
+        assertEquals(1, shadowLocationManager.getProximityAlerts().size());
+        assertTrue(reloadedRegistry.isRegistered("a"));
+    }
+
+    private SharedPreferences getSharedPreferences() {
+        return RuntimeEnvironment.application.getSharedPreferences(RuntimeEnvironment.application.getString(R.string.reminder_pref_key), Context.MODE_PRIVATE);
+    }
+}
@@ -0,0 +1,133 @@
+package com.groceryreminder.domain;
+
+import com.groceryreminder.BuildConfig;
+import com.groceryreminder.RobolectricTestBase;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import se.walkercrou.places.Place;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class)
+public class GooglePlacesResponseCacheTest extends RobolectricTestBase {
+
+    private static final double DEFAULT_LATITUDE = 39.9732997;
+    private static final double DEFAULT_LONGITUDE = -82.99788610000002;
+    private static final long ONE_HOUR_MILLIS = 3600000l;
+
+    private File cacheFile;
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        cacheFile = new File(RuntimeEnvironment.application.getCacheDir(), "test_places_cache.json");
+        cacheFile.delete();
+    }
+
+    private GooglePlacesResponseCache createCache(long timeToLiveMillis, int maxEntries, long maxBytes) {
+        return new GooglePlacesResponseCache(cacheFile, timeToLiveMillis, maxEntries, maxBytes);
+    }
+
+    private List<Place> createPlaces(String placeId) {
+        Place place = new Place();
+        place.setName("store " + placeId);
+        place.setPlaceId(placeId);
+        place.setLatitude(DEFAULT_LATITUDE);
+        place.setLongitude(DEFAULT_LONGITUDE);
+
+        List<Place> places = new ArrayList<Place>();
+        places.add(place);
+        return places;
+    }
+
+    @Test
+    public void whenATileIsEncodedThenItIsAGeohash() {
+        assertEquals("ezs42", GooglePlacesResponseCache.encodeTile(42.6, -5.6, 5));
+    }
+
+    @Test
+    public void givenAnEmptyCacheWhenATileIsRequestedThenAMissIsCounted() {
+        GooglePlacesResponseCache cache = createCache(ONE_HOUR_MILLIS, 10, 1024 * 1024);
+
+        assertNull(cache.get(DEFAULT_LATITUDE, DEFAULT_LONGITUDE));
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void givenACachedTileWhenANearbyLocationInTheSameTileIsRequestedThenAHitIsCounted() {
+        GooglePlacesResponseCache cache = createCache(ONE_HOUR_MILLIS, 10, 1024 * 1024);
+        cache.put(DEFAULT_LATITUDE, DEFAULT_LONGITUDE, createPlaces("a"));
+
+        List<Place> places = cache.get(DEFAULT_LATITUDE + 0.0001, DEFAULT_LONGITUDE + 0.0001);
+
+        assertEquals(1, places.size());
+        assertEquals("a", places.get(0).getPlaceId());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void givenAnExpiredTileWhenItIsRequestedThenItIsAMiss() {
+        GooglePlacesResponseCache cache = createCache(0, 10, 1024 * 1024);
+        cache.put(DEFAULT_LATITUDE, DEFAULT_LONGITUDE, createPlaces("a"));
+
+        assertFalse(cache.isFresh(DEFAULT_LATITUDE, DEFAULT_LONGITUDE));
+        assertNull(cache.get(DEFAULT_LATITUDE, DEFAULT_LONGITUDE));
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void givenTheCacheIsFullWhenATileIsAddedThenTheLeastRecentlyUsedTileIsEvicted() {
+        GooglePlacesResponseCache cache = createCache(ONE_HOUR_MILLIS, 2, 1024 * 1024);
+        cache.put(1, 1, createPlaces("a"));
+        cache.put(2, 2, createPlaces("b"));
+        cache.get(1, 1);
+
+        cache.put(3, 3, createPlaces("c"));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(1, 1));
+        assertNull(cache.get(2, 2));
+    }
+
+    @Test
+    public void givenTheCacheIsOverItsByteBudgetWhenATileIsAddedThenTilesAreEvicted() {
+        GooglePlacesResponseCache cache = createCache(ONE_HOUR_MILLIS, 10, 1024 * 1024);
+        cache.put(1, 1, createPlaces("a"));
+        long entrySize = cache.getSizeInBytes();
+
+        GooglePlacesResponseCache boundedCache = createCache(ONE_HOUR_MILLIS, 10, entrySize + entrySize / 2);
+        boundedCache.put(2, 2, createPlaces("b"));
+
+        assertEquals(1, boundedCache.size());
+        assertTrue(boundedCache.getSizeInBytes() <= entrySize + entrySize / 2);
+        assertNull(boundedCache.get(1, 1));
+    }
+
+    @Test
+    public void givenACachedTileWhenTheCacheIsRecreatedThenTheTileIsLoadedFromDisk() {
+        createCache(ONE_HOUR_MILLIS, 10, 1024 * 1024).put(DEFAULT_LATITUDE, DEFAULT_LONGITUDE, createPlaces("a"));
+
+        GooglePlacesResponseCache cache = createCache(ONE_HOUR_MILLIS, 10, 1024 * 1024);
+        List<Place> places = cache.get(DEFAULT_LATITUDE, DEFAULT_LONGITUDE);
+
+        assertEquals(1, places.size());
+        assertEquals("store a", places.get(0).getName());
+        assertEquals(DEFAULT_LATITUDE, places.get(0).getLatitude(), 0.0000001);
+    }
+}
@@ -0,0 +1,370 @@
+package com.groceryreminder.domain;
+
+import android.location.Location;
+import android.location.LocationManager;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.groceryreminder.BuildConfig;
+import com.groceryreminder.RobolectricTestBase;
+import com.groceryreminder.testUtils.PlacesResponseBuilder;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.mockito.stubbing.OngoingStubbing;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.util.Scheduler;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import se.walkercrou.places.GooglePlacesInterface;
+import se.walkercrou.places.Param;
+import se.walkercrou.places.Place;
+import se.walkercrou.places.RequestHandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyDouble;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class)
+public class GooglePlacesSearchPipelineTest extends RobolectricTestBase {
+
+    private static final int PAGE_BUDGET = 3;
+
+    private GooglePlacesInterface googlePlacesMock;
+    private RequestHandler requestHandlerMock;
+    private GroceryStoreManagerInterface groceryStoreManagerMock;
+    private GooglePlacesResponseCache placesCache;
+    private GooglePlacesSearchPipeline searchPipeline;
+
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        googlePlacesMock = mock(GooglePlacesInterface.class);
+        requestHandlerMock = mock(RequestHandler.class);
+        when(googlePlacesMock.getRequestHandler()).thenReturn(requestHandlerMock);
+        groceryStoreManagerMock = mock(GroceryStoreManagerInterface.class);
+        when(groceryStoreManagerMock.filterPlacesByDistance(any(Location.class), anyListOf(Place.class), anyDouble())).thenAnswer(new Answer<List<Place>>() {
+            @Override
+            public List<Place> answer(InvocationOnMock invocation) throws Throwable {
+                return (List<Place>) invocation.getArguments()[1];
+            }
+        });
+        File cacheFile = new File(RuntimeEnvironment.application.getCacheDir(), "test_places_cache.json");
+        cacheFile.delete();
+        placesCache = new GooglePlacesResponseCache(cacheFile,
+                GroceryReminderConstants.PLACES_CACHE_TIME_TO_LIVE_MILLIS,
+                GroceryReminderConstants.PLACES_CACHE_MAX_ENTRIES,
+                GroceryReminderConstants.PLACES_CACHE_MAX_BYTES);
+        searchPipeline = new GooglePlacesSearchPipeline(googlePlacesMock, placesCache, DIRECT_EXECUTOR, DIRECT_EXECUTOR, DIRECT_EXECUTOR, DIRECT_EXECUTOR,
+                new Handler(Looper.getMainLooper()), PAGE_BUDGET);
+    }
+
+    private Location createDefaultLocation() {
+        Location location = new Location(LocationManager.GPS_PROVIDER);
+        location.setLatitude(39.9732997);
+        location.setLongitude(-82.99788610000002);
+
+        return location;
+    }
+
+    private List<Place> createPlaces(String placeId) {
+        Place place = new Place();
+        place.setName("test " + placeId);
+        place.setPlaceId(placeId);
+        place.setLatitude(39.97);
+        place.setLongitude(-82.99);
+
+        List<Place> places = new ArrayList<Place>();
+        places.add(place);
+        return places;
+    }
+
+    //Every page after the first carries the token the page before it handed out
+    private void givenPagedResponses(List<List<Place>> pages, boolean lastPageHasToken) throws IOException {
+        OngoingStubbing<String> stubbing = when(requestHandlerMock.get(anyString()));
+        for (int i = 0; i < pages.size(); i++) {
+            PlacesResponseBuilder page = new PlacesResponseBuilder().withPlaces(pages.get(i));
+            if (i < pages.size() - 1 || lastPageHasToken) {
+                page.withNextPageToken("token" + i);
+            }
+            stubbing = stubbing.thenReturn(page.build());
+        }
+    }
+
+    private void runPageRequests() {
+        Scheduler scheduler = Robolectric.getForegroundThreadScheduler();
+        while (scheduler.size() > 0) {
+            scheduler.advanceToNextPostedRunnable();
+        }
+    }
+
+    private List<String> captureRequestedUrls(int requestCount) throws IOException {
+        ArgumentCaptor<String> urlCaptor = ArgumentCaptor.forClass(String.class);
+        verify(requestHandlerMock, times(requestCount)).get(urlCaptor.capture());
+
+        return urlCaptor.getAllValues();
+    }
+
+    @Test
+    public void whenGooglePlacesCausesAnErrorThenNothingIsPersistedOrCached() throws IOException {
+        Location location = createDefaultLocation();
+        when(requestHandlerMock.get(anyString())).thenReturn(new PlacesResponseBuilder().withStatus(GooglePlacesInterface.STATUS_REQUEST_DENIED).build());
+
+        searchPipeline.search(location, groceryStoreManagerMock);
+
+        verify(groceryStoreManagerMock, never()).persistGroceryStores(anyListOf(Place.class));
+        assertNull(placesCache.get(location.getLatitude(), location.getLongitude()));
+    }
+
+    @Test
+    public void givenTheLocationTileWasSearchedWhenItIsSearchedAgainThenGooglePlacesIsNotCalled() throws IOException {
+        Location location = createDefaultLocation();
+        List<Place> places = createPlaces("a");
+        givenPagedResponses(Collections.singletonList(places), false);
+
+        searchPipeline.search(location, groceryStoreManagerMock);
+        searchPipeline.search(location, groceryStoreManagerMock);
+
+        verify(requestHandlerMock, times(1)).get(anyString());
+        verify(groceryStoreManagerMock, times(2)).persistGroceryStores(places);
+        assertEquals(1, placesCache.getHitCount());
+    }
+
+    @Test
+    public void whenASearchIsPerformedThenThePlacesAreFilteredPersistedAndGeofenced() throws IOException {
+        Location location = createDefaultLocation();
+        List<Place> places = createPlaces("a");
+        givenPagedResponses(Collections.singletonList(places), false);
+
+        searchPipeline.search(location, groceryStoreManagerMock);
+
+        verify(groceryStoreManagerMock).filterPlacesByDistance(location, places, GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS);
+        verify(groceryStoreManagerMock).persistGroceryStores(places);
+        verify(groceryStoreManagerMock).addProximityAlerts(places);
+    }
+
+    @Test
+    public void whenASearchIsPerformedThenTheLibrarysSleepingSearchMethodsAreNotUsed() throws IOException {
+        givenPagedResponses(Collections.singletonList(createPlaces("a")), false);
+
+        searchPipeline.search(createDefaultLocation(), groceryStoreManagerMock);
+
+        verify(googlePlacesMock, never()).getNearbyPlacesRankedByDistance(anyDouble(), anyDouble(), anyInt(), (Param[]) anyVararg());
+        verify(googlePlacesMock, never()).getNearbyPlacesRankedByDistance(anyDouble(), anyDouble(), (Param[]) anyVararg());
+    }
+
+    @Test
+    public void givenASearchIsQueuedWhenANewerSearchIsStartedThenTheStaleSearchIsDropped() throws IOException {
+        Location staleLocation = createDefaultLocation();
+        Location newerLocation = createDefaultLocation();
+        newerLocation.setLatitude(staleLocation.getLatitude() + 1);
+        final List<Runnable> queuedFetches = new ArrayList<Runnable>();
+        Executor queuedFetchExecutor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                queuedFetches.add(command);
+            }
+        };
+        searchPipeline = new GooglePlacesSearchPipeline(googlePlacesMock, placesCache, queuedFetchExecutor, DIRECT_EXECUTOR, DIRECT_EXECUTOR, DIRECT_EXECUTOR,
+                new Handler(Looper.getMainLooper()), PAGE_BUDGET);
+        givenPagedResponses(Collections.singletonList(createPlaces("a")), false);
+
+        searchPipeline.search(staleLocation, groceryStoreManagerMock);
+        searchPipeline.search(newerLocation, groceryStoreManagerMock);
+        for (Runnable fetch : queuedFetches) {
+            fetch.run();
+        }
+
+        verify(groceryStoreManagerMock, never()).filterPlacesByDistance(eq(staleLocation), anyListOf(Place.class), anyDouble());
+        verify(groceryStoreManagerMock).filterPlacesByDistance(eq(newerLocation), anyListOf(Place.class), anyDouble());
+    }
+
+    @Test
+    public void givenMorePagesAreAvailableWhenASearchIsPerformedThenTheFetchReturnsWithoutWaitingForTheNextPage() throws IOException {
+        List<List<Place>> pages = new ArrayList<List<Place>>();
+        pages.add(createPlaces("a"));
+        pages.add(createPlaces("b"));
+        givenPagedResponses(pages, false);
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        long start = System.currentTimeMillis();
+        searchPipeline.search(createDefaultLocation(), groceryStoreManagerMock);
+        long elapsedMillis = System.currentTimeMillis() - start;
+
+        assertTrue(elapsedMillis < GroceryReminderConstants.GOOGLE_PLACES_PAGE_TOKEN_DELAY_MILLIS);
+        verify(requestHandlerMock, times(1)).get(anyString());
+        verify(groceryStoreManagerMock).persistGroceryStores(pages.get(0));
+        verify(groceryStoreManagerMock, never()).persistGroceryStores(pages.get(1));
+    }
+
+    @Test
+    public void givenMorePagesAreAvailableWhenASearchIsPerformedThenEachPageIsPersistedAsItArrives() throws IOException {
+        List<List<Place>> pages = new ArrayList<List<Place>>();
+        pages.add(createPlaces("a"));
+        pages.add(createPlaces("b"));
+        givenPagedResponses(pages, false);
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        searchPipeline.search(createDefaultLocation(), groceryStoreManagerMock);
+        runPageRequests();
+
+        verify(groceryStoreManagerMock).persistGroceryStores(pages.get(0));
+        verify(groceryStoreManagerMock).persistGroceryStores(pages.get(1));
+    }
+
+    @Test
+    public void givenMorePagesAreAvailableWhenTheNextPageIsRequestedThenThePageTokenIsSent() throws IOException {
+        List<List<Place>> pages = new ArrayList<List<Place>>();
+        pages.add(createPlaces("a"));
+        pages.add(createPlaces("b"));
+        givenPagedResponses(pages, false);
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        searchPipeline.search(createDefaultLocation(), groceryStoreManagerMock);
+        runPageRequests();
+
+        List<String> urls = captureRequestedUrls(2);
+        assertTrue(urls.get(0).contains("rankby=distance"));
+        assertTrue(urls.get(1).contains(GooglePlacesNearbySearchPager.PAGE_TOKEN_PARAM + "=token0"));
+    }
+
+    @Test
+    public void givenMorePagesThanTheBudgetWhenASearchIsPerformedThenPagingStopsAtTheBudget() throws IOException {
+        List<List<Place>> pages = new ArrayList<List<Place>>();
+        for (int i = 0; i <= PAGE_BUDGET; i++) {
+            pages.add(createPlaces("place" + i));
+        }
+        givenPagedResponses(pages, true);
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        searchPipeline.search(createDefaultLocation(), groceryStoreManagerMock);
+        runPageRequests();
+
+        verify(requestHandlerMock, times(PAGE_BUDGET)).get(anyString());
+    }
+
+    @Test
+    public void givenMorePagesAreAvailableWhenEachPageArrivesThenOnlyThatPageIsGeofenced() throws IOException {
+        List<List<Place>> pages = new ArrayList<List<Place>>();
+        pages.add(createPlaces("a"));
+        pages.add(createPlaces("b"));
+        givenPagedResponses(pages, false);
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        searchPipeline.search(createDefaultLocation(), groceryStoreManagerMock);
+        runPageRequests();
+
+        verify(groceryStoreManagerMock).addProximityAlerts(pages.get(0));
+        verify(groceryStoreManagerMock).addProximityAlerts(pages.get(1));
+    }
+
+    @Test
+    public void givenALaterPageFailsWhenTheTileIsSearchedAgainThenGooglePlacesIsCalledAgain() throws IOException {
+        Location location = createDefaultLocation();
+        List<Place> firstPage = createPlaces("a");
+        when(requestHandlerMock.get(anyString()))
+                .thenReturn(new PlacesResponseBuilder().withPlaces(firstPage).withNextPageToken("token0").build())
+                .thenReturn(new PlacesResponseBuilder().withStatus(GooglePlacesInterface.STATUS_INVALID_REQUEST).build())
+                .thenReturn(new PlacesResponseBuilder().withPlaces(firstPage).build());
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        searchPipeline.search(location, groceryStoreManagerMock);
+        runPageRequests();
+
+        assertFalse(placesCache.isFresh(location.getLatitude(), location.getLongitude()));
+
+        searchPipeline.search(location, groceryStoreManagerMock);
+
+        verify(requestHandlerMock, times(3)).get(anyString());
+    }
+
+    @Test
+    public void givenMorePagesAreAvailableWhenOnlyTheFirstPageHasArrivedThenTheTileIsNotCached() throws IOException {
+        Location location = createDefaultLocation();
+        List<List<Place>> pages = new ArrayList<List<Place>>();
+        pages.add(createPlaces("a"));
+        pages.add(createPlaces("b"));
+        givenPagedResponses(pages, false);
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        searchPipeline.search(location, groceryStoreManagerMock);
+
+        assertFalse(placesCache.isFresh(location.getLatitude(), location.getLongitude()));
+
+        runPageRequests();
+
+        List<Place> cachedPlaces = placesCache.get(location.getLatitude(), location.getLongitude());
+        assertEquals(2, cachedPlaces.size());
+        assertEquals("a", cachedPlaces.get(0).getPlaceId());
+        assertEquals("b", cachedPlaces.get(1).getPlaceId());
+    }
+
+    @Test
+    public void givenMorePagesAreAvailableWhenASearchIsPerformedThenTheCacheIsWrittenOnce() throws IOException {
+        Location location = createDefaultLocation();
+        List<List<Place>> pages = new ArrayList<List<Place>>();
+        pages.add(createPlaces("a"));
+        pages.add(createPlaces("b"));
+        pages.add(createPlaces("c"));
+        givenPagedResponses(pages, false);
+        GooglePlacesResponseCache placesCacheSpy = spy(placesCache);
+        searchPipeline = new GooglePlacesSearchPipeline(googlePlacesMock, placesCacheSpy, DIRECT_EXECUTOR, DIRECT_EXECUTOR, DIRECT_EXECUTOR, DIRECT_EXECUTOR,
+                new Handler(Looper.getMainLooper()), PAGE_BUDGET);
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        searchPipeline.search(location, groceryStoreManagerMock);
+        runPageRequests();
+
+        verify(placesCacheSpy, times(1)).put(eq(location.getLatitude()), eq(location.getLongitude()), anyListOf(Place.class));
+    }
+
+    @Test
+    public void givenAPageTokenWithReservedCharactersWhenTheNextPageIsRequestedThenTheTokenIsEncoded() throws IOException {
+        when(requestHandlerMock.get(anyString()))
+                .thenReturn(new PlacesResponseBuilder().withPlaces(createPlaces("a")).withNextPageToken("a+b/c=&d").build())
+                .thenReturn(new PlacesResponseBuilder().withPlaces(createPlaces("b")).build());
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        searchPipeline.search(createDefaultLocation(), groceryStoreManagerMock);
+        runPageRequests();
+
+        List<String> urls = captureRequestedUrls(2);
+        assertEquals("a+b/c=&d", Uri.parse(urls.get(1)).getQueryParameter(GooglePlacesNearbySearchPager.PAGE_TOKEN_PARAM));
+    }
+}
@@ -8,15 +8,19 @@ import android.location.Criteria;
 import android.location.Location;
 import android.location.LocationListener;
 import android.location.LocationManager;
+import android.os.Handler;
+import android.os.Looper;
 import android.os.SystemClock;
 
 import com.groceryreminder.BuildConfig;
 import com.groceryreminder.R;
 import com.groceryreminder.RobolectricTestBase;
+import com.groceryreminder.core.MonotonicClock;
 import com.groceryreminder.data.GroceryStoreLocationContentProvider;
 import com.groceryreminder.data.ReminderContract;
 import com.groceryreminder.services.LocationUpdater;
 import com.groceryreminder.shadows.ShadowLocationManager;
+import com.groceryreminder.testUtils.PlacesResponseBuilder;
 
 import org.junit.Before;
 import org.junit.Ignore;
@@ -30,31 +34,32 @@ import org.robolectric.Shadows;
 import org.robolectric.annotation.Config;
 import org.robolectric.shadows.ShadowContentResolver;
 import org.robolectric.shadows.ShadowIntent;
-import org.robolectric.shadows.ShadowLocation;
 import org.robolectric.shadows.ShadowPendingIntent;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import se.walkercrou.places.GooglePlacesInterface;
-import se.walkercrou.places.Param;
 import se.walkercrou.places.Place;
+import se.walkercrou.places.RequestHandler;
 import se.walkercrou.places.Types;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyCollection;
-import static org.mockito.Matchers.anyDouble;
 import static org.mockito.Matchers.anyFloat;
-import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyString;
-import static org.mockito.Matchers.anyVararg;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -71,22 +76,42 @@ public class GroceryStoreManagerTest extends RobolectricTestBase {
     private GroceryStoreLocationContentProvider reminderProvider;
     private ShadowContentResolver shadowContentResolver;
     private GooglePlacesInterface googlePlacesMock;
+    private GooglePlacesResponseCache placesCacheMock;
     private LocationManager locationManager;
     private ShadowLocationManager shadowLocationManager;
 
     private Location defaultLocation;
+    private long elapsedMillis;
 
     private static final double DEFAULT_LATITUDE = 39.9732997;
     private static final double DEFAULT_LONGITUDE = -82.99788610000002;
 
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
     @Before
     public void setUp() {
         super.setUp();
         googlePlacesMock = getTestRemoteResourcesModule().getGooglePlaces();
+        placesCacheMock = mock(GooglePlacesResponseCache.class);
         setupLocationManager();
+        GooglePlacesSearchPipeline searchPipeline = new GooglePlacesSearchPipeline(googlePlacesMock, placesCacheMock,
+                DIRECT_EXECUTOR, DIRECT_EXECUTOR, DIRECT_EXECUTOR, DIRECT_EXECUTOR, new Handler(Looper.getMainLooper()),
+                GroceryReminderConstants.GOOGLE_PLACES_PAGE_BUDGET);
         groceryStoreManager = new GroceryStoreManager(getTestAndroidModule().getApplicationContext(),
                 locationManager,
-                googlePlacesMock);
+                placesCacheMock,
+                searchPipeline,
+                new MonotonicClock() {
+                    @Override
+                    public long elapsedMillis() {
+                        return elapsedMillis;
+                    }
+                });
         setupReminderContentProvider();
     }
 
@@ -100,7 +125,6 @@ public class GroceryStoreManagerTest extends RobolectricTestBase {
         }
 
         defaultLocation = createDefaultLocation(LocationManager.NETWORK_PROVIDER);
-        ShadowLocation.setDistanceBetween(new float[]{(float) GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS});
         shadowLocationManager.setLastKnownLocation(LocationManager.NETWORK_PROVIDER, defaultLocation);
         shadowLocationManager.setProviderEnabled(LocationManager.GPS_PROVIDER, true);
         shadowLocationManager.setProviderEnabled(LocationManager.NETWORK_PROVIDER, true);
@@ -131,8 +155,16 @@ public class GroceryStoreManagerTest extends RobolectricTestBase {
         return place;
     }
 
-    private void setCurrentDistanceGreaterThanFiveMiles() {
-        ShadowLocation.setDistanceBetween(new float[]{(float) GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS + 1});
+    private RequestHandler givenNearbySearchReturns(List<Place> places) {
+        RequestHandler requestHandlerMock = mock(RequestHandler.class);
+        try {
+            when(requestHandlerMock.get(anyString())).thenReturn(new PlacesResponseBuilder().withPlaces(places).build());
+        } catch (IOException e) {
+            fail("Unable to stub the nearby search.");
+        }
+        when(googlePlacesMock.getRequestHandler()).thenReturn(requestHandlerMock);
+
+        return requestHandlerMock;
     }
 
     private void setLocationUpdatableTimestamp(Location location) {
@@ -148,7 +180,7 @@ public class GroceryStoreManagerTest extends RobolectricTestBase {
         groceryStoreManagerSpy.listenForLocationUpdates(false);
 
         when(groceryStoreManagerSpy.filterPlacesByDistance(location, places, GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS)).thenReturn(places);
-        when(googlePlacesMock.getNearbyPlacesRankedByDistance(anyDouble(), anyDouble(), anyInt(), (Param[])anyVararg())).thenReturn(places);
+        givenNearbySearchReturns(places);
 
         groceryStoreManagerSpy.handleLocationUpdated(location);
         Robolectric.flushBackgroundScheduler();
@@ -157,16 +189,16 @@ public class GroceryStoreManagerTest extends RobolectricTestBase {
     }
 
     @Test
-    public void whenPlacesAreRequestedByLocationThenANearbySearchIsPerformed() {
-        Param groceryStoreType = Param.name(GooglePlacesInterface.STRING_TYPE).value(Types.TYPE_GROCERY_OR_SUPERMARKET);
-        ArgumentCaptor<Param> paramsCaptor = ArgumentCaptor.forClass(Param.class);
+    public void whenPlacesAreRequestedByLocationThenANearbySearchIsPerformed() throws IOException {
+        RequestHandler requestHandlerMock = givenNearbySearchReturns(new ArrayList<Place>());
+        ArgumentCaptor<String> urlCaptor = ArgumentCaptor.forClass(String.class);
 
         groceryStoreManager.findStoresByLocation(defaultLocation);
 
-        verify(googlePlacesMock).getNearbyPlacesRankedByDistance(anyDouble(), anyDouble(), eq(GroceryStoreManagerInterface.GOOGLE_PLACES_MAX_RESULTS), paramsCaptor.capture());
-
-        Param actualParams = paramsCaptor.getValue();
-        assertEquals(actualParams, groceryStoreType);
+        verify(requestHandlerMock).get(urlCaptor.capture());
+        assertTrue(urlCaptor.getValue().startsWith(GooglePlacesInterface.API_URL + GooglePlacesInterface.METHOD_NEARBY_SEARCH));
+        assertTrue(urlCaptor.getValue().contains("rankby=distance"));
+        assertTrue(urlCaptor.getValue().contains(GooglePlacesInterface.STRING_TYPE + "=" + Types.TYPE_GROCERY_OR_SUPERMARKET));
     }
 
     @Test
@@ -179,9 +211,25 @@ public class GroceryStoreManagerTest extends RobolectricTestBase {
         verifyNoMoreInteractions(googlePlacesMock);
     }
 
+    @Test
+    public void givenTheLocationTileIsCachedWhenPlacesAreRequestedUnderTheMinimumUpdateTimeThenTheCachedSearchIsUsed() {
+        SharedPreferences sharedPreferences = RuntimeEnvironment.application.getSharedPreferences(RuntimeEnvironment.application.getString(R.string.reminder_pref_key), Context.MODE_PRIVATE);
+        long lastPollTime = System.currentTimeMillis();
+        sharedPreferences.edit().putLong(GroceryReminderConstants.LAST_GOOGLE_PLACES_POLL_TIME, lastPollTime).commit();
+        List<Place> cachedPlaces = new ArrayList<Place>();
+        cachedPlaces.add(createDefaultGooglePlace());
+        when(placesCacheMock.isFresh(defaultLocation.getLatitude(), defaultLocation.getLongitude())).thenReturn(true);
+        when(placesCacheMock.get(defaultLocation.getLatitude(), defaultLocation.getLongitude())).thenReturn(cachedPlaces);
+
+        groceryStoreManager.findStoresByLocation(defaultLocation);
+
+        verify(placesCacheMock).get(defaultLocation.getLatitude(), defaultLocation.getLongitude());
+        verifyNoMoreInteractions(googlePlacesMock);
+        assertEquals(lastPollTime, sharedPreferences.getLong(GroceryReminderConstants.LAST_GOOGLE_PLACES_POLL_TIME, 0));
+    }
+
     @Test
     public void givenDistanceIsGreaterThanFiveMilesWhenPlacesAreFilteredByLocationThenPlacesOutsideOfFiveMilesAreNotReturned() {
-        setCurrentDistanceGreaterThanFiveMiles();
         Place place = createDefaultGooglePlace();
         List<Place> places = new ArrayList<Place>();
         places.add(place);
@@ -190,6 +238,18 @@ public class GroceryStoreManagerTest extends RobolectricTestBase {
         assertTrue(actualPlaces.isEmpty());
     }
 
+    @Test
+    public void givenDistanceIsWithinFiveMilesWhenPlacesAreFilteredByLocationThenThePlaceIsReturned() {
+        Place place = createDefaultGooglePlace();
+        place.setLatitude(defaultLocation.getLatitude() + 0.01);
+        place.setLongitude(defaultLocation.getLongitude());
+        List<Place> places = new ArrayList<Place>();
+        places.add(place);
+
+        List<Place> actualPlaces = groceryStoreManager.filterPlacesByDistance(defaultLocation, places, GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS);
+        assertEquals(1, actualPlaces.size());
+    }
+
     @Test
     public void givenPlacesWhenTheyArePersistedThenTheyCanBeRetrieved() {
         Place place = createDefaultGooglePlace();
@@ -204,8 +264,6 @@ public class GroceryStoreManagerTest extends RobolectricTestBase {
 
     @Test
     public void givenPersistedPlacesWhichAreMoreThanFiveMilesDistanceWhenTheIntentIsHandledThenTheDistancePlacesAreDeleted() {
-        ShadowLocation.setDistanceBetween(new float[]{(float) GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS + 1});
-
         Place place = createDefaultGooglePlace();
         List<Place> places = new ArrayList<Place>();
         places.add(place);
@@ -326,6 +384,62 @@ public class GroceryStoreManagerTest extends RobolectricTestBase {
         assertNotEquals(shadowPendingIntent1.getRequestCode(), shadowPendingIntent2.getRequestCode());
     }
 
+    @Test
+    public void givenAStoreAlreadyHasAProximityAlertWhenProximityAlertsAreAddedAgainThenNoNewAlertIsRegistered() {
+        Place place = createDefaultGooglePlace();
+        List<Place> places = new ArrayList<Place>();
+        places.add(place);
+
+        groceryStoreManager.addProximityAlerts(places);
+        groceryStoreManager.addProximityAlerts(places);
+
+        assertEquals(1, shadowLocationManager.getProximityAlerts().size());
+    }
+
+    @Test
+    public void givenMorePlacesThanTheGeofenceBudgetWhenProximityAlertsAreAddedThenOnlyTheBudgetIsRegistered() {
+        List<Place> places = new ArrayList<Place>();
+        for (int i = 0; i <= GroceryReminderConstants.GEOFENCE_BUDGET; i++) {
+            Place place = createDefaultGooglePlace();
+            place.setPlaceId("test_id" + i);
+            place.setLatitude(i);
+            places.add(place);
+        }
+
+        groceryStoreManager.addProximityAlerts(places);
+
+        assertEquals(GroceryReminderConstants.GEOFENCE_BUDGET, shadowLocationManager.getProximityAlerts().size());
+    }
+
+    @Test
+    public void givenAStoreHasAProximityAlertWhenTheStoreIsDeletedByLocationThenItsProximityAlertIsRemoved() {
+        Place place = createDefaultGooglePlace();
+        List<Place> places = new ArrayList<Place>();
+        places.add(place);
+        groceryStoreManager.persistGroceryStores(places);
+        groceryStoreManager.addProximityAlerts(places);
+
+        groceryStoreManager.deleteStoresByLocation(defaultLocation);
+
+        assertTrue(shadowLocationManager.getProximityAlerts().isEmpty());
+    }
+
+    @Test
+    public void givenAStoreIsWithinRangeWhenStoresAreDeletedByLocationThenItsProximityAlertIsKept() {
+        Place place = createDefaultGooglePlace();
+        List<Place> places = new ArrayList<Place>();
+        places.add(place);
+        groceryStoreManager.persistGroceryStores(places);
+        groceryStoreManager.addProximityAlerts(places);
+        Location storeLocation = createDefaultLocation(LocationManager.NETWORK_PROVIDER);
+        storeLocation.setLatitude(place.getLatitude());
+        storeLocation.setLongitude(place.getLongitude());
+
+        groceryStoreManager.deleteStoresByLocation(storeLocation);
+
+        assertEquals(1, shadowLocationManager.getProximityAlerts().size());
+    }
+
     @Test
     public void whenLocationUpdatesAreRequestedThenLocationListenersAreAddedToTheLocationManager() {
         groceryStoreManager.listenForLocationUpdates(false);
@@ -399,6 +513,26 @@ public class GroceryStoreManagerTest extends RobolectricTestBase {
         assertEquals(NETWORK_PROVIDER_COUNT + PASSIVE_PROVIDER_COUNT, locationListeners.size());
     }
 
+    @Test
+    public void whenLocationUpdatesAreRemovedThenTheListenersAreRemovedFromTheLocationManager() {
+        groceryStoreManager.listenForLocationUpdates(true);
+
+        groceryStoreManager.removeLocationUpdates();
+
+        assertTrue(shadowLocationManager.getRequestLocationUpdateListeners().isEmpty());
+    }
+
+    @Test
+    public void givenLocationUpdatesWereRemovedWhenUpdatesAreRequestedAgainThenTheListenersAreAddedAgain() {
+        groceryStoreManager.listenForLocationUpdates(false);
+        groceryStoreManager.removeLocationUpdates();
+
+        groceryStoreManager.listenForLocationUpdates(false);
+
+        verify(locationManager, times(2 * (NETWORK_PROVIDER_COUNT + PASSIVE_PROVIDER_COUNT))).requestLocationUpdates(anyString(), anyLong(), anyFloat(), any(LocationListener.class));
+        assertFalse(shadowLocationManager.getRequestLocationUpdateListeners().isEmpty());
+    }
+
     @Test
     public void whenLocationUpdatesAreRequestedThenTheMinTimeForPassiveUpdatesIsZero() {
         ArgumentCaptor<Long> minTimeCaptor = ArgumentCaptor.forClass(Long.class);
@@ -462,6 +596,29 @@ public class GroceryStoreManagerTest extends RobolectricTestBase {
         assertFalse(shadowLocationManager.getProvidersForListener(locationListeners.get(0)).contains(LocationManager.GPS_PROVIDER));
     }
 
+    @Test
+    public void givenAStoreIsNearbyWhenTheLocationIsUpdatedThenGPSUpdatesAreRequestedMoreOften() {
+        Place place = createDefaultGooglePlace();
+        place.setLatitude(DEFAULT_LATITUDE + 0.02);
+        place.setLongitude(DEFAULT_LONGITUDE);
+        List<Place> places = new ArrayList<Place>();
+        places.add(place);
+        groceryStoreManager.persistGroceryStores(places);
+        groceryStoreManager.listenForLocationUpdates(true);
+
+        Location location = new Location(LocationManager.GPS_PROVIDER);
+        location.setLatitude(DEFAULT_LATITUDE);
+        location.setLongitude(DEFAULT_LONGITUDE);
+        location.setSpeed(20);
+        setLocationUpdatableTimestamp(location);
+        groceryStoreManager.handleLocationUpdated(location);
+
+        ArgumentCaptor<Long> minTimeCaptor = ArgumentCaptor.forClass(Long.class);
+        verify(locationManager, times(2)).requestLocationUpdates(eq(LocationManager.GPS_PROVIDER), minTimeCaptor.capture(), anyFloat(), any(LocationListener.class));
+        assertEquals(GroceryReminderConstants.MIN_LOCATION_UPDATE_TIME_MILLIS, minTimeCaptor.getAllValues().get(0).longValue());
+        assertTrue(minTimeCaptor.getAllValues().get(1) < GroceryReminderConstants.MIN_LOCATION_UPDATE_TIME_MILLIS);
+    }
+
     @Test
     public void givenNoLocationIsCurrentlySetWhenTheLocationIsUpdatedThenStoreLocationsAreUpdated() {
         Location location = new Location(LocationManager.NETWORK_PROVIDER);
@@ -476,12 +633,13 @@ public class GroceryStoreManagerTest extends RobolectricTestBase {
         GroceryStoreManager groceryStoreManagerSpy = spy(groceryStoreManager);
         groceryStoreManagerSpy.listenForLocationUpdates(false);
 
-        when(googlePlacesMock.getNearbyPlacesRankedByDistance(anyDouble(), anyDouble(), anyInt(), (Param[])anyVararg())).thenReturn(places);
-        when(groceryStoreManagerSpy.filterPlacesByDistance(location, places, GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS)).thenReturn(places);
+        givenNearbySearchReturns(places);
+        //The listener hands the manager the fused fix rather than the raw one
+        doReturn(places).when(groceryStoreManagerSpy).filterPlacesByDistance(any(Location.class), eq(places), eq(GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS));
         shadowLocationManager.simulateLocation(location);
         Robolectric.flushBackgroundScheduler();
 
-        verify(groceryStoreManagerSpy).deleteStoresByLocation(location);
+        verify(groceryStoreManagerSpy).deleteStoresByLocation(any(Location.class));
         verify(groceryStoreManagerSpy).persistGroceryStores(places);
         verify(groceryStoreManagerSpy).addProximityAlerts(places);
     }
@@ -509,6 +667,61 @@ public class GroceryStoreManagerTest extends RobolectricTestBase {
         verify(groceryStoreManagerSpy, times(1)).persistGroceryStores((List<Place>) anyCollection());
     }
 
+    @Test
+    public void givenALocationIsSetWhenTheUserHasMovedAfterTheMinimumUpdateTimeThenTheLocationIsUpdated() {
+        Location location = new Location(LocationManager.GPS_PROVIDER);
+        location.setLatitude(DEFAULT_LATITUDE);
+        location.setLongitude(DEFAULT_LONGITUDE);
+        Location updatedLocation = new Location(LocationManager.GPS_PROVIDER);
+        updatedLocation.setLatitude(DEFAULT_LATITUDE + 0.01);
+        updatedLocation.setLongitude(DEFAULT_LONGITUDE);
+        GroceryStoreManager groceryStoreManagerSpy = spy(groceryStoreManager);
+
+        groceryStoreManagerSpy.handleLocationUpdated(location);
+        elapsedMillis += GroceryReminderConstants.MIN_LOCATION_UPDATE_TIME_MILLIS;
+        groceryStoreManagerSpy.handleLocationUpdated(updatedLocation);
+
+        verify(groceryStoreManagerSpy).deleteStoresByLocation(location);
+        verify(groceryStoreManagerSpy).deleteStoresByLocation(updatedLocation);
+        assertEquals(updatedLocation, groceryStoreManagerSpy.getCurrentLocation());
+    }
+
+    @Test
+    public void givenALocationIsSetWhenTheUserHasMovedWithinTheMinimumUpdateTimeThenOnlyTheCurrentLocationIsUpdated() {
+        Location location = new Location(LocationManager.GPS_PROVIDER);
+        location.setLatitude(DEFAULT_LATITUDE);
+        location.setLongitude(DEFAULT_LONGITUDE);
+        Location updatedLocation = new Location(LocationManager.GPS_PROVIDER);
+        updatedLocation.setLatitude(DEFAULT_LATITUDE + 0.01);
+        updatedLocation.setLongitude(DEFAULT_LONGITUDE);
+        //The fix's own timestamp is wall clock time and must not open the throttle
+        updatedLocation.setTime(System.currentTimeMillis() + GroceryReminderConstants.MIN_LOCATION_UPDATE_TIME_MILLIS + 1);
+        GroceryStoreManager groceryStoreManagerSpy = spy(groceryStoreManager);
+
+        groceryStoreManagerSpy.handleLocationUpdated(location);
+        elapsedMillis += GroceryReminderConstants.MIN_LOCATION_UPDATE_TIME_MILLIS - 1;
+        groceryStoreManagerSpy.handleLocationUpdated(updatedLocation);
+
+        verify(groceryStoreManagerSpy, times(1)).deleteStoresByLocation(any(Location.class));
+        assertEquals(updatedLocation, groceryStoreManagerSpy.getCurrentLocation());
+    }
+
+    @Test
+    public void givenALocationIsSetWhenTheUserHasNotMovedAfterTheMinimumUpdateTimeThenTheStoresAreNotUpdated() {
+        Location location = new Location(LocationManager.GPS_PROVIDER);
+        location.setLatitude(DEFAULT_LATITUDE);
+        location.setLongitude(DEFAULT_LONGITUDE);
+        Location updatedLocation = new Location(location);
+        GroceryStoreManager groceryStoreManagerSpy = spy(groceryStoreManager);
+
+        groceryStoreManagerSpy.handleLocationUpdated(location);
+        elapsedMillis += GroceryReminderConstants.MIN_LOCATION_UPDATE_TIME_MILLIS;
+        groceryStoreManagerSpy.handleLocationUpdated(updatedLocation);
+
+        verify(groceryStoreManagerSpy, times(1)).deleteStoresByLocation(any(Location.class));
+        assertSame(updatedLocation, groceryStoreManagerSpy.getCurrentLocation());
+    }
+
     @Test
     public void givenCurrentIsNotSetWhenALocationWithAnAccuracyWorseThanTheMaximumAccuracyTheNewLocationIsNotBetter() {
         Location location = new Location(LocationManager.GPS_PROVIDER);
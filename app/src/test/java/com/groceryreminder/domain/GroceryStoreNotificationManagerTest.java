@@ -28,7 +28,6 @@ import org.robolectric.Shadows;
 import org.robolectric.annotation.Config;
 import org.robolectric.shadows.ShadowApplication;
 import org.robolectric.shadows.ShadowIntent;
-import org.robolectric.shadows.ShadowLocation;
 import org.robolectric.shadows.ShadowNotification;
 import org.robolectric.shadows.ShadowNotificationManager;
 import org.robolectric.shadows.ShadowPendingIntent;
@@ -37,6 +36,7 @@ import java.util.List;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -46,6 +46,7 @@ import static org.junit.Assert.assertTrue;
 public class GroceryStoreNotificationManagerTest extends RobolectricTestBase {
 
     public static final String ARBITRARY_STORE_NAME = "test";
+    public static final String ARBITRARY_PLACES_ID = "test_places_id";
     GroceryStoreNotificationManager groceryStoreNotificationManager;
 
     @Before
@@ -138,37 +139,29 @@ public class GroceryStoreNotificationManagerTest extends RobolectricTestBase {
     }
 
     @Test
-    public void whenANotificationIsSavedThenTheStoreNameIsStoredAsTheMostRecentStore() {
-        groceryStoreNotificationManager.saveNoticeDetails(ARBITRARY_STORE_NAME, System.currentTimeMillis());
-
-        SharedPreferences sharedPreferences = RuntimeEnvironment.application
-                .getSharedPreferences(RuntimeEnvironment.application.getString(R.string.reminder_pref_key), Context.MODE_PRIVATE);
-
-        assertEquals(ARBITRARY_STORE_NAME, sharedPreferences.getString(GroceryReminderConstants.LAST_NOTIFIED_STORE_KEY, ""));
-    }
+    public void whenThereAreNoStoresThenTheNotificationIsNotSent() {
+        ShadowNotificationManager shadowNotificationManager = getShadowNotificationManager();
 
-    @Test
-    public void whenANotificationIsSentThenTheNotificationTimeIsStoredAsTheMostRecentNotificationTime() {
-        long notificationTime = System.currentTimeMillis();
+        ShadowApplication shadowApplication = (ShadowApplication) Shadows.shadowOf(RuntimeEnvironment.application);
+        shadowApplication.getContentResolver().delete(ReminderContract.Locations.CONTENT_URI, null, null);
 
-        groceryStoreNotificationManager.saveNoticeDetails(ARBITRARY_STORE_NAME, notificationTime);
-        SharedPreferences sharedPreferences = RuntimeEnvironment.application
-                .getSharedPreferences(RuntimeEnvironment.application.getString(R.string.reminder_pref_key), Context.MODE_PRIVATE);
+        groceryStoreNotificationManager.sendPotentialNotification(new Location(LocationManager.GPS_PROVIDER), System.currentTimeMillis());
 
-        assertTrue(sharedPreferences.getLong(GroceryReminderConstants.LAST_NOTIFICATION_TIME, 0) > 0);
+        Notification notification = shadowNotificationManager.getNotification(GroceryReminderConstants.NOTIFICATION_PROXIMITY_ALERT);
+        assertNull(notification);
     }
 
     @Test
-    public void whenThereAreNoStoresThenTheNotificationIsNotSent() {
+    public void givenAStoreWasSavedSinceTheLastCheckWhenANotificationIsRequestedThenTheNewStoreIsNotified() {
         ShadowNotificationManager shadowNotificationManager = getShadowNotificationManager();
-
         ShadowApplication shadowApplication = (ShadowApplication) Shadows.shadowOf(RuntimeEnvironment.application);
-        shadowApplication.getContentResolver().delete(ReminderContract.Locations.CONTENT_URI, null, null);
+        groceryStoreNotificationManager.sendPotentialNotification(new Location(LocationManager.GPS_PROVIDER), System.currentTimeMillis());
 
+        insertStoreLocation(shadowApplication);
         groceryStoreNotificationManager.sendPotentialNotification(new Location(LocationManager.GPS_PROVIDER), System.currentTimeMillis());
 
         Notification notification = shadowNotificationManager.getNotification(GroceryReminderConstants.NOTIFICATION_PROXIMITY_ALERT);
-        assertNull(notification);
+        assertNotNull(notification);
     }
 
     @Test
@@ -179,7 +172,6 @@ public class GroceryStoreNotificationManagerTest extends RobolectricTestBase {
 
         insertStoreLocation(shadowApplication);
 
-        ShadowLocation.setDistanceBetween(new float[]{(float) GroceryReminderConstants.LOCATION_GEOFENCE_RADIUS_METERS});
 
         groceryStoreNotificationManager.sendPotentialNotification(new Location(LocationManager.GPS_PROVIDER), System.currentTimeMillis());
 
@@ -191,32 +183,33 @@ public class GroceryStoreNotificationManagerTest extends RobolectricTestBase {
     public void whenANotificationIsSentThenTheTheNotificationDetailsAreSaved() {
         ShadowApplication shadowApplication = (ShadowApplication) Shadows.shadowOf(RuntimeEnvironment.application);
 
-        insertStoreLocation(shadowApplication);
+        insertStoreLocation(shadowApplication, ARBITRARY_PLACES_ID);
 
-        ShadowLocation.setDistanceBetween(new float[]{(float) GroceryReminderConstants.LOCATION_GEOFENCE_RADIUS_METERS});
 
         long currentTime = System.currentTimeMillis();
         groceryStoreNotificationManager.sendPotentialNotification(new Location(LocationManager.GPS_PROVIDER), currentTime);
 
         SharedPreferences sharedPreferences = shadowApplication.getSharedPreferences(shadowApplication.getString(R.string.reminder_pref_key), Context.MODE_PRIVATE);
-        assertEquals(ARBITRARY_STORE_NAME, sharedPreferences.getString(GroceryReminderConstants.LAST_NOTIFIED_STORE_KEY, ""));
+        assertEquals(currentTime, sharedPreferences.getLong(GroceryReminderConstants.LAST_NOTIFICATION_TIME_FOR_STORE_PREFIX + ARBITRARY_PLACES_ID, 0));
         assertEquals(currentTime, sharedPreferences.getLong(GroceryReminderConstants.LAST_NOTIFICATION_TIME, 0));
     }
 
     @Test
-    public void whenANotificationIsSentForTheSameStoreThenTheTheLastNotificationTimeForTheSameStoreIsSetAreSaved() {
+    public void givenTheSingleLastStoreSlotWasSavedWhenANotificationIsSentThenTheSlotIsRemoved() {
         ShadowApplication shadowApplication = (ShadowApplication) Shadows.shadowOf(RuntimeEnvironment.application);
         SharedPreferences sharedPreferences = shadowApplication.getSharedPreferences(shadowApplication.getString(R.string.reminder_pref_key), Context.MODE_PRIVATE);
-        sharedPreferences.edit().putString(GroceryReminderConstants.LAST_NOTIFIED_STORE_KEY, ARBITRARY_STORE_NAME).commit();
+        sharedPreferences.edit()
+                .putString(GroceryReminderConstants.LAST_NOTIFIED_STORE_KEY, ARBITRARY_STORE_NAME)
+                .putLong(GroceryReminderConstants.LAST_NOTIFICATION_TIME_FOR_SAME_STORE, 1)
+                .commit();
 
         insertStoreLocation(shadowApplication);
 
-        ShadowLocation.setDistanceBetween(new float[]{(float) GroceryReminderConstants.LOCATION_GEOFENCE_RADIUS_METERS});
 
-        long currentTime = System.currentTimeMillis();
-        groceryStoreNotificationManager.sendPotentialNotification(new Location(LocationManager.GPS_PROVIDER), currentTime);
+        groceryStoreNotificationManager.sendPotentialNotification(new Location(LocationManager.GPS_PROVIDER), System.currentTimeMillis());
 
-        assertEquals(currentTime, sharedPreferences.getLong(GroceryReminderConstants.LAST_NOTIFICATION_TIME_FOR_SAME_STORE, 0));
+        assertFalse(sharedPreferences.contains(GroceryReminderConstants.LAST_NOTIFIED_STORE_KEY));
+        assertFalse(sharedPreferences.contains(GroceryReminderConstants.LAST_NOTIFICATION_TIME_FOR_SAME_STORE));
     }
 
     @Test
@@ -225,7 +218,6 @@ public class GroceryStoreNotificationManagerTest extends RobolectricTestBase {
 
         insertStoreLocation(shadowApplication);
 
-        ShadowLocation.setDistanceBetween(new float[]{(float) GroceryReminderConstants.LOCATION_GEOFENCE_RADIUS_METERS});
 
         long currentTime = System.currentTimeMillis();
         groceryStoreNotificationManager.sendPotentialNotification(new Location(LocationManager.GPS_PROVIDER), currentTime);
@@ -241,6 +233,12 @@ public class GroceryStoreNotificationManagerTest extends RobolectricTestBase {
         shadowApplication.getContentResolver().insert(ReminderContract.Locations.CONTENT_URI, locationValues);
     }
 
+    private void insertStoreLocation(ShadowApplication shadowApplication, String placesId) {
+        ContentValues locationValues = new LocationValuesBuilder().createDefaultLocationValues().withName(ARBITRARY_STORE_NAME).build();
+        locationValues.put(ReminderContract.Locations.PLACES_ID, placesId);
+        shadowApplication.getContentResolver().insert(ReminderContract.Locations.CONTENT_URI, locationValues);
+    }
+
     @Test
     public void givenThereAreStoresButNotNearbyThenTheNotificationIsNotSent() {
         ShadowNotificationManager shadowNotificationManager = getShadowNotificationManager();
@@ -249,9 +247,11 @@ public class GroceryStoreNotificationManagerTest extends RobolectricTestBase {
 
         insertStoreLocation(shadowApplication);
 
-        ShadowLocation.setDistanceBetween(new float[] {(float)GroceryReminderConstants.LOCATION_GEOFENCE_RADIUS_METERS + 1});
+        //The stores are on null island, so a hundredth of a degree north is over a kilometer away
+        Location location = new Location(LocationManager.GPS_PROVIDER);
+        location.setLatitude(0.01);
 
-        groceryStoreNotificationManager.sendPotentialNotification(new Location(LocationManager.GPS_PROVIDER), System.currentTimeMillis());
+        groceryStoreNotificationManager.sendPotentialNotification(location, System.currentTimeMillis());
 
         Notification notification = shadowNotificationManager.getNotification(GroceryReminderConstants.NOTIFICATION_PROXIMITY_ALERT);
         assertNull(notification);
@@ -261,13 +261,12 @@ public class GroceryStoreNotificationManagerTest extends RobolectricTestBase {
      public void givenAStoreNotificationHasBeenStoredWhenARequestToSendANotificationWithTheTheSameStoreIsReceivedBeforeTheMinimumUpdateTimeForTheSameStoreThenTheNotificationIsNotSent() {
         ShadowApplication shadowApplication = (ShadowApplication) Shadows.shadowOf(RuntimeEnvironment.application);
 
-        insertStoreLocation(shadowApplication);
+        insertStoreLocation(shadowApplication, ARBITRARY_PLACES_ID);
         SharedPreferences sharedPreferences = shadowApplication.getSharedPreferences(shadowApplication.getString(R.string.reminder_pref_key), Context.MODE_PRIVATE);
-        sharedPreferences.edit().putString(GroceryReminderConstants.LAST_NOTIFIED_STORE_KEY, ARBITRARY_STORE_NAME)
-                .putLong(GroceryReminderConstants.LAST_NOTIFICATION_TIME_FOR_SAME_STORE, System.currentTimeMillis() - 1)
+        sharedPreferences.edit()
+                .putLong(GroceryReminderConstants.LAST_NOTIFICATION_TIME_FOR_STORE_PREFIX + ARBITRARY_PLACES_ID, System.currentTimeMillis() - 1)
                 .commit();
 
-        ShadowLocation.setDistanceBetween(new float[]{(float) GroceryReminderConstants.LOCATION_GEOFENCE_RADIUS_METERS});
 
         ShadowNotificationManager shadowNotificationManager = getShadowNotificationManager();
 
@@ -281,14 +280,12 @@ public class GroceryStoreNotificationManagerTest extends RobolectricTestBase {
     public void givenAStoreNotificationHasBeenStoredWhenARequestToSendANotificationWithTheTheSameStoreAfterTheMinimumUpdateTimeForTheSameStoreIsReceivedThenTheNotificationIsSent() {
         ShadowApplication shadowApplication = (ShadowApplication) Shadows.shadowOf(RuntimeEnvironment.application);
 
-        insertStoreLocation(shadowApplication);
+        insertStoreLocation(shadowApplication, ARBITRARY_PLACES_ID);
         SharedPreferences sharedPreferences = shadowApplication.getSharedPreferences(shadowApplication.getString(R.string.reminder_pref_key), Context.MODE_PRIVATE);
         sharedPreferences.edit()
-                .putString(GroceryReminderConstants.LAST_NOTIFIED_STORE_KEY, ARBITRARY_STORE_NAME)
-                .putLong(GroceryReminderConstants.LAST_NOTIFICATION_TIME_FOR_SAME_STORE, GroceryReminderConstants.MIN_LOCATION_UPDATE_TIME_FOR_SAME_STORE_MILLIS + 1)
+                .putLong(GroceryReminderConstants.LAST_NOTIFICATION_TIME_FOR_STORE_PREFIX + ARBITRARY_PLACES_ID, GroceryReminderConstants.MIN_LOCATION_UPDATE_TIME_FOR_SAME_STORE_MILLIS + 1)
                 .commit();
 
-        ShadowLocation.setDistanceBetween(new float[]{(float) GroceryReminderConstants.LOCATION_GEOFENCE_RADIUS_METERS});
 
         ShadowNotificationManager shadowNotificationManager = getShadowNotificationManager();
 
@@ -305,11 +302,9 @@ public class GroceryStoreNotificationManagerTest extends RobolectricTestBase {
         insertStoreLocation(shadowApplication);
         SharedPreferences sharedPreferences = shadowApplication.getSharedPreferences(shadowApplication.getString(R.string.reminder_pref_key), Context.MODE_PRIVATE);
         sharedPreferences.edit()
-                .putString(GroceryReminderConstants.LAST_NOTIFIED_STORE_KEY, ARBITRARY_STORE_NAME + 1)
                 .putLong(GroceryReminderConstants.LAST_NOTIFICATION_TIME, System.currentTimeMillis())
                 .commit();
 
-        ShadowLocation.setDistanceBetween(new float[]{(float) GroceryReminderConstants.LOCATION_GEOFENCE_RADIUS_METERS});
 
         ShadowNotificationManager shadowNotificationManager = getShadowNotificationManager();
 
@@ -324,7 +319,27 @@ public class GroceryStoreNotificationManagerTest extends RobolectricTestBase {
         ShadowApplication shadowApplication = (ShadowApplication) Shadows.shadowOf(RuntimeEnvironment.application);
 
         insertStoreLocation(shadowApplication);
-        ShadowLocation.setDistanceBetween(new float[]{(float) GroceryReminderConstants.LOCATION_GEOFENCE_RADIUS_METERS});
+
+        ShadowNotificationManager shadowNotificationManager = getShadowNotificationManager();
+
+        groceryStoreNotificationManager.sendPotentialNotification(new Location(LocationManager.GPS_PROVIDER), System.currentTimeMillis());
+
+        Notification notification = shadowNotificationManager.getNotification(GroceryReminderConstants.NOTIFICATION_PROXIMITY_ALERT);
+        assertNotNull(notification);
+    }
+
+    @Test
+    public void givenAnotherStoreWasNotifiedWithinTheSameStoreCooldownWhenARequestToSendANotificationIsReceivedThenTheNotificationIsSent() {
+        ShadowApplication shadowApplication = (ShadowApplication) Shadows.shadowOf(RuntimeEnvironment.application);
+
+        insertStoreLocation(shadowApplication, ARBITRARY_PLACES_ID);
+        SharedPreferences sharedPreferences = shadowApplication.getSharedPreferences(shadowApplication.getString(R.string.reminder_pref_key), Context.MODE_PRIVATE);
+        long otherStoreNotificationTime = System.currentTimeMillis() - GroceryReminderConstants.MIN_LOCATION_UPDATE_TIME_MILLIS - 1;
+        sharedPreferences.edit()
+                .putLong(GroceryReminderConstants.LAST_NOTIFICATION_TIME, otherStoreNotificationTime)
+                .putLong(GroceryReminderConstants.LAST_NOTIFICATION_TIME_FOR_STORE_PREFIX + "other_store", otherStoreNotificationTime)
+                .commit();
+
 
         ShadowNotificationManager shadowNotificationManager = getShadowNotificationManager();
 
@@ -339,7 +354,6 @@ public class GroceryStoreNotificationManagerTest extends RobolectricTestBase {
         ShadowApplication shadowApplication = (ShadowApplication) Shadows.shadowOf(RuntimeEnvironment.application);
         shadowApplication.getContentResolver().delete(ReminderContract.Reminders.CONTENT_URI, null, null);
         insertStoreLocation(shadowApplication);
-        ShadowLocation.setDistanceBetween(new float[]{(float) GroceryReminderConstants.LOCATION_GEOFENCE_RADIUS_METERS});
 
         ShadowNotificationManager shadowNotificationManager = getShadowNotificationManager();
 
@@ -358,7 +372,6 @@ public class GroceryStoreNotificationManagerTest extends RobolectricTestBase {
         insertStoreLocation(shadowApplication);
         insertStoreLocation(shadowApplication);
 
-        ShadowLocation.setDistanceBetween(new float[]{(float) GroceryReminderConstants.LOCATION_GEOFENCE_RADIUS_METERS});
 
         groceryStoreNotificationManager.sendPotentialNotification(new Location(LocationManager.GPS_PROVIDER), System.currentTimeMillis());
 
@@ -0,0 +1,106 @@
+package com.groceryreminder.domain;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.groceryreminder.BuildConfig;
+import com.groceryreminder.R;
+import com.groceryreminder.RobolectricTestBase;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class)
+public class NotificationCooldownStateTest extends RobolectricTestBase {
+
+    private static final String STORE_KEY = "store";
+    private static final String OTHER_STORE_KEY = "other_store";
+
+    private SharedPreferences sharedPreferences;
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        sharedPreferences = RuntimeEnvironment.application.getSharedPreferences(RuntimeEnvironment.application.getString(R.string.reminder_pref_key), Context.MODE_PRIVATE);
+    }
+
+    @Test
+    public void givenNoNotificationsHaveBeenSentThenAStoreCanBeNotified() {
+        NotificationCooldownState cooldownState = NotificationCooldownState.load(sharedPreferences);
+
+        assertTrue(cooldownState.canNotify(STORE_KEY, System.currentTimeMillis()));
+    }
+
+    @Test
+    public void givenANotificationWasRecordedWhenAnotherStoreIsCheckedWithinTheMinimumUpdateTimeThenItCannotBeNotified() {
+        long currentTime = System.currentTimeMillis();
+        NotificationCooldownState cooldownState = NotificationCooldownState.load(sharedPreferences);
+
+        cooldownState.recordNotification(STORE_KEY, currentTime);
+
+        assertFalse(cooldownState.canNotify(OTHER_STORE_KEY, currentTime + 1));
+    }
+
+    @Test
+    public void givenANotificationWasRecordedWhenTheSameStoreIsCheckedAfterTheMinimumUpdateTimeThenItIsStillCoolingDown() {
+        long currentTime = System.currentTimeMillis();
+        NotificationCooldownState cooldownState = NotificationCooldownState.load(sharedPreferences);
+
+        cooldownState.recordNotification(STORE_KEY, currentTime);
+        long laterTime = currentTime + GroceryReminderConstants.MIN_LOCATION_UPDATE_TIME_MILLIS + 1;
+
+        assertFalse(cooldownState.canNotify(STORE_KEY, laterTime));
+        assertTrue(cooldownState.canNotify(OTHER_STORE_KEY, laterTime));
+    }
+
+    @Test
+    public void givenANotificationWasRecordedThenNothingIsWrittenUntilTheStateIsSaved() {
+        long currentTime = System.currentTimeMillis();
+        NotificationCooldownState cooldownState = NotificationCooldownState.load(sharedPreferences);
+
+        cooldownState.recordNotification(STORE_KEY, currentTime);
+
+        assertTrue(cooldownState.isDirty());
+        assertFalse(sharedPreferences.contains(GroceryReminderConstants.LAST_NOTIFICATION_TIME_FOR_STORE_PREFIX + STORE_KEY));
+
+        cooldownState.save(sharedPreferences, currentTime);
+
+        assertFalse(cooldownState.isDirty());
+        assertEquals(currentTime, sharedPreferences.getLong(GroceryReminderConstants.LAST_NOTIFICATION_TIME_FOR_STORE_PREFIX + STORE_KEY, 0));
+    }
+
+    @Test
+    public void givenASavedStateWhenItIsLoadedThenTheStoreCooldownsAreRestored() {
+        long currentTime = System.currentTimeMillis();
+        NotificationCooldownState cooldownState = NotificationCooldownState.load(sharedPreferences);
+        cooldownState.recordNotification(STORE_KEY, currentTime);
+        cooldownState.save(sharedPreferences, currentTime);
+
+        NotificationCooldownState loadedState = NotificationCooldownState.load(sharedPreferences);
+
+        assertEquals(currentTime, loadedState.getLastNotificationTime());
+        assertEquals(currentTime, loadedState.getLastNotificationTime(STORE_KEY));
+    }
+
+    @Test
+    public void givenAStoreIsPastItsCooldownWhenTheStateIsSavedThenTheStoreIsPruned() {
+        long currentTime = System.currentTimeMillis();
+        sharedPreferences.edit().putLong(GroceryReminderConstants.LAST_NOTIFICATION_TIME_FOR_STORE_PREFIX + OTHER_STORE_KEY, 1).commit();
+        NotificationCooldownState cooldownState = NotificationCooldownState.load(sharedPreferences);
+
+        cooldownState.recordNotification(STORE_KEY, currentTime);
+        cooldownState.save(sharedPreferences, currentTime);
+
+        assertFalse(sharedPreferences.contains(GroceryReminderConstants.LAST_NOTIFICATION_TIME_FOR_STORE_PREFIX + OTHER_STORE_KEY));
+        assertTrue(sharedPreferences.contains(GroceryReminderConstants.LAST_NOTIFICATION_TIME_FOR_STORE_PREFIX + STORE_KEY));
+    }
+}
@@ -4,6 +4,9 @@ import android.app.Application;
 import android.content.Context;
 import android.location.LocationManager;
 
+import com.groceryreminder.core.MonotonicClock;
+import com.groceryreminder.domain.ElapsedRealtimeClock;
+
 import org.robolectric.Robolectric;
 import org.robolectric.RuntimeEnvironment;
 
@@ -23,6 +26,12 @@ public class TestAndroidModule {
         return (LocationManager) RuntimeEnvironment.application.getSystemService(Application.LOCATION_SERVICE);
     }
 
+    @Provides
+    @Singleton
+    public MonotonicClock getClock() {
+        return new ElapsedRealtimeClock();
+    }
+
     @Provides
     @Singleton
     @ForApplication
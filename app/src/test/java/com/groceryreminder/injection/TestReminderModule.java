@@ -9,6 +9,8 @@ import com.groceryreminder.domain.GroceryStoreNotificationManagerInterface;
 import com.groceryreminder.services.GroceryLocatorService;
 import com.groceryreminder.services.GroceryStoreBroadcastReceiver;
 import com.groceryreminder.services.GroceryStoreNotificationService;
+import com.groceryreminder.testUtils.ImmediateBackgroundDiffer;
+import com.groceryreminder.views.BackgroundDiffer;
 import com.groceryreminder.views.reminders.RemindersActivity;
 import com.groceryreminder.views.stores.GroceryStoresActivity;
 
@@ -59,4 +61,9 @@ public class TestReminderModule {
     public GroceryStoreNotificationManagerInterface getGroceryStoreNotificationManager() {
         return groceryStoreNotificationManagerMock;
     }
+
+    @Provides
+    public BackgroundDiffer getBackgroundDiffer() {
+        return new ImmediateBackgroundDiffer();
+    }
 }
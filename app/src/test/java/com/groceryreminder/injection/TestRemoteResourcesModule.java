@@ -1,12 +1,20 @@
 package com.groceryreminder.injection;
 
+import com.groceryreminder.domain.GooglePlacesResponseCache;
+import com.groceryreminder.testUtils.PlacesResponseBuilder;
+
+import java.io.IOException;
+
 import javax.inject.Singleton;
 
 import dagger.Module;
 import dagger.Provides;
 import se.walkercrou.places.GooglePlacesInterface;
+import se.walkercrou.places.RequestHandler;
 
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 @Module(
         library = true
@@ -14,10 +22,28 @@ import static org.mockito.Mockito.mock;
 public class TestRemoteResourcesModule {
 
     private GooglePlacesInterface googlePlacesMock = mock(GooglePlacesInterface.class);
+    private GooglePlacesResponseCache googlePlacesResponseCacheMock = mock(GooglePlacesResponseCache.class);
+
+    public TestRemoteResourcesModule() {
+        //Searches find nothing unless a test says otherwise
+        RequestHandler requestHandlerMock = mock(RequestHandler.class);
+        try {
+            when(requestHandlerMock.get(anyString())).thenReturn(new PlacesResponseBuilder().withStatus(GooglePlacesInterface.STATUS_ZERO_RESULTS).build());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        when(googlePlacesMock.getRequestHandler()).thenReturn(requestHandlerMock);
+    }
 
     @Provides
     @Singleton
     public GooglePlacesInterface getGooglePlaces() {
         return googlePlacesMock;
     }
+
+    @Provides
+    @Singleton
+    public GooglePlacesResponseCache getGooglePlacesResponseCache() {
+        return googlePlacesResponseCacheMock;
+    }
 }
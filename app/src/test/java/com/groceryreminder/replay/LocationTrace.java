@@ -0,0 +1,213 @@
+package com.groceryreminder.replay;
+
+import android.location.Location;
+import android.location.LocationManager;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+//A recorded sequence of fixes, read from a GPX track or a CSV file of time,latitude,longitude[,accuracy[,provider]] rows
+public class LocationTrace {
+
+    public static final float DEFAULT_ACCURACY_METERS = 10f;
+    //GPX only records dilution of precision, so scale it by a typical receiver error to get meters
+    private static final float METERS_PER_HDOP = 5f;
+
+    private final List<Point> points;
+
+    public LocationTrace(List<Point> points) {
+        this.points = Collections.unmodifiableList(new ArrayList<Point>(points));
+    }
+
+    public static LocationTrace load(File file) throws IOException {
+        InputStream inputStream = new FileInputStream(file);
+        try {
+            if (file.getName().toLowerCase(Locale.US).endsWith(".gpx")) {
+                return fromGpx(inputStream);
+            }
+
+            return fromCsv(inputStream);
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    public static LocationTrace fromCsv(InputStream inputStream) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, "UTF-8"));
+        List<Point> points = new ArrayList<Point>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#") || isHeader(line)) {
+                continue;
+            }
+
+            String[] columns = line.split(",");
+            if (columns.length < 3) {
+                throw new IOException("Expected time,latitude,longitude on line " + lineNumber + ": " + line);
+            }
+
+            try {
+                float accuracy = columns.length > 3 ? Float.parseFloat(columns[3].trim()) : DEFAULT_ACCURACY_METERS;
+                String provider = columns.length > 4 ? columns[4].trim() : LocationManager.GPS_PROVIDER;
+                points.add(new Point(Long.parseLong(columns[0].trim()),
+                        Double.parseDouble(columns[1].trim()),
+                        Double.parseDouble(columns[2].trim()),
+                        accuracy,
+                        provider));
+            } catch (NumberFormatException e) {
+                throw new IOException("Unreadable fix on line " + lineNumber + ": " + line, e);
+            }
+        }
+
+        return new LocationTrace(points);
+    }
+
+    public static LocationTrace fromGpx(InputStream inputStream) throws IOException {
+        GpxHandler handler = new GpxHandler();
+        try {
+            SAXParserFactory.newInstance().newSAXParser().parse(inputStream, handler);
+        } catch (ParserConfigurationException e) {
+            throw new IOException("Unable to create a GPX parser", e);
+        } catch (SAXException e) {
+            throw new IOException("Unreadable GPX track", e);
+        }
+
+        return new LocationTrace(handler.points);
+    }
+
+    private static boolean isHeader(String line) {
+        char first = line.charAt(0);
+        return !Character.isDigit(first) && first != '-';
+    }
+
+    public List<Point> getPoints() {
+        return points;
+    }
+
+    public int size() {
+        return points.size();
+    }
+
+    public static class Point {
+
+        private final long time;
+        private final double latitude;
+        private final double longitude;
+        private final float accuracy;
+        private final String provider;
+
+        public Point(long time, double latitude, double longitude, float accuracy, String provider) {
+            this.time = time;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.accuracy = accuracy;
+            this.provider = provider;
+        }
+
+        public long getTime() {
+            return time;
+        }
+
+        public double getLatitude() {
+            return latitude;
+        }
+
+        public double getLongitude() {
+            return longitude;
+        }
+
+        public float getAccuracy() {
+            return accuracy;
+        }
+
+        public String getProvider() {
+            return provider;
+        }
+
+        public Location toLocation() {
+            Location location = new Location(provider);
+            location.setTime(time);
+            location.setLatitude(latitude);
+            location.setLongitude(longitude);
+            location.setAccuracy(accuracy);
+
+            return location;
+        }
+    }
+
+    private static class GpxHandler extends DefaultHandler {
+
+        private final List<Point> points = new ArrayList<Point>();
+        private final StringBuilder text = new StringBuilder();
+        private boolean inTrackPoint;
+        private double latitude;
+        private double longitude;
+        private long time;
+        private float accuracy;
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            text.setLength(0);
+            if ("trkpt".equals(qName)) {
+                inTrackPoint = true;
+                latitude = Double.parseDouble(attributes.getValue("lat"));
+                longitude = Double.parseDouble(attributes.getValue("lon"));
+                time = 0;
+                accuracy = DEFAULT_ACCURACY_METERS;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            text.append(ch, start, length);
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            if (!inTrackPoint) {
+                return;
+            }
+
+            if ("time".equals(qName)) {
+                time = parseTime(text.toString().trim());
+            } else if ("hdop".equals(qName)) {
+                accuracy = Float.parseFloat(text.toString().trim()) * METERS_PER_HDOP;
+            } else if ("trkpt".equals(qName)) {
+                points.add(new Point(time, latitude, longitude, accuracy, LocationManager.GPS_PROVIDER));
+                inTrackPoint = false;
+            }
+        }
+
+        private static long parseTime(String time) throws SAXException {
+            String pattern = time.indexOf('.') >= 0 ? "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'" : "yyyy-MM-dd'T'HH:mm:ss'Z'";
+            SimpleDateFormat format = new SimpleDateFormat(pattern, Locale.US);
+            format.setTimeZone(TimeZone.getTimeZone("UTC"));
+            try {
+                return format.parse(time).getTime();
+            } catch (ParseException e) {
+                throw new SAXException("Unreadable GPX time " + time, e);
+            }
+        }
+    }
+}
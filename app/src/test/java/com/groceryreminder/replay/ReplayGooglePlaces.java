@@ -0,0 +1,272 @@
+package com.groceryreminder.replay;
+
+import com.groceryreminder.core.GeoDistance;
+import com.groceryreminder.domain.GroceryReminderConstants;
+import com.groceryreminder.testUtils.PlacesResponseBuilder;
+
+import org.apache.http.client.methods.HttpPost;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import se.walkercrou.places.GooglePlacesInterface;
+import se.walkercrou.places.Param;
+import se.walkercrou.places.Photo;
+import se.walkercrou.places.Place;
+import se.walkercrou.places.PlaceBuilder;
+import se.walkercrou.places.Prediction;
+import se.walkercrou.places.RequestHandler;
+import se.walkercrou.places.exception.GooglePlacesException;
+
+//Answers nearby searches from a fixed set of stores, the way the real service would for a search around the same point
+public class ReplayGooglePlaces implements GooglePlacesInterface {
+
+    private static final Pattern LOCATION_PARAM = Pattern.compile("[?&]location=([-0-9.]+)(?:,|%2C)([-0-9.]+)");
+
+    private final List<Place> stores;
+    private final TraceReplayReport report;
+    private RequestHandler requestHandler;
+    private int searchCount;
+
+    public ReplayGooglePlaces(List<Place> stores, TraceReplayReport report) {
+        this.stores = stores;
+        this.report = report;
+        this.requestHandler = new ReplayRequestHandler();
+    }
+
+    //Scatters stores over the trace's bounding box, widened by the search radius so the ends of the trace have stores around them too
+    public static List<Place> scatterStores(LocationTrace trace, int storeCount, long seed) {
+        double minLatitude = Double.MAX_VALUE;
+        double maxLatitude = -Double.MAX_VALUE;
+        double minLongitude = Double.MAX_VALUE;
+        double maxLongitude = -Double.MAX_VALUE;
+        for (LocationTrace.Point point : trace.getPoints()) {
+            minLatitude = Math.min(minLatitude, point.getLatitude());
+            maxLatitude = Math.max(maxLatitude, point.getLatitude());
+            minLongitude = Math.min(minLongitude, point.getLongitude());
+            maxLongitude = Math.max(maxLongitude, point.getLongitude());
+        }
+
+        double margin = GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS / 111320.0;
+        Random random = new Random(seed);
+        List<Place> places = new ArrayList<Place>(storeCount);
+        for (int i = 0; i < storeCount; i++) {
+            Place place = new Place();
+            place.setPlaceId("replay_store_" + i);
+            place.setName("Replay Store " + i);
+            place.setLatitude(minLatitude - margin + random.nextDouble() * (maxLatitude - minLatitude + 2 * margin));
+            place.setLongitude(minLongitude - margin + random.nextDouble() * (maxLongitude - minLongitude + 2 * margin));
+            places.add(place);
+        }
+
+        return places;
+    }
+
+    public int getSearchCount() {
+        return searchCount;
+    }
+
+    @Override
+    public boolean isDebugModeEnabled() {
+        return false;
+    }
+
+    @Override
+    public void setDebugModeEnabled(boolean b) {
+
+    }
+
+    @Override
+    public String getApiKey() {
+        return null;
+    }
+
+    @Override
+    public void setApiKey(String s) {
+
+    }
+
+    @Override
+    public RequestHandler getRequestHandler() {
+        return requestHandler;
+    }
+
+    @Override
+    public void setRequestHandler(RequestHandler requestHandler) {
+        this.requestHandler = requestHandler;
+    }
+
+    @Override
+    public List<Place> getNearbyPlaces(double latitude, double longitude, double radius, int limit, Param... params) {
+        return search(latitude, longitude, radius, limit);
+    }
+
+    @Override
+    public List<Place> getNearbyPlaces(double latitude, double longitude, double radius, Param... params) {
+        return search(latitude, longitude, radius, GooglePlacesInterface.MAXIMUM_RESULTS);
+    }
+
+    @Override
+    public List<Place> getNearbyPlacesRankedByDistance(double latitude, double longitude, int limit, Param... params) throws GooglePlacesException {
+        return search(latitude, longitude, GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS, limit);
+    }
+
+    @Override
+    public List<Place> getNearbyPlacesRankedByDistance(double latitude, double longitude, Param... params) throws GooglePlacesException {
+        return search(latitude, longitude, GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS, GooglePlacesInterface.MAXIMUM_RESULTS);
+    }
+
+    private List<Place> search(final double latitude, final double longitude, double radius, int limit) {
+        long start = System.nanoTime();
+        searchCount++;
+
+        List<Place> nearbyPlaces = new ArrayList<Place>();
+        for (Place store : stores) {
+            if (GeoDistance.isWithinRadius(latitude, longitude, store.getLatitude(), store.getLongitude(), radius)) {
+                nearbyPlaces.add(store);
+            }
+        }
+
+        Collections.sort(nearbyPlaces, new Comparator<Place>() {
+            @Override
+            public int compare(Place lhs, Place rhs) {
+                return Float.compare(GeoDistance.distanceBetween(latitude, longitude, lhs.getLatitude(), lhs.getLongitude()),
+                        GeoDistance.distanceBetween(latitude, longitude, rhs.getLatitude(), rhs.getLongitude()));
+            }
+        });
+        List<Place> page = new ArrayList<Place>(nearbyPlaces.subList(0, Math.min(limit, nearbyPlaces.size())));
+
+        report.recordStage(TraceReplayReport.STAGE_FETCH, System.nanoTime() - start);
+        return page;
+    }
+
+    //The search pipeline requests pages itself, so the replay answers the nearby search URL with a single page of results
+    private class ReplayRequestHandler implements RequestHandler {
+
+        private String characterEncoding = "UTF-8";
+
+        @Override
+        public String getCharacterEncoding() {
+            return characterEncoding;
+        }
+
+        @Override
+        public void setCharacterEncoding(String characterEncoding) {
+            this.characterEncoding = characterEncoding;
+        }
+
+        @Override
+        public InputStream getInputStream(String uri) throws IOException {
+            return new ByteArrayInputStream(get(uri).getBytes(characterEncoding));
+        }
+
+        @Override
+        public String get(String uri) throws IOException {
+            Matcher location = LOCATION_PARAM.matcher(uri);
+            if (!location.find()) {
+                return new PlacesResponseBuilder().withStatus(GooglePlacesInterface.STATUS_INVALID_REQUEST).build();
+            }
+
+            List<Place> page = search(Double.parseDouble(location.group(1)), Double.parseDouble(location.group(2)),
+                    GroceryReminderConstants.LOCATION_SEARCH_RADIUS_METERS, GooglePlacesInterface.MAXIMUM_PAGE_RESULTS);
+            if (page.isEmpty()) {
+                return new PlacesResponseBuilder().withStatus(GooglePlacesInterface.STATUS_ZERO_RESULTS).build();
+            }
+
+            return new PlacesResponseBuilder().withPlaces(page).build();
+        }
+
+        @Override
+        public String post(HttpPost httpPost) throws IOException {
+            return null;
+        }
+    }
+
+    @Override
+    public List<Place> getPlacesByQuery(String s, int i, Param... params) {
+        return new ArrayList<Place>();
+    }
+
+    @Override
+    public List<Place> getPlacesByQuery(String s, Param... params) {
+        return new ArrayList<Place>();
+    }
+
+    @Override
+    public List<Place> getPlacesByRadar(double v, double v1, double v2, int i, Param... params) {
+        return new ArrayList<Place>();
+    }
+
+    @Override
+    public List<Place> getPlacesByRadar(double v, double v1, double v2, Param... params) {
+        return new ArrayList<Place>();
+    }
+
+    @Override
+    public Place getPlaceById(String s, Param... params) {
+        return null;
+    }
+
+    @Override
+    public Place addPlace(PlaceBuilder placeBuilder, boolean b, Param... params) {
+        return null;
+    }
+
+    @Override
+    public void deletePlaceById(String s, Param... params) {
+
+    }
+
+    @Override
+    public void deletePlace(Place place, Param... params) {
+
+    }
+
+    @Override
+    public InputStream download(String s) {
+        return null;
+    }
+
+    @Override
+    public InputStream downloadPhoto(Photo photo, int i, int i1, Param... params) {
+        return null;
+    }
+
+    @Override
+    public List<Prediction> getPlacePredictions(String s, int i, int i1, int i2, int i3, Param... params) {
+        return null;
+    }
+
+    @Override
+    public List<Prediction> getPlacePredictions(String s, int i, Param... params) {
+        return null;
+    }
+
+    @Override
+    public List<Prediction> getPlacePredictions(String s, Param... params) {
+        return null;
+    }
+
+    @Override
+    public List<Prediction> getQueryPredictions(String s, int i, int i1, int i2, int i3, Param... params) {
+        return null;
+    }
+
+    @Override
+    public List<Prediction> getQueryPredictions(String s, int i, Param... params) {
+        return null;
+    }
+
+    @Override
+    public List<Prediction> getQueryPredictions(String s, Param... params) {
+        return null;
+    }
+}
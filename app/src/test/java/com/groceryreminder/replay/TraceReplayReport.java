@@ -0,0 +1,134 @@
+package com.groceryreminder.replay;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+public class TraceReplayReport {
+
+    //Stages nest: a fix runs delete and search, and search runs fetch, filter, persist and geofence inline
+    public static final String STAGE_FIX = "fix";
+    public static final String STAGE_DELETE = "delete";
+    public static final String STAGE_SEARCH = "search";
+    public static final String STAGE_FETCH = "fetch";
+    public static final String STAGE_FILTER = "filter";
+    public static final String STAGE_PERSIST = "persist";
+    public static final String STAGE_GEOFENCE = "geofence";
+    public static final String STAGE_NOTIFY = "notify";
+
+    private static final String[] STAGES = {STAGE_FIX, STAGE_DELETE, STAGE_SEARCH, STAGE_FETCH, STAGE_FILTER, STAGE_PERSIST, STAGE_GEOFENCE, STAGE_NOTIFY};
+
+    private final Map<String, StageTiming> stageTimings = new LinkedHashMap<String, StageTiming>();
+    private int fixCount;
+    private int searchCount;
+    private int insertedRowCount;
+    private int deletedRowCount;
+    private int proximityRegistrationCount;
+    private int notificationCount;
+
+    public TraceReplayReport() {
+        for (String stage : STAGES) {
+            stageTimings.put(stage, new StageTiming());
+        }
+    }
+
+    void recordStage(String stage, long elapsedNanos) {
+        stageTimings.get(stage).record(elapsedNanos);
+    }
+
+    void setFixCount(int fixCount) {
+        this.fixCount = fixCount;
+    }
+
+    void setSearchCount(int searchCount) {
+        this.searchCount = searchCount;
+    }
+
+    void setInsertedRowCount(int insertedRowCount) {
+        this.insertedRowCount = insertedRowCount;
+    }
+
+    void setDeletedRowCount(int deletedRowCount) {
+        this.deletedRowCount = deletedRowCount;
+    }
+
+    void setProximityRegistrationCount(int proximityRegistrationCount) {
+        this.proximityRegistrationCount = proximityRegistrationCount;
+    }
+
+    void setNotificationCount(int notificationCount) {
+        this.notificationCount = notificationCount;
+    }
+
+    public int getFixCount() {
+        return fixCount;
+    }
+
+    public int getSearchCount() {
+        return searchCount;
+    }
+
+    public int getInsertedRowCount() {
+        return insertedRowCount;
+    }
+
+    public int getDeletedRowCount() {
+        return deletedRowCount;
+    }
+
+    public int getDatabaseWriteCount() {
+        return insertedRowCount + deletedRowCount;
+    }
+
+    public int getProximityRegistrationCount() {
+        return proximityRegistrationCount;
+    }
+
+    public int getNotificationCount() {
+        return notificationCount;
+    }
+
+    public StageTiming getStageTiming(String stage) {
+        return stageTimings.get(stage);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.US, "fixes: %d, searches: %d, db writes: %d (%d inserted, %d deleted), proximity registrations: %d, notifications: %d%n",
+                fixCount, searchCount, getDatabaseWriteCount(), insertedRowCount, deletedRowCount, proximityRegistrationCount, notificationCount));
+        report.append(String.format(Locale.US, "%-10s %8s %12s %12s%n", "stage", "calls", "total ms", "max ms"));
+        for (Map.Entry<String, StageTiming> entry : stageTimings.entrySet()) {
+            StageTiming timing = entry.getValue();
+            report.append(String.format(Locale.US, "%-10s %8d %12.3f %12.3f%n",
+                    entry.getKey(), timing.getCount(), timing.getTotalMillis(), timing.getMaxMillis()));
+        }
+
+        return report.toString();
+    }
+
+    public static class StageTiming {
+
+        private int count;
+        private long totalNanos;
+        private long maxNanos;
+
+        private void record(long elapsedNanos) {
+            count++;
+            totalNanos += elapsedNanos;
+            maxNanos = Math.max(maxNanos, elapsedNanos);
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public double getTotalMillis() {
+            return totalNanos / 1000000.0;
+        }
+
+        public double getMaxMillis() {
+            return maxNanos / 1000000.0;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.groceryreminder.replay;
+
+import android.location.LocationManager;
+
+import com.groceryreminder.BuildConfig;
+import com.groceryreminder.RobolectricTestBase;
+import com.groceryreminder.shadows.ShadowLocationManager;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import se.walkercrou.places.Place;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, shadows = {ShadowLocationManager.class})
+public class TraceReplayTest extends RobolectricTestBase {
+
+    //Pass -Dreplay.trace=/path/to/trace.gpx (or .csv) to the test run to replay a recorded trace and print its report
+    private static final String TRACE_PROPERTY = "replay.trace";
+    private static final int STORE_COUNT = 10;
+    private static final long STORE_SEED = 42;
+
+    private LocationTrace commute;
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        commute = loadTrace("traces/commute.csv");
+    }
+
+    private LocationTrace loadTrace(String resource) {
+        InputStream inputStream = getClass().getClassLoader().getResourceAsStream(resource);
+        try {
+            try {
+                if (resource.endsWith(".gpx")) {
+                    return LocationTrace.fromGpx(inputStream);
+                }
+
+                return LocationTrace.fromCsv(inputStream);
+            } finally {
+                inputStream.close();
+            }
+        } catch (IOException e) {
+            throw new AssertionError("Unable to read " + resource + ": " + e);
+        }
+    }
+
+    private List<Place> createStoresAlongTheCommute() {
+        List<Place> stores = ReplayGooglePlaces.scatterStores(commute, STORE_COUNT, STORE_SEED);
+        LocationTrace.Point midpoint = commute.getPoints().get(commute.size() / 2);
+        Place storeOnTheRoute = new Place();
+        storeOnTheRoute.setPlaceId("on_the_route");
+        storeOnTheRoute.setName("On The Route");
+        storeOnTheRoute.setLatitude(midpoint.getLatitude());
+        storeOnTheRoute.setLongitude(midpoint.getLongitude());
+        stores.add(storeOnTheRoute);
+
+        return stores;
+    }
+
+    @Test
+    public void givenACsvTraceWhenItIsReadThenEachRowBecomesAFix() {
+        assertEquals(60, commute.size());
+
+        LocationTrace.Point first = commute.getPoints().get(0);
+        assertEquals(1435752000000l, first.getTime());
+        assertEquals(39.9733, first.getLatitude(), 0);
+        assertEquals(-82.9979, first.getLongitude(), 0);
+        assertEquals(25.0f, first.getAccuracy(), 0);
+        assertEquals(LocationManager.NETWORK_PROVIDER, first.getProvider());
+        assertEquals(LocationManager.GPS_PROVIDER, commute.getPoints().get(1).getProvider());
+    }
+
+    @Test
+    public void givenAGpxTraceWhenItIsReadThenEachTrackPointBecomesAGpsFix() {
+        LocationTrace walk = loadTrace("traces/walk.gpx");
+
+        assertEquals(3, walk.size());
+        LocationTrace.Point first = walk.getPoints().get(0);
+        assertEquals(1435752000000l, first.getTime());
+        assertEquals(39.9733, first.getLatitude(), 0);
+        assertEquals(10.0f, first.getAccuracy(), 0);
+        assertEquals(LocationManager.GPS_PROVIDER, first.getProvider());
+        assertEquals(1435752060500l, walk.getPoints().get(1).getTime());
+        assertEquals(LocationTrace.DEFAULT_ACCURACY_METERS, walk.getPoints().get(1).getAccuracy(), 0);
+    }
+
+    @Test
+    public void whenACommuteIsReplayedThenTheWorkItCausedIsCounted() {
+        TraceReplayReport report = new TraceReplayer(createStoresAlongTheCommute()).replay(commute);
+
+        assertEquals(commute.size(), report.getFixCount());
+        assertTrue(report.getSearchCount() > 0);
+        assertTrue(report.getInsertedRowCount() > 0);
+        assertTrue(report.getProximityRegistrationCount() > 0);
+        assertTrue(report.getNotificationCount() > 0);
+    }
+
+    @Test
+    public void whenACommuteIsReplayedThenEveryStageIsTimed() {
+        TraceReplayReport report = new TraceReplayer(createStoresAlongTheCommute()).replay(commute);
+
+        assertEquals(commute.size(), report.getStageTiming(TraceReplayReport.STAGE_FIX).getCount());
+        assertEquals(report.getSearchCount(), report.getStageTiming(TraceReplayReport.STAGE_FETCH).getCount());
+        assertTrue(report.getStageTiming(TraceReplayReport.STAGE_DELETE).getCount() > 0);
+        assertTrue(report.getStageTiming(TraceReplayReport.STAGE_SEARCH).getCount() > 0);
+        assertTrue(report.getStageTiming(TraceReplayReport.STAGE_FILTER).getCount() > 0);
+        assertTrue(report.getStageTiming(TraceReplayReport.STAGE_PERSIST).getCount() > 0);
+        assertTrue(report.getStageTiming(TraceReplayReport.STAGE_GEOFENCE).getCount() > 0);
+        assertTrue(report.getStageTiming(TraceReplayReport.STAGE_NOTIFY).getCount() > 0);
+    }
+
+    @Test
+    public void givenATraceFileWhenItIsReplayedThenTheReportIsPrinted() throws IOException {
+        String tracePath = System.getProperty(TRACE_PROPERTY);
+        assumeTrue(tracePath != null && !tracePath.isEmpty());
+
+        LocationTrace trace = LocationTrace.load(new File(tracePath));
+        TraceReplayReport report = new TraceReplayer(ReplayGooglePlaces.scatterStores(trace, 200, STORE_SEED)).replay(trace);
+
+        System.out.println("Replayed " + tracePath);
+        System.out.println(report);
+    }
+}
@@ -0,0 +1,241 @@
+package com.groceryreminder.replay;
+
+import android.app.Application;
+import android.content.ContentValues;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.location.Location;
+import android.location.LocationManager;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.groceryreminder.R;
+import com.groceryreminder.core.GeoDistance;
+import com.groceryreminder.core.MonotonicClock;
+import com.groceryreminder.data.GroceryStoreLocationContentProvider;
+import com.groceryreminder.data.ReminderContract;
+import com.groceryreminder.domain.GooglePlacesResponseCache;
+import com.groceryreminder.domain.GooglePlacesSearchPipeline;
+import com.groceryreminder.domain.GroceryReminderConstants;
+import com.groceryreminder.domain.GroceryStoreManager;
+import com.groceryreminder.domain.GroceryStoreNotificationManager;
+import com.groceryreminder.services.GroceryStoreLocationListener;
+import com.groceryreminder.shadows.ShadowLocationManager;
+import com.groceryreminder.testUtils.ReminderValuesBuilder;
+
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.Shadows;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import se.walkercrou.places.Place;
+
+//Drives a recorded trace through the listener, manager, provider and notification paths the way the locator service would,
+//with every pipeline stage on the calling thread. Needs the custom ShadowLocationManager in the test's @Config.
+public class TraceReplayer {
+
+    private static final String CACHE_FILE_NAME = "replay_places_cache.json";
+
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private final List<Place> stores;
+
+    public TraceReplayer(List<Place> stores) {
+        this.stores = stores;
+    }
+
+    public TraceReplayReport replay(LocationTrace trace) {
+        Application application = RuntimeEnvironment.application;
+        TraceReplayReport report = new TraceReplayReport();
+
+        CountingLocationContentProvider locationProvider = new CountingLocationContentProvider();
+        locationProvider.onCreate();
+        Shadows.shadowOf(application.getContentResolver()).registerProvider(ReminderContract.REMINDER_LOCATION_AUTHORITY, locationProvider);
+        //Notifications are only sent while there is something to remind about
+        application.getContentResolver().insert(ReminderContract.Reminders.CONTENT_URI, new ReminderValuesBuilder().createDefaultReminderValues().build());
+
+        LocationManager locationManager = (LocationManager) application.getSystemService(Context.LOCATION_SERVICE);
+        ShadowLocationManager shadowLocationManager = (ShadowLocationManager) Shadows.shadowOf(locationManager);
+        int initialRegistrationCount = shadowLocationManager.getAddedProximityAlertCount();
+
+        File cacheFile = new File(application.getCacheDir(), CACHE_FILE_NAME);
+        cacheFile.delete();
+        GooglePlacesResponseCache placesCache = new GooglePlacesResponseCache(cacheFile,
+                GroceryReminderConstants.PLACES_CACHE_TIME_TO_LIVE_MILLIS,
+                GroceryReminderConstants.PLACES_CACHE_MAX_ENTRIES,
+                GroceryReminderConstants.PLACES_CACHE_MAX_BYTES);
+        ReplayGooglePlaces googlePlaces = new ReplayGooglePlaces(stores, report);
+        GooglePlacesSearchPipeline searchPipeline = new GooglePlacesSearchPipeline(googlePlaces, placesCache,
+                DIRECT_EXECUTOR, DIRECT_EXECUTOR, DIRECT_EXECUTOR, DIRECT_EXECUTOR,
+                new Handler(Looper.getMainLooper()), GroceryReminderConstants.GOOGLE_PLACES_PAGE_BUDGET);
+        TraceClock traceClock = new TraceClock();
+        TimedGroceryStoreManager groceryStoreManager = new TimedGroceryStoreManager(application, locationManager, placesCache, searchPipeline, traceClock, report);
+        CountingNotificationManager notificationManager = new CountingNotificationManager(application, locationManager);
+        GroceryStoreLocationListener locationListener = new GroceryStoreLocationListener(groceryStoreManager);
+
+        SharedPreferences sharedPreferences = application.getSharedPreferences(application.getString(R.string.reminder_pref_key), Context.MODE_PRIVATE);
+        Set<ShadowLocationManager.ProximityAlert> enteredAlerts = new HashSet<ShadowLocationManager.ProximityAlert>();
+        long previousTime = -1;
+        for (LocationTrace.Point point : trace.getPoints()) {
+            if (previousTime >= 0) {
+                rewindLastPollTime(sharedPreferences, point.getTime() - previousTime);
+            }
+            previousTime = point.getTime();
+            traceClock.elapsedMillis = point.getTime();
+
+            Location location = point.toLocation();
+            long start = System.nanoTime();
+            locationListener.onLocationChanged(location);
+            report.recordStage(TraceReplayReport.STAGE_FIX, System.nanoTime() - start);
+
+            deliverProximityAlerts(shadowLocationManager, enteredAlerts, notificationManager, location, report);
+        }
+
+        report.setFixCount(trace.size());
+        report.setSearchCount(googlePlaces.getSearchCount());
+        report.setInsertedRowCount(locationProvider.insertedRowCount);
+        report.setDeletedRowCount(locationProvider.deletedRowCount);
+        report.setProximityRegistrationCount(shadowLocationManager.getAddedProximityAlertCount() - initialRegistrationCount);
+        report.setNotificationCount(notificationManager.notificationCount);
+
+        return report;
+    }
+
+    //The places poll throttle reads the wall clock, so age the last poll by the trace time that has passed instead
+    private void rewindLastPollTime(SharedPreferences sharedPreferences, long elapsedMillis) {
+        long lastPollTime = sharedPreferences.getLong(GroceryReminderConstants.LAST_GOOGLE_PLACES_POLL_TIME, 0);
+        if (lastPollTime > 0) {
+            sharedPreferences.edit().putLong(GroceryReminderConstants.LAST_GOOGLE_PLACES_POLL_TIME, lastPollTime - elapsedMillis).commit();
+        }
+    }
+
+    //Fires the way the platform does: once on entering an armed alert's radius, then again only after leaving it
+    private void deliverProximityAlerts(ShadowLocationManager shadowLocationManager, Set<ShadowLocationManager.ProximityAlert> enteredAlerts,
+                                        CountingNotificationManager notificationManager, Location location, TraceReplayReport report) {
+        Set<ShadowLocationManager.ProximityAlert> insideAlerts = new HashSet<ShadowLocationManager.ProximityAlert>();
+        boolean entered = false;
+        for (ShadowLocationManager.ProximityAlert alert : shadowLocationManager.getProximityAlerts()) {
+            if (GeoDistance.isWithinRadius(location.getLatitude(), location.getLongitude(), alert.getLatitude(), alert.getLongitude(), alert.getRadius())) {
+                insideAlerts.add(alert);
+                entered |= !enteredAlerts.contains(alert);
+            }
+        }
+        enteredAlerts.clear();
+        enteredAlerts.addAll(insideAlerts);
+
+        if (entered) {
+            long start = System.nanoTime();
+            notificationManager.sendPotentialNotification(location, location.getTime());
+            report.recordStage(TraceReplayReport.STAGE_NOTIFY, System.nanoTime() - start);
+        }
+    }
+
+    private static class TimedGroceryStoreManager extends GroceryStoreManager {
+
+        private final TraceReplayReport report;
+
+        private TimedGroceryStoreManager(Application applicationContext, LocationManager locationManager, GooglePlacesResponseCache placesCache,
+                                         GooglePlacesSearchPipeline searchPipeline, MonotonicClock clock, TraceReplayReport report) {
+            super(applicationContext, locationManager, placesCache, searchPipeline, clock);
+            this.report = report;
+        }
+
+        @Override
+        public void deleteStoresByLocation(Location location) {
+            long start = System.nanoTime();
+            super.deleteStoresByLocation(location);
+            report.recordStage(TraceReplayReport.STAGE_DELETE, System.nanoTime() - start);
+        }
+
+        @Override
+        public void findStoresByLocation(Location location) {
+            long start = System.nanoTime();
+            super.findStoresByLocation(location);
+            report.recordStage(TraceReplayReport.STAGE_SEARCH, System.nanoTime() - start);
+        }
+
+        @Override
+        public List<Place> filterPlacesByDistance(Location location, List<Place> places, double distanceInMeters) {
+            long start = System.nanoTime();
+            List<Place> filteredPlaces = super.filterPlacesByDistance(location, places, distanceInMeters);
+            report.recordStage(TraceReplayReport.STAGE_FILTER, System.nanoTime() - start);
+
+            return filteredPlaces;
+        }
+
+        @Override
+        public void persistGroceryStores(List<Place> places) {
+            long start = System.nanoTime();
+            super.persistGroceryStores(places);
+            report.recordStage(TraceReplayReport.STAGE_PERSIST, System.nanoTime() - start);
+        }
+
+        @Override
+        public void addProximityAlerts(List<Place> places) {
+            long start = System.nanoTime();
+            super.addProximityAlerts(places);
+            report.recordStage(TraceReplayReport.STAGE_GEOFENCE, System.nanoTime() - start);
+        }
+    }
+
+    //Runs on the trace's own timeline so the update throttle sees the time that passed between fixes
+    private static class TraceClock implements MonotonicClock {
+
+        private long elapsedMillis;
+
+        @Override
+        public long elapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+
+    private static class CountingLocationContentProvider extends GroceryStoreLocationContentProvider {
+
+        private int insertedRowCount;
+        private int deletedRowCount;
+
+        @Override
+        public Uri insert(Uri uri, ContentValues values) {
+            Uri insertedUri = super.insert(uri, values);
+            if (!"-1".equals(insertedUri.getLastPathSegment())) {
+                insertedRowCount++;
+            }
+
+            return insertedUri;
+        }
+
+        @Override
+        public int delete(Uri uri, String selection, String[] selectionArgs) {
+            int deletedCount = super.delete(uri, selection, selectionArgs);
+            deletedRowCount += deletedCount;
+
+            return deletedCount;
+        }
+    }
+
+    private static class CountingNotificationManager extends GroceryStoreNotificationManager {
+
+        private int notificationCount;
+
+        private CountingNotificationManager(Application context, LocationManager locationManager) {
+            super(context, locationManager);
+        }
+
+        @Override
+        public void sendNotification(Intent intent) {
+            notificationCount++;
+            super.sendNotification(intent);
+        }
+    }
+}
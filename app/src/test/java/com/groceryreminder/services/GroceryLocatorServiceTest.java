@@ -7,6 +7,8 @@ import android.location.LocationManager;
 
 import com.groceryreminder.BuildConfig;
 import com.groceryreminder.RobolectricTestBase;
+import com.groceryreminder.core.LatencyHistogram;
+import com.groceryreminder.core.MetricsRegistry;
 import com.groceryreminder.domain.GroceryReminderConstants;
 import com.groceryreminder.domain.GroceryStoreLocationManagerInterface;
 import com.groceryreminder.domain.GroceryStoreManagerInterface;
@@ -15,13 +17,20 @@ import com.groceryreminder.shadows.ShadowLocationManager;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.Shadows;
 import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 @RunWith(RobolectricGradleTestRunner.class)
@@ -51,12 +60,21 @@ public class GroceryLocatorServiceTest extends RobolectricTestBase {
         return location;
     }
 
+    private void startCommand(Intent intent) {
+        groceryLocatorService.onStartCommand(intent, 0, 0);
+        getServiceLooper().idle();
+    }
+
+    private ShadowLooper getServiceLooper() {
+        return Shadows.shadowOf(groceryLocatorService.getServiceLooper());
+    }
+
     @Test
     public void givenALastKnownLocationWhenTheIntentIsHandledThenALocationUpdateIsHandled() {
         when(groceryStoreLocationManagerMock.getLastKnownLocation()).thenReturn(defaultLocation);
         when(groceryStoreManagerMock.isBetterThanCurrentLocation(defaultLocation)).thenReturn(true);
 
-        groceryLocatorService.onStartCommand(new Intent(), 0, 0);
+        startCommand(new Intent());
 
         verify(groceryStoreLocationManagerMock).getLastKnownLocation();
         verify(groceryStoreManagerMock).isBetterThanCurrentLocation(defaultLocation);
@@ -71,7 +89,7 @@ public class GroceryLocatorServiceTest extends RobolectricTestBase {
         when(groceryStoreLocationManagerMock.getLastKnownLocation()).thenReturn(defaultLocation);
         when(groceryStoreManagerMock.isBetterThanCurrentLocation(defaultLocation)).thenReturn(true);
 
-        groceryLocatorService.onStartCommand(intent, 0, 0);
+        startCommand(intent);
 
         verify(groceryStoreManagerMock).listenForLocationUpdates(true);
         verify(groceryStoreLocationManagerMock).getLastKnownLocation();
@@ -85,7 +103,7 @@ public class GroceryLocatorServiceTest extends RobolectricTestBase {
 
         when(groceryStoreLocationManagerMock.getLastKnownLocation()).thenReturn(defaultLocation);
         when(groceryStoreManagerMock.isBetterThanCurrentLocation(defaultLocation)).thenReturn(false);
-        groceryLocatorService.onStartCommand(new Intent(), 0, 0);
+        startCommand(new Intent());
 
         verify(groceryStoreLocationManagerMock).getLastKnownLocation();
         verify(groceryStoreManagerMock).isBetterThanCurrentLocation(defaultLocation);
@@ -96,7 +114,7 @@ public class GroceryLocatorServiceTest extends RobolectricTestBase {
     public void whenNoProviderIsAvailableThenNoStoresAreUpdated() {
         when(groceryStoreLocationManagerMock.getLastKnownLocation()).thenReturn(null);
 
-        groceryLocatorService.onStartCommand(new Intent(), 0, 0);
+        startCommand(new Intent());
 
         verify(groceryStoreLocationManagerMock).getLastKnownLocation();
         verify(groceryStoreManagerMock).listenForLocationUpdates(false);
@@ -110,4 +128,111 @@ public class GroceryLocatorServiceTest extends RobolectricTestBase {
         verifyNoMoreInteractions(groceryStoreManagerMock);
         verifyNoMoreInteractions(groceryStoreLocationManagerMock);
     }
+
+    @Test
+    public void whenTheIntentIsReceivedThenTheWorkIsHandledOnTheServiceThread() {
+        getServiceLooper().pause();
+
+        groceryLocatorService.onStartCommand(new Intent(), 0, 0);
+
+        verifyZeroInteractions(groceryStoreManagerMock);
+        verifyZeroInteractions(groceryStoreLocationManagerMock);
+
+        getServiceLooper().unPause();
+
+        verify(groceryStoreManagerMock).listenForLocationUpdates(false);
+        verify(groceryStoreLocationManagerMock).getLastKnownLocation();
+    }
+
+    @Test
+    public void givenACommandIsAlreadyQueuedWhenTheSameCommandIsReceivedThenItIsCollapsed() {
+        getServiceLooper().pause();
+
+        groceryLocatorService.onStartCommand(new Intent(), 0, 0);
+        groceryLocatorService.onStartCommand(new Intent(), 0, 1);
+        getServiceLooper().unPause();
+
+        verify(groceryStoreManagerMock, times(1)).listenForLocationUpdates(false);
+        verify(groceryStoreLocationManagerMock, times(1)).getLastKnownLocation();
+        assertEquals(1, groceryLocatorService.getCommandTimings().getTiming("locate").getCollapsedCount());
+    }
+
+    @Test
+    public void givenADifferentCommandIsQueuedWhenAGPSCommandIsReceivedThenBothAreHandled() {
+        Intent gpsIntent = new Intent();
+        gpsIntent.putExtra(GroceryReminderConstants.LISTEN_FOR_GPS_EXTRA, true);
+        getServiceLooper().pause();
+
+        groceryLocatorService.onStartCommand(new Intent(), 0, 0);
+        groceryLocatorService.onStartCommand(gpsIntent, 0, 1);
+        getServiceLooper().unPause();
+
+        verify(groceryStoreManagerMock).listenForLocationUpdates(false);
+        verify(groceryStoreManagerMock).listenForLocationUpdates(true);
+    }
+
+    @Test
+    public void whenACommandIsHandledThenItsTimingIsRecorded() {
+        startCommand(new Intent());
+        startCommand(new Intent());
+
+        ServiceCommandTimings.Timing timing = groceryLocatorService.getCommandTimings().getTiming("locate");
+        assertEquals(2, timing.getCount());
+        assertEquals(0, timing.getCollapsedCount());
+    }
+
+    @Test
+    public void whenACommandIsHandledThenItsTimingIsAddedToTheMetricsRegistry() {
+        LatencyHistogram runLatency = MetricsRegistry.getInstance().histogram("locator_service.locate.run");
+        long previousCount = runLatency.getCount();
+
+        startCommand(new Intent());
+
+        assertEquals(previousCount + 1, runLatency.getCount());
+    }
+
+    @Test
+    public void givenACommandIsQueuedWhenTheServiceIsDestroyedThenLocationUpdatesAreRemovedAndTheCommandIsDropped() {
+        getServiceLooper().pause();
+        groceryLocatorService.onStartCommand(new Intent(), 0, 0);
+
+        groceryLocatorService.onDestroy();
+        getServiceLooper().unPause();
+        getServiceLooper().idle();
+
+        verify(groceryStoreManagerMock).removeLocationUpdates();
+        verify(groceryStoreManagerMock, never()).listenForLocationUpdates(anyBoolean());
+        verifyZeroInteractions(groceryStoreLocationManagerMock);
+    }
+
+    @Test
+    public void givenTheServiceWasDestroyedWhenItIsCreatedAgainThenLocationUpdatesAreRequestedAgain() {
+        startCommand(new Intent());
+        groceryLocatorService.onDestroy();
+        getServiceLooper().idle();
+
+        groceryLocatorService = new GroceryLocatorService();
+        groceryLocatorService.onCreate();
+        startCommand(new Intent());
+
+        InOrder inOrder = inOrder(groceryStoreManagerMock);
+        inOrder.verify(groceryStoreManagerMock).listenForLocationUpdates(false);
+        inOrder.verify(groceryStoreManagerMock).removeLocationUpdates();
+        inOrder.verify(groceryStoreManagerMock).listenForLocationUpdates(false);
+    }
+
+    @Test
+    public void whenTheServiceIsDestroyedThenLocationUpdatesAreRemovedOnTheServiceLooper() {
+        startCommand(new Intent());
+        getServiceLooper().pause();
+
+        groceryLocatorService.onDestroy();
+
+        verify(groceryStoreManagerMock, never()).removeLocationUpdates();
+
+        getServiceLooper().unPause();
+        getServiceLooper().idle();
+
+        verify(groceryStoreManagerMock).removeLocationUpdates();
+    }
 }
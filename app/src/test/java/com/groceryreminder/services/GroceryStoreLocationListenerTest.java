@@ -9,9 +9,13 @@ import com.groceryreminder.RobolectricTestBase;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.robolectric.RobolectricGradleTestRunner;
 import org.robolectric.annotation.Config;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -31,26 +35,65 @@ public class GroceryStoreLocationListenerTest extends RobolectricTestBase {
         groceryStoreLocationListener = new GroceryStoreLocationListener(locationUpdaterMock);
     }
 
+    private Location createLocation(String provider, long time) {
+        Location location = new Location(provider);
+        location.setLatitude(39.9733);
+        location.setLongitude(-82.9979);
+        location.setAccuracy(10);
+        location.setTime(time);
+
+        return location;
+    }
+
     @Test
-    public void givenALocationIsBetterWhenALocationIsUpdatedThenTheLocationUpdaterHandlesTheUpdate() {
-        Location location = new Location(LocationManager.GPS_PROVIDER);
+    public void givenALocationIsBetterWhenALocationIsUpdatedThenTheLocationUpdaterHandlesTheFusedUpdate() {
+        Location location = createLocation(LocationManager.GPS_PROVIDER, 1000);
+        ArgumentCaptor<Location> locationCaptor = ArgumentCaptor.forClass(Location.class);
 
-        when(locationUpdaterMock.isBetterThanCurrentLocation(location)).thenReturn(true);
+        when(locationUpdaterMock.isBetterThanCurrentLocation(any(Location.class))).thenReturn(true);
 
         groceryStoreLocationListener.onLocationChanged(location);
 
-        verify(locationUpdaterMock).isBetterThanCurrentLocation(location);
-        verify(locationUpdaterMock).handleLocationUpdated(location);
+        verify(locationUpdaterMock).isBetterThanCurrentLocation(any(Location.class));
+        verify(locationUpdaterMock).handleLocationUpdated(locationCaptor.capture());
+        Location fusedLocation = locationCaptor.getValue();
+        assertEquals(LocationFusion.FUSED_PROVIDER, fusedLocation.getProvider());
+        assertEquals(location.getLatitude(), fusedLocation.getLatitude(), 1e-9);
+        assertEquals(location.getLongitude(), fusedLocation.getLongitude(), 1e-9);
+        assertEquals(location.getTime(), fusedLocation.getTime());
     }
 
     @Test
     public void givenALocationIsNotBetterWhenTheLocationIsChangedThenTheLocationIsNotHandled() {
-        Location location = new Location(LocationManager.GPS_PROVIDER);
+        Location location = createLocation(LocationManager.GPS_PROVIDER, 1000);
 
-        when(locationUpdaterMock.isBetterThanCurrentLocation(location)).thenReturn(false);
+        when(locationUpdaterMock.isBetterThanCurrentLocation(any(Location.class))).thenReturn(false);
 
         groceryStoreLocationListener.onLocationChanged(location);
 
-        verify(locationUpdaterMock, times(0)).handleLocationUpdated(location);
+        verify(locationUpdaterMock, times(0)).handleLocationUpdated(any(Location.class));
+    }
+
+    @Test
+    public void givenAFixFromAnotherProviderWithTheSameTimeWhenTheLocationIsChangedThenItIsNotHandledAgain() {
+        when(locationUpdaterMock.isBetterThanCurrentLocation(any(Location.class))).thenReturn(true);
+
+        groceryStoreLocationListener.onLocationChanged(createLocation(LocationManager.GPS_PROVIDER, 1000));
+        groceryStoreLocationListener.onLocationChanged(createLocation(LocationManager.PASSIVE_PROVIDER, 1000));
+
+        verify(locationUpdaterMock, times(1)).handleLocationUpdated(any(Location.class));
+    }
+
+    @Test
+    public void givenFixesFromSeveralProvidersWhenTheyAreFusedThenTheCovarianceShrinks() {
+        LocationFusion locationFusion = new LocationFusion();
+
+        Location first = locationFusion.fuse(createLocation(LocationManager.NETWORK_PROVIDER, 1000));
+        Location second = locationFusion.fuse(createLocation(LocationManager.GPS_PROVIDER, 2000));
+
+        assertEquals(100, first.getExtras().getDouble(LocationFusion.EXTRA_NORTH_VARIANCE), 1e-9);
+        assertEquals(100, first.getExtras().getDouble(LocationFusion.EXTRA_EAST_VARIANCE), 1e-9);
+        assertTrue(second.getExtras().getDouble(LocationFusion.EXTRA_NORTH_VARIANCE) < 100);
+        assertTrue(second.getAccuracy() < first.getAccuracy());
     }
 }
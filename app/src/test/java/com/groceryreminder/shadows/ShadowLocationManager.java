@@ -7,24 +7,28 @@ import org.robolectric.annotation.Implementation;
 import org.robolectric.annotation.Implements;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 @Implements(LocationManager.class)
 public class ShadowLocationManager extends org.robolectric.shadows.ShadowLocationManager {
 
     List<ProximityAlert> proximityAlerts = new ArrayList<ProximityAlert>();
+    private int addedProximityAlertCount;
 
     @Implementation
     public void addProximityAlert(double latitude, double longitude,
                                   float radius, long expiration, PendingIntent intent) {
         proximityAlerts.add(new ProximityAlert(latitude, longitude, radius, expiration, intent));
+        addedProximityAlertCount++;
     }
 
     @Implementation
     public void removeProximityAlert(PendingIntent intent) {
-        for (ProximityAlert proximityAlert : proximityAlerts) {
-            if (proximityAlert.pendingIntent.equals(intent)) {
-                proximityAlerts.remove(proximityAlert);
+        Iterator<ProximityAlert> iterator = proximityAlerts.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().pendingIntent.equals(intent)) {
+                iterator.remove();
             }
         }
     }
@@ -33,6 +37,11 @@ public class ShadowLocationManager extends org.robolectric.shadows.ShadowLocatio
         return proximityAlerts;
     }
 
+    //Includes alerts that have since been removed
+    public int getAddedProximityAlertCount() {
+        return addedProximityAlertCount;
+    }
+
     public boolean hasProximityAlert(double latitude, double longitude) {
         if (getProximityAlert(latitude, longitude) != null) {
             return true;
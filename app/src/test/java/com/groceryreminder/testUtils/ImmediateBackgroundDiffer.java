@@ -0,0 +1,20 @@
+package com.groceryreminder.testUtils;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.groceryreminder.views.BackgroundDiffer;
+
+import java.util.concurrent.Executor;
+
+public class ImmediateBackgroundDiffer extends BackgroundDiffer {
+
+    public ImmediateBackgroundDiffer() {
+        super(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        }, new Handler(Looper.getMainLooper()));
+    }
+}
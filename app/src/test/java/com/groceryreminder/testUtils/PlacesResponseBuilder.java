@@ -0,0 +1,66 @@
+package com.groceryreminder.testUtils;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.List;
+
+import se.walkercrou.places.GooglePlacesInterface;
+import se.walkercrou.places.Place;
+
+public class PlacesResponseBuilder {
+
+    private JSONObject response;
+    private JSONArray results;
+
+    public PlacesResponseBuilder() {
+        this.response = new JSONObject();
+        this.results = new JSONArray();
+        withStatus(GooglePlacesInterface.STATUS_OK);
+    }
+
+    public PlacesResponseBuilder withStatus(String status) {
+        put(response, GooglePlacesInterface.STRING_STATUS, status);
+
+        return this;
+    }
+
+    public PlacesResponseBuilder withPlaces(List<Place> places) {
+        for (Place place : places) {
+            JSONObject location = new JSONObject();
+            put(location, GooglePlacesInterface.DOUBLE_LATITUDE, place.getLatitude());
+            put(location, GooglePlacesInterface.DOUBLE_LONGITUDE, place.getLongitude());
+            JSONObject geometry = new JSONObject();
+            put(geometry, GooglePlacesInterface.OBJECT_LOCATION, location);
+
+            JSONObject result = new JSONObject();
+            put(result, GooglePlacesInterface.STRING_PLACE_ID, place.getPlaceId());
+            put(result, GooglePlacesInterface.STRING_NAME, place.getName());
+            put(result, GooglePlacesInterface.OBJECT_GEOMETRY, geometry);
+            results.put(result);
+        }
+
+        return this;
+    }
+
+    public PlacesResponseBuilder withNextPageToken(String nextPageToken) {
+        put(response, GooglePlacesInterface.STRING_NEXT_PAGE_TOKEN, nextPageToken);
+
+        return this;
+    }
+
+    public String build() {
+        put(response, GooglePlacesInterface.ARRAY_RESULTS, results);
+
+        return response.toString();
+    }
+
+    private static void put(JSONObject json, String name, Object value) {
+        try {
+            json.put(name, value);
+        } catch (JSONException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
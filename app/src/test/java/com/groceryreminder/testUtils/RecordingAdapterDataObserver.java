@@ -0,0 +1,40 @@
+package com.groceryreminder.testUtils;
+
+import android.support.v7.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RecordingAdapterDataObserver extends RecyclerView.AdapterDataObserver {
+
+    private final List<String> notifications = new ArrayList<String>();
+
+    public List<String> getNotifications() {
+        return notifications;
+    }
+
+    @Override
+    public void onChanged() {
+        notifications.add("changed");
+    }
+
+    @Override
+    public void onItemRangeChanged(int positionStart, int itemCount) {
+        notifications.add("changed " + positionStart + " " + itemCount);
+    }
+
+    @Override
+    public void onItemRangeInserted(int positionStart, int itemCount) {
+        notifications.add("inserted " + positionStart + " " + itemCount);
+    }
+
+    @Override
+    public void onItemRangeRemoved(int positionStart, int itemCount) {
+        notifications.add("removed " + positionStart + " " + itemCount);
+    }
+
+    @Override
+    public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+        notifications.add("moved " + fromPosition + " " + toPosition);
+    }
+}
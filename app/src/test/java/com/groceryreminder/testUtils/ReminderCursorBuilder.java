@@ -0,0 +1,25 @@
+package com.groceryreminder.testUtils;
+
+import android.database.MatrixCursor;
+
+import com.groceryreminder.data.ReminderContract;
+import com.groceryreminder.models.Reminder;
+
+public class ReminderCursorBuilder {
+
+    private MatrixCursor cursor;
+
+    public ReminderCursorBuilder() {
+        this.cursor = new MatrixCursor(ReminderContract.Reminders.PROJECT_ALL);
+    }
+
+    public ReminderCursorBuilder withReminder(Reminder reminder) {
+        cursor.addRow(new Object[] {reminder.getId(), reminder.getText()});
+
+        return this;
+    }
+
+    public MatrixCursor build() {
+        return cursor;
+    }
+}
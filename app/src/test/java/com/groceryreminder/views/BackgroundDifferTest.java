@@ -0,0 +1,103 @@
+package com.groceryreminder.views;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.groceryreminder.BuildConfig;
+import com.groceryreminder.RobolectricTestBase;
+import com.groceryreminder.core.ListDiff;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class)
+public class BackgroundDifferTest extends RobolectricTestBase {
+
+    private List<Runnable> queuedDiffs;
+    private List<Integer> deliveredSizes;
+    private BackgroundDiffer differ;
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        queuedDiffs = new ArrayList<Runnable>();
+        deliveredSizes = new ArrayList<Integer>();
+        differ = new BackgroundDiffer(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                queuedDiffs.add(command);
+            }
+        }, new Handler(Looper.getMainLooper()));
+    }
+
+    private void submit(final int newSize) {
+        differ.submit(new ListDiff.Callback() {
+            @Override
+            public int getOldSize() {
+                return 0;
+            }
+
+            @Override
+            public int getNewSize() {
+                return newSize;
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldPosition, int newPosition) {
+                return false;
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldPosition, int newPosition) {
+                return false;
+            }
+
+            @Override
+            public Object getOldKey(int oldPosition) {
+                return new Object();
+            }
+
+            @Override
+            public Object getNewKey(int newPosition) {
+                return new Object();
+            }
+        }, new BackgroundDiffer.OnDiffCalculatedListener() {
+            @Override
+            public void onDiffCalculated(ListDiff diff) {
+                deliveredSizes.add(diff.getNewSize());
+            }
+        });
+    }
+
+    @Test
+    public void givenASubmittedDiffWhenItIsCalculatedThenItIsDelivered() {
+        submit(2);
+
+        queuedDiffs.get(0).run();
+
+        assertEquals(1, deliveredSizes.size());
+        assertEquals(2, (int) deliveredSizes.get(0));
+    }
+
+    @Test
+    public void givenANewerSubmissionWhenTheOlderDiffFinishesThenOnlyTheNewerOneIsDelivered() {
+        submit(1);
+        submit(3);
+
+        queuedDiffs.get(1).run();
+        queuedDiffs.get(0).run();
+
+        assertEquals(1, deliveredSizes.size());
+        assertEquals(3, (int) deliveredSizes.get(0));
+    }
+}
@@ -7,6 +7,7 @@ import com.groceryreminder.BuildConfig;
 import com.groceryreminder.R;
 import com.groceryreminder.RobolectricTestBase;
 import com.groceryreminder.models.Reminder;
+import com.groceryreminder.testUtils.ReminderCursorBuilder;
 
 import org.junit.After;
 import org.junit.Before;
@@ -17,9 +18,6 @@ import org.robolectric.RobolectricGradleTestRunner;
 import org.robolectric.annotation.Config;
 import org.robolectric.util.ActivityController;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import static junit.framework.Assert.assertNotNull;
 import static org.junit.Assert.assertEquals;
 
@@ -45,10 +43,9 @@ public class ReminderListFragmentTest extends RobolectricTestBase {
     @Test
     public void givenRemindersWhenTheFragmentIsCreatedThenTheViewShouldBePopulated() {
         Reminder reminder = new Reminder(0, "test");
-        List<Reminder> reminders = new ArrayList<Reminder>();
-        reminders.add(reminder);
 
-        ReminderListFragment reminderListFragment = ReminderListFragment.newInstance(reminders);
+        ReminderListFragment reminderListFragment = ReminderListFragment.newInstance();
+        reminderListFragment.swapCursor(new ReminderCursorBuilder().withReminder(reminder).build());
         startFragment(activity, reminderListFragment);
 
         RecyclerView reminderRecyclerView = getRecyclerView(reminderListFragment, R.id.reminders_recycler_view);
@@ -60,8 +57,7 @@ public class ReminderListFragmentTest extends RobolectricTestBase {
 
     @Test
     public void whenTheFragmentIsAttachedThenTheOnAddReminderRequestListenerShouldBeSet() {
-        List<Reminder> reminders = new ArrayList<Reminder>();
-        ReminderListFragment reminderListFragment = ReminderListFragment.newInstance(reminders);
+        ReminderListFragment reminderListFragment = ReminderListFragment.newInstance();
         startFragment(activity, reminderListFragment);
 
         reminderListFragment.onAttach(activity);
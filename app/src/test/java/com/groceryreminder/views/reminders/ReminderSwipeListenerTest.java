@@ -5,6 +5,7 @@ import android.support.v7.widget.RecyclerView;
 import com.groceryreminder.BuildConfig;
 import com.groceryreminder.RobolectricTestBase;
 import com.groceryreminder.models.Reminder;
+import com.groceryreminder.testUtils.RecordingAdapterDataObserver;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -17,6 +18,7 @@ import org.robolectric.annotation.Config;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
@@ -43,7 +45,7 @@ public class ReminderSwipeListenerTest extends RobolectricTestBase {
 
     @Test
     public void givenAReminderWhenTheReminderIsSwipedLeftThenItIsDismissed() {
-        ReminderSwipeListener swipeListener = new ReminderSwipeListener(defaultReminders, adapter);
+        ReminderSwipeListener swipeListener = new ReminderSwipeListener(adapter);
 
         swipeListener.onDismissedBySwipeLeft(recyclerView, new int[] {0});
 
@@ -52,7 +54,7 @@ public class ReminderSwipeListenerTest extends RobolectricTestBase {
 
     @Test
     public void givenAReminderWhenTheReminderIsSwipedLeftThenListenersAreNotifiedThatItHasBeenRemoved() {
-        ReminderSwipeListener swipeListener = new ReminderSwipeListener(defaultReminders, adapterSpy);
+        ReminderSwipeListener swipeListener = new ReminderSwipeListener(adapterSpy);
 
         swipeListener.onDismissedBySwipeLeft(recyclerView, new int[] {0});
 
@@ -60,17 +62,20 @@ public class ReminderSwipeListenerTest extends RobolectricTestBase {
     }
 
     @Test
-    public void givenAReminderWhenTheReminderIsSwipedLeftThenListenersAreNotifiedOfDatasetChange() {
-        ReminderSwipeListener swipeListener = new ReminderSwipeListener(defaultReminders, adapterSpy);
+    public void givenAReminderWhenTheReminderIsSwipedLeftThenOnlyItsRowIsNotified() {
+        ReminderSwipeListener swipeListener = new ReminderSwipeListener(adapter);
+        RecordingAdapterDataObserver observer = new RecordingAdapterDataObserver();
+        adapter.registerAdapterDataObserver(observer);
 
         swipeListener.onDismissedBySwipeLeft(recyclerView, new int[] {0});
 
-        verify(adapterSpy).notifyDataSetChanged();
+        assertEquals(1, observer.getNotifications().size());
+        assertEquals("removed 0 1", observer.getNotifications().get(0));
     }
 
     @Test
     public void givenAReminderWhenTheReminderIsSwipedRightThenItIsDismissed() {
-        ReminderSwipeListener swipeListener = new ReminderSwipeListener(defaultReminders, adapter);
+        ReminderSwipeListener swipeListener = new ReminderSwipeListener(adapter);
 
         swipeListener.onDismissedBySwipeRight(recyclerView, new int[]{0});
 
@@ -79,7 +84,7 @@ public class ReminderSwipeListenerTest extends RobolectricTestBase {
 
     @Test
     public void givenAReminderWhenTheReminderIsSwipedRightThenListenersAreNotifiedThatItHasBeenRemoved() {
-        ReminderSwipeListener swipeListener = new ReminderSwipeListener(defaultReminders, adapterSpy);
+        ReminderSwipeListener swipeListener = new ReminderSwipeListener(adapterSpy);
 
         swipeListener.onDismissedBySwipeRight(recyclerView, new int[] {0});
 
@@ -87,12 +92,15 @@ public class ReminderSwipeListenerTest extends RobolectricTestBase {
     }
 
     @Test
-    public void givenAReminderWhenTheReminderIsSwipedRightThenListenersAreNotifiedOfDatasetChange() {
-        ReminderSwipeListener swipeListener = new ReminderSwipeListener(defaultReminders, adapterSpy);
+    public void givenAReminderWhenTheReminderIsSwipedRightThenOnlyItsRowIsNotified() {
+        ReminderSwipeListener swipeListener = new ReminderSwipeListener(adapter);
+        RecordingAdapterDataObserver observer = new RecordingAdapterDataObserver();
+        adapter.registerAdapterDataObserver(observer);
 
         swipeListener.onDismissedBySwipeRight(recyclerView, new int[] {0});
 
-        verify(adapterSpy).notifyDataSetChanged();
+        assertEquals(1, observer.getNotifications().size());
+        assertEquals("removed 0 1", observer.getNotifications().get(0));
     }
 
     private List<Reminder> getDefaultReminderList() {
@@ -17,6 +17,7 @@ import com.groceryreminder.data.ReminderContract;
 import com.groceryreminder.domain.GroceryReminderConstants;
 import com.groceryreminder.models.Reminder;
 import com.groceryreminder.services.GroceryLocatorService;
+import com.groceryreminder.testUtils.ReminderCursorBuilder;
 import com.groceryreminder.views.stores.GroceryStoresActivity;
 import com.melnykov.fab.FloatingActionButton;
 
@@ -29,7 +30,6 @@ import org.robolectric.RobolectricGradleTestRunner;
 import org.robolectric.Shadows;
 import org.robolectric.annotation.Config;
 import org.robolectric.shadows.ShadowActivity;
-import org.robolectric.shadows.ShadowCursorWrapper;
 import org.robolectric.shadows.ShadowIntent;
 import org.robolectric.util.ActivityController;
 
@@ -39,8 +39,6 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
 
 @RunWith(RobolectricGradleTestRunner.class)
 @Config(constants = BuildConfig.class)
@@ -82,14 +80,10 @@ public class RemindersActivityTest extends RobolectricTestBase {
 
     private void loadReminderListFragment() {
         Reminder reminder = new Reminder(0, "test");
-        Cursor mockCursor = mock(Cursor.class);
-        when(mockCursor.moveToNext()).thenReturn(true).thenReturn(false);
-        when(mockCursor.getString(1)).thenReturn(reminder.getText());
-        ShadowCursorWrapper wrapper = new ShadowCursorWrapper();
-        wrapper.__constructor__(mockCursor);
+        Cursor cursor = new ReminderCursorBuilder().withReminder(reminder).build();
 
         CursorLoader cursorLoader = (CursorLoader)activity.onCreateLoader(0, null);
-        activity.onLoadFinished(cursorLoader, wrapper);
+        activity.onLoadFinished(cursorLoader, cursor);
     }
 
     @Test
@@ -190,15 +184,10 @@ public class RemindersActivityTest extends RobolectricTestBase {
     @Test
     public void whenTheLoaderIsFinishedThenTheRemindersListIsUpdated() {
         Reminder reminder = new Reminder(0, "test");
-        Cursor mockCursor = mock(Cursor.class);
-        when(mockCursor.moveToNext()).thenReturn(true).thenReturn(false);
-        when(mockCursor.getLong(0)).thenReturn(reminder.getId());
-        when(mockCursor.getString(1)).thenReturn(reminder.getText());
-        ShadowCursorWrapper wrapper = new ShadowCursorWrapper();
-        wrapper.__constructor__(mockCursor);
+        Cursor cursor = new ReminderCursorBuilder().withReminder(reminder).build();
 
         CursorLoader cursorLoader = (CursorLoader)activity.onCreateLoader(0, null);
-        activity.onLoadFinished(cursorLoader, wrapper);
+        activity.onLoadFinished(cursorLoader, cursor);
         ReminderListFragment reminderListFragment = getReminderListFragment();
         assertNotNull(reminderListFragment);
 
@@ -226,15 +215,10 @@ public class RemindersActivityTest extends RobolectricTestBase {
     public void givenTheLoaderIsFinishedWhenTheShareButtonIsPressedThenTheLoadedListOfRemindersIsShared() {
         Reminder reminder = new Reminder(0, "test");
         Reminder reminder2 = new Reminder(0, "test2");
-        Cursor mockCursor = mock(Cursor.class);
-        when(mockCursor.moveToNext()).thenReturn(true).thenReturn(true).thenReturn(false);
-        when(mockCursor.getLong(0)).thenReturn(reminder.getId()).thenReturn(reminder2.getId());
-        when(mockCursor.getString(1)).thenReturn(reminder.getText()).thenReturn(reminder2.getText());
-        ShadowCursorWrapper wrapper = new ShadowCursorWrapper();
-        wrapper.__constructor__(mockCursor);
+        Cursor cursor = new ReminderCursorBuilder().withReminder(reminder).withReminder(reminder2).build();
 
         CursorLoader cursorLoader = (CursorLoader)activity.onCreateLoader(0, null);
-        activity.onLoadFinished(cursorLoader, wrapper);
+        activity.onLoadFinished(cursorLoader, cursor);
 
         ShadowActivity shadowActivity = Shadows.shadowOf(activity);
         shadowActivity.clickMenuItem(R.id.action_share);
@@ -0,0 +1,214 @@
+package com.groceryreminder.views.reminders;
+
+import android.database.Cursor;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.widget.TextView;
+
+import com.groceryreminder.BuildConfig;
+import com.groceryreminder.R;
+import com.groceryreminder.RobolectricTestBase;
+import com.groceryreminder.models.Reminder;
+import com.groceryreminder.testUtils.RecordingAdapterDataObserver;
+import com.groceryreminder.testUtils.ReminderCursorBuilder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.util.ActivityController;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class)
+public class RemindersCursorRecyclerViewAdapterTest extends RobolectricTestBase {
+
+    private ActivityController<RemindersActivity> activityController;
+    private RemindersActivity activity;
+    private OnReminderDataChangeListener onReminderDataChangeListenerMock;
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        activityController = Robolectric.buildActivity(RemindersActivity.class);
+        activity = activityController.create().start().get();
+        onReminderDataChangeListenerMock = mock(OnReminderDataChangeListener.class);
+    }
+
+    @After
+    public void tearDown() {
+        activityController.pause().stop().destroy();
+    }
+
+    private RecyclerView getRecyclerView() {
+        RecyclerView viewGroup = (RecyclerView)activity.findViewById(R.id.reminders_recycler_view);
+        viewGroup.setLayoutManager(new LinearLayoutManager(activity));
+
+        return viewGroup;
+    }
+
+    private Cursor createCursor() {
+        return new ReminderCursorBuilder()
+                .withReminder(new Reminder(1, "apples"))
+                .withReminder(new Reminder(2, "bananas"))
+                .withReminder(new Reminder(3, "carrots"))
+                .build();
+    }
+
+    private Cursor diffed(Cursor cursor, ReminderRows baseRows) {
+        ReminderRows rows = ReminderRows.read(cursor);
+
+        return new ReminderCursorLoader.DiffedCursor(cursor, baseRows, rows, baseRows.diff(rows));
+    }
+
+    private String bindText(RemindersCursorRecyclerViewAdapter adapter, int position) {
+        ReminderListViewHolder viewHolder = adapter.onCreateViewHolder(getRecyclerView(), -1);
+        adapter.onBindViewHolder(viewHolder, position);
+
+        return ((TextView)viewHolder.itemView.findViewById(R.id.reminders_text_view)).getText().toString();
+    }
+
+    @Test
+    public void givenNoCursorWhenTheAdapterIsCreatedThenThereAreNoItems() {
+        RemindersCursorRecyclerViewAdapter adapter = new RemindersCursorRecyclerViewAdapter(null, onReminderDataChangeListenerMock);
+
+        assertEquals(0, adapter.getItemCount());
+    }
+
+    @Test
+    public void givenACursorWhenAViewHolderIsBoundThenTheRowAtThatPositionIsShown() {
+        RemindersCursorRecyclerViewAdapter adapter = new RemindersCursorRecyclerViewAdapter(createCursor(), onReminderDataChangeListenerMock);
+
+        assertEquals(3, adapter.getItemCount());
+        assertEquals("bananas", bindText(adapter, 1));
+    }
+
+    @Test
+    public void whenTheCursorIsSwappedThenTheOldCursorIsReturnedAndObserversAreNotified() {
+        Cursor oldCursor = createCursor();
+        RemindersCursorRecyclerViewAdapter adapter = new RemindersCursorRecyclerViewAdapter(oldCursor, onReminderDataChangeListenerMock);
+        RecordingAdapterDataObserver observer = new RecordingAdapterDataObserver();
+        adapter.registerAdapterDataObserver(observer);
+        Cursor newCursor = new ReminderCursorBuilder().withReminder(new Reminder(4, "dates")).build();
+
+        assertSame(oldCursor, adapter.swapCursor(newCursor));
+        assertNull(adapter.swapCursor(newCursor));
+
+        assertEquals(1, observer.getNotifications().size());
+        assertEquals("changed", observer.getNotifications().get(0));
+        assertEquals(1, adapter.getItemCount());
+        assertEquals("dates", bindText(adapter, 0));
+    }
+
+    @Test
+    public void givenADiffedCursorFromTheShownRowsWhenItIsSwappedInThenOnlyTheChangedRowsAreNotified() {
+        Cursor oldCursor = diffed(createCursor(), ReminderRows.EMPTY);
+        RemindersCursorRecyclerViewAdapter adapter = new RemindersCursorRecyclerViewAdapter(oldCursor, onReminderDataChangeListenerMock);
+        RecordingAdapterDataObserver observer = new RecordingAdapterDataObserver();
+        adapter.registerAdapterDataObserver(observer);
+        Cursor newCursor = diffed(new ReminderCursorBuilder()
+                .withReminder(new Reminder(1, "apples"))
+                .withReminder(new Reminder(3, "carrots"))
+                .withReminder(new Reminder(4, "dates"))
+                .build(), ((ReminderCursorLoader.DiffedCursor) oldCursor).getRows());
+
+        adapter.swapCursor(newCursor);
+
+        assertEquals(2, observer.getNotifications().size());
+        assertEquals("removed 1 1", observer.getNotifications().get(0));
+        assertEquals("inserted 2 1", observer.getNotifications().get(1));
+        assertEquals(4, adapter.getItemId(2));
+    }
+
+    @Test
+    public void givenADescriptionEditedToOneWithTheSameHashCodeWhenTheDiffedCursorArrivesThenTheRowIsChanged() {
+        Cursor oldCursor = diffed(new ReminderCursorBuilder().withReminder(new Reminder(1, "Aa")).build(), ReminderRows.EMPTY);
+        RemindersCursorRecyclerViewAdapter adapter = new RemindersCursorRecyclerViewAdapter(oldCursor, onReminderDataChangeListenerMock);
+        RecordingAdapterDataObserver observer = new RecordingAdapterDataObserver();
+        adapter.registerAdapterDataObserver(observer);
+        Cursor newCursor = diffed(new ReminderCursorBuilder().withReminder(new Reminder(1, "BB")).build(),
+                ((ReminderCursorLoader.DiffedCursor) oldCursor).getRows());
+
+        adapter.swapCursor(newCursor);
+
+        assertEquals(1, observer.getNotifications().size());
+        assertEquals("changed 0 1", observer.getNotifications().get(0));
+    }
+
+    @Test
+    public void givenDismissedRemindersWhenADiffedCursorDropsThemAndAddsARowThenOnlyTheInsertIsNotified() {
+        Cursor oldCursor = diffed(new ReminderCursorBuilder()
+                .withReminder(new Reminder(1, "apples"))
+                .withReminder(new Reminder(2, "bananas"))
+                .withReminder(new Reminder(3, "carrots"))
+                .withReminder(new Reminder(4, "dates"))
+                .build(), ReminderRows.EMPTY);
+        RemindersCursorRecyclerViewAdapter adapter = new RemindersCursorRecyclerViewAdapter(oldCursor, onReminderDataChangeListenerMock);
+        adapter.removeReminders(new int[] {2, 0});
+        RecordingAdapterDataObserver observer = new RecordingAdapterDataObserver();
+        adapter.registerAdapterDataObserver(observer);
+        Cursor newCursor = diffed(new ReminderCursorBuilder()
+                .withReminder(new Reminder(2, "bananas"))
+                .withReminder(new Reminder(4, "dates"))
+                .withReminder(new Reminder(5, "eggs"))
+                .build(), ((ReminderCursorLoader.DiffedCursor) oldCursor).getRows());
+
+        adapter.swapCursor(newCursor);
+
+        assertEquals(1, observer.getNotifications().size());
+        assertEquals("inserted 2 1", observer.getNotifications().get(0));
+        assertEquals(3, adapter.getItemCount());
+        assertEquals("eggs", bindText(adapter, 2));
+    }
+
+    @Test
+    public void givenADismissedReminderWhenTheDiffedCursorWithoutItArrivesThenItIsNotRemovedTwice() {
+        Cursor oldCursor = diffed(createCursor(), ReminderRows.EMPTY);
+        RemindersCursorRecyclerViewAdapter adapter = new RemindersCursorRecyclerViewAdapter(oldCursor, onReminderDataChangeListenerMock);
+        adapter.removeReminders(new int[] {1});
+        RecordingAdapterDataObserver observer = new RecordingAdapterDataObserver();
+        adapter.registerAdapterDataObserver(observer);
+        Cursor newCursor = diffed(new ReminderCursorBuilder()
+                .withReminder(new Reminder(1, "apples"))
+                .withReminder(new Reminder(3, "carrots"))
+                .build(), ((ReminderCursorLoader.DiffedCursor) oldCursor).getRows());
+
+        adapter.swapCursor(newCursor);
+
+        assertEquals(0, observer.getNotifications().size());
+        assertEquals(2, adapter.getItemCount());
+        assertEquals("carrots", bindText(adapter, 1));
+    }
+
+    @Test
+    public void whenAReminderIsRemovedThenItIsDeletedAndHiddenUntilTheNextCursor() {
+        RemindersCursorRecyclerViewAdapter adapter = new RemindersCursorRecyclerViewAdapter(createCursor(), onReminderDataChangeListenerMock);
+
+        adapter.removeReminders(new int[] {1});
+
+        verify(onReminderDataChangeListenerMock).removeReminder(new Reminder(2, "bananas"));
+        assertEquals(2, adapter.getItemCount());
+        assertEquals("apples", bindText(adapter, 0));
+        assertEquals("carrots", bindText(adapter, 1));
+    }
+
+    @Test
+    public void givenAReminderWasRemovedWhenAnotherIsRemovedThenTheRemainingPositionsAreUsed() {
+        RemindersCursorRecyclerViewAdapter adapter = new RemindersCursorRecyclerViewAdapter(createCursor(), onReminderDataChangeListenerMock);
+
+        adapter.removeReminders(new int[] {0});
+        adapter.removeReminders(new int[] {1});
+
+        verify(onReminderDataChangeListenerMock).removeReminder(new Reminder(3, "carrots"));
+        assertEquals(1, adapter.getItemCount());
+        assertEquals("bananas", bindText(adapter, 0));
+    }
+}
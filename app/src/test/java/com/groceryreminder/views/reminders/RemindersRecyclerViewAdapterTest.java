@@ -11,6 +11,8 @@ import com.groceryreminder.BuildConfig;
 import com.groceryreminder.R;
 import com.groceryreminder.data.ReminderContract;
 import com.groceryreminder.models.Reminder;
+import com.groceryreminder.testUtils.ImmediateBackgroundDiffer;
+import com.groceryreminder.testUtils.RecordingAdapterDataObserver;
 import com.groceryreminder.testUtils.ReminderValuesBuilder;
 
 import org.junit.After;
@@ -27,8 +29,6 @@ import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
-import static org.mockito.Mockito.spy;
-import static org.mockito.Mockito.verify;
 
 @RunWith(RobolectricGradleTestRunner.class)
 @Config(constants = BuildConfig.class)
@@ -52,7 +52,7 @@ public class RemindersRecyclerViewAdapterTest {
     }
 
     private RemindersRecyclerViewAdapter createAdapter(List<Reminder> reminders) {
-        return new RemindersRecyclerViewAdapter(reminders, activity);
+        return new RemindersRecyclerViewAdapter(reminders, activity, new ImmediateBackgroundDiffer());
     }
 
     private RecyclerView getRecyclerView() {
@@ -118,15 +118,38 @@ public class RemindersRecyclerViewAdapterTest {
         Reminder reminder = new Reminder(0, ARBITRARY_REMINDER_TEXT);
         reminders.add(reminder);
         RemindersRecyclerViewAdapter adapter = createAdapter(reminders);
+        RecordingAdapterDataObserver observer = new RecordingAdapterDataObserver();
+        adapter.registerAdapterDataObserver(observer);
 
         List<Reminder> updatedReminders = new ArrayList<Reminder>();
         Reminder updatedReminder = new Reminder(0, ARBITRARY_REMINDER_TEXT + 1);
         updatedReminders.add(updatedReminder);
 
-        RemindersRecyclerViewAdapter adapterSpy = spy(adapter);
-        adapterSpy.setReminders(updatedReminders);
+        adapter.setReminders(updatedReminders);
+
+        assertEquals(1, observer.getNotifications().size());
+        assertEquals("changed 0 1", observer.getNotifications().get(0));
+    }
+
+    @Test
+    public void givenRemindersWhenOneIsAddedAndAnotherRemovedThenOnlyThoseRowsAreNotified() {
+        reminders.add(new Reminder(0, ARBITRARY_REMINDER_TEXT));
+        reminders.add(new Reminder(1, ARBITRARY_REMINDER_TEXT + 1));
+        reminders.add(new Reminder(2, ARBITRARY_REMINDER_TEXT + 2));
+        RemindersRecyclerViewAdapter adapter = createAdapter(reminders);
+        RecordingAdapterDataObserver observer = new RecordingAdapterDataObserver();
+        adapter.registerAdapterDataObserver(observer);
+
+        List<Reminder> updatedReminders = new ArrayList<Reminder>();
+        updatedReminders.add(new Reminder(0, ARBITRARY_REMINDER_TEXT));
+        updatedReminders.add(new Reminder(2, ARBITRARY_REMINDER_TEXT + 2));
+        updatedReminders.add(new Reminder(3, ARBITRARY_REMINDER_TEXT + 3));
+        adapter.setReminders(updatedReminders);
 
-        verify(adapterSpy).notifyDataSetChanged();
+        assertEquals(2, observer.getNotifications().size());
+        assertEquals("removed 1 1", observer.getNotifications().get(0));
+        assertEquals("inserted 2 1", observer.getNotifications().get(1));
+        assertEquals(3, adapter.getItemId(2));
     }
 
     @Test
@@ -7,7 +7,10 @@ import android.widget.TextView;
 import com.groceryreminder.BuildConfig;
 import com.groceryreminder.R;
 import com.groceryreminder.RobolectricTestBase;
-import com.groceryreminder.models.GroceryStore;
+import com.groceryreminder.data.StoreEntry;
+import com.groceryreminder.data.StoreRanking;
+import com.groceryreminder.data.StoreSnapshot;
+import com.groceryreminder.testUtils.ImmediateBackgroundDiffer;
 
 import org.junit.After;
 import org.junit.Before;
@@ -42,42 +45,41 @@ public class GroceryStoreListFragmentTest extends RobolectricTestBase {
         activityController.pause().stop().destroy();
     }
 
+    private StoreRanking createRanking(String storeName) {
+        List<StoreEntry> entries = new ArrayList<StoreEntry>();
+        entries.add(new StoreEntry(1, storeName, storeName, 0.0, 0.0));
+
+        return StoreRanking.unranked(StoreSnapshot.build(entries));
+    }
+
     @Test
     public void givenGroceryStoresWhenTheFragmentIsCreatedThenTheViewShouldBePopulated() {
-        List<GroceryStore> stores = new ArrayList<GroceryStore>();
-        GroceryStore groceryStore = new GroceryStore("test", 0.0, 0.0, 0.0);
-        stores.add(groceryStore);
-
-        GroceryStoreListFragment groceryStoreListFragment = GroceryStoreListFragment.newInstance(stores);
+        GroceryStoreListFragment groceryStoreListFragment = GroceryStoreListFragment.newInstance();
+        groceryStoreListFragment.setDiffer(new ImmediateBackgroundDiffer());
+        groceryStoreListFragment.setStores(createRanking("test"));
         startFragment(activity, groceryStoreListFragment);
 
         RecyclerView groceryStoreRecyclerView = getRecyclerView(groceryStoreListFragment, R.id.stores_recycler_view);
         GroceryStoreListViewHolder groceryStoreListViewHolder = (GroceryStoreListViewHolder)groceryStoreRecyclerView.findViewHolderForPosition(0);
 
         TextView reminderText = (TextView)groceryStoreListViewHolder.itemView.findViewById(R.id.stores_text_view);
-        assertEquals(groceryStore.getName(), reminderText.getText());
+        assertEquals("test", reminderText.getText());
     }
 
     @Test
     public void givenGroceryStoresWhenFragmentSetsStoresThenTheViewShouldBeUpdated() {
-        List<GroceryStore> stores = new ArrayList<GroceryStore>();
-        GroceryStore groceryStore = new GroceryStore("test", 0.0, 0.0, 0.0);
-        stores.add(groceryStore);
-
-        GroceryStoreListFragment groceryStoreListFragment = GroceryStoreListFragment.newInstance(stores);
+        GroceryStoreListFragment groceryStoreListFragment = GroceryStoreListFragment.newInstance();
+        groceryStoreListFragment.setDiffer(new ImmediateBackgroundDiffer());
+        groceryStoreListFragment.setStores(createRanking("test"));
         startFragment(activity, groceryStoreListFragment);
 
-        List<GroceryStore> updatedStores = new ArrayList<GroceryStore>();
-        GroceryStore updatedStore = new GroceryStore("update", 0.0, 0.0, 0.0);
-        updatedStores.add(updatedStore);
-
-        groceryStoreListFragment.setStores(updatedStores);
+        groceryStoreListFragment.setStores(createRanking("update"));
 
         RecyclerView groceryStoreRecyclerView = getRecyclerView(groceryStoreListFragment, R.id.stores_recycler_view);
         GroceryStoreListViewHolder groceryStoreListViewHolder = (GroceryStoreListViewHolder)groceryStoreRecyclerView.findViewHolderForPosition(0);
 
         TextView reminderText = (TextView)groceryStoreListViewHolder.itemView.findViewById(R.id.stores_text_view);
         assertEquals(View.VISIBLE, reminderText.getVisibility());
-        assertEquals(updatedStore.getName(), reminderText.getText());
+        assertEquals("update", reminderText.getText());
     }
 }
@@ -23,8 +23,6 @@ import org.robolectric.annotation.Config;
 import org.robolectric.shadows.ShadowActivity;
 import org.robolectric.shadows.ShadowIntent;
 
-import java.util.List;
-
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -34,7 +32,6 @@ public class GroceryStoreListViewHolderTest extends RobolectricTestBase {
 
     private static final String ARBITRARY_STORE_NAME = "test";
     private FragmentActivity activity;
-    private List<GroceryStore> stores;
 
     @Before
     public void setUp() {
@@ -43,7 +40,7 @@ public class GroceryStoreListViewHolderTest extends RobolectricTestBase {
         activity = Robolectric.buildActivity(FragmentActivity.class).create().start().get();
         activity.setContentView(R.layout.grocery_stores_activity);
         activity.getSupportFragmentManager().beginTransaction()
-                .add(R.id.stores_fragment_container, GroceryStoreListFragment.newInstance(stores), "tag")
+                .add(R.id.stores_fragment_container, GroceryStoreListFragment.newInstance(), "tag")
                 .commit();
     }
 
@@ -9,6 +9,8 @@ import com.groceryreminder.BuildConfig;
 import com.groceryreminder.R;
 import com.groceryreminder.RobolectricTestBase;
 import com.groceryreminder.models.GroceryStore;
+import com.groceryreminder.testUtils.ImmediateBackgroundDiffer;
+import com.groceryreminder.testUtils.RecordingAdapterDataObserver;
 
 import org.junit.After;
 import org.junit.Before;
@@ -25,8 +27,6 @@ import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
-import static org.mockito.Mockito.spy;
-import static org.mockito.Mockito.verify;
 
 @RunWith(RobolectricGradleTestRunner.class)
 @Config(constants = BuildConfig.class)
@@ -47,7 +47,7 @@ public class GroceryStoresRecyclerViewAdapterTest extends RobolectricTestBase {
         activity.setContentView(R.layout.grocery_stores_activity);
         //TODO This should be removed once the activity is completed test-drove with CursorLoader.
         activity.getSupportFragmentManager().beginTransaction()
-                .add(R.id.stores_fragment_container, GroceryStoreListFragment.newInstance(stores), "tag")
+                .add(R.id.stores_fragment_container, GroceryStoreListFragment.newInstance(), "tag")
                 .commit();
     }
 
@@ -75,10 +75,30 @@ public class GroceryStoresRecyclerViewAdapterTest extends RobolectricTestBase {
         GroceryStore updatedStore1 = new GroceryStore(ARBITRARY_STORE_NAME + 1, 0.0, 0.0, 0.0);
         updatedStores.add(updatedStore1);
 
-        GroceryStoresRecyclerViewAdapter adapterSpy = spy(adapter);
-        adapterSpy.setStores(updatedStores);
+        RecordingAdapterDataObserver observer = new RecordingAdapterDataObserver();
+        adapter.registerAdapterDataObserver(observer);
+        adapter.setStores(updatedStores);
+
+        assertEquals(2, observer.getNotifications().size());
+        assertEquals("removed 0 1", observer.getNotifications().get(0));
+        assertEquals("inserted 0 1", observer.getNotifications().get(1));
+    }
+
+    @Test
+    public void givenAStoreWhenOnlyItsDistanceChangesThenItIsNotifiedAsChanged() {
+        stores.add(new GroceryStore(ARBITRARY_STORE_NAME, 1.0, 0.0, 0.0));
+        GroceryStoresRecyclerViewAdapter adapter = createAdapter(stores);
+        long itemId = adapter.getItemId(0);
+        RecordingAdapterDataObserver observer = new RecordingAdapterDataObserver();
+        adapter.registerAdapterDataObserver(observer);
+
+        List<GroceryStore> updatedStores = new ArrayList<GroceryStore>();
+        updatedStores.add(new GroceryStore(ARBITRARY_STORE_NAME, 2.0, 0.0, 0.0));
+        adapter.setStores(updatedStores);
 
-        verify(adapterSpy).notifyDataSetChanged();
+        assertEquals(1, observer.getNotifications().size());
+        assertEquals("changed 0 1", observer.getNotifications().get(0));
+        assertEquals(itemId, adapter.getItemId(0));
     }
 
     @Test
@@ -141,7 +161,7 @@ public class GroceryStoresRecyclerViewAdapterTest extends RobolectricTestBase {
     }
 
     private GroceryStoresRecyclerViewAdapter createAdapter(List<GroceryStore> groceryStores) {
-        return new GroceryStoresRecyclerViewAdapter(groceryStores);
+        return new GroceryStoresRecyclerViewAdapter(groceryStores, new ImmediateBackgroundDiffer());
     }
 
     private RecyclerView getRecyclerView() {
@@ -0,0 +1,62 @@
+package com.groceryreminder.data;
+
+import android.database.Cursor;
+import android.net.Uri;
+
+import com.groceryreminder.BuildConfig;
+import com.groceryreminder.RobolectricTestBase;
+import com.groceryreminder.testUtils.ReminderValuesBuilder;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class)
+public class MetricsContentProviderTest extends RobolectricTestBase {
+
+    private MetricsContentProvider provider;
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        provider = new MetricsContentProvider();
+        provider.onCreate();
+    }
+
+    @Test
+    public void givenAReminderWasInsertedWhenMetricsAreQueriedThenTheInsertLatencyIsReported() {
+        ReminderContentProvider reminderProvider = new ReminderContentProvider();
+        reminderProvider.onCreate();
+        reminderProvider.insert(ReminderContract.Reminders.CONTENT_URI, new ReminderValuesBuilder().createDefaultReminderValues().build());
+
+        Cursor cursor = provider.query(ReminderContract.Metrics.CONTENT_URI, ReminderContract.Metrics.PROJECT_ALL, null, null, null);
+
+        boolean found = false;
+        while (cursor.moveToNext()) {
+            if ("reminders_provider.insert".equals(cursor.getString(cursor.getColumnIndex(ReminderContract.Metrics.NAME)))) {
+                found = true;
+                assertEquals(ReminderContract.Metrics.TYPE_HISTOGRAM, cursor.getString(cursor.getColumnIndex(ReminderContract.Metrics.TYPE)));
+                assertTrue(cursor.getLong(cursor.getColumnIndex(ReminderContract.Metrics.COUNT)) > 0);
+            }
+        }
+        assertTrue(found);
+
+        cursor.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenAnUnknownUriWhenItIsQueriedThenItIsRejected() {
+        provider.query(Uri.withAppendedPath(ReminderContract.METRICS_CONTENT_URI, "unknown"), null, null, null, null);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void whenMetricsAreDeletedThenItIsRejected() {
+        provider.delete(ReminderContract.Metrics.CONTENT_URI, null, null);
+    }
+}
@@ -0,0 +1,49 @@
+package com.groceryreminder.benchmarks;
+
+import com.groceryreminder.core.GeoDistance;
+import com.groceryreminder.data.StoreEntry;
+import com.groceryreminder.models.GroceryStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+final class StoreFixtures {
+
+    static final double ORIGIN_LATITUDE = 42.3601;
+    static final double ORIGIN_LONGITUDE = -71.0589;
+
+    private static final long SEED = 42;
+    //About twice the search radius, so roughly a quarter of the stores fall inside it
+    private static final double SPREAD_DEGREES = 0.15;
+    //Chains repeat a handful of names across most of their stores
+    private static final String[] CHAIN_NAMES = {"Kroger", "Giant Eagle", "Whole Foods", "Trader Joe's", "Aldi"};
+
+    private StoreFixtures() {
+    }
+
+    static List<StoreEntry> storeEntries(int storeCount) {
+        Random random = new Random(SEED);
+        List<StoreEntry> entries = new ArrayList<StoreEntry>(storeCount);
+        for (int i = 0; i < storeCount; i++) {
+            String name = i % 4 == 0 ? "store " + i : CHAIN_NAMES[i % CHAIN_NAMES.length];
+            entries.add(new StoreEntry(i + 1, "places_id_" + i, name,
+                    ORIGIN_LATITUDE + (random.nextDouble() - 0.5) * SPREAD_DEGREES,
+                    ORIGIN_LONGITUDE + (random.nextDouble() - 0.5) * SPREAD_DEGREES));
+        }
+
+        return entries;
+    }
+
+    //The stores as the app's list shows them, each carrying its distance from the origin
+    static List<GroceryStore> groceryStores(int storeCount) {
+        List<StoreEntry> entries = storeEntries(storeCount);
+        List<GroceryStore> stores = new ArrayList<GroceryStore>(storeCount);
+        for (StoreEntry entry : entries) {
+            double distance = GeoDistance.distanceBetween(ORIGIN_LATITUDE, ORIGIN_LONGITUDE, entry.getLatitude(), entry.getLongitude());
+            stores.add(new GroceryStore(entry.getName(), distance, entry.getLatitude(), entry.getLongitude()));
+        }
+
+        return stores;
+    }
+}
@@ -0,0 +1,141 @@
+package com.groceryreminder.benchmarks;
+
+import com.groceryreminder.core.NotificationCooldown;
+import com.groceryreminder.core.RadiusFilter;
+import com.groceryreminder.core.StoreConstants;
+import com.groceryreminder.core.StoreCooldowns;
+import com.groceryreminder.data.StoreEntry;
+import com.groceryreminder.data.StoreGrid;
+import com.groceryreminder.data.StoreRanking;
+import com.groceryreminder.data.StoreSnapshot;
+import com.groceryreminder.models.GroceryStore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//Each benchmark calls the same core entry point as its app caller, named in the comment above it
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class StoreSelectionBenchmark {
+
+    private static final RadiusFilter<StoreEntry> ENTRY_RADIUS_FILTER = new RadiusFilter<StoreEntry>() {
+        @Override
+        protected double getLatitude(StoreEntry entry) {
+            return entry.getLatitude();
+        }
+
+        @Override
+        protected double getLongitude(StoreEntry entry) {
+            return entry.getLongitude();
+        }
+    };
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int storeCount;
+
+    private List<StoreEntry> entries;
+    private StoreSnapshot snapshot;
+    private int[] matches;
+    private StoreGrid grid;
+    private List<GroceryStore> groceryStores;
+    private StoreCooldowns cooldowns;
+    private long currentTime;
+
+    @Setup
+    public void setUp() {
+        entries = StoreFixtures.storeEntries(storeCount);
+        snapshot = StoreSnapshot.build(entries);
+        matches = new int[snapshot.size()];
+        grid = StoreGrid.build(entries);
+        groceryStores = StoreFixtures.groceryStores(storeCount);
+        cooldowns = new StoreCooldowns(new NotificationCooldown(StoreConstants.NOTIFICATION_COOLDOWN_MILLIS,
+                StoreConstants.SAME_STORE_NOTIFICATION_COOLDOWN_MILLIS));
+        currentTime = StoreConstants.SAME_STORE_NOTIFICATION_COOLDOWN_MILLIS + 1;
+    }
+
+    //GroceryStoreLocationIndex.getSnapshot, rebuilt after every change to the locations table
+    @Benchmark
+    public StoreSnapshot buildSnapshot() {
+        return StoreSnapshot.build(entries);
+    }
+
+    //GroceryStoreNotificationManager.sendPotentialNotification, finding the stores inside the geofence
+    @Benchmark
+    public int findStoresWithinGeofence() {
+        return snapshot.findWithinRadius(StoreFixtures.ORIGIN_LATITUDE, StoreFixtures.ORIGIN_LONGITUDE,
+                StoreConstants.LOCATION_GEOFENCE_RADIUS_METERS, matches);
+    }
+
+    //GroceryStoreNotificationManager.sendPotentialNotification, deciding which stores inside the geofence are off cooldown;
+    //the clock moves past the overall cooldown each call so the per store times are what gets checked
+    @Benchmark
+    public int notifyNearbyStores() {
+        int matchCount = snapshot.findWithinRadius(StoreFixtures.ORIGIN_LATITUDE, StoreFixtures.ORIGIN_LONGITUDE,
+                StoreConstants.LOCATION_GEOFENCE_RADIUS_METERS, matches);
+        currentTime += StoreConstants.NOTIFICATION_COOLDOWN_MILLIS + 1;
+        return cooldowns.claimNotifiableStores(snapshot, matches, matchCount, currentTime);
+    }
+
+    //GroceryStoreManager.filterPlacesByDistance, dropping the search results outside the search radius
+    @Benchmark
+    public List<StoreEntry> filterPlacesWithinSearchRadius() {
+        return ENTRY_RADIUS_FILTER.filter(StoreFixtures.ORIGIN_LATITUDE, StoreFixtures.ORIGIN_LONGITUDE, entries,
+                StoreConstants.LOCATION_SEARCH_RADIUS_METERS);
+    }
+
+    //GroceryStoreManager.deleteStoresByLocation, splitting the saved stores into those kept and those deleted
+    @Benchmark
+    public int partitionStoresForDeletion() {
+        List<StoreEntry> keptEntries = new ArrayList<StoreEntry>();
+        List<StoreEntry> deletedEntries = new ArrayList<StoreEntry>();
+        grid.partitionByRadius(StoreFixtures.ORIGIN_LATITUDE, StoreFixtures.ORIGIN_LONGITUDE,
+                StoreConstants.LOCATION_SEARCH_RADIUS_METERS, keptEntries, deletedEntries);
+        return keptEntries.size() + deletedEntries.size();
+    }
+
+    //GroceryStore.compareTo, the nearest first natural order of the GroceryStore lists the stores screen shows
+    @Benchmark
+    public List<GroceryStore> sortStoresByDistance() {
+        List<GroceryStore> sortedStores = new ArrayList<GroceryStore>(groceryStores);
+        Collections.sort(sortedStores);
+        return sortedStores;
+    }
+
+    //AdaptiveLocationScheduler.reschedule, measuring how far away the nearest store is
+    @Benchmark
+    public double distanceToNearestStore() {
+        return snapshot.distanceToNearest(StoreFixtures.ORIGIN_LATITUDE, StoreFixtures.ORIGIN_LONGITUDE);
+    }
+
+    //StoreRankingLoader.rank, ordering the stores screen
+    @Benchmark
+    public StoreRanking rankNearestStores() {
+        return StoreRanking.nearest(snapshot, StoreFixtures.ORIGIN_LATITUDE, StoreFixtures.ORIGIN_LONGITUDE,
+                StoreConstants.LOCATION_SEARCH_RADIUS_METERS, StoreConstants.MAX_LISTED_STORES);
+    }
+
+    //The stores screen before it was capped, ranking every store within the search radius
+    @Benchmark
+    public StoreRanking rankAllStoresWithinRadius() {
+        return StoreRanking.byDistance(snapshot, StoreFixtures.ORIGIN_LATITUDE, StoreFixtures.ORIGIN_LONGITUDE,
+                StoreConstants.LOCATION_SEARCH_RADIUS_METERS);
+    }
+}
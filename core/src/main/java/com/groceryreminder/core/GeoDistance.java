@@ -0,0 +1,190 @@
+package com.groceryreminder.core;
+
+public final class GeoDistance {
+
+    private static final double WGS84_SEMI_MAJOR_AXIS = 6378137.0;
+    private static final double WGS84_SEMI_MINOR_AXIS = 6356752.3142;
+    private static final double WGS84_FLATTENING = (WGS84_SEMI_MAJOR_AXIS - WGS84_SEMI_MINOR_AXIS) / WGS84_SEMI_MAJOR_AXIS;
+    private static final double WGS84_ECCENTRICITY_SQUARED = WGS84_FLATTENING * (2 - WGS84_FLATTENING);
+    private static final int MAX_ITERATIONS = 20;
+    private static final double CONVERGENCE_THRESHOLD = 1.0e-12;
+    private static final double MEAN_METERS_PER_DEGREE_LATITUDE = 111320.0;
+
+    //The flat earth approximation stays well inside this error for short distances away from the poles
+    static final double FAST_PATH_TOLERANCE = 0.02;
+    static final double MAX_FAST_PATH_RADIUS_METERS = 20000;
+    static final double MAX_FAST_PATH_LATITUDE = 70;
+
+    private GeoDistance() {
+    }
+
+    //Vincenty's inverse formula on the WGS84 ellipsoid, the same model android.location.Location.distanceBetween uses
+    public static float distanceBetween(double startLatitude, double startLongitude, double endLatitude, double endLongitude) {
+        double a = WGS84_SEMI_MAJOR_AXIS;
+        double b = WGS84_SEMI_MINOR_AXIS;
+        double f = WGS84_FLATTENING;
+
+        double longitudeDelta = Math.toRadians(endLongitude - startLongitude);
+        double reducedStartLatitude = Math.atan((1.0 - f) * Math.tan(Math.toRadians(startLatitude)));
+        double reducedEndLatitude = Math.atan((1.0 - f) * Math.tan(Math.toRadians(endLatitude)));
+        double sinU1 = Math.sin(reducedStartLatitude);
+        double cosU1 = Math.cos(reducedStartLatitude);
+        double sinU2 = Math.sin(reducedEndLatitude);
+        double cosU2 = Math.cos(reducedEndLatitude);
+
+        double lambda = longitudeDelta;
+        double sinSigma = 0.0;
+        double cosSigma = 0.0;
+        double sigma = 0.0;
+        double cosSqAlpha = 0.0;
+        double cos2SigmaM = 0.0;
+
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            double sinLambda = Math.sin(lambda);
+            double cosLambda = Math.cos(lambda);
+            double t1 = cosU2 * sinLambda;
+            double t2 = cosU1 * sinU2 - sinU1 * cosU2 * cosLambda;
+            sinSigma = Math.sqrt(t1 * t1 + t2 * t2);
+            if (sinSigma == 0.0) {
+                return 0.0f;
+            }
+
+            cosSigma = sinU1 * sinU2 + cosU1 * cosU2 * cosLambda;
+            sigma = Math.atan2(sinSigma, cosSigma);
+            double sinAlpha = cosU1 * cosU2 * sinLambda / sinSigma;
+            cosSqAlpha = 1.0 - sinAlpha * sinAlpha;
+            //Both points on the equator leave cos2SigmaM undefined; it does not contribute there
+            cos2SigmaM = cosSqAlpha == 0.0 ? 0.0 : cosSigma - 2.0 * sinU1 * sinU2 / cosSqAlpha;
+
+            double c = f / 16.0 * cosSqAlpha * (4.0 + f * (4.0 - 3.0 * cosSqAlpha));
+            double previousLambda = lambda;
+            lambda = longitudeDelta + (1.0 - c) * f * sinAlpha
+                    * (sigma + c * sinSigma * (cos2SigmaM + c * cosSigma * (-1.0 + 2.0 * cos2SigmaM * cos2SigmaM)));
+            if (Math.abs(lambda - previousLambda) < CONVERGENCE_THRESHOLD) {
+                break;
+            }
+        }
+
+        double uSquared = cosSqAlpha * (a * a - b * b) / (b * b);
+        double bigA = 1 + uSquared / 16384.0 * (4096.0 + uSquared * (-768.0 + uSquared * (320.0 - 175.0 * uSquared)));
+        double bigB = uSquared / 1024.0 * (256.0 + uSquared * (-128.0 + uSquared * (74.0 - 47.0 * uSquared)));
+        double deltaSigma = bigB * sinSigma * (cos2SigmaM + bigB / 4.0 * (cosSigma * (-1.0 + 2.0 * cos2SigmaM * cos2SigmaM)
+                - bigB / 6.0 * cos2SigmaM * (-3.0 + 4.0 * sinSigma * sinSigma) * (-3.0 + 4.0 * cos2SigmaM * cos2SigmaM)));
+
+        return (float) (b * bigA * (sigma - deltaSigma));
+    }
+
+    //Equirectangular projection using the ellipsoid's local radii of curvature at the origin
+    public static double approximateDistance(double originLatitude, double originLongitude, double latitude, double longitude) {
+        double sinLatitude = Math.sin(Math.toRadians(originLatitude));
+        double curvature = 1 - WGS84_ECCENTRICITY_SQUARED * sinLatitude * sinLatitude;
+        double metersPerRadianLatitude = WGS84_SEMI_MAJOR_AXIS * (1 - WGS84_ECCENTRICITY_SQUARED) / (curvature * Math.sqrt(curvature));
+        double metersPerRadianLongitude = WGS84_SEMI_MAJOR_AXIS / Math.sqrt(curvature) * Math.cos(Math.toRadians(originLatitude));
+
+        double y = Math.toRadians(latitude - originLatitude) * metersPerRadianLatitude;
+        double x = Math.toRadians(wrapLongitudeDelta(longitude - originLongitude)) * metersPerRadianLongitude;
+        return Math.sqrt(x * x + y * y);
+    }
+
+    public static boolean isWithinRadius(double originLatitude, double originLongitude, double latitude, double longitude, double radiusInMeters) {
+        if (canUseFastPath(originLatitude, radiusInMeters)) {
+            double approximateDistance = approximateDistance(originLatitude, originLongitude, latitude, longitude);
+            if (approximateDistance < radiusInMeters * (1 - FAST_PATH_TOLERANCE)) {
+                return true;
+            } else if (approximateDistance > radiusInMeters * (1 + FAST_PATH_TOLERANCE)) {
+                return false;
+            }
+        }
+
+        return distanceBetween(originLatitude, originLongitude, latitude, longitude) <= (float) radiusInMeters;
+    }
+
+    //Writes the indices of the stores within the radius into matches and returns how many there are
+    public static int filterWithinRadius(double originLatitude, double originLongitude, double[] latitudes, double[] longitudes, int count,
+                                         double radiusInMeters, int[] matches) {
+        return filterWithinRadius(originLatitude, originLongitude, latitudes, longitudes, 0, count, radiusInMeters, matches);
+    }
+
+    //Only checks the stores in [fromIndex, toIndex), for callers that have already narrowed the arrays down
+    public static int filterWithinRadius(double originLatitude, double originLongitude, double[] latitudes, double[] longitudes, int fromIndex, int toIndex,
+                                         double radiusInMeters, int[] matches) {
+        if (!canUseFastPath(originLatitude, radiusInMeters)) {
+            int matchCount = 0;
+            for (int i = fromIndex; i < toIndex; i++) {
+                if (distanceBetween(originLatitude, originLongitude, latitudes[i], longitudes[i]) <= (float) radiusInMeters) {
+                    matches[matchCount++] = i;
+                }
+            }
+
+            return matchCount;
+        }
+
+        //Hoist everything that only depends on the origin, and compare squared distances to skip the square root
+        double metersPerDegreeLatitude = metersPerDegreeLatitude(originLatitude);
+        double metersPerDegreeLongitude = metersPerDegreeLongitude(originLatitude);
+        double innerRadius = radiusInMeters * (1 - FAST_PATH_TOLERANCE);
+        double outerRadius = radiusInMeters * (1 + FAST_PATH_TOLERANCE);
+        double innerRadiusSquared = innerRadius * innerRadius;
+        double outerRadiusSquared = outerRadius * outerRadius;
+
+        int matchCount = 0;
+        for (int i = fromIndex; i < toIndex; i++) {
+            double y = (latitudes[i] - originLatitude) * metersPerDegreeLatitude;
+            double x = wrapLongitudeDelta(longitudes[i] - originLongitude) * metersPerDegreeLongitude;
+            double approximateDistanceSquared = x * x + y * y;
+            if (approximateDistanceSquared < innerRadiusSquared
+                    || (approximateDistanceSquared <= outerRadiusSquared
+                    && distanceBetween(originLatitude, originLongitude, latitudes[i], longitudes[i]) <= (float) radiusInMeters)) {
+                matches[matchCount++] = i;
+            }
+        }
+
+        return matchCount;
+    }
+
+    public static void distancesBetween(double originLatitude, double originLongitude, double[] latitudes, double[] longitudes, int count, float[] distances) {
+        for (int i = 0; i < count; i++) {
+            distances[i] = distanceBetween(originLatitude, originLongitude, latitudes[i], longitudes[i]);
+        }
+    }
+
+    public static double metersPerDegreeLatitude(double latitude) {
+        double sinLatitude = Math.sin(Math.toRadians(latitude));
+        double curvature = 1 - WGS84_ECCENTRICITY_SQUARED * sinLatitude * sinLatitude;
+        return Math.toRadians(WGS84_SEMI_MAJOR_AXIS * (1 - WGS84_ECCENTRICITY_SQUARED) / (curvature * Math.sqrt(curvature)));
+    }
+
+    public static double metersPerDegreeLongitude(double latitude) {
+        double sinLatitude = Math.sin(Math.toRadians(latitude));
+        double curvature = 1 - WGS84_ECCENTRICITY_SQUARED * sinLatitude * sinLatitude;
+        return Math.toRadians(WGS84_SEMI_MAJOR_AXIS / Math.sqrt(curvature) * Math.cos(Math.toRadians(latitude)));
+    }
+
+    //Half the height of a bounding box around the radius, on a sphere, so callers widen it where an exact band matters
+    public static double latitudeSpan(double radiusInMeters) {
+        return radiusInMeters / MEAN_METERS_PER_DEGREE_LATITUDE;
+    }
+
+    public static double longitudeSpan(double latitude, double radiusInMeters) {
+        double metersPerDegreeLongitude = MEAN_METERS_PER_DEGREE_LATITUDE * Math.cos(Math.toRadians(latitude));
+        if (metersPerDegreeLongitude <= radiusInMeters / 180) {
+            return 180;
+        }
+
+        return Math.min(180, radiusInMeters / metersPerDegreeLongitude);
+    }
+
+    private static boolean canUseFastPath(double originLatitude, double radiusInMeters) {
+        return radiusInMeters <= MAX_FAST_PATH_RADIUS_METERS && Math.abs(originLatitude) <= MAX_FAST_PATH_LATITUDE;
+    }
+
+    static double wrapLongitudeDelta(double longitudeDelta) {
+        if (longitudeDelta > 180) {
+            return longitudeDelta - 360;
+        } else if (longitudeDelta < -180) {
+            return longitudeDelta + 360;
+        }
+
+        return longitudeDelta;
+    }
+}
@@ -0,0 +1,402 @@
+package com.groceryreminder.core;
+
+import java.util.HashMap;
+import java.util.Map;
+
+//Myers' O(ND) diff between two lists, with items that left the common subsequence but stayed in the list reported as moves
+public final class ListDiff {
+
+    public static final int NO_POSITION = -1;
+
+    public interface Callback {
+
+        int getOldSize();
+
+        int getNewSize();
+
+        boolean areItemsTheSame(int oldPosition, int newPosition);
+
+        boolean areContentsTheSame(int oldPosition, int newPosition);
+
+        //Keys are equal exactly when areItemsTheSame holds, so items that moved can be paired by lookup
+        Object getOldKey(int oldPosition);
+
+        Object getNewKey(int newPosition);
+    }
+
+    public interface UpdateCallback {
+
+        void onInserted(int position, int count);
+
+        void onRemoved(int position, int count);
+
+        void onMoved(int fromPosition, int toPosition);
+
+        void onChanged(int position, int count);
+    }
+
+    private final int[] oldToNew;
+    private final int[] newToOld;
+    private final boolean[] moved;
+    private final boolean[] changed;
+
+    private ListDiff(int[] oldToNew, int[] newToOld, boolean[] moved, boolean[] changed) {
+        this.oldToNew = oldToNew;
+        this.newToOld = newToOld;
+        this.moved = moved;
+        this.changed = changed;
+    }
+
+    public static ListDiff calculate(Callback callback) {
+        int oldSize = callback.getOldSize();
+        int newSize = callback.getNewSize();
+        int[] oldToNew = new int[oldSize];
+        int[] newToOld = new int[newSize];
+        fill(oldToNew, NO_POSITION);
+        fill(newToOld, NO_POSITION);
+
+        //Edits are usually local, so the common ends are matched before paying for the middle
+        int prefix = 0;
+        while (prefix < oldSize && prefix < newSize && callback.areItemsTheSame(prefix, prefix)) {
+            match(oldToNew, newToOld, prefix, prefix);
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < oldSize - prefix && suffix < newSize - prefix && callback.areItemsTheSame(oldSize - 1 - suffix, newSize - 1 - suffix)) {
+            match(oldToNew, newToOld, oldSize - 1 - suffix, newSize - 1 - suffix);
+            suffix++;
+        }
+        int middleLength = Math.max(0, oldSize - suffix - prefix) + Math.max(0, newSize - suffix - prefix);
+        int[] forward = new int[middleLength + 4];
+        int[] backward = new int[middleLength + 4];
+        matchMiddle(callback, prefix, oldSize - suffix, prefix, newSize - suffix, oldToNew, newToOld, forward, backward);
+
+        boolean[] moved = new boolean[newSize];
+        matchMoves(callback, oldToNew, newToOld, moved);
+
+        boolean[] changed = new boolean[newSize];
+        for (int newPosition = 0; newPosition < newSize; newPosition++) {
+            int oldPosition = newToOld[newPosition];
+            changed[newPosition] = oldPosition != NO_POSITION && !callback.areContentsTheSame(oldPosition, newPosition);
+        }
+
+        return new ListDiff(oldToNew, newToOld, moved, changed);
+    }
+
+    private static void fill(int[] positions, int value) {
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = value;
+        }
+    }
+
+    private static void match(int[] oldToNew, int[] newToOld, int oldPosition, int newPosition) {
+        oldToNew[oldPosition] = newPosition;
+        newToOld[newPosition] = oldPosition;
+    }
+
+    //Myers' linear space refinement: the middle snake of the shortest edit script splits the range in two, and each half is solved the same way,
+    //so only one forward and one backward row of furthest reaching paths is ever kept
+    private static void matchMiddle(Callback callback, int oldStart, int oldEnd, int newStart, int newEnd, int[] oldToNew, int[] newToOld,
+                                    int[] forward, int[] backward) {
+        int oldLength = oldEnd - oldStart;
+        int newLength = newEnd - newStart;
+        if (oldLength <= 0 || newLength <= 0) {
+            return;
+        }
+
+        int[] snake = new int[5];
+        findMiddleSnake(callback, oldStart, oldLength, newStart, newLength, forward, backward, snake);
+        int edits = snake[4];
+        if (edits <= 1) {
+            //At most one item was added or removed, so walking both ranges together skips it
+            for (int x = 0, y = 0; x < oldLength && y < newLength; ) {
+                if (callback.areItemsTheSame(oldStart + x, newStart + y)) {
+                    match(oldToNew, newToOld, oldStart + x++, newStart + y++);
+                } else if (oldLength > newLength) {
+                    x++;
+                } else {
+                    y++;
+                }
+            }
+            return;
+        }
+
+        matchMiddle(callback, oldStart, oldStart + snake[0], newStart, newStart + snake[1], oldToNew, newToOld, forward, backward);
+        for (int x = snake[0], y = snake[1]; x < snake[2]; x++, y++) {
+            match(oldToNew, newToOld, oldStart + x, newStart + y);
+        }
+        matchMiddle(callback, oldStart + snake[2], oldEnd, newStart + snake[3], newEnd, oldToNew, newToOld, forward, backward);
+    }
+
+    //Writes the snake's start x, start y, end x and end y relative to the range, then the length of the whole edit script
+    private static void findMiddleSnake(Callback callback, int oldStart, int oldLength, int newStart, int newLength,
+                                        int[] forward, int[] backward, int[] snake) {
+        int delta = oldLength - newLength;
+        boolean oddDelta = (delta & 1) != 0;
+        int maxEdits = (oldLength + newLength + 1) / 2;
+        int offset = maxEdits + 1;
+        forward[offset + 1] = 0;
+        backward[offset + 1] = 0;
+        for (int edits = 0; edits <= maxEdits; edits++) {
+            for (int diagonal = -edits; diagonal <= edits; diagonal += 2) {
+                int x;
+                if (diagonal == -edits || (diagonal != edits && forward[offset + diagonal - 1] < forward[offset + diagonal + 1])) {
+                    x = forward[offset + diagonal + 1];
+                } else {
+                    x = forward[offset + diagonal - 1] + 1;
+                }
+                int startX = x;
+                int y = x - diagonal;
+                while (x < oldLength && y < newLength && callback.areItemsTheSame(oldStart + x, newStart + y)) {
+                    x++;
+                    y++;
+                }
+                forward[offset + diagonal] = x;
+                int backwardDiagonal = delta - diagonal;
+                if (oddDelta && backwardDiagonal >= -(edits - 1) && backwardDiagonal <= edits - 1
+                        && x + backward[offset + backwardDiagonal] >= oldLength) {
+                    setSnake(snake, startX, startX - diagonal, x, y, 2 * edits - 1);
+                    return;
+                }
+            }
+
+            //The backward search runs over both ranges reversed, counting x and y from their ends
+            for (int diagonal = -edits; diagonal <= edits; diagonal += 2) {
+                int x;
+                if (diagonal == -edits || (diagonal != edits && backward[offset + diagonal - 1] < backward[offset + diagonal + 1])) {
+                    x = backward[offset + diagonal + 1];
+                } else {
+                    x = backward[offset + diagonal - 1] + 1;
+                }
+                int startX = x;
+                int y = x - diagonal;
+                while (x < oldLength && y < newLength
+                        && callback.areItemsTheSame(oldStart + oldLength - 1 - x, newStart + newLength - 1 - y)) {
+                    x++;
+                    y++;
+                }
+                backward[offset + diagonal] = x;
+                int forwardDiagonal = delta - diagonal;
+                if (!oddDelta && forwardDiagonal >= -edits && forwardDiagonal <= edits
+                        && x + forward[offset + forwardDiagonal] >= oldLength) {
+                    setSnake(snake, oldLength - x, newLength - y, oldLength - startX, newLength - (startX - diagonal), 2 * edits);
+                    return;
+                }
+            }
+        }
+
+        throw new IllegalStateException("No middle snake between " + oldLength + " and " + newLength + " items");
+    }
+
+    private static void setSnake(int[] snake, int startX, int startY, int endX, int endY, int edits) {
+        snake[0] = startX;
+        snake[1] = startY;
+        snake[2] = endX;
+        snake[3] = endY;
+        snake[4] = edits;
+    }
+
+    //Each unmatched new item takes the first unmatched old item with the same key, found through a chain of old positions per key
+    private static void matchMoves(Callback callback, int[] oldToNew, int[] newToOld, boolean[] moved) {
+        Map<Object, Integer> firstOldPositions = new HashMap<Object, Integer>();
+        int[] nextOldPositions = new int[oldToNew.length];
+        for (int oldPosition = oldToNew.length - 1; oldPosition >= 0; oldPosition--) {
+            if (oldToNew[oldPosition] == NO_POSITION) {
+                Integer nextOldPosition = firstOldPositions.put(callback.getOldKey(oldPosition), oldPosition);
+                nextOldPositions[oldPosition] = nextOldPosition == null ? NO_POSITION : nextOldPosition;
+            }
+        }
+        if (firstOldPositions.isEmpty()) {
+            return;
+        }
+
+        for (int newPosition = 0; newPosition < newToOld.length; newPosition++) {
+            if (newToOld[newPosition] != NO_POSITION) {
+                continue;
+            }
+
+            Object key = callback.getNewKey(newPosition);
+            Integer oldPosition = firstOldPositions.get(key);
+            if (oldPosition == null) {
+                continue;
+            }
+
+            match(oldToNew, newToOld, oldPosition, newPosition);
+            moved[newPosition] = true;
+            if (nextOldPositions[oldPosition] == NO_POSITION) {
+                firstOldPositions.remove(key);
+            } else {
+                firstOldPositions.put(key, nextOldPositions[oldPosition]);
+            }
+        }
+    }
+
+    public int getOldSize() {
+        return oldToNew.length;
+    }
+
+    public int getNewSize() {
+        return newToOld.length;
+    }
+
+    public int getNewPosition(int oldPosition) {
+        return oldToNew[oldPosition];
+    }
+
+    public int getOldPosition(int newPosition) {
+        return newToOld[newPosition];
+    }
+
+    //Removals run back to front, then each moved item is placed after its new predecessor, then insertions and changes run front to back,
+    //so every position is valid for the list as it stands after the updates before it
+    public void dispatchUpdatesTo(UpdateCallback updateCallback) {
+        for (int oldPosition = oldToNew.length - 1; oldPosition >= 0; ) {
+            if (oldToNew[oldPosition] != NO_POSITION) {
+                oldPosition--;
+                continue;
+            }
+
+            int end = oldPosition;
+            while (oldPosition >= 0 && oldToNew[oldPosition] == NO_POSITION) {
+                oldPosition--;
+            }
+            updateCallback.onRemoved(oldPosition + 1, end - oldPosition);
+        }
+
+        dispatchMoves(updateCallback);
+
+        dispatchRuns(updateCallback, true);
+        dispatchRuns(updateCallback, false);
+    }
+
+    //Items that kept their order split the list into gaps. A moved item leaves a slot in the gap it started in and takes one in the gap
+    //it ends in; within a gap the slots being filled come first in new order, then the ones being vacated in old order. Counting the
+    //occupied slots before a slot then gives its position, so each move costs two prefix sums rather than a scan of the list
+    private void dispatchMoves(UpdateCallback updateCallback) {
+        int keptCount = 0;
+        int moveCount = 0;
+        for (int newPosition = 0; newPosition < newToOld.length; newPosition++) {
+            if (newToOld[newPosition] != NO_POSITION) {
+                if (moved[newPosition]) {
+                    moveCount++;
+                } else {
+                    keptCount++;
+                }
+            }
+        }
+        if (moveCount == 0) {
+            return;
+        }
+
+        int[] fillCounts = new int[keptCount + 1];
+        int gap = 0;
+        for (int newPosition = 0; newPosition < newToOld.length; newPosition++) {
+            if (newToOld[newPosition] != NO_POSITION) {
+                if (moved[newPosition]) {
+                    fillCounts[gap]++;
+                } else {
+                    gap++;
+                }
+            }
+        }
+        int[] vacateCounts = new int[keptCount + 1];
+        gap = 0;
+        for (int oldPosition = 0; oldPosition < oldToNew.length; oldPosition++) {
+            int newPosition = oldToNew[oldPosition];
+            if (newPosition != NO_POSITION) {
+                if (moved[newPosition]) {
+                    vacateCounts[gap]++;
+                } else {
+                    gap++;
+                }
+            }
+        }
+        int[] gapStarts = new int[keptCount + 1];
+        for (gap = 0; gap < keptCount; gap++) {
+            gapStarts[gap + 1] = gapStarts[gap] + fillCounts[gap] + vacateCounts[gap] + 1;
+        }
+
+        int[] occupied = new int[keptCount + 2 * moveCount + 1];
+        int[] fromSlots = new int[newToOld.length];
+        int[] toSlots = new int[newToOld.length];
+        gap = 0;
+        int nextSlot = gapStarts[0];
+        for (int newPosition = 0; newPosition < newToOld.length; newPosition++) {
+            if (newToOld[newPosition] == NO_POSITION) {
+                continue;
+            }
+
+            if (moved[newPosition]) {
+                toSlots[newPosition] = nextSlot++;
+            } else {
+                addSlot(occupied, gapStarts[gap] + fillCounts[gap] + vacateCounts[gap], 1);
+                nextSlot = gapStarts[++gap];
+            }
+        }
+        gap = 0;
+        nextSlot = gapStarts[0] + fillCounts[0];
+        for (int oldPosition = 0; oldPosition < oldToNew.length; oldPosition++) {
+            int newPosition = oldToNew[oldPosition];
+            if (newPosition == NO_POSITION) {
+                continue;
+            }
+
+            if (moved[newPosition]) {
+                fromSlots[newPosition] = nextSlot;
+                addSlot(occupied, nextSlot++, 1);
+            } else {
+                gap++;
+                nextSlot = gapStarts[gap] + fillCounts[gap];
+            }
+        }
+
+        for (int newPosition = 0; newPosition < newToOld.length; newPosition++) {
+            if (newToOld[newPosition] == NO_POSITION || !moved[newPosition]) {
+                continue;
+            }
+
+            int fromPosition = countSlotsBefore(occupied, fromSlots[newPosition]);
+            addSlot(occupied, fromSlots[newPosition], -1);
+            int toPosition = countSlotsBefore(occupied, toSlots[newPosition]);
+            addSlot(occupied, toSlots[newPosition], 1);
+            if (fromPosition != toPosition) {
+                updateCallback.onMoved(fromPosition, toPosition);
+            }
+        }
+    }
+
+    //A Fenwick tree over the slots, one based
+    private static void addSlot(int[] occupied, int slot, int count) {
+        for (int i = slot + 1; i < occupied.length; i += i & -i) {
+            occupied[i] += count;
+        }
+    }
+
+    private static int countSlotsBefore(int[] occupied, int slot) {
+        int count = 0;
+        for (int i = slot; i > 0; i -= i & -i) {
+            count += occupied[i];
+        }
+
+        return count;
+    }
+
+    private void dispatchRuns(UpdateCallback updateCallback, boolean insertions) {
+        for (int newPosition = 0; newPosition < newToOld.length; ) {
+            if (insertions ? newToOld[newPosition] != NO_POSITION : !changed[newPosition]) {
+                newPosition++;
+                continue;
+            }
+
+            int start = newPosition;
+            while (newPosition < newToOld.length && (insertions ? newToOld[newPosition] == NO_POSITION : changed[newPosition])) {
+                newPosition++;
+            }
+            if (insertions) {
+                updateCallback.onInserted(start, newPosition - start);
+            } else {
+                updateCallback.onChanged(start, newPosition - start);
+            }
+        }
+    }
+}
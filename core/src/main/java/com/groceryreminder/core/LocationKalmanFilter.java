@@ -0,0 +1,192 @@
+package com.groceryreminder.core;
+
+//A constant velocity Kalman filter over fixes from any provider, run independently on the north and east axes of a
+//local plane centred on the first fix. Each fix's accuracy is taken as the standard deviation of its position.
+public final class LocationKalmanFilter {
+
+    //The process noise already grows with the gap, so the filter only starts over once fixes stop arriving even at the slowest schedule
+    public static final long MAX_PREDICTION_MILLIS = 2 * LocationUpdateSchedule.MAX_INTERVAL_MILLIS;
+    //The 99.9% point of the chi-squared distribution with two degrees of freedom
+    static final double OUTLIER_THRESHOLD = 13.82;
+    //A run of outliers means the filter is the one that is wrong, such as after a tunnel, so it follows the fixes again
+    static final int MAX_CONSECUTIVE_OUTLIERS = 3;
+    //Roughly highway speed, for a first fix that says nothing about velocity yet
+    private static final double INITIAL_VELOCITY_VARIANCE = 30 * 30;
+
+    private final double accelerationVariance;
+    private final Axis north = new Axis();
+    private final Axis east = new Axis();
+    private boolean initialized;
+    private long lastTimeMillis;
+    private double originLatitude;
+    private double originLongitude;
+    private double metersPerDegreeLatitude;
+    private double metersPerDegreeLongitude;
+    private int consecutiveOutliers;
+
+    public LocationKalmanFilter(double accelerationMetersPerSecondSquared) {
+        this.accelerationVariance = accelerationMetersPerSecondSquared * accelerationMetersPerSecondSquared;
+    }
+
+    //Returns false when the fix is not newer than the filter's state, or was rejected as an outlier
+    public synchronized boolean update(long timeMillis, double latitude, double longitude, double accuracyMeters) {
+        double measurementVariance = Math.max(accuracyMeters, 1) * Math.max(accuracyMeters, 1);
+        if (!initialized || timeMillis - lastTimeMillis > MAX_PREDICTION_MILLIS) {
+            initialize(timeMillis, latitude, longitude, measurementVariance);
+            return true;
+        } else if (timeMillis <= lastTimeMillis) {
+            return false;
+        }
+
+        double seconds = (timeMillis - lastTimeMillis) / 1000.0;
+        double northMeters = (latitude - originLatitude) * metersPerDegreeLatitude;
+        double eastMeters = GeoDistance.wrapLongitudeDelta(longitude - originLongitude) * metersPerDegreeLongitude;
+
+        north.predict(seconds, accelerationVariance);
+        east.predict(seconds, accelerationVariance);
+        double normalizedInnovation = north.normalizedInnovation(northMeters, measurementVariance) + east.normalizedInnovation(eastMeters, measurementVariance);
+        if (normalizedInnovation > OUTLIER_THRESHOLD && ++consecutiveOutliers < MAX_CONSECUTIVE_OUTLIERS) {
+            north.restore();
+            east.restore();
+            return false;
+        } else if (normalizedInnovation > OUTLIER_THRESHOLD) {
+            initialize(timeMillis, latitude, longitude, measurementVariance);
+            return true;
+        }
+
+        consecutiveOutliers = 0;
+        north.correct(northMeters, measurementVariance);
+        east.correct(eastMeters, measurementVariance);
+        lastTimeMillis = timeMillis;
+        recenter();
+
+        return true;
+    }
+
+    //Slow schedules cover long distances between fixes, so the plane follows the estimate rather than staying on the first fix
+    private void recenter() {
+        originLatitude = getLatitude();
+        originLongitude = getLongitude();
+        metersPerDegreeLatitude = GeoDistance.metersPerDegreeLatitude(originLatitude);
+        metersPerDegreeLongitude = Math.max(GeoDistance.metersPerDegreeLongitude(originLatitude), 1);
+        north.position = 0;
+        east.position = 0;
+    }
+
+    public synchronized void reset() {
+        initialized = false;
+    }
+
+    public synchronized boolean isInitialized() {
+        return initialized;
+    }
+
+    public synchronized long getTime() {
+        return lastTimeMillis;
+    }
+
+    public synchronized double getLatitude() {
+        return originLatitude + north.position / metersPerDegreeLatitude;
+    }
+
+    public synchronized double getLongitude() {
+        double longitude = originLongitude + east.position / metersPerDegreeLongitude;
+        return longitude - 360 * Math.floor((longitude + 180) / 360);
+    }
+
+    public synchronized double getNorthVariance() {
+        return north.positionVariance;
+    }
+
+    public synchronized double getEastVariance() {
+        return east.positionVariance;
+    }
+
+    //The axes are filtered independently, so the north/east covariance is always zero
+    public synchronized double getAccuracy() {
+        return Math.sqrt(Math.max(north.positionVariance, east.positionVariance));
+    }
+
+    public synchronized double getSpeed() {
+        return Math.sqrt(north.velocity * north.velocity + east.velocity * east.velocity);
+    }
+
+    public synchronized double getBearing() {
+        double bearing = Math.toDegrees(Math.atan2(east.velocity, north.velocity));
+        return bearing < 0 ? bearing + 360 : bearing;
+    }
+
+    private void initialize(long timeMillis, double latitude, double longitude, double measurementVariance) {
+        initialized = true;
+        lastTimeMillis = timeMillis;
+        originLatitude = latitude;
+        originLongitude = longitude;
+        metersPerDegreeLatitude = GeoDistance.metersPerDegreeLatitude(latitude);
+        //Keeps the plane usable right at the poles, where a degree of longitude has no length
+        metersPerDegreeLongitude = Math.max(GeoDistance.metersPerDegreeLongitude(latitude), 1);
+        consecutiveOutliers = 0;
+        north.initialize(measurementVariance);
+        east.initialize(measurementVariance);
+    }
+
+    private static class Axis {
+
+        private double position;
+        private double velocity;
+        private double positionVariance;
+        private double covariance;
+        private double velocityVariance;
+
+        private double savedPosition;
+        private double savedPositionVariance;
+        private double savedCovariance;
+        private double savedVelocityVariance;
+
+        private void initialize(double measurementVariance) {
+            position = 0;
+            velocity = 0;
+            positionVariance = measurementVariance;
+            covariance = 0;
+            velocityVariance = INITIAL_VELOCITY_VARIANCE;
+        }
+
+        //Piecewise white acceleration noise, integrated over the step
+        private void predict(double seconds, double accelerationVariance) {
+            savedPosition = position;
+            savedPositionVariance = positionVariance;
+            savedCovariance = covariance;
+            savedVelocityVariance = velocityVariance;
+
+            double secondsSquared = seconds * seconds;
+            position += velocity * seconds;
+            positionVariance += 2 * seconds * covariance + secondsSquared * velocityVariance + accelerationVariance * secondsSquared * seconds / 3;
+            covariance += seconds * velocityVariance + accelerationVariance * secondsSquared / 2;
+            velocityVariance += accelerationVariance * seconds;
+        }
+
+        private void restore() {
+            position = savedPosition;
+            positionVariance = savedPositionVariance;
+            covariance = savedCovariance;
+            velocityVariance = savedVelocityVariance;
+        }
+
+        private double normalizedInnovation(double measurement, double measurementVariance) {
+            double innovation = measurement - position;
+            return innovation * innovation / (positionVariance + measurementVariance);
+        }
+
+        private void correct(double measurement, double measurementVariance) {
+            double innovation = measurement - position;
+            double innovationVariance = positionVariance + measurementVariance;
+            double positionGain = positionVariance / innovationVariance;
+            double velocityGain = covariance / innovationVariance;
+
+            position += positionGain * innovation;
+            velocity += velocityGain * innovation;
+            velocityVariance -= velocityGain * covariance;
+            positionVariance -= positionGain * positionVariance;
+            covariance -= positionGain * covariance;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.groceryreminder.core;
+
+public final class LocationQuality {
+
+    public static final int SIGNIFICANT_TIME_DELTA_MILLIS = 60000;
+    public static final float SIGNIFICANT_ACCURACY_RATIO = .50f;
+
+    private LocationQuality() {
+    }
+
+    public static boolean isAccurate(float accuracy, float maximumAccuracyInMeters) {
+        return accuracy <= maximumAccuracyInMeters;
+    }
+
+    public static boolean isSignificantlyNewer(long currentTime, long updateTime) {
+        return updateTime - currentTime >= SIGNIFICANT_TIME_DELTA_MILLIS;
+    }
+
+    public static boolean isSignificantlyMoreAccurate(float currentAccuracy, float updateAccuracy) {
+        return updateAccuracy / currentAccuracy <= SIGNIFICANT_ACCURACY_RATIO;
+    }
+
+    public static boolean isBetter(long currentTime, float currentAccuracy, long updateTime, float updateAccuracy) {
+        return isSignificantlyNewer(currentTime, updateTime) || isSignificantlyMoreAccurate(currentAccuracy, updateAccuracy);
+    }
+}
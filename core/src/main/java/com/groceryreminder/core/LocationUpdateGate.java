@@ -0,0 +1,38 @@
+package com.groceryreminder.core;
+
+//Lets a fix through only once both enough time has passed and the user has moved far enough since the last one let through
+public final class LocationUpdateGate {
+
+    private final MonotonicClock clock;
+    private final long minIntervalMillis;
+    private final double minDisplacementMeters;
+    private boolean passed;
+    private long lastPassedElapsedMillis;
+    private double lastPassedLatitude;
+    private double lastPassedLongitude;
+
+    public LocationUpdateGate(MonotonicClock clock, long minIntervalMillis, double minDisplacementMeters) {
+        this.clock = clock;
+        this.minIntervalMillis = minIntervalMillis;
+        this.minDisplacementMeters = minDisplacementMeters;
+    }
+
+    public synchronized boolean tryPass(double latitude, double longitude) {
+        long elapsedMillis = clock.elapsedMillis();
+        if (passed && (elapsedMillis - lastPassedElapsedMillis < minIntervalMillis
+                || GeoDistance.distanceBetween(lastPassedLatitude, lastPassedLongitude, latitude, longitude) < minDisplacementMeters)) {
+            return false;
+        }
+
+        passed = true;
+        lastPassedElapsedMillis = elapsedMillis;
+        lastPassedLatitude = latitude;
+        lastPassedLongitude = longitude;
+
+        return true;
+    }
+
+    public synchronized void reset() {
+        passed = false;
+    }
+}
@@ -0,0 +1,85 @@
+package com.groceryreminder.core;
+
+public final class LocationUpdateSchedule {
+
+    public static final long MAX_INTERVAL_MILLIS = 900000;
+    public static final float MIN_DISTANCE_METERS = 50f;
+    //Someone standing still may still walk into a store, so never plan around a slower approach than this
+    public static final float WALKING_SPEED_METERS_PER_SECOND = 1.4f;
+    //Every new request restarts the provider, so small changes are not worth re-requesting
+    public static final double RESCHEDULE_RATIO = 1.5;
+
+    private final long intervalMillis;
+    private final float minDistanceMeters;
+
+    public LocationUpdateSchedule(long intervalMillis, float minDistanceMeters) {
+        this.intervalMillis = intervalMillis;
+        this.minDistanceMeters = minDistanceMeters;
+    }
+
+    //Samples about twice on the way to the edge of the nearest store's geofence, within the provider's own limits
+    public static LocationUpdateSchedule forApproach(float speedMetersPerSecond, double distanceToNearestStoreMeters, double geofenceRadiusMeters,
+                                                     long minIntervalMillis, float maxDistanceMeters) {
+        if (Double.isNaN(distanceToNearestStoreMeters) || Double.isInfinite(distanceToNearestStoreMeters)) {
+            return new LocationUpdateSchedule(Math.max(minIntervalMillis, MAX_INTERVAL_MILLIS), maxDistanceMeters);
+        }
+
+        double remainingMeters = Math.max(0, distanceToNearestStoreMeters - geofenceRadiusMeters);
+        double approachSpeed = Math.max(speedMetersPerSecond, WALKING_SPEED_METERS_PER_SECOND);
+        double secondsToArrival = remainingMeters / approachSpeed;
+
+        long intervalMillis = clamp((long) (secondsToArrival * 1000 / 2), minIntervalMillis, Math.max(minIntervalMillis, MAX_INTERVAL_MILLIS));
+        float minDistanceMeters = (float) Math.min(Math.max(remainingMeters / 2, MIN_DISTANCE_METERS), maxDistanceMeters);
+
+        return new LocationUpdateSchedule(intervalMillis, minDistanceMeters);
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    public float getMinDistanceMeters() {
+        return minDistanceMeters;
+    }
+
+    public boolean differsSignificantlyFrom(LocationUpdateSchedule other) {
+        return isOutsideRatio(intervalMillis, other.intervalMillis) || isOutsideRatio(minDistanceMeters, other.minDistanceMeters);
+    }
+
+    private static boolean isOutsideRatio(double value, double otherValue) {
+        if (value == otherValue) {
+            return false;
+        } else if (value <= 0 || otherValue <= 0) {
+            return true;
+        }
+
+        double ratio = value > otherValue ? value / otherValue : otherValue / value;
+        return ratio > RESCHEDULE_RATIO;
+    }
+
+    private static long clamp(long value, long min, long max) {
+        return Math.min(Math.max(value, min), max);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        LocationUpdateSchedule that = (LocationUpdateSchedule) o;
+
+        return intervalMillis == that.intervalMillis && Float.compare(that.minDistanceMeters, minDistanceMeters) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (intervalMillis ^ (intervalMillis >>> 32));
+        result = 31 * result + (minDistanceMeters != +0.0f ? Float.floatToIntBits(minDistanceMeters) : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "LocationUpdateSchedule{intervalMillis=" + intervalMillis + ", minDistanceMeters=" + minDistanceMeters + "}";
+    }
+}
@@ -0,0 +1,26 @@
+package com.groceryreminder.core;
+
+//Fills {} placeholders in order; missing arguments leave the placeholder and extra arguments are ignored
+public final class LogFormat {
+
+    private static final String PLACEHOLDER = "{}";
+
+    private LogFormat() {
+    }
+
+    public static String format(String pattern, Object... args) {
+        StringBuilder message = new StringBuilder(pattern.length() + 16 * args.length);
+        int start = 0;
+        for (Object arg : args) {
+            int placeholderIndex = pattern.indexOf(PLACEHOLDER, start);
+            if (placeholderIndex < 0) {
+                break;
+            }
+
+            message.append(pattern, start, placeholderIndex).append(arg);
+            start = placeholderIndex + PLACEHOLDER.length();
+        }
+
+        return message.append(pattern, start, pattern.length()).toString();
+    }
+}
@@ -0,0 +1,7 @@
+package com.groceryreminder.core;
+
+//Never jumps with wall clock changes, so intervals measured against it are always the time that really passed
+public interface MonotonicClock {
+
+    long elapsedMillis();
+}
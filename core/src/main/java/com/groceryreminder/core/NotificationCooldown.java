@@ -0,0 +1,28 @@
+package com.groceryreminder.core;
+
+public final class NotificationCooldown {
+
+    private final long cooldownMillis;
+    private final long sameStoreCooldownMillis;
+
+    public NotificationCooldown(long cooldownMillis, long sameStoreCooldownMillis) {
+        this.cooldownMillis = cooldownMillis;
+        this.sameStoreCooldownMillis = sameStoreCooldownMillis;
+    }
+
+    public boolean canNotify(long lastNotificationTime, long lastStoreNotificationTime, long currentTime) {
+        if (isTooRecent(lastNotificationTime, currentTime, cooldownMillis)) {
+            return false;
+        }
+
+        return !isTooRecent(lastStoreNotificationTime, currentTime, sameStoreCooldownMillis);
+    }
+
+    public boolean isStoreCoolingDown(long lastStoreNotificationTime, long currentTime) {
+        return isTooRecent(lastStoreNotificationTime, currentTime, sameStoreCooldownMillis);
+    }
+
+    private static boolean isTooRecent(long previousTime, long currentTime, long threshold) {
+        return currentTime - previousTime <= threshold;
+    }
+}
@@ -0,0 +1,24 @@
+package com.groceryreminder.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//GeoDistance.filterWithinRadius for lists of objects, such as the Places a search returns, rather than coordinate columns
+public abstract class RadiusFilter<T> {
+
+    public List<T> filter(double latitude, double longitude, List<T> items, double radiusInMeters) {
+        List<T> filteredItems = new ArrayList<T>();
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            if (GeoDistance.isWithinRadius(latitude, longitude, getLatitude(item), getLongitude(item), radiusInMeters)) {
+                filteredItems.add(item);
+            }
+        }
+
+        return filteredItems;
+    }
+
+    protected abstract double getLatitude(T item);
+
+    protected abstract double getLongitude(T item);
+}
@@ -0,0 +1,54 @@
+package com.groceryreminder.core;
+
+//Turns the keys of a list's rows into RecyclerView stable ids, which must be distinct across every row shown at once
+public final class StableIds {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private StableIds() {
+    }
+
+    //64 bit FNV-1a, since String.hashCode collides too readily to serve as an id
+    public static long of(String key) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+    //A row whose id is already taken, usually a second store with the same key, steps on to the next free id
+    public static long[] assign(String[] keys) {
+        long[] ids = new long[keys.length];
+        int capacity = Integer.highestOneBit(Math.max(keys.length, 1)) << 2;
+        long[] table = new long[capacity];
+        boolean[] used = new boolean[capacity];
+        for (int i = 0; i < keys.length; i++) {
+            long id = of(keys[i]);
+            while (!add(table, used, id)) {
+                id++;
+            }
+            ids[i] = id;
+        }
+
+        return ids;
+    }
+
+    private static boolean add(long[] table, boolean[] used, long id) {
+        int mask = table.length - 1;
+        int slot = (int) (id ^ (id >>> 32)) & mask;
+        while (used[slot]) {
+            if (table[slot] == id) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = id;
+        used[slot] = true;
+
+        return true;
+    }
+}
@@ -0,0 +1,15 @@
+package com.groceryreminder.core;
+
+//Read by the app through GroceryReminderConstants and by the benchmarks directly, so both measure the same radii and limits
+public final class StoreConstants {
+
+    public static final double LOCATION_SEARCH_RADIUS_METERS = 8046.72;
+    public static final float LOCATION_GEOFENCE_RADIUS_METERS = 500f;
+    public static final int MAX_LISTED_STORES = 60;
+
+    public static final long NOTIFICATION_COOLDOWN_MILLIS = 300000l;
+    public static final long SAME_STORE_NOTIFICATION_COOLDOWN_MILLIS = 3600000l;
+
+    private StoreConstants() {
+    }
+}
@@ -0,0 +1,90 @@
+package com.groceryreminder.core;
+
+import com.groceryreminder.data.StoreSnapshot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+//The in memory notification times, per store and overall, with the writes not yet persisted; not thread safe
+public class StoreCooldowns {
+
+    private final NotificationCooldown cooldown;
+    private long lastNotificationTime;
+    private final Map<String, Long> lastNotificationTimeByStore = new HashMap<String, Long>();
+    private final Map<String, Long> pendingStoreWrites = new HashMap<String, Long>();
+    private boolean dirty;
+
+    public StoreCooldowns(NotificationCooldown cooldown) {
+        this.cooldown = cooldown;
+    }
+
+    public long getLastNotificationTime() {
+        return lastNotificationTime;
+    }
+
+    public long getLastNotificationTime(String storeKey) {
+        Long storeNotificationTime = lastNotificationTimeByStore.get(storeKey);
+        return storeNotificationTime == null ? 0 : storeNotificationTime;
+    }
+
+    public boolean canNotify(String storeKey, long currentTime) {
+        return cooldown.canNotify(lastNotificationTime, getLastNotificationTime(storeKey), currentTime);
+    }
+
+    public void recordNotification(String storeKey, long currentTime) {
+        lastNotificationTime = currentTime;
+        lastNotificationTimeByStore.put(storeKey, currentTime);
+        pendingStoreWrites.put(storeKey, currentTime);
+        dirty = true;
+    }
+
+    //The decision loop of GroceryStoreNotificationManager.sendPotentialNotification: moves the stores to notify to the front and records them
+    public int claimNotifiableStores(StoreSnapshot snapshot, int[] stores, int storeCount, long currentTime) {
+        int claimedCount = 0;
+        for (int i = 0; i < storeCount; i++) {
+            String storeKey = snapshot.getKey(stores[i]);
+            if (canNotify(storeKey, currentTime)) {
+                recordNotification(storeKey, currentTime);
+                stores[claimedCount++] = stores[i];
+            }
+        }
+
+        return claimedCount;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    protected void restore(long lastNotificationTime, Map<String, Long> lastNotificationTimeByStore) {
+        this.lastNotificationTime = lastNotificationTime;
+        this.lastNotificationTimeByStore.putAll(lastNotificationTimeByStore);
+    }
+
+    protected Map<String, Long> getPendingStoreWrites() {
+        return pendingStoreWrites;
+    }
+
+    //Stores past their cooldown no longer affect anything, so they are forgotten and their keys returned for the caller to delete
+    protected List<String> expire(long currentTime) {
+        List<String> expiredStoreKeys = new ArrayList<String>();
+        Iterator<Map.Entry<String, Long>> iterator = lastNotificationTimeByStore.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> storeNotificationTime = iterator.next();
+            if (!cooldown.isStoreCoolingDown(storeNotificationTime.getValue(), currentTime)) {
+                expiredStoreKeys.add(storeNotificationTime.getKey());
+                iterator.remove();
+            }
+        }
+
+        return expiredStoreKeys;
+    }
+
+    protected void markSaved() {
+        pendingStoreWrites.clear();
+        dirty = false;
+    }
+}
@@ -0,0 +1,38 @@
+package com.groceryreminder.data;
+
+public class StoreEntry {
+
+    private final long id;
+    private final String placesId;
+    private final String name;
+    private final double latitude;
+    private final double longitude;
+
+    public StoreEntry(long id, String placesId, String name, double latitude, double longitude) {
+        this.id = id;
+        this.placesId = placesId;
+        this.name = name;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getPlacesId() {
+        return placesId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+}
@@ -0,0 +1,165 @@
+package com.groceryreminder.data;
+
+import com.groceryreminder.core.GeoDistance;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//Buckets stores into fixed size latitude/longitude cells, so bounding box lookups only visit the cells the box covers; not thread safe
+public final class StoreGrid {
+
+    public static final double CELL_SIZE_DEGREES = 0.05;
+    private static final int LONGITUDE_CELL_COUNT = (int) Math.round(360 / CELL_SIZE_DEGREES);
+
+    private final Map<Long, List<StoreEntry>> cells = new HashMap<Long, List<StoreEntry>>();
+    private final Map<Long, StoreEntry> entriesById = new HashMap<Long, StoreEntry>();
+    private final Map<String, StoreEntry> entriesByPlacesId = new HashMap<String, StoreEntry>();
+
+    public static StoreGrid build(Collection<StoreEntry> entries) {
+        StoreGrid grid = new StoreGrid();
+        for (StoreEntry entry : entries) {
+            grid.add(entry);
+        }
+
+        return grid;
+    }
+
+    public int size() {
+        return entriesById.size();
+    }
+
+    public Collection<StoreEntry> getEntries() {
+        return entriesById.values();
+    }
+
+    public StoreEntry getByPlacesId(String placesId) {
+        return entriesByPlacesId.get(placesId);
+    }
+
+    public void add(StoreEntry entry) {
+        entriesById.put(entry.getId(), entry);
+        if (entry.getPlacesId() != null) {
+            entriesByPlacesId.put(entry.getPlacesId(), entry);
+        }
+
+        long key = cellKey(entry.getLatitude(), entry.getLongitude());
+        List<StoreEntry> cell = cells.get(key);
+        if (cell == null) {
+            cell = new ArrayList<StoreEntry>();
+            cells.put(key, cell);
+        }
+        cell.add(entry);
+    }
+
+    //Returns the removed entry, or null when there was none with that id
+    public StoreEntry remove(long id) {
+        StoreEntry entry = entriesById.remove(id);
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.getPlacesId() != null) {
+            entriesByPlacesId.remove(entry.getPlacesId());
+        }
+
+        long key = cellKey(entry.getLatitude(), entry.getLongitude());
+        List<StoreEntry> cell = cells.get(key);
+        cell.remove(entry);
+        if (cell.isEmpty()) {
+            cells.remove(key);
+        }
+
+        return entry;
+    }
+
+    public void clear() {
+        cells.clear();
+        entriesById.clear();
+        entriesByPlacesId.clear();
+    }
+
+    public List<StoreEntry> findWithinBounds(double latitude, double longitude, double radiusInMeters) {
+        List<StoreEntry> candidates = new ArrayList<StoreEntry>();
+        double latitudeSpan = GeoDistance.latitudeSpan(radiusInMeters);
+        double longitudeSpan = GeoDistance.longitudeSpan(latitude, radiusInMeters);
+
+        int minLatitudeCell = cellIndex(latitude - latitudeSpan);
+        int maxLatitudeCell = cellIndex(latitude + latitudeSpan);
+        int minLongitudeCell = cellIndex(longitude - longitudeSpan);
+        int maxLongitudeCell = Math.min(cellIndex(longitude + longitudeSpan), minLongitudeCell + LONGITUDE_CELL_COUNT - 1);
+
+        for (int latitudeCell = minLatitudeCell; latitudeCell <= maxLatitudeCell; latitudeCell++) {
+            for (int longitudeCell = minLongitudeCell; longitudeCell <= maxLongitudeCell; longitudeCell++) {
+                List<StoreEntry> cell = cells.get(cellKey(latitudeCell, longitudeCell));
+                if (cell == null) {
+                    continue;
+                }
+
+                for (StoreEntry entry : cell) {
+                    if (isWithinBounds(entry, latitude, longitude, latitudeSpan, longitudeSpan)) {
+                        candidates.add(entry);
+                    }
+                }
+            }
+        }
+
+        return candidates;
+    }
+
+    public List<StoreEntry> findOutsideBounds(double latitude, double longitude, double radiusInMeters) {
+        List<StoreEntry> outside = new ArrayList<StoreEntry>();
+        double latitudeSpan = GeoDistance.latitudeSpan(radiusInMeters);
+        double longitudeSpan = GeoDistance.longitudeSpan(latitude, radiusInMeters);
+
+        for (List<StoreEntry> cell : cells.values()) {
+            for (StoreEntry entry : cell) {
+                if (!isWithinBounds(entry, latitude, longitude, latitudeSpan, longitudeSpan)) {
+                    outside.add(entry);
+                }
+            }
+        }
+
+        return outside;
+    }
+
+    //The per row work of GroceryStoreManager.deleteStoresByLocation: the bounding box settles most rows, and only the rest are measured
+    public void partitionByRadius(double latitude, double longitude, double radiusInMeters, List<StoreEntry> within, List<StoreEntry> outside) {
+        outside.addAll(findOutsideBounds(latitude, longitude, radiusInMeters));
+        for (StoreEntry entry : findWithinBounds(latitude, longitude, radiusInMeters)) {
+            if (GeoDistance.isWithinRadius(latitude, longitude, entry.getLatitude(), entry.getLongitude(), radiusInMeters)) {
+                within.add(entry);
+            } else {
+                outside.add(entry);
+            }
+        }
+    }
+
+    private boolean isWithinBounds(StoreEntry entry, double latitude, double longitude, double latitudeSpan, double longitudeSpan) {
+        if (Math.abs(entry.getLatitude() - latitude) > latitudeSpan) {
+            return false;
+        }
+
+        double longitudeDelta = Math.abs(entry.getLongitude() - longitude) % 360;
+        if (longitudeDelta > 180) {
+            longitudeDelta = 360 - longitudeDelta;
+        }
+
+        return longitudeDelta <= longitudeSpan;
+    }
+
+    private static int cellIndex(double degrees) {
+        return (int) Math.floor(degrees / CELL_SIZE_DEGREES);
+    }
+
+    private static long cellKey(double latitude, double longitude) {
+        return cellKey(cellIndex(latitude), cellIndex(longitude));
+    }
+
+    private static long cellKey(int latitudeCell, int longitudeCell) {
+        int wrappedLongitudeCell = ((longitudeCell % LONGITUDE_CELL_COUNT) + LONGITUDE_CELL_COUNT) % LONGITUDE_CELL_COUNT;
+        return ((long) latitudeCell << 32) | (wrappedLongitudeCell & 0xffffffffL);
+    }
+}
@@ -0,0 +1,147 @@
+package com.groceryreminder.data;
+
+import com.groceryreminder.core.StableIds;
+
+import java.util.Arrays;
+
+//The rows of a StoreSnapshot to show, in display order, as indices into the snapshot rather than a copy of each store
+public final class StoreRanking {
+
+    public static final float UNKNOWN_DISTANCE = -1;
+    public static final StoreRanking EMPTY = new StoreRanking(StoreSnapshot.EMPTY, new int[0], null, 0);
+
+    private final StoreSnapshot snapshot;
+    private final int[] stores;
+    private final float[] distances;
+    private final int count;
+    private final long[] stableIds;
+
+    //Rankings are built on the loader thread, so the ids are worked out there rather than on every bind
+    private StoreRanking(StoreSnapshot snapshot, int[] stores, float[] distances, int count) {
+        this.snapshot = snapshot;
+        this.stores = stores;
+        this.distances = distances;
+        this.count = count;
+        this.stableIds = StableIds.assign(getKeys());
+    }
+
+    private String[] getKeys() {
+        String[] keys = new String[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = getKey(i);
+        }
+
+        return keys;
+    }
+
+    //Every store in snapshot order, for when there is no location to measure from
+    public static StoreRanking unranked(StoreSnapshot snapshot) {
+        int[] stores = new int[snapshot.size()];
+        for (int i = 0; i < stores.length; i++) {
+            stores[i] = i;
+        }
+
+        return new StoreRanking(snapshot, stores, null, stores.length);
+    }
+
+    //The stores within the radius, nearest first
+    public static StoreRanking byDistance(StoreSnapshot snapshot, double latitude, double longitude, double radiusInMeters) {
+        return nearest(snapshot, latitude, longitude, radiusInMeters, snapshot.size());
+    }
+
+    //At most limit of the stores within the radius, nearest first
+    public static StoreRanking nearest(StoreSnapshot snapshot, double latitude, double longitude, double radiusInMeters, int limit) {
+        int[] stores = new int[snapshot.size()];
+        int matches = snapshot.findWithinRadius(latitude, longitude, radiusInMeters, stores);
+
+        //Non-negative floats order the same as their bits, so each key sorts by distance and carries its store index along
+        long[] keys = new long[matches];
+        for (int i = 0; i < matches; i++) {
+            float distance = snapshot.distanceFrom(stores[i], latitude, longitude);
+            keys[i] = ((long) Float.floatToIntBits(distance) << 32) | stores[i];
+        }
+        int count = Math.min(matches, Math.max(limit, 0));
+        if (count < matches) {
+            selectSmallest(keys, count);
+        }
+        Arrays.sort(keys, 0, count);
+
+        float[] distances = new float[count];
+        for (int i = 0; i < count; i++) {
+            stores[i] = (int) keys[i];
+            distances[i] = Float.intBitsToFloat((int) (keys[i] >>> 32));
+        }
+
+        return new StoreRanking(snapshot, stores, distances, count);
+    }
+
+    //Moves the count smallest keys to the front, using the front as a max heap so only the current kth nearest is ever compared against
+    private static void selectSmallest(long[] keys, int count) {
+        if (count == 0) {
+            return;
+        }
+
+        for (int i = count / 2 - 1; i >= 0; i--) {
+            siftDown(keys, i, count);
+        }
+        for (int i = count; i < keys.length; i++) {
+            if (keys[i] < keys[0]) {
+                keys[0] = keys[i];
+                siftDown(keys, 0, count);
+            }
+        }
+    }
+
+    private static void siftDown(long[] heap, int index, int size) {
+        long key = heap[index];
+        int child = 2 * index + 1;
+        while (child < size) {
+            if (child + 1 < size && heap[child + 1] > heap[child]) {
+                child++;
+            }
+            if (heap[child] <= key) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+            child = 2 * index + 1;
+        }
+        heap[index] = key;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public long getId(int position) {
+        return snapshot.getId(stores[position]);
+    }
+
+    public String getPlacesId(int position) {
+        return snapshot.getPlacesId(stores[position]);
+    }
+
+    public String getKey(int position) {
+        return snapshot.getKey(stores[position]);
+    }
+
+    public long getStableId(int position) {
+        return stableIds[position];
+    }
+
+    public String getName(int position) {
+        return snapshot.getName(stores[position]);
+    }
+
+    public double getLatitude(int position) {
+        return snapshot.getLatitude(stores[position]);
+    }
+
+    public double getLongitude(int position) {
+        return snapshot.getLongitude(stores[position]);
+    }
+
+    public float getDistance(int position) {
+        return distances == null ? UNKNOWN_DISTANCE : distances[position];
+    }
+}
@@ -0,0 +1,170 @@
+package com.groceryreminder.data;
+
+import com.groceryreminder.core.GeoDistance;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+//An immutable, column per field copy of the locations table, sorted by latitude so radius queries only scan one latitude band
+public final class StoreSnapshot {
+
+    public static final StoreSnapshot EMPTY = new StoreSnapshot(new long[0], new String[0], new int[0], new String[0], new double[0], new double[0]);
+    //A degree of latitude is as short as 110574m at the equator, so the index's span is widened to never cut off the band's edge
+    private static final double LATITUDE_SPAN_MARGIN = 1.01;
+
+    private static final Comparator<StoreEntry> BY_LATITUDE = new Comparator<StoreEntry>() {
+        @Override
+        public int compare(StoreEntry lhs, StoreEntry rhs) {
+            return Double.compare(lhs.getLatitude(), rhs.getLatitude());
+        }
+    };
+
+    private final long[] ids;
+    private final String[] placesIds;
+    private final int[] nameIndices;
+    private final String[] nameTable;
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    private StoreSnapshot(long[] ids, String[] placesIds, int[] nameIndices, String[] nameTable, double[] latitudes, double[] longitudes) {
+        this.ids = ids;
+        this.placesIds = placesIds;
+        this.nameIndices = nameIndices;
+        this.nameTable = nameTable;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+    }
+
+    public static StoreSnapshot build(Collection<StoreEntry> entries) {
+        if (entries.isEmpty()) {
+            return EMPTY;
+        }
+
+        StoreEntry[] sortedEntries = entries.toArray(new StoreEntry[entries.size()]);
+        Arrays.sort(sortedEntries, BY_LATITUDE);
+
+        int count = sortedEntries.length;
+        long[] ids = new long[count];
+        String[] placesIds = new String[count];
+        int[] nameIndices = new int[count];
+        double[] latitudes = new double[count];
+        double[] longitudes = new double[count];
+        //Chains repeat the same store name, so each distinct name is stored once
+        Map<String, Integer> nameIndexByName = new HashMap<String, Integer>();
+        String[] names = new String[count];
+        int nameCount = 0;
+
+        for (int i = 0; i < count; i++) {
+            StoreEntry entry = sortedEntries[i];
+            ids[i] = entry.getId();
+            placesIds[i] = entry.getPlacesId();
+            latitudes[i] = entry.getLatitude();
+            longitudes[i] = entry.getLongitude();
+
+            Integer nameIndex = nameIndexByName.get(entry.getName());
+            if (nameIndex == null) {
+                nameIndex = nameCount;
+                names[nameCount++] = entry.getName();
+                nameIndexByName.put(entry.getName(), nameIndex);
+            }
+            nameIndices[i] = nameIndex;
+        }
+
+        return new StoreSnapshot(ids, placesIds, nameIndices, Arrays.copyOf(names, nameCount), latitudes, longitudes);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public long getId(int index) {
+        return ids[index];
+    }
+
+    public String getPlacesId(int index) {
+        return placesIds[index];
+    }
+
+    public String getName(int index) {
+        return nameTable[nameIndices[index]];
+    }
+
+    //Identifies a store across loads, falling back to its name for rows saved without a places id
+    public String getKey(int index) {
+        String placesId = placesIds[index];
+        return placesId != null ? placesId : getName(index);
+    }
+
+    public double getLatitude(int index) {
+        return latitudes[index];
+    }
+
+    public double getLongitude(int index) {
+        return longitudes[index];
+    }
+
+    int getDistinctNameCount() {
+        return nameTable.length;
+    }
+
+    public float distanceFrom(int index, double latitude, double longitude) {
+        return GeoDistance.distanceBetween(latitude, longitude, latitudes[index], longitudes[index]);
+    }
+
+    //Ranks by the flat earth approximation and only measures the winner exactly, returns positive infinity when there are no stores
+    public double distanceToNearest(double latitude, double longitude) {
+        int nearestIndex = -1;
+        double nearestApproximateDistance = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < latitudes.length; i++) {
+            double approximateDistance = GeoDistance.approximateDistance(latitude, longitude, latitudes[i], longitudes[i]);
+            if (approximateDistance < nearestApproximateDistance) {
+                nearestApproximateDistance = approximateDistance;
+                nearestIndex = i;
+            }
+        }
+
+        return nearestIndex < 0 ? Double.POSITIVE_INFINITY : distanceFrom(nearestIndex, latitude, longitude);
+    }
+
+    //Writes the indices of the stores within the radius into matches, which must hold at least size() entries
+    public int findWithinRadius(double latitude, double longitude, double radiusInMeters, int[] matches) {
+        double latitudeSpan = GeoDistance.latitudeSpan(radiusInMeters) * LATITUDE_SPAN_MARGIN;
+        int fromIndex = lowerBound(latitude - latitudeSpan);
+        int toIndex = upperBound(latitude + latitudeSpan);
+
+        return GeoDistance.filterWithinRadius(latitude, longitude, latitudes, longitudes, fromIndex, toIndex, radiusInMeters, matches);
+    }
+
+    private int lowerBound(double latitude) {
+        int low = 0;
+        int high = latitudes.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (latitudes[middle] < latitude) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private int upperBound(double latitude) {
+        int low = 0;
+        int high = latitudes.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (latitudes[middle] <= latitude) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+}
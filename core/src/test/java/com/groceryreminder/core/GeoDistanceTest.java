@@ -0,0 +1,127 @@
+package com.groceryreminder.core;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GeoDistanceTest {
+
+    @Test
+    public void givenTheSamePointWhenTheDistanceIsMeasuredThenItIsZero() {
+        assertEquals(0f, GeoDistance.distanceBetween(1, 2, 1, 2), 0f);
+    }
+
+    @Test
+    public void givenOneDegreeOfLongitudeOnTheEquatorWhenTheDistanceIsMeasuredThenItMatchesTheEllipsoid() {
+        assertEquals(111319.49f, GeoDistance.distanceBetween(0, 0, 0, 1), 0.5f);
+    }
+
+    @Test
+    public void givenTwoCitiesWhenTheDistanceIsMeasuredThenItIsSymmetric() {
+        float distance = GeoDistance.distanceBetween(42.3601, -71.0589, 40.7128, -74.0060);
+
+        assertEquals(306490f, distance, 100f);
+        assertEquals(distance, GeoDistance.distanceBetween(40.7128, -74.0060, 42.3601, -71.0589), 0.01f);
+    }
+
+    @Test
+    public void givenAPointInsideTheRadiusWhenItIsCheckedThenItIsWithinRadius() {
+        assertTrue(GeoDistance.isWithinRadius(0, 0, 0, 0.01, 8046.72));
+        assertFalse(GeoDistance.isWithinRadius(0, 0, 0, 0.1, 8046.72));
+    }
+
+    @Test
+    public void givenAShortDistanceWhenItIsApproximatedThenItIsWithinTheFastPathTolerance() {
+        float exactDistance = GeoDistance.distanceBetween(42.3601, -71.0589, 42.4, -71.0);
+        double approximateDistance = GeoDistance.approximateDistance(42.3601, -71.0589, 42.4, -71.0);
+
+        assertEquals(exactDistance, approximateDistance, exactDistance * GeoDistance.FAST_PATH_TOLERANCE);
+    }
+
+    @Test
+    public void givenPointsStraddlingTheRadiusWhenTheyAreCheckedThenTheExactDistanceDecides() {
+        double radius = 500;
+        double metersPerDegreeOnTheEquator = GeoDistance.distanceBetween(0, 0, 0, 1);
+
+        assertTrue(GeoDistance.isWithinRadius(0, 0, 0, (radius - 0.5) / metersPerDegreeOnTheEquator, radius));
+        assertFalse(GeoDistance.isWithinRadius(0, 0, 0, (radius + 0.5) / metersPerDegreeOnTheEquator, radius));
+    }
+
+    @Test
+    public void givenRandomPointsWhenTheyAreCheckedThenTheFastPathAgreesWithTheExactDistance() {
+        Random random = new Random(7);
+        for (int i = 0; i < 10000; i++) {
+            double latitude = (random.nextDouble() - 0.5) * 140;
+            double longitude = (random.nextDouble() - 0.5) * 360;
+            double otherLatitude = latitude + (random.nextDouble() - 0.5) * 0.2;
+            double otherLongitude = longitude + (random.nextDouble() - 0.5) * 0.2;
+
+            boolean expected = GeoDistance.distanceBetween(latitude, longitude, otherLatitude, otherLongitude) <= (float) 8046.72;
+            assertEquals(expected, GeoDistance.isWithinRadius(latitude, longitude, otherLatitude, otherLongitude, 8046.72));
+        }
+    }
+
+    @Test
+    public void givenStoresInParallelArraysWhenTheyAreFilteredThenTheMatchingIndicesAreReturned() {
+        double[] latitudes = {0, 0.1, 0.001, 0};
+        double[] longitudes = {0, 0, 0, 179.999};
+        int[] matches = new int[latitudes.length];
+
+        int matchCount = GeoDistance.filterWithinRadius(0, -179.999, latitudes, longitudes, latitudes.length, 500, matches);
+
+        assertEquals(1, matchCount);
+        assertEquals(3, matches[0]);
+    }
+
+    @Test
+    public void givenStoresInParallelArraysWhenTheyAreFilteredThenTheResultMatchesTheScalarCheck() {
+        Random random = new Random(11);
+        int count = 1000;
+        double[] latitudes = new double[count];
+        double[] longitudes = new double[count];
+        for (int i = 0; i < count; i++) {
+            latitudes[i] = 40 + (random.nextDouble() - 0.5) * 0.2;
+            longitudes[i] = -80 + (random.nextDouble() - 0.5) * 0.2;
+        }
+        int[] matches = new int[count];
+
+        int matchCount = GeoDistance.filterWithinRadius(40, -80, latitudes, longitudes, count, 8046.72, matches);
+
+        int expectedCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (GeoDistance.isWithinRadius(40, -80, latitudes[i], longitudes[i], 8046.72)) {
+                assertEquals(i, matches[expectedCount++]);
+            }
+        }
+        assertEquals(expectedCount, matchCount);
+    }
+
+    @Test
+    public void givenStoresInParallelArraysWhenTheirDistancesAreRequestedThenEachIsExact() {
+        double[] latitudes = {0, 0};
+        double[] longitudes = {1, 2};
+        float[] distances = new float[2];
+
+        GeoDistance.distancesBetween(0, 0, latitudes, longitudes, 2, distances);
+
+        assertEquals(GeoDistance.distanceBetween(0, 0, 0, 1), distances[0], 0f);
+        assertEquals(GeoDistance.distanceBetween(0, 0, 0, 2), distances[1], 0f);
+    }
+
+    @Test
+    public void givenARangeOfStoresWhenTheyAreFilteredThenOnlyThatRangeIsChecked() {
+        double[] latitudes = {0, 0, 0, 0};
+        double[] longitudes = {0, 0.001, 0.002, 0};
+        int[] matches = new int[latitudes.length];
+
+        int matchCount = GeoDistance.filterWithinRadius(0, 0, latitudes, longitudes, 1, 3, 500, matches);
+
+        assertEquals(2, matchCount);
+        assertEquals(1, matches[0]);
+        assertEquals(2, matches[1]);
+    }
+}
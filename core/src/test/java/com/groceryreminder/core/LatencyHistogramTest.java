@@ -0,0 +1,103 @@
+package com.groceryreminder.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    private LatencyHistogram histogram;
+
+    @Before
+    public void setUp() {
+        histogram = new LatencyHistogram();
+    }
+
+    @Test
+    public void givenNoValuesWhenASnapshotIsTakenThenItIsEmpty() {
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getMean());
+        assertEquals(0, snapshot.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void givenSmallValuesWhenTheyAreRecordedThenTheyAreExact() {
+        for (int value = 0; value < 2 * LatencyHistogram.SUB_BUCKET_COUNT; value++) {
+            assertEquals(value, LatencyHistogram.bucketIndex(value));
+            assertEquals(value, LatencyHistogram.highestValueInBucket(value));
+        }
+    }
+
+    @Test
+    public void givenAnyValueWhenItIsBucketedThenTheBucketIsWithinOneSixteenthOfIt() {
+        Random random = new Random(3);
+        for (int i = 0; i < 10000; i++) {
+            long value = (long) Math.pow(2, random.nextDouble() * LatencyHistogram.MAX_EXPONENT);
+            long highestValue = LatencyHistogram.highestValueInBucket(LatencyHistogram.bucketIndex(value));
+
+            assertTrue(highestValue >= value);
+            assertTrue(highestValue - value <= value / LatencyHistogram.SUB_BUCKET_COUNT);
+        }
+    }
+
+    @Test
+    public void givenAValueBeyondTheRangeWhenItIsRecordedThenItLandsInTheLastBucketAndSetsTheMax() {
+        histogram.record(Long.MAX_VALUE / 2);
+
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE / 2));
+        assertEquals(Long.MAX_VALUE / 2, histogram.snapshot().getValueAtPercentile(100));
+    }
+
+    @Test
+    public void givenUniformValuesWhenPercentilesAreReadThenTheyAreWithinTheBucketError() {
+        for (int value = 1; value <= 1000; value++) {
+            histogram.record(value * 1000l);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(500500, snapshot.getMean());
+        assertEquals(1000000, snapshot.getMax());
+        assertEquals(500000, snapshot.getValueAtPercentile(50), 500000 / LatencyHistogram.SUB_BUCKET_COUNT);
+        assertEquals(990000, snapshot.getValueAtPercentile(99), 990000 / LatencyHistogram.SUB_BUCKET_COUNT);
+        assertEquals(1000000, snapshot.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void givenSeveralThreadsWhenTheyRecordThenNoValueIsLost() throws InterruptedException {
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        histogram.record(j);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(40000, histogram.getCount());
+        assertEquals(40000, histogram.snapshot().getCount());
+        assertEquals(9999, histogram.snapshot().getMax());
+    }
+
+    @Test
+    public void givenRecordedValuesWhenTheHistogramIsResetThenItIsEmpty() {
+        histogram.record(100);
+        histogram.reset();
+
+        assertEquals(0, histogram.snapshot().getCount());
+        assertEquals(0, histogram.snapshot().getMax());
+    }
+}
@@ -0,0 +1,229 @@
+package com.groceryreminder.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class ListDiffTest {
+
+    //Items are "key:content", so the same key with other content is a change rather than a replacement
+    private static ListDiff.Callback createCallback(final List<String> oldItems, final List<String> newItems) {
+        return new ListDiff.Callback() {
+            @Override
+            public int getOldSize() {
+                return oldItems.size();
+            }
+
+            @Override
+            public int getNewSize() {
+                return newItems.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldPosition, int newPosition) {
+                return key(oldItems.get(oldPosition)).equals(key(newItems.get(newPosition)));
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldPosition, int newPosition) {
+                return oldItems.get(oldPosition).equals(newItems.get(newPosition));
+            }
+
+            @Override
+            public Object getOldKey(int oldPosition) {
+                return key(oldItems.get(oldPosition));
+            }
+
+            @Override
+            public Object getNewKey(int newPosition) {
+                return key(newItems.get(newPosition));
+            }
+        };
+    }
+
+    private static String key(String item) {
+        return item.split(":")[0];
+    }
+
+    private static List<String> items(String... items) {
+        return new ArrayList<String>(Arrays.asList(items));
+    }
+
+    private static RecordingCallback dispatch(List<String> oldItems, List<String> newItems) {
+        RecordingCallback recordingCallback = new RecordingCallback(oldItems, newItems);
+        ListDiff.calculate(createCallback(oldItems, newItems)).dispatchUpdatesTo(recordingCallback);
+
+        assertEquals(newItems, recordingCallback.items);
+        return recordingCallback;
+    }
+
+    @Test
+    public void givenTheSameListWhenItIsDiffedThenThereAreNoUpdates() {
+        RecordingCallback updates = dispatch(items("a", "b", "c"), items("a", "b", "c"));
+
+        assertEquals(Collections.<String>emptyList(), updates.operations);
+    }
+
+    @Test
+    public void givenAnItemWasAddedInTheMiddleWhenItIsDiffedThenOneInsertionIsReported() {
+        RecordingCallback updates = dispatch(items("a", "b", "c"), items("a", "x", "b", "c"));
+
+        assertEquals(items("inserted 1 1"), updates.operations);
+    }
+
+    @Test
+    public void givenItemsWereRemovedWhenTheyAreDiffedThenRemovalsAreGroupedBackToFront() {
+        RecordingCallback updates = dispatch(items("a", "b", "c", "d", "e", "f"), items("a", "d", "f"));
+
+        assertEquals(items("removed 4 1", "removed 1 2"), updates.operations);
+    }
+
+    @Test
+    public void givenAnItemsContentChangedWhenItIsDiffedThenOnlyAChangeIsReported() {
+        RecordingCallback updates = dispatch(items("a", "b:1", "c"), items("a", "b:2", "c"));
+
+        assertEquals(items("changed 1 1"), updates.operations);
+    }
+
+    @Test
+    public void givenTheFirstItemWentToTheEndWhenItIsDiffedThenASingleMoveIsReported() {
+        RecordingCallback updates = dispatch(items("a", "b", "c", "d"), items("b", "c", "d", "a"));
+
+        assertEquals(items("moved 0 3"), updates.operations);
+    }
+
+    @Test
+    public void givenAMovedItemAlsoChangedWhenItIsDiffedThenItIsMovedAndChanged() {
+        RecordingCallback updates = dispatch(items("a:1", "b", "c"), items("b", "c", "a:2"));
+
+        assertEquals(items("moved 0 2", "changed 2 1"), updates.operations);
+    }
+
+    @Test
+    public void givenEmptyListsWhenTheyAreDiffedThenWholeListsAreInsertedOrRemoved() {
+        assertEquals(items("inserted 0 2"), dispatch(items(), items("a", "b")).operations);
+        assertEquals(items("removed 0 2"), dispatch(items("a", "b"), items()).operations);
+    }
+
+    @Test
+    public void givenADiffWhenPositionsAreMappedThenMatchedItemsPointAtEachOther() {
+        ListDiff diff = ListDiff.calculate(createCallback(items("a", "b", "c"), items("c", "x", "a")));
+
+        assertEquals(3, diff.getOldSize());
+        assertEquals(3, diff.getNewSize());
+        assertEquals(2, diff.getNewPosition(0));
+        assertEquals(ListDiff.NO_POSITION, diff.getNewPosition(1));
+        assertEquals(0, diff.getOldPosition(2));
+        assertEquals(ListDiff.NO_POSITION, diff.getOldPosition(1));
+    }
+
+    @Test
+    public void givenRandomEditsWhenTheyAreDiffedThenReplayingTheUpdatesProducesTheNewList() {
+        Random random = new Random(11);
+        for (int round = 0; round < 500; round++) {
+            List<String> oldItems = new ArrayList<String>();
+            int oldSize = random.nextInt(12);
+            for (int i = 0; i < oldSize; i++) {
+                oldItems.add(i + ":0");
+            }
+
+            List<String> newItems = new ArrayList<String>();
+            for (String item : oldItems) {
+                int edit = random.nextInt(6);
+                if (edit == 0) {
+                    continue;
+                } else if (edit == 1) {
+                    newItems.add(key(item) + ":1");
+                } else {
+                    newItems.add(item);
+                }
+                if (random.nextInt(5) == 0) {
+                    newItems.add("n" + round + "_" + newItems.size() + ":0");
+                }
+            }
+            if (newItems.size() > 1 && random.nextBoolean()) {
+                newItems.add(random.nextInt(newItems.size()), newItems.remove(random.nextInt(newItems.size())));
+            }
+
+            RecordingCallback updates = dispatch(oldItems, newItems);
+            assertEquals(updates.expectedChanges(), updates.changes);
+        }
+    }
+
+    @Test
+    public void givenALongListWasReversedWhenItIsDiffedThenReplayingTheUpdatesProducesTheNewList() {
+        List<String> oldItems = new ArrayList<String>();
+        for (int i = 0; i < 2000; i++) {
+            oldItems.add(i + ":0");
+        }
+        List<String> newItems = new ArrayList<String>(oldItems);
+        Collections.reverse(newItems);
+
+        RecordingCallback updates = dispatch(oldItems, newItems);
+
+        assertEquals(newItems, updates.items);
+    }
+
+    //Replays the updates on a copy of the old list, the way a RecyclerView would, reading new items only for insertions and changes
+    private static class RecordingCallback implements ListDiff.UpdateCallback {
+
+        private final List<String> newItems;
+        private final List<String> items;
+        private final List<String> operations = new ArrayList<String>();
+        private int changes;
+
+        private RecordingCallback(List<String> oldItems, List<String> newItems) {
+            this.newItems = newItems;
+            this.items = new ArrayList<String>(oldItems);
+        }
+
+        private int expectedChanges() {
+            int expectedChanges = 0;
+            for (String item : newItems) {
+                if (item.endsWith(":1")) {
+                    expectedChanges++;
+                }
+            }
+
+            return expectedChanges;
+        }
+
+        @Override
+        public void onInserted(int position, int count) {
+            operations.add("inserted " + position + " " + count);
+            for (int i = 0; i < count; i++) {
+                items.add(position + i, newItems.get(position + i));
+            }
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            operations.add("removed " + position + " " + count);
+            for (int i = 0; i < count; i++) {
+                items.remove(position);
+            }
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            operations.add("moved " + fromPosition + " " + toPosition);
+            items.add(toPosition, items.remove(fromPosition));
+        }
+
+        @Override
+        public void onChanged(int position, int count) {
+            operations.add("changed " + position + " " + count);
+            for (int i = 0; i < count; i++) {
+                assertEquals(key(newItems.get(position + i)), key(items.get(position + i)));
+                items.set(position + i, newItems.get(position + i));
+                changes++;
+            }
+        }
+    }
+}
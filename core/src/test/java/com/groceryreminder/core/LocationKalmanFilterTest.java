@@ -0,0 +1,128 @@
+package com.groceryreminder.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LocationKalmanFilterTest {
+
+    private static final double LATITUDE = 39.9733;
+    private static final double LONGITUDE = -82.9979;
+    private static final double ACCELERATION = 3;
+    private static final long STEP_MILLIS = 1000;
+
+    private LocationKalmanFilter filter;
+    private double metersPerDegreeLatitude;
+
+    @Before
+    public void setUp() {
+        filter = new LocationKalmanFilter(ACCELERATION);
+        metersPerDegreeLatitude = GeoDistance.metersPerDegreeLatitude(LATITUDE);
+    }
+
+    @Test
+    public void givenAFirstFixWhenItIsFilteredThenItIsReturnedAsIs() {
+        assertTrue(filter.update(1000, LATITUDE, LONGITUDE, 20));
+
+        assertEquals(LATITUDE, filter.getLatitude(), 1e-9);
+        assertEquals(LONGITUDE, filter.getLongitude(), 1e-9);
+        assertEquals(20, filter.getAccuracy(), 1e-9);
+        assertEquals(400, filter.getNorthVariance(), 1e-9);
+        assertEquals(400, filter.getEastVariance(), 1e-9);
+        assertEquals(0, filter.getSpeed(), 0);
+    }
+
+    @Test
+    public void givenNoisyFixesOfAStationaryUserWhenTheyAreFilteredThenTheJitterIsSmoothedOut() {
+        Random random = new Random(7);
+        double worstRawError = 0;
+        for (int i = 0; i < 60; i++) {
+            double northError = random.nextGaussian() * 20;
+            worstRawError = Math.max(worstRawError, Math.abs(northError));
+            filter.update(i * STEP_MILLIS, LATITUDE + northError / metersPerDegreeLatitude, LONGITUDE, 20);
+        }
+
+        double smoothedError = GeoDistance.distanceBetween(LATITUDE, LONGITUDE, filter.getLatitude(), filter.getLongitude());
+        assertTrue(smoothedError < worstRawError / 2);
+        assertTrue(filter.getAccuracy() < 20);
+    }
+
+    @Test
+    public void givenAUserMovingNorthWhenTheirFixesAreFilteredThenTheVelocityIsEstimated() {
+        for (int i = 0; i < 30; i++) {
+            filter.update(i * STEP_MILLIS, LATITUDE + i * 10 / metersPerDegreeLatitude, LONGITUDE, 5);
+        }
+
+        assertEquals(10, filter.getSpeed(), 0.5);
+        assertEquals(0, Math.min(filter.getBearing(), 360 - filter.getBearing()), 1);
+        assertEquals(LATITUDE + 290 / metersPerDegreeLatitude, filter.getLatitude(), 2 / metersPerDegreeLatitude);
+    }
+
+    @Test
+    public void givenAFixOlderThanTheStateWhenItIsFilteredThenItIsIgnored() {
+        filter.update(2000, LATITUDE, LONGITUDE, 10);
+
+        assertFalse(filter.update(2000, LATITUDE + 0.001, LONGITUDE, 10));
+        assertFalse(filter.update(1000, LATITUDE + 0.001, LONGITUDE, 10));
+        assertEquals(LATITUDE, filter.getLatitude(), 1e-9);
+    }
+
+    @Test
+    public void givenASingleOutlierWhenItIsFilteredThenItIsRejected() {
+        filter.update(0, LATITUDE, LONGITUDE, 5);
+        filter.update(STEP_MILLIS, LATITUDE, LONGITUDE, 5);
+
+        assertFalse(filter.update(2 * STEP_MILLIS, LATITUDE + 0.01, LONGITUDE, 5));
+        assertEquals(LATITUDE, filter.getLatitude(), 1e-7);
+        assertEquals(STEP_MILLIS, filter.getTime());
+    }
+
+    @Test
+    public void givenARunOfOutliersWhenTheyAreFilteredThenTheFilterFollowsThem() {
+        filter.update(0, LATITUDE, LONGITUDE, 5);
+
+        for (int i = 1; i < LocationKalmanFilter.MAX_CONSECUTIVE_OUTLIERS; i++) {
+            assertFalse(filter.update(i * STEP_MILLIS, LATITUDE + 0.01, LONGITUDE, 5));
+        }
+
+        assertTrue(filter.update(LocationKalmanFilter.MAX_CONSECUTIVE_OUTLIERS * STEP_MILLIS, LATITUDE + 0.01, LONGITUDE, 5));
+        assertEquals(LATITUDE + 0.01, filter.getLatitude(), 1e-9);
+    }
+
+    @Test
+    public void givenALongGapWhenTheNextFixIsFilteredThenTheFilterStartsOver() {
+        filter.update(0, LATITUDE, LONGITUDE, 5);
+
+        assertTrue(filter.update(LocationKalmanFilter.MAX_PREDICTION_MILLIS + 1, LATITUDE + 0.1, LONGITUDE, 30));
+        assertEquals(LATITUDE + 0.1, filter.getLatitude(), 1e-9);
+        assertEquals(30, filter.getAccuracy(), 1e-9);
+    }
+
+    @Test
+    public void givenFixesAtTheSlowestScheduleWhenTheyAreFilteredThenTheFilterKeepsTrackingTheUser() {
+        long intervalMillis = LocationUpdateSchedule.MAX_INTERVAL_MILLIS;
+        double metersPerInterval = 10 * intervalMillis / 1000.0;
+        for (int i = 0; i < 5; i++) {
+            assertTrue(filter.update(i * intervalMillis, LATITUDE + i * metersPerInterval / metersPerDegreeLatitude, LONGITUDE, 20));
+        }
+
+        assertEquals(10, filter.getSpeed(), 0.5);
+        assertEquals(0, Math.min(filter.getBearing(), 360 - filter.getBearing()), 1);
+        assertEquals(LATITUDE + 4 * metersPerInterval / metersPerDegreeLatitude, filter.getLatitude(), 20 / metersPerDegreeLatitude);
+        assertTrue(filter.getAccuracy() <= 20);
+    }
+
+    @Test
+    public void givenFixesAcrossTheAntimeridianWhenTheyAreFilteredThenTheLongitudeStaysWrapped() {
+        filter.update(0, 0, 179.9999, 5);
+        filter.update(STEP_MILLIS, 0, -179.9999, 5);
+
+        assertTrue(Math.abs(filter.getLongitude()) > 179.99);
+        assertTrue(filter.getLongitude() >= -180 && filter.getLongitude() < 180);
+    }
+}
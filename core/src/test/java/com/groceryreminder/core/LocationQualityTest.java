@@ -0,0 +1,33 @@
+package com.groceryreminder.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LocationQualityTest {
+
+    @Test
+    public void givenAnAccuracyAtTheMaximumWhenItIsCheckedThenItIsAccurate() {
+        assertTrue(LocationQuality.isAccurate(100, 100));
+        assertFalse(LocationQuality.isAccurate(101, 100));
+    }
+
+    @Test
+    public void givenAnUpdateAtTheSignificantTimeDeltaWhenItIsComparedThenItIsSignificantlyNewer() {
+        assertTrue(LocationQuality.isSignificantlyNewer(0, LocationQuality.SIGNIFICANT_TIME_DELTA_MILLIS));
+        assertFalse(LocationQuality.isSignificantlyNewer(0, LocationQuality.SIGNIFICANT_TIME_DELTA_MILLIS - 1));
+    }
+
+    @Test
+    public void givenAnUpdateWithHalfTheAccuracyRadiusWhenItIsComparedThenItIsSignificantlyMoreAccurate() {
+        assertTrue(LocationQuality.isSignificantlyMoreAccurate(20, 10));
+        assertFalse(LocationQuality.isSignificantlyMoreAccurate(20, 11));
+    }
+
+    @Test
+    public void givenAnUpdateWhichIsNeitherNewerNorMoreAccurateWhenItIsComparedThenItIsNotBetter() {
+        assertFalse(LocationQuality.isBetter(0, 20, 1, 20));
+        assertTrue(LocationQuality.isBetter(0, 20, 1, 5));
+    }
+}
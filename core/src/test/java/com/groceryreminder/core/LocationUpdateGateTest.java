@@ -0,0 +1,76 @@
+package com.groceryreminder.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LocationUpdateGateTest {
+
+    private static final long MIN_INTERVAL = 300000;
+    private static final double MIN_DISPLACEMENT = 500;
+    //About 1.1km north
+    private static final double MOVED_LATITUDE = 0.01;
+
+    private long elapsedMillis;
+    private LocationUpdateGate gate;
+
+    @Before
+    public void setUp() {
+        elapsedMillis = 1000;
+        gate = new LocationUpdateGate(new MonotonicClock() {
+            @Override
+            public long elapsedMillis() {
+                return elapsedMillis;
+            }
+        }, MIN_INTERVAL, MIN_DISPLACEMENT);
+    }
+
+    @Test
+    public void givenNothingHasPassedWhenAFixArrivesThenItPasses() {
+        assertTrue(gate.tryPass(0, 0));
+    }
+
+    @Test
+    public void givenTheUserMovedWhenAFixArrivesBeforeTheIntervalThenItIsHeld() {
+        gate.tryPass(0, 0);
+        elapsedMillis += MIN_INTERVAL - 1;
+
+        assertFalse(gate.tryPass(MOVED_LATITUDE, 0));
+    }
+
+    @Test
+    public void givenTheIntervalHasPassedWhenAFixArrivesAtTheSamePlaceThenItIsHeld() {
+        gate.tryPass(0, 0);
+        elapsedMillis += MIN_INTERVAL;
+
+        assertFalse(gate.tryPass(0, 0));
+    }
+
+    @Test
+    public void givenTheIntervalHasPassedWhenAFixArrivesFarEnoughAwayThenItPasses() {
+        gate.tryPass(0, 0);
+        elapsedMillis += MIN_INTERVAL;
+
+        assertTrue(gate.tryPass(MOVED_LATITUDE, 0));
+    }
+
+    @Test
+    public void givenAFixWasHeldWhenTheNextFixArrivesThenItIsMeasuredFromTheLastFixLetThrough() {
+        gate.tryPass(0, 0);
+        elapsedMillis += MIN_INTERVAL / 2;
+        assertFalse(gate.tryPass(MOVED_LATITUDE, 0));
+        elapsedMillis += MIN_INTERVAL / 2;
+
+        assertTrue(gate.tryPass(MOVED_LATITUDE, 0));
+    }
+
+    @Test
+    public void givenTheGateIsResetWhenAFixArrivesThenItPasses() {
+        gate.tryPass(0, 0);
+        gate.reset();
+
+        assertTrue(gate.tryPass(0, 0));
+    }
+}
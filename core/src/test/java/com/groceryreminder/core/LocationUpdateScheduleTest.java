@@ -0,0 +1,74 @@
+package com.groceryreminder.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LocationUpdateScheduleTest {
+
+    private static final double GEOFENCE_RADIUS = 500;
+    private static final long MIN_INTERVAL = 15000;
+    private static final float MAX_DISTANCE = 8046.72f;
+
+    @Test
+    public void givenNoKnownStoresWhenAScheduleIsComputedThenUpdatesAreRelaxed() {
+        LocationUpdateSchedule schedule = LocationUpdateSchedule.forApproach(30, Double.POSITIVE_INFINITY, GEOFENCE_RADIUS, MIN_INTERVAL, MAX_DISTANCE);
+
+        assertEquals(LocationUpdateSchedule.MAX_INTERVAL_MILLIS, schedule.getIntervalMillis());
+        assertEquals(MAX_DISTANCE, schedule.getMinDistanceMeters(), 0);
+    }
+
+    @Test
+    public void givenAStoreFarAwayWhenAScheduleIsComputedThenTheIntervalIsCappedAtTheMaximum() {
+        LocationUpdateSchedule schedule = LocationUpdateSchedule.forApproach(0, 50000, GEOFENCE_RADIUS, MIN_INTERVAL, MAX_DISTANCE);
+
+        assertEquals(LocationUpdateSchedule.MAX_INTERVAL_MILLIS, schedule.getIntervalMillis());
+        assertEquals(MAX_DISTANCE, schedule.getMinDistanceMeters(), 0);
+    }
+
+    @Test
+    public void givenAStoreAheadWhenAScheduleIsComputedThenItSamplesTwiceBeforeTheGeofence() {
+        //2km to the geofence edge at 20m/s is 100 seconds away
+        LocationUpdateSchedule schedule = LocationUpdateSchedule.forApproach(20, 2500, GEOFENCE_RADIUS, MIN_INTERVAL, MAX_DISTANCE);
+
+        assertEquals(50000, schedule.getIntervalMillis());
+        assertEquals(1000, schedule.getMinDistanceMeters(), 0);
+    }
+
+    @Test
+    public void givenTheUserIsStandingStillWhenAScheduleIsComputedThenWalkingSpeedIsAssumed() {
+        LocationUpdateSchedule standing = LocationUpdateSchedule.forApproach(0, 1200, GEOFENCE_RADIUS, MIN_INTERVAL, MAX_DISTANCE);
+        LocationUpdateSchedule walking = LocationUpdateSchedule.forApproach(LocationUpdateSchedule.WALKING_SPEED_METERS_PER_SECOND, 1200, GEOFENCE_RADIUS, MIN_INTERVAL, MAX_DISTANCE);
+
+        assertEquals(walking, standing);
+        assertEquals(250000, standing.getIntervalMillis());
+    }
+
+    @Test
+    public void givenTheUserIsInsideAGeofenceWhenAScheduleIsComputedThenTheFloorsAreUsed() {
+        LocationUpdateSchedule schedule = LocationUpdateSchedule.forApproach(10, 100, GEOFENCE_RADIUS, MIN_INTERVAL, MAX_DISTANCE);
+
+        assertEquals(MIN_INTERVAL, schedule.getIntervalMillis());
+        assertEquals(LocationUpdateSchedule.MIN_DISTANCE_METERS, schedule.getMinDistanceMeters(), 0);
+    }
+
+    @Test
+    public void givenAProviderFloorAboveTheMaximumWhenAScheduleIsComputedThenTheFloorWins() {
+        long floor = LocationUpdateSchedule.MAX_INTERVAL_MILLIS * 2;
+
+        assertEquals(floor, LocationUpdateSchedule.forApproach(0, 50000, GEOFENCE_RADIUS, floor, MAX_DISTANCE).getIntervalMillis());
+    }
+
+    @Test
+    public void givenSchedulesWithinTheRescheduleRatioWhenTheyAreComparedThenTheyDoNotDifferSignificantly() {
+        LocationUpdateSchedule schedule = new LocationUpdateSchedule(60000, 1000);
+
+        assertFalse(schedule.differsSignificantlyFrom(new LocationUpdateSchedule(90000, 1000)));
+        assertFalse(schedule.differsSignificantlyFrom(new LocationUpdateSchedule(40000, 1500)));
+        assertTrue(schedule.differsSignificantlyFrom(new LocationUpdateSchedule(90001, 1000)));
+        assertTrue(schedule.differsSignificantlyFrom(new LocationUpdateSchedule(60000, 500)));
+        assertTrue(schedule.differsSignificantlyFrom(new LocationUpdateSchedule(0, 1000)));
+    }
+}
@@ -0,0 +1,33 @@
+package com.groceryreminder.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class LogFormatTest {
+
+    @Test
+    public void givenAPatternWithoutPlaceholdersWhenItIsFormattedThenItIsUnchanged() {
+        assertEquals("Removing GPS", LogFormat.format("Removing GPS"));
+    }
+
+    @Test
+    public void givenAPatternWithPlaceholdersWhenItIsFormattedThenTheyAreFilledInOrder() {
+        assertEquals("Executed search: 20 places in 1 pages", LogFormat.format("Executed search: {} places in {} pages", 20, 1));
+    }
+
+    @Test
+    public void givenANullArgumentWhenItIsFormattedThenItIsWrittenAsNull() {
+        assertEquals("Best provider is: null", LogFormat.format("Best provider is: {}", (Object) null));
+    }
+
+    @Test
+    public void givenMorePlaceholdersThanArgumentsWhenItIsFormattedThenTheRestAreLeftAsIs() {
+        assertEquals("a 1, b {}", LogFormat.format("a {}, b {}", 1));
+    }
+
+    @Test
+    public void givenMoreArgumentsThanPlaceholdersWhenItIsFormattedThenTheRestAreIgnored() {
+        assertEquals("a 1", LogFormat.format("a {}", 1, 2));
+    }
+}
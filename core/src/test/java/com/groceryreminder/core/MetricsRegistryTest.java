@@ -0,0 +1,45 @@
+package com.groceryreminder.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class MetricsRegistryTest {
+
+    private MetricsRegistry registry;
+
+    @Before
+    public void setUp() {
+        registry = new MetricsRegistry();
+    }
+
+    @Test
+    public void givenANameWhenAMetricIsRequestedTwiceThenTheSameMetricIsReturned() {
+        assertSame(registry.counter("searches"), registry.counter("searches"));
+        assertSame(registry.histogram("search"), registry.histogram("search"));
+    }
+
+    @Test
+    public void givenMetricsWhenTheyAreSnapshottedThenTheyAreOrderedByName() {
+        registry.counter("b").incrementAndGet();
+        registry.counter("a").addAndGet(2);
+        registry.histogram("search").record(10);
+
+        assertEquals("[a, b]", registry.snapshotCounters().keySet().toString());
+        assertEquals(2, registry.snapshotCounters().get("a").longValue());
+        assertEquals(1, registry.snapshotHistograms().get("search").getCount());
+    }
+
+    @Test
+    public void givenMetricsWhenTheRegistryIsResetThenTheyAreZeroedButStillRegistered() {
+        registry.counter("searches").incrementAndGet();
+        registry.histogram("search").record(10);
+
+        registry.reset();
+
+        assertEquals(0, registry.counter("searches").get());
+        assertEquals(0, registry.snapshotHistograms().get("search").getCount());
+    }
+}
@@ -0,0 +1,32 @@
+package com.groceryreminder.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NotificationCooldownTest {
+
+    private static final long COOLDOWN_MILLIS = 100;
+    private static final long SAME_STORE_COOLDOWN_MILLIS = 1000;
+
+    private final NotificationCooldown cooldown = new NotificationCooldown(COOLDOWN_MILLIS, SAME_STORE_COOLDOWN_MILLIS);
+
+    @Test
+    public void givenNoPreviousNotificationsWhenAStoreIsCheckedThenItCanBeNotified() {
+        assertTrue(cooldown.canNotify(0, 0, SAME_STORE_COOLDOWN_MILLIS + 1));
+    }
+
+    @Test
+    public void givenARecentNotificationWhenAnotherStoreIsCheckedThenItCannotBeNotified() {
+        assertFalse(cooldown.canNotify(5000, 0, 5000 + COOLDOWN_MILLIS));
+        assertTrue(cooldown.canNotify(5000, 0, 5000 + COOLDOWN_MILLIS + 1));
+    }
+
+    @Test
+    public void givenTheStoreWasNotifiedRecentlyWhenItIsCheckedThenItIsCoolingDown() {
+        assertFalse(cooldown.canNotify(5000, 5000, 5000 + COOLDOWN_MILLIS + 1));
+        assertTrue(cooldown.isStoreCoolingDown(5000, 5000 + SAME_STORE_COOLDOWN_MILLIS));
+        assertFalse(cooldown.isStoreCoolingDown(5000, 5000 + SAME_STORE_COOLDOWN_MILLIS + 1));
+    }
+}
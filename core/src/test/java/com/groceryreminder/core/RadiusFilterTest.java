@@ -0,0 +1,43 @@
+package com.groceryreminder.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class RadiusFilterTest {
+
+    private static final double DEFAULT_LATITUDE = 39.9732997;
+    private static final double DEFAULT_LONGITUDE = -82.99788610000002;
+
+    private final RadiusFilter<double[]> filter = new RadiusFilter<double[]>() {
+        @Override
+        protected double getLatitude(double[] coordinates) {
+            return coordinates[0];
+        }
+
+        @Override
+        protected double getLongitude(double[] coordinates) {
+            return coordinates[1];
+        }
+    };
+
+    @Test
+    public void givenItemsInsideAndOutsideTheRadiusWhenTheyAreFilteredThenOnlyThoseInsideAreKeptInOrder() {
+        List<double[]> items = new ArrayList<double[]>();
+        double[] first = {DEFAULT_LATITUDE, DEFAULT_LONGITUDE};
+        double[] farAway = {DEFAULT_LATITUDE + 1, DEFAULT_LONGITUDE};
+        double[] second = {DEFAULT_LATITUDE + 0.001, DEFAULT_LONGITUDE};
+        items.add(first);
+        items.add(farAway);
+        items.add(second);
+
+        List<double[]> filteredItems = filter.filter(DEFAULT_LATITUDE, DEFAULT_LONGITUDE, items, 500);
+
+        assertEquals(2, filteredItems.size());
+        assertEquals(first, filteredItems.get(0));
+        assertEquals(second, filteredItems.get(1));
+    }
+}
@@ -0,0 +1,56 @@
+package com.groceryreminder.core;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class StableIdsTest {
+
+    @Test
+    public void givenTheSameKeyWhenItsIdIsTakenTwiceThenTheIdsMatch() {
+        assertEquals(StableIds.of("places_id"), StableIds.of("places_id"));
+    }
+
+    @Test
+    public void givenKeysWhoseHashCodesCollideWhenTheirIdsAreTakenThenTheyDiffer() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+
+        assertNotEquals(StableIds.of("Aa"), StableIds.of("BB"));
+    }
+
+    @Test
+    public void givenDistinctKeysWhenIdsAreAssignedThenEachKeepsItsOwnId() {
+        long[] ids = StableIds.assign(new String[] {"a", "b"});
+
+        assertEquals(StableIds.of("a"), ids[0]);
+        assertEquals(StableIds.of("b"), ids[1]);
+    }
+
+    @Test
+    public void givenRepeatedKeysWhenIdsAreAssignedThenTheRepeatsProbeToTheNextFreeId() {
+        long[] ids = StableIds.assign(new String[] {"a", "b", "a", "a"});
+
+        assertEquals(StableIds.of("a"), ids[0]);
+        assertEquals(StableIds.of("a") + 1, ids[2]);
+        assertEquals(StableIds.of("a") + 2, ids[3]);
+    }
+
+    @Test
+    public void givenManyRepeatedKeysWhenIdsAreAssignedThenEveryIdIsDistinct() {
+        String[] keys = new String[100];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "store " + (i % 7);
+        }
+
+        Set<Long> ids = new HashSet<Long>();
+        for (long id : StableIds.assign(keys)) {
+            ids.add(id);
+        }
+
+        assertEquals(keys.length, ids.size());
+    }
+}
@@ -0,0 +1,55 @@
+package com.groceryreminder.core;
+
+import com.groceryreminder.data.StoreEntry;
+import com.groceryreminder.data.StoreSnapshot;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StoreCooldownsTest {
+
+    private static final long COOLDOWN_MILLIS = 100;
+    private static final long SAME_STORE_COOLDOWN_MILLIS = 1000;
+    private static final double DEFAULT_LATITUDE = 39.9732997;
+    private static final double DEFAULT_LONGITUDE = -82.99788610000002;
+
+    private final StoreCooldowns cooldowns = new StoreCooldowns(new NotificationCooldown(COOLDOWN_MILLIS, SAME_STORE_COOLDOWN_MILLIS));
+
+    @Test
+    public void givenOneStoreWasNotifiedRecentlyWhenStoresAreClaimedThenOnlyTheOthersAreMovedToTheFront() {
+        List<StoreEntry> entries = new ArrayList<StoreEntry>();
+        entries.add(new StoreEntry(1, "a", "first", DEFAULT_LATITUDE, DEFAULT_LONGITUDE));
+        entries.add(new StoreEntry(2, null, "second", DEFAULT_LATITUDE + 0.001, DEFAULT_LONGITUDE));
+        StoreSnapshot snapshot = StoreSnapshot.build(entries);
+        long currentTime = SAME_STORE_COOLDOWN_MILLIS + 1;
+        cooldowns.recordNotification("a", currentTime);
+        int[] stores = {0, 1};
+
+        int claimedCount = cooldowns.claimNotifiableStores(snapshot, stores, stores.length, currentTime + COOLDOWN_MILLIS + 1);
+
+        assertEquals(1, claimedCount);
+        assertEquals(1, stores[0]);
+        assertEquals(currentTime + COOLDOWN_MILLIS + 1, cooldowns.getLastNotificationTime("second"));
+        assertTrue(cooldowns.isDirty());
+    }
+
+    @Test
+    public void givenAStorePastItsCooldownWhenTheCooldownsExpireThenItIsForgotten() {
+        cooldowns.recordNotification("a", 5000);
+        cooldowns.markSaved();
+
+        assertEquals(0, cooldowns.expire(5000 + SAME_STORE_COOLDOWN_MILLIS).size());
+        List<String> expiredStoreKeys = cooldowns.expire(5000 + SAME_STORE_COOLDOWN_MILLIS + 1);
+
+        assertEquals(1, expiredStoreKeys.size());
+        assertEquals("a", expiredStoreKeys.get(0));
+        assertEquals(0, cooldowns.getLastNotificationTime("a"));
+        assertFalse(cooldowns.isDirty());
+    }
+}
@@ -0,0 +1,60 @@
+package com.groceryreminder.data;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class StoreGridTest {
+
+    private static final double DEFAULT_LATITUDE = 39.9732997;
+    private static final double DEFAULT_LONGITUDE = -82.99788610000002;
+    private static final double SEARCH_RADIUS_METERS = 8046.72;
+
+    private List<StoreEntry> entries;
+
+    @Before
+    public void setUp() {
+        entries = new ArrayList<StoreEntry>();
+    }
+
+    @Test
+    public void givenStoresInsideAndOutsideTheRadiusWhenTheGridIsPartitionedThenEachStoreLandsOnItsSide() {
+        StoreEntry nearby = new StoreEntry(1, "a", "nearby", DEFAULT_LATITUDE, DEFAULT_LONGITUDE);
+        //Inside the bounding box but past the radius along the diagonal
+        StoreEntry corner = new StoreEntry(2, "b", "corner", DEFAULT_LATITUDE + 0.07, DEFAULT_LONGITUDE + 0.09);
+        StoreEntry farAway = new StoreEntry(3, "c", "far away", DEFAULT_LATITUDE + 1, DEFAULT_LONGITUDE);
+        entries.add(nearby);
+        entries.add(corner);
+        entries.add(farAway);
+        StoreGrid grid = StoreGrid.build(entries);
+        List<StoreEntry> within = new ArrayList<StoreEntry>();
+        List<StoreEntry> outside = new ArrayList<StoreEntry>();
+
+        grid.partitionByRadius(DEFAULT_LATITUDE, DEFAULT_LONGITUDE, SEARCH_RADIUS_METERS, within, outside);
+
+        assertEquals(1, within.size());
+        assertSame(nearby, within.get(0));
+        assertEquals(2, outside.size());
+        assertEquals(true, outside.contains(corner));
+        assertEquals(true, outside.contains(farAway));
+    }
+
+    @Test
+    public void givenAStoreWhenItIsRemovedThenItIsNoLongerFound() {
+        entries.add(new StoreEntry(1, "a", "store", DEFAULT_LATITUDE, DEFAULT_LONGITUDE));
+        StoreGrid grid = StoreGrid.build(entries);
+
+        assertEquals(1, grid.remove(1).getId());
+
+        assertNull(grid.remove(1));
+        assertNull(grid.getByPlacesId("a"));
+        assertEquals(0, grid.size());
+        assertEquals(0, grid.findWithinBounds(DEFAULT_LATITUDE, DEFAULT_LONGITUDE, SEARCH_RADIUS_METERS).size());
+    }
+}
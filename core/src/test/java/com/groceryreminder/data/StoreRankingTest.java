@@ -0,0 +1,107 @@
+package com.groceryreminder.data;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class StoreRankingTest {
+
+    private static final double DEFAULT_LATITUDE = 39.9732997;
+    private static final double DEFAULT_LONGITUDE = -82.99788610000002;
+    private static final double RADIUS_METERS = 10000;
+
+    private List<StoreEntry> entries;
+
+    @Before
+    public void setUp() {
+        entries = new ArrayList<StoreEntry>();
+    }
+
+    @Test
+    public void givenNoLocationWhenStoresAreRankedThenEveryStoreIsKeptWithoutADistance() {
+        entries.add(new StoreEntry(1, "a", "north", DEFAULT_LATITUDE + 1, DEFAULT_LONGITUDE));
+        entries.add(new StoreEntry(2, "b", "south", DEFAULT_LATITUDE - 1, DEFAULT_LONGITUDE));
+
+        StoreRanking ranking = StoreRanking.unranked(StoreSnapshot.build(entries));
+
+        assertEquals(2, ranking.size());
+        assertEquals("south", ranking.getName(0));
+        assertEquals(StoreRanking.UNKNOWN_DISTANCE, ranking.getDistance(0), 0);
+        assertEquals("north", ranking.getName(1));
+    }
+
+    @Test
+    public void givenStoresWhenTheyAreRankedByDistanceThenTheNearestComesFirst() {
+        entries.add(new StoreEntry(1, "far", "far", DEFAULT_LATITUDE - 0.05, DEFAULT_LONGITUDE));
+        entries.add(new StoreEntry(2, "near", "near", DEFAULT_LATITUDE + 0.01, DEFAULT_LONGITUDE));
+        entries.add(new StoreEntry(3, "middle", "middle", DEFAULT_LATITUDE, DEFAULT_LONGITUDE + 0.03));
+
+        StoreRanking ranking = StoreRanking.byDistance(StoreSnapshot.build(entries), DEFAULT_LATITUDE, DEFAULT_LONGITUDE, RADIUS_METERS);
+
+        assertEquals(3, ranking.size());
+        assertEquals("near", ranking.getPlacesId(0));
+        assertEquals(2, ranking.getId(0));
+        assertEquals("middle", ranking.getPlacesId(1));
+        assertEquals("far", ranking.getPlacesId(2));
+        assertEquals(DEFAULT_LATITUDE + 0.01, ranking.getLatitude(0), 0);
+        assertEquals(DEFAULT_LONGITUDE, ranking.getLongitude(0), 0);
+        assertEquals(1111, ranking.getDistance(0), 5);
+    }
+
+    @Test
+    public void givenAStoreOutsideTheRadiusWhenStoresAreRankedByDistanceThenItIsLeftOut() {
+        entries.add(new StoreEntry(1, "near", "near", DEFAULT_LATITUDE, DEFAULT_LONGITUDE));
+        entries.add(new StoreEntry(2, "far", "far", DEFAULT_LATITUDE + 1, DEFAULT_LONGITUDE));
+
+        StoreRanking ranking = StoreRanking.byDistance(StoreSnapshot.build(entries), DEFAULT_LATITUDE, DEFAULT_LONGITUDE, RADIUS_METERS);
+
+        assertEquals(1, ranking.size());
+        assertEquals("near", ranking.getName(0));
+        assertEquals(0, ranking.getDistance(0), 0);
+    }
+
+    @Test
+    public void givenMoreStoresThanTheLimitWhenTheNearestAreRankedThenOnlyTheNearestAreKeptInOrder() {
+        for (int i = 0; i < 10; i++) {
+            double offset = ((i * 7) % 10) * 0.001;
+            entries.add(new StoreEntry(i, "store" + i, "store" + i, DEFAULT_LATITUDE + offset, DEFAULT_LONGITUDE));
+        }
+
+        StoreRanking ranking = StoreRanking.nearest(StoreSnapshot.build(entries), DEFAULT_LATITUDE, DEFAULT_LONGITUDE, RADIUS_METERS, 3);
+
+        assertEquals(3, ranking.size());
+        assertEquals("store0", ranking.getName(0));
+        assertEquals("store3", ranking.getName(1));
+        assertEquals("store6", ranking.getName(2));
+    }
+
+    @Test
+    public void givenAStoreWhenItIsRankedAgainThenItKeepsItsStableId() {
+        entries.add(new StoreEntry(1, "a", "near", DEFAULT_LATITUDE + 0.01, DEFAULT_LONGITUDE));
+        entries.add(new StoreEntry(2, "b", "far", DEFAULT_LATITUDE - 0.05, DEFAULT_LONGITUDE));
+        StoreSnapshot snapshot = StoreSnapshot.build(entries);
+
+        StoreRanking ranked = StoreRanking.byDistance(snapshot, DEFAULT_LATITUDE, DEFAULT_LONGITUDE, RADIUS_METERS);
+        StoreRanking unranked = StoreRanking.unranked(snapshot);
+
+        assertEquals("a", ranked.getKey(0));
+        assertEquals(ranked.getStableId(0), unranked.getStableId(unranked.getKey(0).equals("a") ? 0 : 1));
+    }
+
+    @Test
+    public void givenStoresWithTheSameNameAndNoPlacesIdWhenTheyAreRankedThenTheirStableIdsDiffer() {
+        entries.add(new StoreEntry(1, null, "Kroger", DEFAULT_LATITUDE + 0.01, DEFAULT_LONGITUDE));
+        entries.add(new StoreEntry(2, null, "Kroger", DEFAULT_LATITUDE - 0.02, DEFAULT_LONGITUDE));
+
+        StoreRanking ranking = StoreRanking.byDistance(StoreSnapshot.build(entries), DEFAULT_LATITUDE, DEFAULT_LONGITUDE, RADIUS_METERS);
+
+        assertEquals("Kroger", ranking.getKey(0));
+        assertEquals("Kroger", ranking.getKey(1));
+        assertNotEquals(ranking.getStableId(0), ranking.getStableId(1));
+    }
+}
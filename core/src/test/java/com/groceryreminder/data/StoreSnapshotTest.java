@@ -0,0 +1,114 @@
+package com.groceryreminder.data;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class StoreSnapshotTest {
+
+    private static final double DEFAULT_LATITUDE = 39.9732997;
+    private static final double DEFAULT_LONGITUDE = -82.99788610000002;
+    private static final float GEOFENCE_RADIUS_METERS = 500f;
+
+    private List<StoreEntry> entries;
+
+    @Before
+    public void setUp() {
+        entries = new ArrayList<StoreEntry>();
+    }
+
+    @Test
+    public void givenNoStoresWhenASnapshotIsBuiltThenItIsEmpty() {
+        assertSame(StoreSnapshot.EMPTY, StoreSnapshot.build(entries));
+    }
+
+    @Test
+    public void givenStoresWhenASnapshotIsBuiltThenTheyAreOrderedByLatitude() {
+        entries.add(new StoreEntry(1, "a", "north", DEFAULT_LATITUDE + 1, DEFAULT_LONGITUDE));
+        entries.add(new StoreEntry(2, "b", "south", DEFAULT_LATITUDE - 1, DEFAULT_LONGITUDE));
+
+        StoreSnapshot snapshot = StoreSnapshot.build(entries);
+
+        assertEquals(2, snapshot.size());
+        assertEquals(2, snapshot.getId(0));
+        assertEquals("b", snapshot.getPlacesId(0));
+        assertEquals("south", snapshot.getName(0));
+        assertEquals(DEFAULT_LATITUDE - 1, snapshot.getLatitude(0), 0);
+        assertEquals(DEFAULT_LONGITUDE, snapshot.getLongitude(0), 0);
+        assertEquals(1, snapshot.getId(1));
+    }
+
+    @Test
+    public void givenARowIdPastTheIntRangeWhenASnapshotIsBuiltThenItIsKeptWhole() {
+        long rowId = Integer.MAX_VALUE + 2L;
+        entries.add(new StoreEntry(rowId, "a", "store", DEFAULT_LATITUDE, DEFAULT_LONGITUDE));
+
+        StoreSnapshot snapshot = StoreSnapshot.build(entries);
+
+        assertEquals(rowId, snapshot.getId(0));
+    }
+
+    @Test
+    public void givenStoresWithTheSameNameWhenASnapshotIsBuiltThenTheNameIsStoredOnce() {
+        entries.add(new StoreEntry(1, "a", "Kroger", DEFAULT_LATITUDE, DEFAULT_LONGITUDE));
+        entries.add(new StoreEntry(2, "b", new String("Kroger"), DEFAULT_LATITUDE + 1, DEFAULT_LONGITUDE));
+        entries.add(new StoreEntry(3, "c", "Giant Eagle", DEFAULT_LATITUDE + 2, DEFAULT_LONGITUDE));
+
+        StoreSnapshot snapshot = StoreSnapshot.build(entries);
+
+        assertEquals(2, snapshot.getDistinctNameCount());
+        assertSame(snapshot.getName(0), snapshot.getName(1));
+    }
+
+    @Test
+    public void givenStoresInsideAndOutsideTheGeofenceWhenNearbyStoresAreRequestedThenOnlyTheNearbyStoreMatches() {
+        entries.add(new StoreEntry(1, "a", "near", DEFAULT_LATITUDE + 0.001, DEFAULT_LONGITUDE));
+        entries.add(new StoreEntry(2, "b", "same band", DEFAULT_LATITUDE, DEFAULT_LONGITUDE + 0.05));
+        entries.add(new StoreEntry(3, "c", "far", DEFAULT_LATITUDE + 1, DEFAULT_LONGITUDE));
+        StoreSnapshot snapshot = StoreSnapshot.build(entries);
+        int[] matches = new int[snapshot.size()];
+
+        int matchCount = snapshot.findWithinRadius(DEFAULT_LATITUDE, DEFAULT_LONGITUDE, GEOFENCE_RADIUS_METERS, matches);
+
+        assertEquals(1, matchCount);
+        assertEquals(1, snapshot.getId(matches[0]));
+    }
+
+    @Test
+    public void givenAStoreAtTheEdgeOfTheRadiusOnTheEquatorWhenNearbyStoresAreRequestedThenItMatches() {
+        //A degree of latitude is shortest on the equator, so the latitude band must still reach the store
+        double radius = GEOFENCE_RADIUS_METERS;
+        entries.add(new StoreEntry(1, "a", "edge", (radius - 1) / 110574.0, 0));
+        StoreSnapshot snapshot = StoreSnapshot.build(entries);
+        int[] matches = new int[snapshot.size()];
+
+        assertEquals(1, snapshot.findWithinRadius(0, 0, radius, matches));
+    }
+
+    @Test
+    public void givenAStoreWhenItsDistanceIsRequestedThenItIsMeasuredFromTheOrigin() {
+        entries.add(new StoreEntry(1, "a", "store", 0, 1));
+        StoreSnapshot snapshot = StoreSnapshot.build(entries);
+
+        assertEquals(111319.49, snapshot.distanceFrom(0, 0, 0), 0.1);
+    }
+
+    @Test
+    public void givenNoStoresWhenTheNearestDistanceIsRequestedThenItIsInfinite() {
+        assertEquals(Double.POSITIVE_INFINITY, StoreSnapshot.EMPTY.distanceToNearest(DEFAULT_LATITUDE, DEFAULT_LONGITUDE), 0);
+    }
+
+    @Test
+    public void givenStoresWhenTheNearestDistanceIsRequestedThenTheClosestStoreIsMeasured() {
+        entries.add(new StoreEntry(1, "a", "far", 0, 2));
+        entries.add(new StoreEntry(2, "b", "near", 0, 1));
+        StoreSnapshot snapshot = StoreSnapshot.build(entries);
+
+        assertEquals(111319.49, snapshot.distanceToNearest(0, 0), 0.1);
+    }
+}